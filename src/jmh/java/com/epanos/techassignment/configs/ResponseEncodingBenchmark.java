@@ -0,0 +1,137 @@
+package com.epanos.techassignment.configs;
+
+import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.models.enums.Sport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding a page of 1000 matches with their odds as JSON versus CBOR, the body of
+ * {@code GET /api/matches?size=1000&includeOdds=true}. Payload sizes, raw and gzipped, are printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    private static final int MATCHES = 1000;
+
+    @Param({"0", "10", "50"})
+    private int oddsPerMatch;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+    private final SmileMapper smileMapper = SmileMapper.builder().build();
+
+    private PagedModel<MatchResponse> page;
+    private byte[] json;
+    private byte[] cbor;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() {
+        List<MatchResponse> matches = new ArrayList<>(MATCHES);
+        long oddId = 1;
+        for (int m = 0; m < MATCHES; m++) {
+            List<MatchOddsResponse> odds = new ArrayList<>(oddsPerMatch);
+            for (int o = 0; o < oddsPerMatch; o++) {
+                odds.add(MatchOddsResponse.builder()
+                        .id(oddId++)
+                        .matchId((long) m)
+                        .specifier("O" + o + ".5")
+                        .odd(1010 + (m * 31 + o * 17) % 8990)
+                        .build());
+            }
+            matches.add(MatchResponse.builder()
+                    .id((long) m)
+                    .description("OSFP-PAO " + m)
+                    .matchDate(LocalDate.of(2024, 3, 31).plusDays(m % 90))
+                    .matchTime(LocalTime.of(18, 0))
+                    .teamA("OSFP")
+                    .teamB("PAO")
+                    .sport(Sport.FOOTBALL)
+                    .odds(oddsPerMatch == 0 ? null : odds)
+                    .build());
+        }
+        page = new PagedModel<>(new PageImpl<>(matches, PageRequest.of(0, MATCHES), 100_000));
+        json = jsonMapper.writeValueAsBytes(page);
+        cbor = cborMapper.writeValueAsBytes(page);
+        smile = smileMapper.writeValueAsBytes(page);
+        System.out.printf("%n%d odds per match: JSON %d B (gzip %d B), CBOR %d B (gzip %d B), Smile %d B (gzip %d B)%n",
+                oddsPerMatch, json.length, gzipped(json), cbor.length, gzipped(cbor), smile.length, gzipped(smile));
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() {
+        return cborMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() {
+        return smileMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Object decodeJson() {
+        return decode(jsonMapper, json);
+    }
+
+    @Benchmark
+    public Object decodeCbor() {
+        return decode(cborMapper, cbor);
+    }
+
+    @Benchmark
+    public Object decodeSmile() {
+        return decode(smileMapper, smile);
+    }
+
+    private static Object decode(ObjectMapper mapper, byte[] body) {
+        return mapper.readTree(body);
+    }
+
+    private static int gzipped(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,129 @@
+package com.epanos.techassignment.models.dto;
+
+import com.epanos.techassignment.models.odds.JsonOdd;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing 10 000-element bulk bodies ({@code POST /api/matches/bulk} with 3 odds per match, and
+ * {@code POST /api/matches/{id}/odds/bulk}) with the streaming request deserializers versus reflective
+ * bean binding. The reflective side uses local copies of the DTOs and of {@code Sport} as they were before
+ * the change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkRequestParsingBenchmark {
+
+    private static final int ELEMENTS = 10_000;
+
+    public enum ReflectiveSport {
+        FOOTBALL(1),
+        BASKETBALL(2);
+
+        private final int code;
+
+        ReflectiveSport(int code) {
+            this.code = code;
+        }
+
+        @JsonValue
+        public int getCode() {
+            return code;
+        }
+
+        @JsonCreator
+        public static ReflectiveSport fromCode(int code) {
+            return Arrays.stream(values()).filter(s -> s.code == code).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid sport value: " + code));
+        }
+    }
+
+    public static class ReflectiveOddsRequest {
+        public String specifier;
+        @JsonOdd
+        public int odd;
+    }
+
+    public static class ReflectiveMatchRequest {
+        public String description;
+        public LocalDate matchDate;
+        public LocalTime matchTime;
+        public String teamA;
+        public String teamB;
+        public ReflectiveSport sport;
+        public List<ReflectiveOddsRequest> odds;
+    }
+
+    private static final TypeReference<List<MatchRequest>> MATCHES = new TypeReference<>() {};
+    private static final TypeReference<List<ReflectiveMatchRequest>> REFLECTIVE_MATCHES = new TypeReference<>() {};
+    private static final TypeReference<List<MatchOddsRequest>> ODDS = new TypeReference<>() {};
+    private static final TypeReference<List<ReflectiveOddsRequest>> REFLECTIVE_ODDS = new TypeReference<>() {};
+
+    private final JsonMapper mapper = JsonMapper.builder().enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS).build();
+
+    private byte[] matchesBody;
+    private byte[] oddsBody;
+
+    @Setup
+    public void setUp() {
+        StringBuilder matches = new StringBuilder("[");
+        StringBuilder odds = new StringBuilder("[");
+        for (int i = 0; i < ELEMENTS; i++) {
+            if (i > 0) {
+                matches.append(',');
+                odds.append(',');
+            }
+            matches.append("{\"description\":\"Match ").append(i)
+                    .append("\",\"matchDate\":\"2024-03-31\",\"matchTime\":\"18:00\",\"teamA\":\"OSFP\",\"teamB\":\"PAO\",\"sport\":")
+                    .append(i % 2 + 1)
+                    .append(",\"odds\":[{\"specifier\":\"1\",\"odd\":1.85},{\"specifier\":\"X\",\"odd\":3.2},{\"specifier\":\" 2 \",\"odd\":4.75}]}");
+            odds.append("{\"specifier\":\"S").append(i).append("\",\"odd\":").append(1 + i % 900).append(".5}");
+        }
+        matchesBody = matches.append(']').toString().getBytes(StandardCharsets.UTF_8);
+        oddsBody = odds.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<MatchRequest> matchesStreaming() {
+        return mapper.readValue(matchesBody, MATCHES);
+    }
+
+    @Benchmark
+    public List<ReflectiveMatchRequest> matchesReflective() {
+        return mapper.readValue(matchesBody, REFLECTIVE_MATCHES);
+    }
+
+    @Benchmark
+    public List<MatchOddsRequest> oddsStreaming() {
+        return mapper.readValue(oddsBody, ODDS);
+    }
+
+    @Benchmark
+    public List<ReflectiveOddsRequest> oddsReflective() {
+        return mapper.readValue(oddsBody, REFLECTIVE_ODDS);
+    }
+}
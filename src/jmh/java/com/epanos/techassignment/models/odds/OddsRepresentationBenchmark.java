@@ -0,0 +1,109 @@
+package com.epanos.techassignment.models.odds;
+
+import com.epanos.techassignment.models.dto.MatchOddsRequest;
+import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Odds as {@link BigDecimal} versus {@code int} thousandths on the hot paths: reading a request body,
+ * comparing a tick with the stored odd, and writing a page of 100 odds.
+ * <p>
+ * The {@code BigDecimal} side uses local copies of the DTOs as they were before the switch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OddsRepresentationBenchmark {
+
+    private static final String REQUEST = "{\"specifier\":\"X\",\"odd\":1.85}";
+
+    public static class DecimalRequest {
+        public String specifier;
+        public BigDecimal odd;
+    }
+
+    public record DecimalResponse(Long id, Long matchId, String specifier, BigDecimal odd) {
+    }
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    private List<MatchOddsResponse> thousandthsPage;
+    private List<DecimalResponse> decimalPage;
+    private int[] thousandths;
+    private BigDecimal[] decimals;
+
+    @Setup
+    public void setUp() {
+        thousandthsPage = new ArrayList<>();
+        decimalPage = new ArrayList<>();
+        thousandths = new int[100];
+        decimals = new BigDecimal[100];
+        for (int i = 0; i < 100; i++) {
+            int odd = 1010 + i * 37;
+            thousandths[i] = odd;
+            decimals[i] = Thousandths.toBigDecimal(odd);
+            thousandthsPage.add(MatchOddsResponse.builder().id((long) i).matchId(1L).specifier("S" + i).odd(odd).build());
+            decimalPage.add(new DecimalResponse((long) i, 1L, "S" + i, Thousandths.toBigDecimal(odd)));
+        }
+    }
+
+    @Benchmark
+    public MatchOddsRequest readThousandths() {
+        return mapper.readValue(REQUEST, MatchOddsRequest.class);
+    }
+
+    @Benchmark
+    public DecimalRequest readDecimal() {
+        return mapper.readValue(REQUEST, DecimalRequest.class);
+    }
+
+    @Benchmark
+    public int compareThousandths() {
+        int changed = 0;
+        for (int i = 1; i < thousandths.length; i++) {
+            if (thousandths[i] != thousandths[i - 1]) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public int compareDecimal() {
+        int changed = 0;
+        for (int i = 1; i < decimals.length; i++) {
+            if (decimals[i].compareTo(decimals[i - 1]) != 0) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    @Benchmark
+    public byte[] writeThousandths() {
+        return mapper.writeValueAsBytes(thousandthsPage);
+    }
+
+    @Benchmark
+    public byte[] writeDecimal() {
+        return mapper.writeValueAsBytes(decimalPage);
+    }
+}
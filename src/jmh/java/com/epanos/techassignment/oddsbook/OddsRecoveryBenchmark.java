@@ -0,0 +1,219 @@
+package com.epanos.techassignment.oddsbook;
+
+import com.epanos.techassignment.models.odds.Thousandths;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to rebuild the full odds book on startup: from the local journal (a snapshot covering 90% of the
+ * matches plus a journal tail with the rest and some price changes) versus one streaming query over all
+ * odds in PostgreSQL.
+ * <p>
+ * The database side reads a temporary copy of {@code match_odds} through plain JDBC, so it measures the
+ * query and transfer alone, without Hibernate. Connection settings come from {@code DB_URL},
+ * {@code DB_USER} and {@code DB_PASS}, as for the application.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OddsRecoveryBenchmark {
+
+    private static final String[] SPECIFIERS = {"1", "X", "2", "1X", "X2", "12", "O2.5", "U2.5", "GG", "NG"};
+
+    @Param({"10000", "100000"})
+    private int matches;
+
+    @Param("10")
+    private int oddsPerMatch;
+
+    private Connection connection;
+    private Path pristine;
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        connection = DriverManager.getConnection(
+                env("DB_URL", "jdbc:postgresql://localhost:5433/app"), env("DB_USER", "app"), env("DB_PASS", "app"));
+        try (Statement st = connection.createStatement()) {
+            st.execute("create temp table bench_match_odds (id bigint primary key, match_id bigint not null, "
+                    + "specifier varchar(16) not null, odd numeric(6,3) not null)");
+        }
+        try (PreparedStatement ps = connection.prepareStatement(
+                "insert into bench_match_odds select g, g / ?, (?::text[])[g % ? + 1], round(1.01 + (g % 5000) / 100.0, 3) "
+                        + "from generate_series(0, ? - 1) g")) {
+            ps.setInt(1, oddsPerMatch);
+            ps.setArray(2, connection.createArrayOf("text", SPECIFIERS));
+            ps.setInt(3, oddsPerMatch);
+            ps.setLong(4, (long) matches * oddsPerMatch);
+            ps.executeUpdate();
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("create index on bench_match_odds (match_id)");
+            st.execute("analyze bench_match_odds");
+        }
+        connection.setAutoCommit(false);
+
+        pristine = Files.createTempDirectory("odds-journal-bench");
+        Files.writeString(pristine.resolve("boot_id"), "bench");
+        SpecifierDictionary dictionary = new SpecifierDictionary();
+        Map<Long, MatchOddsEntry> book = new HashMap<>();
+        OddsJournal journal = journal(pristine, dictionary);
+        journal.recover();
+        journal.start(book::values);
+        Map<Long, MatchOddsEntry> all = loadFromDatabase(dictionary);
+        int snapshotted = matches * 9 / 10;
+        all.values().stream().sorted(Comparator.comparingLong(MatchOddsEntry::matchId)).forEach(entry -> {
+            OddsMutation loaded = new OddsMutation.Loaded(entry);
+            journal.record(() -> {
+                loaded.applyTo(book);
+                return loaded;
+            });
+            if (entry.matchId() == snapshotted) {
+                try {
+                    journal.snapshot();
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        });
+        for (long m = 0; m < matches; m += 10) {
+            OddsMutation changed = new OddsMutation.Changed(m, dictionary.code(SPECIFIERS[0]), 2500);
+            journal.record(() -> {
+                changed.applyTo(book);
+                return changed;
+            });
+        }
+        // left open, as after a crash: recovery reads the snapshot and replays the tail
+    }
+
+    @Setup(Level.Invocation)
+    public void copyJournal() throws IOException {
+        // recovery opens a new segment, so every invocation starts from an untouched copy
+        dir = Files.createTempDirectory("odds-journal-run");
+        try (Stream<Path> files = Files.walk(pristine)) {
+            for (Path f : files.toList()) {
+                Path target = dir.resolve(pristine.relativize(f).toString());
+                if (Files.isDirectory(f)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(f, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteJournal() throws IOException {
+        delete(dir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        connection.close();
+        delete(pristine);
+    }
+
+    @Benchmark
+    public Map<Long, MatchOddsEntry> journalRecovery() throws IOException {
+        return journal(dir, new SpecifierDictionary()).recover();
+    }
+
+    @Benchmark
+    public Map<Long, MatchOddsEntry> databaseReload() throws SQLException {
+        return loadFromDatabase(new SpecifierDictionary());
+    }
+
+    private Map<Long, MatchOddsEntry> loadFromDatabase(SpecifierDictionary dictionary) throws SQLException {
+        Map<Long, MatchOddsEntry> entries = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(
+                "select match_id, id, specifier, odd from bench_match_odds order by match_id, id")) {
+            ps.setFetchSize(10_000);
+            try (ResultSet rs = ps.executeQuery()) {
+                long matchId = -1;
+                int n = 0;
+                long[] ids = new long[16];
+                int[] codes = new int[16];
+                int[] odds = new int[16];
+                while (rs.next()) {
+                    long m = rs.getLong(1);
+                    if (m != matchId) {
+                        if (n > 0) {
+                            entries.put(matchId, entry(matchId, n, ids, codes, odds, dictionary));
+                        }
+                        matchId = m;
+                        n = 0;
+                    }
+                    if (n == ids.length) {
+                        ids = Arrays.copyOf(ids, n * 2);
+                        codes = Arrays.copyOf(codes, n * 2);
+                        odds = Arrays.copyOf(odds, n * 2);
+                    }
+                    ids[n] = rs.getLong(2);
+                    codes[n] = dictionary.code(rs.getString(3));
+                    odds[n] = Thousandths.of(rs.getBigDecimal(4));
+                    n++;
+                }
+                if (n > 0) {
+                    entries.put(matchId, entry(matchId, n, ids, codes, odds, dictionary));
+                }
+            }
+        }
+        connection.commit();
+        return entries;
+    }
+
+    private static MatchOddsEntry entry(long matchId, int n, long[] ids, int[] codes, int[] odds, SpecifierDictionary dictionary) {
+        return new MatchOddsEntry(matchId, Arrays.copyOf(ids, n), Arrays.copyOf(codes, n), Arrays.copyOf(odds, n), System.currentTimeMillis(), dictionary);
+    }
+
+    private static OddsJournal journal(Path dir, SpecifierDictionary dictionary) {
+        return new OddsJournal(dir.resolve("journal"), dir.resolve("boot_id"), 16 << 20, Duration.ofHours(1), dictionary);
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path f : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(f);
+            }
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
@@ -0,0 +1,175 @@
+package com.epanos.techassignment.repositories;
+
+import com.epanos.techassignment.models.entities.Match;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.enums.Sport;
+import com.epanos.techassignment.models.odds.Thousandths;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a page of 20 matches with their odds through the {@code match_odds} join versus from the
+ * {@code odds_document} column, both mapped to detached {@link Match} entities with their odds. The tables
+ * are temporary copies with the same rows; their sizes are printed during setup. Connection settings come
+ * from {@code DB_URL}, {@code DB_USER} and {@code DB_PASS}, as for the application.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OddsDocumentReadBenchmark {
+
+    private static final int MATCHES = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"16", "200"})
+    private int oddsPerMatch;
+
+    private Connection connection;
+    private SpecifierDictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("DB_URL", "jdbc:postgresql://localhost:5433/app"), env("DB_USER", "app"), env("DB_PASS", "app"));
+        try (Statement st = connection.createStatement()) {
+            st.execute("create temp table bench_matches (id bigint primary key, description varchar(255), "
+                    + "match_date date, match_time time, team_a varchar(255), team_b varchar(255), "
+                    + "sport varchar(255), odds_document jsonb)");
+            st.execute("create temp table bench_odds (id bigint primary key, match_id bigint not null, "
+                    + "specifier_id smallint not null, odd numeric(6,3) not null, unique (match_id, specifier_id))");
+            st.execute("insert into bench_matches select g, 'Match ' || g, date '2024-03-31', time '18:00', "
+                    + "'OSFP', 'PAO', 'FOOTBALL' from generate_series(0, " + (MATCHES - 1) + ") g");
+            st.execute("insert into bench_odds select g, g / " + oddsPerMatch + ", g % " + oddsPerMatch + ", 1 + (g % 997) / 100.0 "
+                    + "from generate_series(0, " + ((long) MATCHES * oddsPerMatch - 1) + ") g");
+            st.execute("create index on bench_odds (match_id)");
+            st.execute("""
+                    update bench_matches m set odds_document = coalesce((
+                        select jsonb_object_agg(o.specifier_id, jsonb_build_array(o.id, (o.odd * 1000)::int))
+                        from bench_odds o where o.match_id = m.id), '{}')""");
+            st.execute("vacuum analyze bench_matches");
+            st.execute("vacuum analyze bench_odds");
+            try (ResultSet rs = st.executeQuery("select c.relname, pg_size_pretty(pg_total_relation_size(c.oid)) "
+                    + "from pg_class c where c.relname in ('bench_matches', 'bench_odds') order by 1")) {
+                while (rs.next()) {
+                    System.out.println(rs.getString(1) + ": " + rs.getString(2));
+                }
+            }
+        }
+
+        dictionary = new SpecifierDictionary();
+        for (int i = 0; i < oddsPerMatch; i++) {
+            dictionary.code("S" + i);
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Match> readJoin() throws SQLException {
+        Map<Long, Match> matches = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement("""
+                select m.id, m.description, m.match_date, m.match_time, m.team_a, m.team_b, m.sport,
+                       o.id, o.specifier_id, o.odd
+                from bench_matches m left join bench_odds o on o.match_id = m.id
+                where m.id = any(?)""")) {
+            ps.setArray(1, page());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Match match = matches.computeIfAbsent(rs.getLong(1), id -> readMatch(rs));
+                    long oddId = rs.getLong(8);
+                    if (!rs.wasNull()) {
+                        match.getOdds().add(MatchOdds.builder()
+                                .id(oddId)
+                                .match(match)
+                                .specifier(dictionary.name(rs.getShort(9)))
+                                .odd(Thousandths.of(rs.getBigDecimal(10)))
+                                .build());
+                    }
+                }
+            }
+        }
+        connection.commit();
+        return new ArrayList<>(matches.values());
+    }
+
+    @Benchmark
+    public List<Match> readDocument() throws SQLException {
+        List<Match> matches = new ArrayList<>(PAGE_SIZE);
+        try (PreparedStatement ps = connection.prepareStatement("""
+                select id, description, match_date, match_time, team_a, team_b, sport, odds_document
+                from bench_matches where id = any(?)""")) {
+            ps.setArray(1, page());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    matches.add(MatchRepositoryImpl.readMatch(rs, rs.getString(8), dictionary));
+                }
+            }
+        }
+        connection.commit();
+        return matches;
+    }
+
+    private Array page() throws SQLException {
+        Long[] ids = new Long[PAGE_SIZE];
+        long first = ThreadLocalRandom.current().nextLong(MATCHES - PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ids[i] = first + i;
+        }
+        return connection.createArrayOf("bigint", ids);
+    }
+
+    private static Match readMatch(ResultSet rs) {
+        try {
+            return Match.builder()
+                    .id(rs.getLong(1))
+                    .description(rs.getString(2))
+                    .matchDate(rs.getObject(3, LocalDate.class))
+                    .matchTime(rs.getObject(4, LocalTime.class))
+                    .teamA(rs.getString(5))
+                    .teamB(rs.getString(6))
+                    .sport(Sport.valueOf(rs.getString(7)))
+                    .build();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
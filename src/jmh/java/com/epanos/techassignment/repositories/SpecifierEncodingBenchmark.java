@@ -0,0 +1,133 @@
+package com.epanos.techassignment.repositories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading every odd of {@code matches} matches with the specifier stored as {@code varchar(16)} versus a
+ * {@code smallint} dictionary id, each resolved to its dictionary code as the odds book does. Both tables
+ * are temporary copies with the same rows; the table and unique-index sizes are printed during setup.
+ * Connection settings come from {@code DB_URL}, {@code DB_USER} and {@code DB_PASS}, as for the application.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecifierEncodingBenchmark {
+
+    @Param({"100000"})
+    private int matches;
+
+    @Param({"O2.5", "HANDICAP-00.5"})
+    private String specifierPattern;
+
+    private static final int ODDS_PER_MATCH = 16;
+
+    private Connection connection;
+    private SpecifierDictionary dictionary;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("DB_URL", "jdbc:postgresql://localhost:5433/app"), env("DB_USER", "app"), env("DB_PASS", "app"));
+        // specifiers of the same length as the pattern: 16 distinct names per match
+        String name = "overlay(? placing lpad((g % 16)::text, 2, '0') from 1 for 2)";
+        try (Statement st = connection.createStatement()) {
+            st.execute("create temp table bench_spec (id smallint primary key, name varchar(16) not null unique)");
+            st.execute("create temp table bench_varchar (id bigint primary key, match_id bigint not null, "
+                    + "specifier varchar(16) not null, odd numeric(6,3) not null, unique (match_id, specifier))");
+            st.execute("create temp table bench_smallint (id bigint primary key, match_id bigint not null, "
+                    + "specifier_id smallint not null, odd numeric(6,3) not null, unique (match_id, specifier_id))");
+        }
+        long rows = (long) matches * ODDS_PER_MATCH;
+        insert("insert into bench_spec select g + 1, " + name + " from generate_series(0, 15) g", specifierPattern);
+        insert("insert into bench_varchar select g, g / 16, " + name + ", 1.5 from generate_series(0, ? - 1) g", specifierPattern, rows);
+        insert("insert into bench_smallint select g, g / 16, g % 16 + 1, 1.5 from generate_series(0, ? - 1) g", rows);
+        try (Statement st = connection.createStatement()) {
+            st.execute("analyze bench_varchar");
+            st.execute("analyze bench_smallint");
+            try (ResultSet rs = st.executeQuery("select c.relname, pg_size_pretty(pg_relation_size(c.oid)) from pg_class c "
+                    + "where c.relname like 'bench_varchar%' or c.relname like 'bench_smallint%' order by 1")) {
+                while (rs.next()) {
+                    System.out.println(rs.getString(1) + ": " + rs.getString(2));
+                }
+            }
+        }
+
+        dictionary = new SpecifierDictionary();
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("select name from bench_spec order by id")) {
+            while (rs.next()) {
+                dictionary.code(rs.getString(1));
+            }
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void loadVarchar(Blackhole bh) throws SQLException {
+        load("select match_id, id, specifier, odd from bench_varchar order by match_id, id", false, bh);
+    }
+
+    @Benchmark
+    public void loadSmallint(Blackhole bh) throws SQLException {
+        load("select match_id, id, specifier_id, odd from bench_smallint order by match_id, id", true, bh);
+    }
+
+    private void load(String sql, boolean encoded, Blackhole bh) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setFetchSize(10_000);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    bh.consume(rs.getLong(1));
+                    bh.consume(rs.getLong(2));
+                    // dictionary ids start at 1 here, local codes at 0
+                    bh.consume(encoded ? rs.getShort(3) - 1 : dictionary.code(rs.getString(3)));
+                    bh.consume(rs.getBigDecimal(4));
+                }
+            }
+        }
+        connection.commit();
+    }
+
+    private void insert(String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
@@ -0,0 +1,107 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.TechAssignmentApplication;
+import com.epanos.techassignment.models.dto.MatchOddsRequest;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.models.dto.PartitionedBulkResponse;
+import com.epanos.techassignment.models.enums.Sport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches created per second by {@link PartitionedBulkInserter}, by partition count, through the running
+ * application's services, transactions and connection pool; one partition is the plain
+ * {@link MatchService#createBulk} path. Every invocation creates {@value #MATCHES} new fixtures with 3 odds
+ * each, deleted again at the end of the trial. Connection settings come from {@code DB_URL},
+ * {@code DB_USER} and {@code DB_PASS}, as for the application.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(PartitionedBulkInsertBenchmark.MATCHES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PartitionedBulkInsertBenchmark {
+
+    static final int MATCHES = 2_000;
+    private static final String PREFIX = "BENCH-";
+
+    @Param({"1", "2", "4", "8"})
+    private int partitions;
+
+    private ConfigurableApplicationContext context;
+    private PartitionedBulkInserter inserter;
+    private List<MatchRequest> payload;
+    private long batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TechAssignmentApplication.class).run(
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--app.bulk-insert.max-partitions=8",
+                "--spring.datasource.hikari.maximum-pool-size=12");
+        inserter = context.getBean(PartitionedBulkInserter.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void newPayload() {
+        String teamA = PREFIX + System.nanoTime() + "-" + batch++;
+        payload = new ArrayList<>(MATCHES);
+        for (int i = 0; i < MATCHES; i++) {
+            MatchRequest req = new MatchRequest();
+            req.setDescription(teamA + " v " + i);
+            req.setMatchDate(LocalDate.of(2024, 3, 31));
+            req.setMatchTime(LocalTime.of(18, 0));
+            req.setTeamA(teamA);
+            req.setTeamB("T" + i);
+            req.setSport(Sport.FOOTBALL);
+            req.setOdds(List.of(odd("1", 1850), odd("X", 3400), odd("2", 4100)));
+            payload.add(req);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(JdbcTemplate.class).update("delete from matches where team_a like ?", PREFIX + "%");
+        context.close();
+    }
+
+    @Benchmark
+    public PartitionedBulkResponse createMatches() {
+        PartitionedBulkResponse response = inserter.createMatches(payload, partitions);
+        if (response.getFailed() > 0) {
+            throw new IllegalStateException(response.getFailed() + " matches failed: " + response.getPartitions());
+        }
+        return response;
+    }
+
+    private static MatchOddsRequest odd(String specifier, int thousandths) {
+        MatchOddsRequest odd = new MatchOddsRequest();
+        odd.setSpecifier(specifier);
+        odd.setOdd(thousandths);
+        return odd;
+    }
+}
@@ -1,7 +1,9 @@
 package com.epanos.techassignment;
 
+import com.epanos.techassignment.services.MatchLoadRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.data.web.config.EnableSpringDataWebSupport;
 
 @SpringBootApplication
@@ -9,6 +11,10 @@ import org.springframework.data.web.config.EnableSpringDataWebSupport;
 public class TechAssignmentApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(TechAssignmentApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(TechAssignmentApplication.class, args);
+        // a command-line load is done once the application has started; exit with its result
+        if (context.getBeanNamesForType(MatchLoadRunner.class).length > 0) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.epanos.techassignment.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.MapperFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Serves CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) to clients that
+ * ask for them in {@code Accept}, and reads request bodies in either format. JSON stays the default.
+ * <p>
+ * CBOR uses the {@link CBORMapper} configured from {@code spring.jackson.*}. Spring Boot does not configure
+ * a Smile mapper, so the one setting from there that affects request binding is applied to it here.
+ */
+@Configuration(proxyBeanMethods = false)
+public class BinaryContentConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final CBORMapper cborMapper;
+
+    public BinaryContentConfig(CBORMapper cborMapper) {
+        this.cborMapper = cborMapper;
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(SmileMapper.builder()
+                        .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+                        .build()));
+    }
+}
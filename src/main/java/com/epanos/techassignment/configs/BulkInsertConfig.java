@@ -0,0 +1,17 @@
+package com.epanos.techassignment.configs;
+
+import com.epanos.techassignment.services.MatchService;
+import com.epanos.techassignment.services.PartitionedBulkInserter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(BulkInsertProperties.class)
+public class BulkInsertConfig {
+
+    @Bean(destroyMethod = "stop")
+    public PartitionedBulkInserter partitionedBulkInserter(MatchService matchService, BulkInsertProperties properties) {
+        return new PartitionedBulkInserter(matchService, properties.maxPartitions());
+    }
+}
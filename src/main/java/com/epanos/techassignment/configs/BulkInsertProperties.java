@@ -0,0 +1,17 @@
+package com.epanos.techassignment.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Partitioned bulk inserts, see {@code PartitionedBulkInserter}.
+ *
+ * @param maxPartitions the partitions written at the same time across all requests, each holding a pooled
+ *                      connection; larger requested partition counts are clamped to this
+ */
+@ConfigurationProperties("app.bulk-insert")
+public record BulkInsertProperties(int maxPartitions) {
+
+    public BulkInsertProperties {
+        maxPartitions = maxPartitions <= 0 ? 4 : maxPartitions;
+    }
+}
@@ -0,0 +1,22 @@
+package com.epanos.techassignment.configs;
+
+import com.epanos.techassignment.repositories.MatchRepository;
+import com.epanos.techassignment.services.BulkJobService;
+import com.epanos.techassignment.services.MatchOddsService;
+import com.epanos.techassignment.services.MatchService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(BulkJobProperties.class)
+public class BulkJobConfig {
+
+    @Bean(destroyMethod = "stop")
+    public BulkJobService bulkJobService(MatchService matchService, MatchOddsService matchOddsService,
+                                         MatchRepository matchRepository, BulkJobProperties properties) {
+        return new BulkJobService(matchService, matchOddsService, matchRepository, properties, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,24 @@
+package com.epanos.techassignment.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Asynchronous bulk jobs, see {@code BulkJobService}.
+ *
+ * @param workers       the jobs processed at the same time
+ * @param queueCapacity the accepted jobs that may wait for a worker; further submissions get 503
+ * @param chunkSize     the items written per transaction
+ * @param retention     how long a finished job can still be polled
+ */
+@ConfigurationProperties("app.bulk-jobs")
+public record BulkJobProperties(int workers, int queueCapacity, int chunkSize, Duration retention) {
+
+    public BulkJobProperties {
+        workers = workers <= 0 ? 2 : workers;
+        queueCapacity = queueCapacity <= 0 ? 16 : queueCapacity;
+        chunkSize = chunkSize <= 0 ? 500 : chunkSize;
+        retention = retention == null ? Duration.ofHours(1) : retention;
+    }
+}
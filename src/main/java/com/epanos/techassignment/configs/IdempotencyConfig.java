@@ -0,0 +1,35 @@
+package com.epanos.techassignment.configs;
+
+import com.epanos.techassignment.controllers.IdempotencyFilter;
+import com.epanos.techassignment.repositories.IdempotencyStore;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public IdempotencyStore idempotencyStore(JdbcTemplate jdbcTemplate, IdempotencyProperties properties) {
+        return new IdempotencyStore(jdbcTemplate, properties.ttl(), properties.lockTimeout(), properties.purgeInterval());
+    }
+
+    /**
+     * Registered after the security filter chain, so keys are scoped to the authenticated user. The filter
+     * itself narrows this to the create and bulk endpoints of matches and odds.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore store,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, exceptionResolver));
+        registration.addUrlPatterns("/api/matches", "/api/matches/*");
+        return registration;
+    }
+}
@@ -0,0 +1,23 @@
+package com.epanos.techassignment.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Idempotency keys for {@code POST} requests, see {@code IdempotencyFilter}.
+ *
+ * @param ttl           how long a completed request's response is replayed to retries with the same key
+ * @param lockTimeout   how long a key stays claimed by a request that neither completes nor fails, e.g.
+ *                      because its instance died; longer than the slowest request
+ * @param purgeInterval how often expired keys are deleted
+ */
+@ConfigurationProperties("app.idempotency")
+public record IdempotencyProperties(Duration ttl, Duration lockTimeout, Duration purgeInterval) {
+
+    public IdempotencyProperties {
+        ttl = ttl == null ? Duration.ofHours(24) : ttl;
+        lockTimeout = lockTimeout == null ? Duration.ofMinutes(5) : lockTimeout;
+        purgeInterval = purgeInterval == null ? Duration.ofMinutes(10) : purgeInterval;
+    }
+}
@@ -0,0 +1,19 @@
+package com.epanos.techassignment.configs;
+
+import com.epanos.techassignment.repositories.MatchRepository;
+import com.epanos.techassignment.services.ListingCostGuard;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(ListingCostProperties.class)
+public class ListingCostConfig {
+
+    @Bean
+    public ListingCostGuard listingCostGuard(ListingCostProperties properties, MatchRepository matchRepository) {
+        return new ListingCostGuard(properties, matchRepository::estimateOddsPerMatch, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,35 @@
+package com.epanos.techassignment.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cost guard for match listings, see {@code ListingCostGuard}.
+ *
+ * @param maxRows            the most rows, matches plus their odds, one listing request may read
+ * @param mode               what to do with a request estimated above {@code maxRows}
+ * @param oddsPerMatch       the odds per match assumed until the planner statistics give an estimate
+ * @param statisticsInterval how long an estimate of odds per match is used before it is read again
+ */
+@ConfigurationProperties("app.listing.cost")
+public record ListingCostProperties(int maxRows, Mode mode, double oddsPerMatch, Duration statisticsInterval) {
+
+    public enum Mode {
+        /**
+         * Serve a smaller page that fits the limit; the page metadata reports the size actually used.
+         */
+        CLAMP,
+        /**
+         * Fail with 400 and the largest page size that fits the limit.
+         */
+        REJECT
+    }
+
+    public ListingCostProperties {
+        maxRows = maxRows <= 0 ? 20_000 : maxRows;
+        mode = mode == null ? Mode.REJECT : mode;
+        oddsPerMatch = oddsPerMatch <= 0 ? 20 : oddsPerMatch;
+        statisticsInterval = statisticsInterval == null ? Duration.ofMinutes(1) : statisticsInterval;
+    }
+}
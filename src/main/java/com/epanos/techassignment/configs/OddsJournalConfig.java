@@ -0,0 +1,20 @@
+package com.epanos.techassignment.configs;
+
+import com.epanos.techassignment.oddsbook.OddsJournal;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBooleanProperty("app.odds.book.journal.enabled")
+@EnableConfigurationProperties(OddsJournalProperties.class)
+public class OddsJournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public OddsJournal oddsJournal(OddsJournalProperties properties, SpecifierDictionary dictionary) {
+        return new OddsJournal(properties.dir(), Math.toIntExact(properties.segmentSize().toBytes()),
+                properties.snapshotInterval(), dictionary);
+    }
+}
@@ -0,0 +1,25 @@
+package com.epanos.techassignment.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Crash-recovery journal of the in-memory odds book, see {@code OddsJournal}.
+ *
+ * @param enabled          journals odds book changes and rebuilds the book from the journal on startup
+ * @param dir              directory of the journal segments and snapshot; must be local to the node
+ * @param segmentSize      size of each memory-mapped journal segment
+ * @param snapshotInterval how often a compact snapshot replaces the journal written so far
+ */
+@ConfigurationProperties("app.odds.book.journal")
+public record OddsJournalProperties(boolean enabled, Path dir, DataSize segmentSize, Duration snapshotInterval) {
+
+    public OddsJournalProperties {
+        dir = dir == null ? Path.of("data", "odds-journal") : dir;
+        segmentSize = segmentSize == null ? DataSize.ofMegabytes(64) : segmentSize;
+        snapshotInterval = snapshotInterval == null ? Duration.ofMinutes(5) : snapshotInterval;
+    }
+}
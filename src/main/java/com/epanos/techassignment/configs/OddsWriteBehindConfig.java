@@ -0,0 +1,22 @@
+package com.epanos.techassignment.configs;
+
+import com.epanos.techassignment.services.MatchOddsService;
+import com.epanos.techassignment.services.OddsWriteBehindBuffer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnBooleanProperty("app.odds.write-behind.enabled")
+@EnableConfigurationProperties(OddsWriteBehindProperties.class)
+public class OddsWriteBehindConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public OddsWriteBehindBuffer oddsWriteBehindBuffer(MatchOddsService matchOddsService,
+                                                       OddsWriteBehindProperties properties,
+                                                       MeterRegistry meterRegistry) {
+        return new OddsWriteBehindBuffer(matchOddsService, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.epanos.techassignment.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Write-behind ingestion of odds ticks, see {@code OddsWriteBehindBuffer}.
+ *
+ * @param enabled        exposes {@code POST /api/odds/ticks} and starts the flusher
+ * @param flushInterval  the buffer is written to the database at least this often
+ * @param flushThreshold a flush starts early once this many distinct (matchId, specifier) keys are pending
+ * @param stripes        number of independently locked buffer segments; rounded up to a power of two
+ * @param maxDepth       ticks are refused with 503 while this many keys are pending, e.g. while the database is down
+ * @param batchSize      rows written per {@code updateBulk} call; a flush writes the buffer in batches of this size
+ */
+@ConfigurationProperties("app.odds.write-behind")
+public record OddsWriteBehindProperties(boolean enabled, Duration flushInterval, int flushThreshold, int stripes,
+                                        int maxDepth, int batchSize) {
+
+    public OddsWriteBehindProperties {
+        flushInterval = flushInterval == null ? Duration.ofMillis(200) : flushInterval;
+        flushThreshold = flushThreshold <= 0 ? 5000 : flushThreshold;
+        stripes = stripes <= 0 ? 16 : stripes;
+        maxDepth = maxDepth <= 0 ? 100_000 : maxDepth;
+        batchSize = batchSize <= 0 ? 5000 : batchSize;
+    }
+}
@@ -0,0 +1,24 @@
+package com.epanos.techassignment.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Streaming replicas that serve read-only transactions. Replicas share the primary's credentials and
+ * pool settings ({@code spring.datasource.*}); only their JDBC URLs are configured here.
+ *
+ * @param urls             JDBC URLs of the replicas; routing is disabled when empty
+ * @param maxLag           replicas whose replay lag exceeds this are skipped until they catch up
+ * @param lagCheckInterval how often each replica's lag is measured
+ */
+@ConfigurationProperties("app.datasource.replicas")
+public record ReadReplicaProperties(List<String> urls, Duration maxLag, Duration lagCheckInterval) {
+
+    public ReadReplicaProperties {
+        urls = urls == null ? List.of() : urls.stream().filter(u -> !u.isBlank()).toList();
+        maxLag = maxLag == null ? Duration.ofSeconds(5) : maxLag;
+        lagCheckInterval = lagCheckInterval == null ? Duration.ofSeconds(1) : lagCheckInterval;
+    }
+}
@@ -0,0 +1,164 @@
+package com.epanos.techassignment.configs;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to streaming replicas, round-robin, and falls back to the primary when no
+ * replica is usable. A replica is usable once a lag check has seen it within {@code maxLag} of the
+ * primary; it is taken out of rotation when a check fails, when its lag grows past {@code maxLag},
+ * or when it refuses a connection, and comes back on the next successful check.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    /**
+     * Replay lag in seconds. A standby that has replayed everything it received counts as caught up,
+     * since {@code pg_last_xact_replay_timestamp()} stops advancing while the primary is idle.
+     * A server that is not in recovery reports 0, so any PostgreSQL instance can stand in for a replica.
+     */
+    static final String LAG_QUERY = """
+            select case
+                     when not pg_is_in_recovery() then 0
+                     when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                     else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                   end""";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+    }
+
+    /**
+     * Starts measuring replica lag in the background. Until the first check passes, reads go to the primary.
+     */
+    public void start(Duration interval) {
+        lagChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-lag-check");
+            t.setDaemon(true);
+            return t;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Measures every replica once and updates whether it may serve reads.
+     */
+    void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            boolean usable;
+            try (Connection con = replica.dataSource.getConnection();
+                 Statement st = con.createStatement();
+                 ResultSet rs = st.executeQuery(LAG_QUERY)) {
+                rs.next();
+                double lag = rs.getDouble(1);
+                usable = lag <= maxLagSeconds;
+                if (!usable && replica.usable) {
+                    log.warn("Replica {} is {}s behind the primary, routing its reads to the primary", i, lag);
+                }
+            } catch (SQLException | RuntimeException ex) {
+                usable = false;
+                if (replica.usable) {
+                    log.warn("Replica {} failed its lag check, routing its reads to the primary: {}", i, ex.getMessage());
+                }
+            }
+            if (usable && !replica.usable) {
+                log.info("Replica {} is serving reads", i);
+            }
+            replica.usable = usable;
+        }
+    }
+
+    /**
+     * @return the number of replicas currently serving reads
+     */
+    public int usableReplicas() {
+        return (int) replicas.stream().filter(r -> r.usable).count();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Opens a connection on the next usable replica in turn, or on the primary when none is usable. A
+     * replica that refuses the connection leaves rotation until its next lag check.
+     */
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.usable) {
+                continue;
+            }
+            try {
+                return opener.open(replica.dataSource);
+            } catch (SQLException ex) {
+                replica.usable = false;
+                log.warn("Replica refused a connection, routing its reads to the primary: {}", ex.getMessage());
+            }
+        }
+        return opener.open(primary);
+    }
+
+    /**
+     * Stops the lag checks and closes the replica pools; the primary is closed by its own bean. A replica
+     * that fails to close is logged and the others are still closed.
+     */
+    @Override
+    public void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception ex) {
+                    log.warn("Closing a replica data source failed: {}", ex.getMessage(), ex);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final DataSource dataSource;
+        private volatile boolean usable;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
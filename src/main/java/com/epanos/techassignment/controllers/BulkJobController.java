@@ -0,0 +1,90 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.dto.BulkJobError;
+import com.epanos.techassignment.models.dto.BulkJobResponse;
+import com.epanos.techassignment.services.BulkJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@Tag(name = "Bulk Jobs", description = "Progress, errors and cancellation of asynchronous bulk creates.")
+public class BulkJobController {
+
+    private final BulkJobService bulkJobService;
+
+    /**
+     * Returns the progress of a bulk job.
+     *
+     * @param id the job id returned on submission
+     * @return the job's status and counters
+     * @throws NotFoundException if the job does not exist on this instance or has expired
+     */
+    @Operation(
+            summary = "Get bulk job",
+            description = "Returns the status and progress counters of a bulk job. Finished jobs can be polled for " +
+                    "app.bulk-jobs.retention, on the instance that accepted them.",
+            operationId = "getBulkJob"
+    )
+    @ApiResponse(responseCode = "200", description = "Job found")
+    @ApiResponse(responseCode = "404", description = "Job not found", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @GetMapping("/{id}")
+    public BulkJobResponse get(@Parameter(description = "Job id", required = true) @PathVariable UUID id) {
+        return bulkJobService.get(id);
+    }
+
+    /**
+     * Lists the items of a bulk job that could not be created so far.
+     *
+     * @param id the job id returned on submission
+     * @return one error per failed item, by its index in the submitted payload
+     * @throws NotFoundException if the job does not exist on this instance or has expired
+     */
+    @Operation(
+            summary = "Get bulk job errors",
+            description = "Returns the items that failed so far, by their index in the submitted payload, with the reason.",
+            operationId = "getBulkJobErrors"
+    )
+    @ApiResponse(responseCode = "200", description = "Errors so far; empty if none")
+    @ApiResponse(responseCode = "404", description = "Job not found", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @GetMapping("/{id}/errors")
+    public List<BulkJobError> errors(@Parameter(description = "Job id", required = true) @PathVariable UUID id) {
+        return bulkJobService.errors(id);
+    }
+
+    /**
+     * Cancels a bulk job. Items already written stay written.
+     *
+     * @param id the job id returned on submission
+     * @return the job as it is now; a running job reports CANCELLED once its current chunk is written
+     * @throws NotFoundException if the job does not exist on this instance or has expired
+     * @throws ConflictException if the job already finished
+     */
+    @Operation(
+            summary = "Cancel bulk job",
+            description = "Cancels a queued job at once, or stops a running job after its current chunk. " +
+                    "Items already written are kept.",
+            operationId = "cancelBulkJob"
+    )
+    @ApiResponse(responseCode = "200", description = "Cancellation accepted")
+    @ApiResponse(responseCode = "404", description = "Job not found", content = @Content)
+    @ApiResponse(responseCode = "409", description = "Job already finished", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @DeleteMapping("/{id}")
+    public BulkJobResponse cancel(@Parameter(description = "Job id", required = true) @PathVariable UUID id) {
+        return bulkJobService.cancel(id);
+    }
+}
@@ -0,0 +1,207 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.repositories.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Makes the {@code POST} requests that create matches or odds, singly or in bulk, safe to retry when they
+ * carry an {@code Idempotency-Key} header: the first request with a key runs and its successful response is
+ * stored in the {@link IdempotencyStore}; a retry with the same key and the same method, URI and body gets
+ * that response back, marked {@code Idempotent-Replayed}, without running again. A retry while the first
+ * request is still running is answered with 409, and the same key sent with a different request with 400.
+ * Failed requests are not stored, so their retries run. Requests without the header, and other paths such
+ * as the streaming load under {@code /api/admin}, are not affected: the body is held in memory to be
+ * hashed, so only the JSON create endpoints are covered.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * {@code /api/matches}, {@code /api/matches/bulk}, {@code /api/matches/{id}/odds} and
+     * {@code /api/matches/{id}/odds/bulk}, relative to the context path.
+     */
+    private static final Pattern PATHS = Pattern.compile("/api/matches(/bulk|/\\d+/odds(/bulk)?)?/?");
+
+    private final IdempotencyStore store;
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public IdempotencyFilter(IdempotencyStore store, HandlerExceptionResolver exceptionResolver) {
+        this.store = store;
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || !PATHS.matcher(request.getRequestURI().substring(request.getContextPath().length())).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            reject(request, response, new BadRequestException(
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters"));
+            return;
+        }
+        String principal = request.getRemoteUser() == null ? "" : request.getRemoteUser();
+        BufferedRequest buffered = new BufferedRequest(request);
+        byte[] hash = hash(buffered);
+
+        Optional<IdempotencyStore.Claim> claim = store.claim(principal, key, hash);
+        if (claim.isPresent()) {
+            IdempotencyStore.Claim existing = claim.get();
+            if (existing.requestHash() != null && !Arrays.equals(existing.requestHash(), hash)) {
+                reject(request, response, new BadRequestException(
+                        HEADER + " " + key + " was already used for a different request"));
+            } else if (existing.response() == null) {
+                reject(request, response, new ConflictException(
+                        "A request with " + HEADER + " " + key + " is still in progress"));
+            } else {
+                replay(existing.response(), response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            chain.doFilter(buffered, wrapper);
+            int status = wrapper.getStatus();
+            if (status >= 200 && status < 300) {
+                store.complete(principal, key,
+                        new IdempotencyStore.StoredResponse(status, wrapper.getContentType(), wrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                store.release(principal, key);
+            }
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RuntimeException ex) {
+        exceptionResolver.resolveException(request, response, null, ex);
+    }
+
+    private static void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static byte[] hash(BufferedRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?'
+                    + (request.getQueryString() == null ? "" : request.getQueryString()) + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(request.body);
+            return digest.digest();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Reads the whole body up front, so it can be hashed before the request runs and read again by it.
+     */
+    private static final class BufferedRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * The body is already in memory, so all of it is available at once.
+                 */
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException | RuntimeException ex) {
+                        listener.onError(ex);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
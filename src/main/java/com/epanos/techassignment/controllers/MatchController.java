@@ -1,23 +1,42 @@
 package com.epanos.techassignment.controllers;
 
+import com.epanos.techassignment.exceptions.BadRequestException;
 import com.epanos.techassignment.exceptions.ConflictException;
 import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.BulkJobResponse;
+import com.epanos.techassignment.models.dto.BulkDeleteResponse;
+import com.epanos.techassignment.models.dto.MatchBatchResponse;
+import com.epanos.techassignment.models.dto.MatchIngestResult;
 import com.epanos.techassignment.models.dto.MatchRequest;
 import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.models.dto.PartitionedBulkResponse;
+import com.epanos.techassignment.models.enums.Sport;
+import com.epanos.techassignment.services.BulkJobService;
 import com.epanos.techassignment.services.MatchService;
+import com.epanos.techassignment.services.PartitionedBulkInserter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.JsonNode;
+
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -26,7 +45,11 @@ import java.util.List;
 @Tag(name = "Matches", description = "CRUD operations for managing Matches and their Odds.")
 public class MatchController {
 
+    static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final MatchService matchService;
+    private final BulkJobService bulkJobService;
+    private final PartitionedBulkInserter partitionedBulkInserter;
 
     /**
      * Creates a new match with optional associated odds.
@@ -71,6 +94,92 @@ public class MatchController {
         return matchService.createBulk(reqs);
     }
 
+    /**
+     * Creates matches in parallel partitions, each in its own transaction, for large loads that need not be
+     * all-or-nothing. A failed partition is rolled back on its own and reported next to the created ones.
+     *
+     * @param partitions the number of partitions to write concurrently; clamped to {@code app.bulk-insert.max-partitions}
+     * @param reqs list of match requests to create
+     * @return per-partition results; 201 if every partition was created, 207 otherwise
+     */
+    @Operation(
+            summary = "Create matches in parallel partitions",
+            description = "Splits the matches into the requested number of contiguous partitions and creates them concurrently, " +
+                    "each in its own transaction. Not atomic: each partition is reported as CREATED or FAILED with its offset, " +
+                    "size and created ids. The partition count is capped by app.bulk-insert.max-partitions.",
+            operationId = "createMatchesBulkPartitioned"
+    )
+    @ApiResponse(responseCode = "201", description = "All partitions created")
+    @ApiResponse(responseCode = "207", description = "Some partitions failed; see per-partition status")
+    @ApiResponse(responseCode = "400", description = "Validation error", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PostMapping(value = "/bulk", params = {"partitions", "async!=true"})
+    public ResponseEntity<PartitionedBulkResponse> createBulkPartitioned(
+            @Parameter(description = "Number of partitions to write concurrently", example = "4")
+            @RequestParam @Min(value = 1, message = "partitions must be at least 1") int partitions,
+            @RequestBody @Valid List<@Valid MatchRequest> reqs
+    ) {
+        PartitionedBulkResponse result = partitionedBulkInserter.createMatches(reqs, partitions);
+        return ResponseEntity.status(result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(result);
+    }
+
+    /**
+     * Accepts matches to be created in the background and returns at once with a job to poll.
+     * The matches are written in chunks; a failing item is reported by its index and does not stop the rest.
+     *
+     * @param reqs list of match requests to create, at most 100000
+     * @return the queued job, also linked from the {@code Location} header
+     * @throws ServiceUnavailableException if too many bulk jobs are already queued
+     */
+    @Operation(
+            summary = "Create matches in bulk asynchronously",
+            description = "Queues the matches for creation in the background and returns 202 with a job to poll at /api/jobs/{id}. " +
+                    "Matches are written in chunks, each in its own transaction; items that fail are listed at /api/jobs/{id}/errors. " +
+                    "At most 100000 matches.",
+            operationId = "createMatchesBulkAsync"
+    )
+    @ApiResponse(responseCode = "202", description = "Job accepted")
+    @ApiResponse(responseCode = "400", description = "Validation error", content = @Content)
+    @ApiResponse(responseCode = "503", description = "Too many bulk jobs queued", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PostMapping(value = "/bulk", params = "async=true")
+    public ResponseEntity<BulkJobResponse> createBulkAsync(
+            @RequestBody @Valid @Size(max = 100_000, message = "At most 100000 matches can be submitted per job")
+            List<@Valid MatchRequest> reqs
+    ) {
+        BulkJobResponse job = bulkJobService.submitMatches(reqs);
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+    }
+
+    /**
+     * Ingests fixtures from an upstream feed, keyed by sport, teams and kickoff, in one statement.
+     * New fixtures are created, known fixtures get the sent description, and fixtures already stored as
+     * sent are left untouched, so resending a feed is cheap and never creates duplicates.
+     *
+     * @param fixtures the fixtures to ingest, without odds, at most 1000
+     * @return per-fixture results in request order
+     * @throws BadRequestException if a fixture carries odds
+     * @throws ConflictException if the same fixture appears more than once
+     */
+    @Operation(
+            summary = "Ingest fixtures",
+            description = "Upserts matches by their natural key (sport, teamA, teamB, matchDate, matchTime) in a single statement. " +
+                    "Returns one result per fixture: CREATED, UPDATED (description changed) or UNCHANGED. " +
+                    "Fixtures must not carry odds. At most 1000 fixtures.",
+            operationId = "ingestMatches"
+    )
+    @ApiResponse(responseCode = "200", description = "Fixtures ingested; see per-fixture status")
+    @ApiResponse(responseCode = "400", description = "Validation error, or a fixture with odds", content = @Content)
+    @ApiResponse(responseCode = "409", description = "Duplicate fixture in payload", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PutMapping("/ingest")
+    public List<MatchIngestResult> ingest(
+            @RequestBody @Valid @Size(max = 1000, message = "At most 1000 fixtures can be ingested at once")
+            List<@Valid MatchRequest> fixtures
+    ) {
+        return matchService.ingest(fixtures);
+    }
+
     /**
      * Retrieves a single match by ID with all associated odds.
      *
@@ -91,6 +200,34 @@ public class MatchController {
         return matchService.get(id);
     }
 
+    /**
+     * Retrieves several matches by ID in a single call, each with all associated odds.
+     * Matches are returned in the requested order; unknown IDs are listed in {@code missingIds}
+     * instead of failing the whole request.
+     * <p>
+     * Example: GET /api/matches?ids=3,1,7
+     * </p>
+     *
+     * @param ids the match IDs to retrieve (at most 100)
+     * @return the found matches and the IDs that were not found
+     */
+    @Operation(
+            summary = "Get matches by ids",
+            description = "Returns the requested Matches with their odds in one call, in the order the ids were given. " +
+                    "Ids that do not exist are reported in missingIds. At most 100 ids per request.",
+            operationId = "getMatchesByIds"
+    )
+    @ApiResponse(responseCode = "200", description = "Matches returned successfully")
+    @ApiResponse(responseCode = "400", description = "Validation error", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @GetMapping(params = "ids")
+    public MatchBatchResponse getAll(
+            @Parameter(description = "Comma-separated match ids", example = "1,2,3")
+            @RequestParam @NotEmpty @Size(max = 100, message = "At most 100 ids can be requested at once") List<Long> ids
+    ) {
+        return matchService.getAll(ids);
+    }
+
     /**
      * Retrieves matches with pagination and optional odds inclusion.
      * <p>
@@ -102,6 +239,7 @@ public class MatchController {
      * - size: page size (default: 20)
      * - sort: sort criteria in format property,asc|desc (e.g., id,desc, matchDate,desc)
      * - includeOdds: whether to include associated odds (default: false)
+     * - fields: comma-separated properties to return; only their columns are selected (cannot be combined with includeOdds)
      * <p>
      * Examples:
      * <ul>
@@ -110,33 +248,51 @@ public class MatchController {
      *   <li>GET /api/matches?sort=matchDate,desc - Sorted by date, newest first</li>
      *   <li>GET /api/matches?includeOdds=true - Include match odds</li>
      *   <li>GET /api/matches?page=0&size=30&sort=matchDate,desc&includeOdds=true - All options combined</li>
+     *   <li>GET /api/matches?fields=id,teamA,teamB,matchDate,matchTime - Only the listed properties</li>
      * </ul>
      *
      * @param includeOdds whether to include associated odds in the response (default: false)
+     * @param fields the properties to return, or {@code null} for full match responses
      * @param pageable the pagination parameters (page, size, sort)
-     * @return a page of match responses with pagination metadata
+     * @return a page of match responses, or of partial matches when fields are given, with pagination metadata
+     * @throws BadRequestException if a field is unknown or fields are combined with includeOdds, or the page
+     *                             would read too many rows (see {@code ListingCostGuard})
      */
     @Operation(
             summary = "List matches",
             description = "Returns paginated matches with optional odds. " +
                     "By default odds are not included. Use ?includeOdds=true to include odds. " +
-                    "Supports sorting via sort parameter (e.g., sort=matchDate,desc).",
+                    "Supports sorting via sort parameter (e.g., sort=matchDate,desc). " +
+                    "Use ?fields=id,teamA,teamB to return only those properties; only their columns are read.",
             operationId = "listMatches"
     )
     @ApiResponse(responseCode = "200", description = "Matches returned successfully with pagination metadata")
+    @ApiResponse(responseCode = "400", description = "Unknown field, fields combined with includeOdds, unsupported sort, " +
+            "or a page estimated to read more than app.listing.cost.max-rows rows", content = @Content)
     @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     @GetMapping
-    public Page<MatchResponse> list(
+    public Page<?> list(
             @Parameter(
                     name = "includeOdds",
                     description = "Whether to include associated odds in the response",
                     example = "false"
             )
             @RequestParam(defaultValue = "false") boolean includeOdds,
+            @Parameter(
+                    description = "Comma-separated properties to return: id, description, matchDate, matchTime, teamA, teamB, sport",
+                    example = "id,teamA,teamB,matchDate,matchTime"
+            )
+            @RequestParam(required = false) List<String> fields,
             @ParameterObject
             @PageableDefault(size = 20) Pageable pageable
     ) {
-        return matchService.listPage(includeOdds, pageable);
+        if (fields == null) {
+            return matchService.listPage(includeOdds, pageable);
+        }
+        if (includeOdds) {
+            throw new BadRequestException("fields cannot be combined with includeOdds");
+        }
+        return matchService.listPage(fields, pageable);
     }
 
     /**
@@ -164,7 +320,38 @@ public class MatchController {
     }
 
     /**
-     * Deletes a match by ID. Associated odds are automatically deleted due to cascade configuration.
+     * Partially updates a match using JSON Merge Patch (RFC 7396).
+     * Only the fields present in the patch are changed and written; the odds collection is only
+     * touched when {@code odds} is part of the patch, in which case it is merged by specifier.
+     *
+     * @param id the match ID to patch
+     * @param patch the merge patch document ({@code application/merge-patch+json})
+     * @return the patched match response; odds are included only if they were patched
+     * @throws NotFoundException if match with given ID does not exist
+     * @throws ConflictException if patched odds contain duplicate specifiers
+     */
+    @Operation(
+            summary = "Patch match by id",
+            description = "Applies a JSON Merge Patch (application/merge-patch+json) to a match. Only the fields present are changed; " +
+                    "a null value removes a field, which fails validation for required fields. If odds are present they replace the " +
+                    "existing odds (merged by specifier) and are returned; otherwise odds are neither touched nor returned.",
+            operationId = "patchMatchById",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(mediaType = MERGE_PATCH_JSON, schema = @Schema(implementation = MatchRequest.class))
+            )
+    )
+    @ApiResponse(responseCode = "200", description = "Match patched successfully")
+    @ApiResponse(responseCode = "400", description = "Validation error or malformed patch", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Match not found", content = @Content)
+    @ApiResponse(responseCode = "415", description = "Content-Type is not application/merge-patch+json", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PatchMapping(value = "/{id}", consumes = MERGE_PATCH_JSON)
+    public MatchResponse patch(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return matchService.patch(id, patch);
+    }
+
+    /**
+     * Deletes a match by ID. Associated odds are deleted by the database in the same statement.
      *
      * @param id the match ID to delete
      * @throws NotFoundException if match with given ID does not exist
@@ -182,4 +369,43 @@ public class MatchController {
     public void delete(@PathVariable Long id) {
         matchService.delete(id);
     }
+
+    /**
+     * Deletes all matches matching the given filters in a single statement.
+     * Filters are combined with AND and at least one is required. Associated odds are deleted as well.
+     * <p>
+     * Examples:
+     * <ul>
+     *   <li>DELETE /api/matches?before=2024-01-01 - All matches dated before 2024</li>
+     *   <li>DELETE /api/matches?sport=2&before=2024-01-01 - Basketball matches dated before 2024</li>
+     * </ul>
+     *
+     * @param before if set, delete only matches dated strictly before this date
+     * @param sport if set, delete only matches of this sport code
+     * @return the number of matches deleted
+     */
+    @Operation(
+            summary = "Delete matches by filter",
+            description = "Deletes all matches matching the filters in a single statement and returns the number deleted. " +
+                    "At least one of before or sport is required. Associated odds are deleted as well.",
+            operationId = "deleteMatchesByFilter"
+    )
+    @ApiResponse(responseCode = "200", description = "Matches deleted; body contains the number of rows affected")
+    @ApiResponse(responseCode = "400", description = "No filter given or invalid filter value", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @DeleteMapping
+    public BulkDeleteResponse deleteMatching(
+            @Parameter(description = "Delete matches dated strictly before this date (yyyy-MM-dd)", example = "2024-01-01")
+            @RequestParam(required = false) LocalDate before,
+            @Parameter(description = "Delete matches of this sport (1 = Football, 2 = Basketball)", example = "1")
+            @RequestParam(required = false) Integer sport
+    ) {
+        Sport sportFilter;
+        try {
+            sportFilter = sport == null ? null : Sport.fromCode(sport);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(ex.getMessage());
+        }
+        return new BulkDeleteResponse(matchService.deleteMatching(before, sportFilter));
+    }
 }
\ No newline at end of file
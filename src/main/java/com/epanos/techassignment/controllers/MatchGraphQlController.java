@@ -0,0 +1,85 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.models.odds.Thousandths;
+import com.epanos.techassignment.services.MatchOddsService;
+import com.epanos.techassignment.services.MatchService;
+import graphql.GraphQLError;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.GraphQlExceptionHandler;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.stereotype.Controller;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only GraphQL API over matches and their odds, served at {@code /graphql} (see
+ * {@code graphql/schema.graphqls}).
+ * <p>
+ * Matches are loaded without odds. When a query selects {@code odds}, they are loaded through a batch
+ * loader: one query for the odds of every match in the response, so a query costs a constant number of
+ * statements however many matches it returns.
+ */
+@Controller
+@RequiredArgsConstructor
+public class MatchGraphQlController {
+
+    static final int MAX_MATCHES = 100;
+
+    private final MatchService matchService;
+    private final MatchOddsService matchOddsService;
+
+    @QueryMapping
+    public MatchResponse match(@Argument Long id) {
+        return matchService.findByIds(List.of(id)).get(id);
+    }
+
+    @QueryMapping
+    public List<MatchResponse> matchesByIds(@Argument List<Long> ids) {
+        if (ids.size() > MAX_MATCHES) {
+            throw new BadRequestException("At most " + MAX_MATCHES + " ids can be requested at once");
+        }
+        Map<Long, MatchResponse> matches = matchService.findByIds(ids);
+        // GraphQL lists may hold nulls, which mark the missing ids in place
+        return ids.stream().map(matches::get).toList();
+    }
+
+    @QueryMapping
+    public Page<MatchResponse> matches(@Argument int page, @Argument int size) {
+        if (page < 0 || size < 1 || size > MAX_MATCHES) {
+            throw new BadRequestException("page must be at least 0 and size between 1 and " + MAX_MATCHES);
+        }
+        return matchService.listPage(false, PageRequest.of(page, size, Sort.by("id")));
+    }
+
+    /**
+     * Loads the odds of all matches in the response with a single query.
+     */
+    @BatchMapping(typeName = "Match")
+    public List<List<MatchOddsResponse>> odds(List<MatchResponse> matches) {
+        Map<Long, List<MatchOddsResponse>> odds = matchOddsService.listByMatchIds(
+                matches.stream().map(MatchResponse::getId).toList());
+        return matches.stream().map(m -> odds.getOrDefault(m.getId(), List.of())).toList();
+    }
+
+    @SchemaMapping(typeName = "Odds")
+    public BigDecimal odd(MatchOddsResponse odds) {
+        return Thousandths.toBigDecimal(odds.getOdd());
+    }
+
+    @GraphQlExceptionHandler
+    public GraphQLError handleBadRequest(BadRequestException ex) {
+        return GraphQLError.newError().errorType(ErrorType.BAD_REQUEST).message(ex.getMessage()).build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.models.dto.MatchLoadResult;
+import com.epanos.techassignment.repositories.MatchLoader;
+import com.epanos.techassignment.services.MatchLoadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/load")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Operational endpoints for initial loads and maintenance.")
+public class MatchLoadController {
+
+    static final String TEXT_CSV = "text/csv";
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final MatchLoadService matchLoadService;
+
+    /**
+     * Loads matches and odds from CSV through PostgreSQL {@code COPY}, streaming the request body.
+     *
+     * @param body UTF-8 CSV with the header {@code description,match_date,match_time,team_a,team_b,sport,specifier,odd}
+     * @return the row count and what was created or changed
+     * @throws BadRequestException if a row is malformed or invalid; nothing is loaded then
+     */
+    @Operation(
+            summary = "Load matches and odds from CSV",
+            description = "Streams the body into a staging table with COPY and merges it into matches and odds in one transaction. " +
+                    "One row per odd, repeating its fixture, or a row with empty specifier and odd for a fixture without odds. " +
+                    "Known fixtures get the loaded description and known odds the loaded value; the last row wins. " +
+                    "Header: description,match_date,match_time,team_a,team_b,sport,specifier,odd. Sport is the API code.",
+            operationId = "loadMatchesCsv"
+    )
+    @ApiResponse(responseCode = "200", description = "Loaded")
+    @ApiResponse(responseCode = "400", description = "Malformed or invalid row; nothing was loaded", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PostMapping(consumes = TEXT_CSV)
+    public MatchLoadResult loadCsv(InputStream body) {
+        return matchLoadService.load(body, MatchLoader.Format.CSV);
+    }
+
+    /**
+     * Loads matches and odds from newline-delimited JSON through PostgreSQL {@code COPY}, streaming the request body.
+     *
+     * @param body one match request object per line, with its odds
+     * @return the row count and what was created or changed
+     * @throws BadRequestException if a line is malformed or invalid; nothing is loaded then
+     */
+    @Operation(
+            summary = "Load matches and odds from NDJSON",
+            description = "Like the CSV load, with one match object per line in the same shape as POST /api/matches, odds included. " +
+                    "Each line is validated as the API would validate it.",
+            operationId = "loadMatchesNdjson"
+    )
+    @ApiResponse(responseCode = "200", description = "Loaded")
+    @ApiResponse(responseCode = "400", description = "Malformed or invalid line; nothing was loaded", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PostMapping(consumes = APPLICATION_NDJSON)
+    public MatchLoadResult loadNdjson(InputStream body) {
+        return matchLoadService.load(body, MatchLoader.Format.NDJSON);
+    }
+}
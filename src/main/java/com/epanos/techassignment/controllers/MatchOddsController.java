@@ -1,24 +1,34 @@
 package com.epanos.techassignment.controllers;
 
+import com.epanos.techassignment.exceptions.BadRequestException;
 import com.epanos.techassignment.exceptions.ConflictException;
 import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.BulkJobResponse;
 import com.epanos.techassignment.models.dto.MatchOddsRequest;
 import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import com.epanos.techassignment.oddsbook.MatchOddsEntry;
+import com.epanos.techassignment.services.BulkJobService;
 import com.epanos.techassignment.services.MatchOddsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -30,6 +40,7 @@ import java.util.List;
 public class MatchOddsController {
 
     private final MatchOddsService matchOddsService;
+    private final BulkJobService bulkJobService;
 
     /**
      * Creates a new odd for the specified match.
@@ -88,6 +99,40 @@ public class MatchOddsController {
         return matchOddsService.createBulk(matchId, requests);
     }
 
+    /**
+     * Accepts odds to be created in the background for the specified match and returns at once with a job
+     * to poll. The odds are written in chunks; a failing item, such as a specifier the match already has,
+     * is reported by its index and does not stop the rest.
+     *
+     * @param matchId the ID of the match to add odds to
+     * @param requests list of match odds requests, at most 100000
+     * @return the queued job, also linked from the {@code Location} header
+     * @throws NotFoundException if match with given ID does not exist
+     * @throws ServiceUnavailableException if too many bulk jobs are already queued
+     */
+    @Operation(
+            summary = "Create match odds in bulk asynchronously",
+            description = "Queues the odds for creation in the background and returns 202 with a job to poll at /api/jobs/{id}. " +
+                    "Odds are written in chunks, each in its own transaction; items that fail are listed at /api/jobs/{id}/errors. " +
+                    "At most 100000 odds.",
+            operationId = "createMatchOddsBulkAsync"
+    )
+    @ApiResponse(responseCode = "202", description = "Job accepted")
+    @ApiResponse(responseCode = "400", description = "Validation error", content = @Content)
+    @ApiResponse(responseCode = "404", description = "Match not found", content = @Content)
+    @ApiResponse(responseCode = "503", description = "Too many bulk jobs queued", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PostMapping(value = "/bulk", params = "async=true")
+    public ResponseEntity<BulkJobResponse> createBulkAsync(
+            @Parameter(description = "Match id", example = "1", required = true)
+            @PathVariable Long matchId,
+            @RequestBody @Valid @Size(max = 100_000, message = "At most 100000 odds can be submitted per job")
+            List<@Valid MatchOddsRequest> requests
+    ) {
+        BulkJobResponse job = bulkJobService.submitOdds(matchId, requests);
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId())).body(job);
+    }
+
     /**
      * Updates an existing odd for the specified match.
      * Performs full replacement of the odd fields (both specifier and value).
@@ -165,6 +210,32 @@ public class MatchOddsController {
         return matchOddsService.get(matchId, oddId);
     }
 
+    /**
+     * Retrieves all current odds of the specified match from the in-memory odds book.
+     * After the first request for a match, this is answered without touching the database;
+     * the book is kept current by every committed odds write.
+     *
+     * @param matchId the ID of the match whose odds to retrieve
+     * @return all odds of the match, in the same shape as {@link MatchOddsResponse}
+     * @throws NotFoundException if match with given ID does not exist
+     */
+    @Operation(
+            summary = "List current match odds",
+            description = "Returns all odds of the specified match, unpaginated, from the in-memory odds book. " +
+                    "Intended for high-frequency polling of current prices.",
+            operationId = "listCurrentMatchOdds"
+    )
+    @ApiResponse(responseCode = "200", description = "Odds returned successfully",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = MatchOddsResponse.class))))
+    @ApiResponse(responseCode = "404", description = "Match not found", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @GetMapping("/current")
+    public MatchOddsEntry listCurrent(
+            @Parameter(description = "Match id", example = "1", required = true) @PathVariable Long matchId
+    ) {
+        return matchOddsService.current(matchId);
+    }
+
     /**
      * Retrieves paginated odds for the specified match.
      * <p>
@@ -175,6 +246,7 @@ public class MatchOddsController {
      * - page: 0-indexed page number (default: 0)
      * - size: page size (default: 20)
      * - sort: sort criteria in format property,asc|desc (e.g., id,asc, odd,desc)
+     * - fields: comma-separated properties to return; only their columns are selected
      * <p>
      * Examples:
      * <ul>
@@ -182,29 +254,39 @@ public class MatchOddsController {
      *   <li>GET /api/matches/1/odds?page=1&size=10 - Page 2 with 10 odds</li>
      *   <li>GET /api/matches/1/odds?sort=odd,desc - Odds sorted by value, highest first</li>
      *   <li>GET /api/matches/1/odds?sort=specifier,asc - Odds sorted by specifier alphabetically</li>
+     *   <li>GET /api/matches/1/odds?fields=specifier,odd - Only specifiers and values</li>
      * </ul>
      *
      * @param matchId the ID of the match whose odds to retrieve
+     * @param fields the properties to return, or {@code null} for full odds responses
      * @param pageable the pagination parameters (page, size, sort)
-     * @return a page of match odds responses with pagination metadata
+     * @return a page of match odds responses, or of partial odds when fields are given, with pagination metadata
      * @throws NotFoundException if match with given ID does not exist
+     * @throws BadRequestException if a field is unknown
      */
     @Operation(
             summary = "List match odds",
             description = "Returns paginated odds for the specified match. " +
-                    "Supports pagination via page, size, and sort query parameters.",
+                    "Supports pagination via page, size, and sort query parameters. " +
+                    "Use ?fields=specifier,odd to return only those properties; only their columns are read.",
             operationId = "listMatchOdds"
     )
     @ApiResponse(responseCode = "200", description = "Odds returned successfully with pagination metadata")
+    @ApiResponse(responseCode = "400", description = "Unknown field", content = @Content)
     @ApiResponse(responseCode = "404", description = "Match not found", content = @Content)
     @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
     @GetMapping
-    public Page<MatchOddsResponse> listByMatch(
+    public Page<?> listByMatch(
             @Parameter(description = "Match id", example = "1", required = true) @PathVariable Long matchId,
+            @Parameter(description = "Comma-separated properties to return: id, matchId, specifier, odd", example = "specifier,odd")
+            @RequestParam(required = false) List<String> fields,
             @ParameterObject
             @PageableDefault(size = 20) Pageable pageable
     ) {
-        return matchOddsService.listByMatchPage(matchId, pageable);
+        if (fields == null) {
+            return matchOddsService.listByMatchPage(matchId, pageable);
+        }
+        return matchOddsService.listByMatchPage(matchId, fields, pageable);
     }
 
     /**
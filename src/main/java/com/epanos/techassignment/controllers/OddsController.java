@@ -0,0 +1,52 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateResult;
+import com.epanos.techassignment.services.MatchOddsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/odds")
+@RequiredArgsConstructor
+@Tag(name = "Odds", description = "Odds operations that span multiple matches.")
+public class OddsController {
+
+    private final MatchOddsService matchOddsService;
+
+    /**
+     * Updates odd values on any number of matches in a single transactional request.
+     * Each item identifies its odd by match ID and specifier. Items that do not match an
+     * existing odd are reported as {@code NOT_FOUND}; the remaining items are still applied.
+     *
+     * @param requests list of (matchId, specifier, odd) items, at most 1000
+     * @return per-item results in request order
+     * @throws ConflictException if the same (matchId, specifier) appears more than once
+     */
+    @Operation(
+            summary = "Update odds across matches in bulk",
+            description = "Applies a batch of (matchId, specifier, odd) price changes in one transaction using batched UPDATEs. " +
+                    "Returns one result per item: UPDATED, or NOT_FOUND if the match has no odd with that specifier. At most 1000 items.",
+            operationId = "updateOddsBulk"
+    )
+    @ApiResponse(responseCode = "200", description = "Bulk update applied; see per-item status")
+    @ApiResponse(responseCode = "400", description = "Validation error", content = @Content)
+    @ApiResponse(responseCode = "409", description = "Duplicate (matchId, specifier) in payload", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PutMapping("/bulk")
+    public List<MatchOddsBulkUpdateResult> updateBulk(
+            @RequestBody @Valid @Size(max = 1000, message = "At most 1000 odds can be updated at once")
+            List<@Valid MatchOddsBulkUpdateRequest> requests
+    ) {
+        return matchOddsService.updateBulk(requests);
+    }
+}
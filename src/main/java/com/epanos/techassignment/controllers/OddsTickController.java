@@ -0,0 +1,56 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.services.OddsWriteBehindBuffer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/odds/ticks")
+@RequiredArgsConstructor
+@ConditionalOnBooleanProperty("app.odds.write-behind.enabled")
+@Tag(name = "Odds", description = "Odds operations that span multiple matches.")
+public class OddsTickController {
+
+    private final OddsWriteBehindBuffer oddsWriteBehindBuffer;
+
+    /**
+     * Accepts price ticks for asynchronous, coalesced writing. Only the latest odd per
+     * (matchId, specifier) is kept until the next flush, so repeated ticks for the same
+     * odd cost a single database update. Available when {@code app.odds.write-behind.enabled} is set.
+     *
+     * @param ticks list of (matchId, specifier, odd) items, at most 1000
+     * @throws ServiceUnavailableException if the buffer is full
+     */
+    @Operation(
+            summary = "Submit odds ticks for write-behind",
+            description = "Buffers (matchId, specifier, odd) ticks in memory and returns immediately. The buffer is written " +
+                    "to the database in batches at a fixed interval or once enough distinct odds are pending. " +
+                    "Ticks for odds that do not exist are dropped at flush time. At most 1000 items. " +
+                    "While the buffer is full, e.g. because the database is down, ticks are refused with 503.",
+            operationId = "submitOddsTicks"
+    )
+    @ApiResponse(responseCode = "202", description = "Ticks accepted into the buffer")
+    @ApiResponse(responseCode = "400", description = "Validation error", content = @Content)
+    @ApiResponse(responseCode = "503", description = "Buffer full; retry later", content = @Content)
+    @ApiResponse(responseCode = "500", description = "Internal server error", content = @Content)
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void submit(
+            @RequestBody @Valid @Size(max = 1000, message = "At most 1000 ticks can be submitted at once")
+            List<@Valid MatchOddsBulkUpdateRequest> ticks
+    ) {
+        oddsWriteBehindBuffer.offer(ticks);
+    }
+}
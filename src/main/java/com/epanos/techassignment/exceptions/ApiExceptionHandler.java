@@ -2,12 +2,14 @@ package com.epanos.techassignment.exceptions;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
@@ -34,6 +36,20 @@ public class ApiExceptionHandler {
                 .body(ApiError.of(409, "CONFLICT", ex.getMessage(), req.getRequestURI()));
     }
 
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiError> badRequest(BadRequestException ex, HttpServletRequest req) {
+        log.warn("Bad request: {}", ex.getMessage());
+        return ResponseEntity.badRequest()
+                .body(ApiError.of(400, "BAD_REQUEST", ex.getMessage(), req.getRequestURI()));
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> serviceUnavailable(ServiceUnavailableException ex, HttpServletRequest req) {
+        log.warn("Service unavailable: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiError.of(503, "SERVICE_UNAVAILABLE", ex.getMessage(), req.getRequestURI()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> validation(MethodArgumentNotValidException ex, HttpServletRequest req) {
         String msg = ex.getBindingResult().getFieldErrors().stream()
@@ -66,6 +82,32 @@ public class ApiExceptionHandler {
                 .body(ApiError.of(400, "VALIDATION_ERROR", msg, req.getRequestURI()));
     }
 
+    /**
+     * Handles constraint violations raised by programmatic validation in the service layer
+     * (e.g. a match document after a JSON Merge Patch has been applied).
+     */
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiError> constraintViolation(ConstraintViolationException ex, HttpServletRequest req) {
+        String msg = ex.getConstraintViolations().stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+        log.warn("Validation error: {}", msg);
+        return ResponseEntity.badRequest()
+                .body(ApiError.of(400, "VALIDATION_ERROR", msg, req.getRequestURI()));
+    }
+
+    /**
+     * Handles requests sent with a Content-Type the endpoint does not consume
+     * (e.g. PATCH without {@code application/merge-patch+json}).
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ApiError> unsupportedMediaType(HttpMediaTypeNotSupportedException ex, HttpServletRequest req) {
+        log.warn("Unsupported media type: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .body(ApiError.of(415, "UNSUPPORTED_MEDIA_TYPE", ex.getMessage(), req.getRequestURI()));
+    }
+
     /**
      * Handles missing or malformed request body (e.g., missing JSON in PUT/POST request).
      * Returns a friendly 400 Bad Request instead of 500 Internal Server Error.
@@ -0,0 +1,9 @@
+package com.epanos.techassignment.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Result of a filtered bulk delete")
+public record BulkDeleteResponse(
+        @Schema(description = "Number of rows deleted", example = "42") long deleted
+) {
+}
@@ -0,0 +1,10 @@
+package com.epanos.techassignment.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "An item of an asynchronous bulk job that could not be created")
+public record BulkJobError(
+        @Schema(description = "Index of the item in the submitted payload", example = "42") int index,
+        @Schema(description = "Why the item was not created", example = "Duplicate odds specifier in request payload: X") String message
+) {
+}
@@ -0,0 +1,60 @@
+package com.epanos.techassignment.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@Schema(description = "Progress of an asynchronous bulk job")
+public class BulkJobResponse {
+
+    @Schema(description = "Job id, polled at /api/jobs/{id}", example = "5b0d7f3e-9a55-4a7e-9f5c-0c1a7d6f2b11")
+    private UUID id;
+
+    @Schema(description = "What the job creates", example = "MATCHES")
+    private Type type;
+
+    @Schema(description = "Match the odds are created for; only for ODDS jobs", example = "1", nullable = true)
+    private Long matchId;
+
+    @Schema(description = "QUEUED until a worker picks it up, then RUNNING until COMPLETED, CANCELLED or FAILED", example = "RUNNING")
+    private Status status;
+
+    @Schema(description = "Number of items in the payload", example = "5000")
+    private int total;
+
+    @Schema(description = "Number of items processed so far", example = "1500")
+    private int processed;
+
+    @Schema(description = "Number of items created so far", example = "1498")
+    private int succeeded;
+
+    @Schema(description = "Number of items that failed so far; see /api/jobs/{id}/errors", example = "2")
+    private int failed;
+
+    @Schema(description = "When the job was accepted")
+    private Instant createdAt;
+
+    @Schema(description = "When a worker started the job", nullable = true)
+    private Instant startedAt;
+
+    @Schema(description = "When the job finished", nullable = true)
+    private Instant finishedAt;
+
+    public enum Type {
+        MATCHES,
+        ODDS
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+}
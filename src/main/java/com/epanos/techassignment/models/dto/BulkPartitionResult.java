@@ -0,0 +1,39 @@
+package com.epanos.techassignment.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Outcome of one partition of a partitioned bulk create; each partition is its own transaction")
+public class BulkPartitionResult {
+
+    @Schema(description = "Partition number, from 0", example = "0")
+    private int partition;
+
+    @Schema(description = "Index in the payload of the partition's first item", example = "0")
+    private int offset;
+
+    @Schema(description = "Number of items in the partition", example = "2500")
+    private int size;
+
+    @Schema(description = "CREATED if all items of the partition were created, FAILED if none were", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "Ids of the created matches, in payload order; empty if the partition failed")
+    private List<Long> ids;
+
+    @Schema(description = "Why the partition failed", example = "Database constraint violation: uk_match_fixture", nullable = true)
+    private String error;
+
+    @Schema(description = "Time spent writing the partition, in milliseconds", example = "840")
+    private long elapsedMillis;
+
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+}
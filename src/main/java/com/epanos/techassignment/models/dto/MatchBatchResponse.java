@@ -0,0 +1,19 @@
+package com.epanos.techassignment.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Response payload for a multi-get of Matches by id")
+public class MatchBatchResponse {
+
+    @Schema(description = "Matches found, in the order their ids were requested. Odds are always included.")
+    private List<MatchResponse> matches;
+
+    @Schema(description = "Requested ids for which no match exists", example = "[42]")
+    private List<Long> missingIds;
+}
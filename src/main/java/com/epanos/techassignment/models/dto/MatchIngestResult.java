@@ -0,0 +1,24 @@
+package com.epanos.techassignment.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Outcome of a single fixture in a match ingest")
+public class MatchIngestResult {
+
+    @Schema(description = "Id of the match holding the fixture", example = "1")
+    private Long id;
+
+    @Schema(description = "CREATED for a new fixture, UPDATED if its description changed, UNCHANGED if it was already stored as sent",
+            example = "UNCHANGED")
+    private Status status;
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        UNCHANGED
+    }
+}
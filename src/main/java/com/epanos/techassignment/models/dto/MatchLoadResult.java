@@ -0,0 +1,29 @@
+package com.epanos.techassignment.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Outcome of a fast load of matches and odds")
+public class MatchLoadResult {
+
+    @Schema(description = "Number of rows read from the input, one per odd or per fixture without odds", example = "3000000")
+    private long rows;
+
+    @Schema(description = "Number of fixtures that were new", example = "100000")
+    private long matchesCreated;
+
+    @Schema(description = "Number of known fixtures whose description changed", example = "0")
+    private long matchesUpdated;
+
+    @Schema(description = "Number of odds that were new", example = "2900000")
+    private long oddsCreated;
+
+    @Schema(description = "Number of known odds whose value changed", example = "100000")
+    private long oddsUpdated;
+
+    @Schema(description = "Time spent loading and merging, in milliseconds", example = "41200")
+    private long elapsedMillis;
+}
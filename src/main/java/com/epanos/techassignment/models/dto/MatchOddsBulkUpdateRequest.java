@@ -0,0 +1,35 @@
+package com.epanos.techassignment.models.dto;
+
+import com.epanos.techassignment.models.odds.JsonOdd;
+import com.epanos.techassignment.models.odds.Thousandths;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A single price change within a cross-match bulk odds update. The odd is looked up by match id and specifier.")
+public class MatchOddsBulkUpdateRequest {
+
+    @NotNull
+    @Schema(description = "Match id the odd belongs to", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    private Long matchId;
+
+    @NotBlank
+    @Size(min = 1, max = 16, message = "Specifier must be between 1 and 16 characters")
+    @Schema(description = "Specifier of the odd to update (e.g. 1, X, 2)", example = "X", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String specifier;
+
+    @Positive(message = "Odd value must be a positive decimal number with at most 3 decimal places")
+    @Max(value = Thousandths.MAX, message = "Odd value must be less than 1000")
+    @JsonOdd
+    @Schema(description = "New odd value (must be positive decimal number)", type = "number", example = "1.50", requiredMode = Schema.RequiredMode.REQUIRED)
+    private int odd;
+}
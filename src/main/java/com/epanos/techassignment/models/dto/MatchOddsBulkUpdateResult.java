@@ -0,0 +1,30 @@
+package com.epanos.techassignment.models.dto;
+
+import com.epanos.techassignment.models.odds.JsonOdd;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+@Schema(description = "Outcome of a single item in a cross-match bulk odds update")
+public class MatchOddsBulkUpdateResult {
+
+    @Schema(description = "Match id of the item", example = "1")
+    private Long matchId;
+
+    @Schema(description = "Specifier of the item", example = "X")
+    private String specifier;
+
+    @JsonOdd
+    @Schema(description = "Odd value requested for the item", type = "number", example = "1.50")
+    private int odd;
+
+    @Schema(description = "UPDATED if the odd was changed, NOT_FOUND if no odd with this specifier exists for the match", example = "UPDATED")
+    private Status status;
+
+    public enum Status {
+        UPDATED,
+        NOT_FOUND
+    }
+}
@@ -1,15 +1,22 @@
 package com.epanos.techassignment.models.dto;
 
+import com.epanos.techassignment.models.odds.JsonOdd;
+import com.epanos.techassignment.models.odds.Thousandths;
+import com.epanos.techassignment.models.odds.ThousandthsDeserializer;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
-
-import java.math.BigDecimal;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 @Data
+@JsonDeserialize(using = MatchOddsRequest.Deserializer.class)
 @Schema(description = "Request payload used for creating or updating Match Odds. All fields are required. Updates follow full replacement (PUT semantics).")
 public class MatchOddsRequest {
 
@@ -18,8 +25,80 @@ public class MatchOddsRequest {
     @Schema(description = "Specifier of the odd (e.g. 1, X, 2)", example = "X", requiredMode = Schema.RequiredMode.REQUIRED)
     private String specifier;
 
-    @NotNull
-    @DecimalMin(value = "0.0", inclusive = false, message = "Odd value must be a positive decimal number")
-    @Schema(description = "Odd value (must be positive decimal number)", example = "1.50", requiredMode = Schema.RequiredMode.REQUIRED)
-    private BigDecimal odd;
-}
\ No newline at end of file
+    @Positive(message = "Odd value must be a positive decimal number with at most 3 decimal places")
+    @Max(value = Thousandths.MAX, message = "Odd value must be less than 1000")
+    @JsonOdd
+    @Schema(description = "Odd value (must be positive decimal number)", type = "number", example = "1.50", requiredMode = Schema.RequiredMode.REQUIRED)
+    private int odd;
+
+    /**
+     * Stores the specifier trimmed; this is the only place specifiers of a request are normalized.
+     */
+    public void setSpecifier(String specifier) {
+        this.specifier = specifier == null ? null : specifier.trim();
+    }
+
+    /**
+     * Binds a request straight from the token stream. The specifier is trimmed while it is copied out of
+     * the parser's buffer, so it is allocated once.
+     */
+    public static final class Deserializer extends ValueDeserializer<MatchOddsRequest> {
+
+        static final Deserializer INSTANCE = new Deserializer();
+
+        @Override
+        public MatchOddsRequest deserialize(JsonParser p, DeserializationContext ctxt) {
+            return deserialize(p, ctxt, new MatchOddsRequest());
+        }
+
+        @Override
+        public MatchOddsRequest deserialize(JsonParser p, DeserializationContext ctxt, MatchOddsRequest req) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            } else if (token != JsonToken.PROPERTY_NAME && token != JsonToken.END_OBJECT) {
+                return (MatchOddsRequest) ctxt.handleUnexpectedToken(MatchOddsRequest.class, p);
+            }
+            for (; token == JsonToken.PROPERTY_NAME; token = p.nextToken()) {
+                String name = p.currentName();
+                token = p.nextToken();
+                switch (name) {
+                    case "specifier" -> {
+                        if (token == JsonToken.VALUE_STRING) {
+                            req.specifier = trimmed(p);
+                        } else {
+                            req.setSpecifier(readString(p, ctxt));
+                        }
+                    }
+                    case "odd" -> req.odd = token == JsonToken.VALUE_NULL ? 0 : ThousandthsDeserializer.read(p, ctxt);
+                    default -> ctxt.handleUnknownProperty(p, this, req, name);
+                }
+            }
+            return req;
+        }
+
+        /**
+         * Reads a string property, falling back to Jackson's coercions for tokens other than strings.
+         */
+        static String readString(JsonParser p, DeserializationContext ctxt) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                return p.getString();
+            }
+            return token == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, String.class);
+        }
+
+        private static String trimmed(JsonParser p) {
+            char[] buf = p.getStringCharacters();
+            int start = p.getStringOffset();
+            int end = start + p.getStringLength();
+            while (start < end && buf[start] <= ' ') {
+                start++;
+            }
+            while (end > start && buf[end - 1] <= ' ') {
+                end--;
+            }
+            return new String(buf, start, end - start);
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package com.epanos.techassignment.models.dto;
 
+import com.epanos.techassignment.models.odds.JsonOdd;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Data;
 
-import java.math.BigDecimal;
-
 @Data
 @Builder
 @Schema(description = "Response payload representing Match Odds")
@@ -20,6 +19,7 @@ public class MatchOddsResponse {
     @Schema(description = "Specifier of the odd", example = "X")
     private String specifier;
 
-    @Schema(description = "Odd value", example = "1.50")
-    private BigDecimal odd;
+    @JsonOdd
+    @Schema(description = "Odd value", type = "number", example = "1.50")
+    private int odd;
 }
\ No newline at end of file
@@ -7,12 +7,21 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.annotation.JsonDeserialize;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
 import java.util.List;
 
 @Data
+@JsonDeserialize(using = MatchRequest.Deserializer.class)
 @Schema(description = "Request payload used for creating or updating a Match. All fields are required. For updates, this represents a full replacement (PUT semantics).")
 public class MatchRequest {
 
@@ -46,4 +55,135 @@ public class MatchRequest {
     @Valid
     @Schema(description = "Optional list of match odds. If present during update, existing odds will be replaced.", nullable = true)
     private List<MatchOddsRequest> odds;
-}
\ No newline at end of file
+
+    /**
+     * Binds a request straight from the token stream instead of through reflective bean binding: sports
+     * are looked up by code and odds are read by {@link MatchOddsRequest.Deserializer}. Tokens of an
+     * unexpected type fall back to Jackson's own coercions, so errors read the same as before. Supports
+     * updating an existing request, as used for merge patches.
+     */
+    public static final class Deserializer extends ValueDeserializer<MatchRequest> {
+
+        @Override
+        public MatchRequest deserialize(JsonParser p, DeserializationContext ctxt) {
+            return deserialize(p, ctxt, new MatchRequest());
+        }
+
+        @Override
+        public MatchRequest deserialize(JsonParser p, DeserializationContext ctxt, MatchRequest req) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            } else if (token != JsonToken.PROPERTY_NAME && token != JsonToken.END_OBJECT) {
+                return (MatchRequest) ctxt.handleUnexpectedToken(MatchRequest.class, p);
+            }
+            for (; token == JsonToken.PROPERTY_NAME; token = p.nextToken()) {
+                String name = p.currentName();
+                token = p.nextToken();
+                switch (name) {
+                    case "description" -> req.description = MatchOddsRequest.Deserializer.readString(p, ctxt);
+                    case "matchDate" -> req.matchDate = readDate(p, ctxt);
+                    case "matchTime" -> req.matchTime = readTime(p, ctxt);
+                    case "teamA" -> req.teamA = MatchOddsRequest.Deserializer.readString(p, ctxt);
+                    case "teamB" -> req.teamB = MatchOddsRequest.Deserializer.readString(p, ctxt);
+                    case "sport" -> req.sport = readSport(p, ctxt);
+                    case "odds" -> req.odds = readOdds(p, ctxt);
+                    default -> ctxt.handleUnknownProperty(p, this, req, name);
+                }
+            }
+            return req;
+        }
+
+        /**
+         * Reads {@code yyyy-MM-dd} directly from the parser's buffer; anything else goes through Jackson's
+         * {@code LocalDate} deserializer, which is several times slower.
+         */
+        private static LocalDate readDate(JsonParser p, DeserializationContext ctxt) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token == JsonToken.VALUE_STRING && p.getStringLength() == 10) {
+                char[] c = p.getStringCharacters();
+                int o = p.getStringOffset();
+                int year = digits(c, o, 4);
+                int month = digits(c, o + 5, 2);
+                int day = digits(c, o + 8, 2);
+                if (year >= 0 && month >= 1 && month <= 12 && day >= 1 && c[o + 4] == '-' && c[o + 7] == '-'
+                        && day <= Month.of(month).length(Year.isLeap(year))) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return ctxt.readValue(p, LocalDate.class);
+        }
+
+        /**
+         * Reads {@code HH:mm} and {@code HH:mm:ss} directly from the parser's buffer; anything else goes
+         * through Jackson's {@code LocalTime} deserializer.
+         */
+        private static LocalTime readTime(JsonParser p, DeserializationContext ctxt) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            int length = token == JsonToken.VALUE_STRING ? p.getStringLength() : -1;
+            if (length == 5 || length == 8) {
+                char[] c = p.getStringCharacters();
+                int o = p.getStringOffset();
+                int hour = digits(c, o, 2);
+                int minute = digits(c, o + 3, 2);
+                int second = length == 8 && c[o + 5] == ':' ? digits(c, o + 6, 2) : length == 5 ? 0 : -1;
+                if (hour >= 0 && hour < 24 && minute >= 0 && minute < 60 && second >= 0 && second < 60 && c[o + 2] == ':') {
+                    return LocalTime.of(hour, minute, second);
+                }
+            }
+            return ctxt.readValue(p, LocalTime.class);
+        }
+
+        /**
+         * @return the value of {@code count} ASCII digits starting at {@code from}, or -1 if any is not a digit
+         */
+        private static int digits(char[] c, int from, int count) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                int d = c[i] - '0';
+                if (d < 0 || d > 9) {
+                    return -1;
+                }
+                value = value * 10 + d;
+            }
+            return value;
+        }
+
+        private static Sport readSport(JsonParser p, DeserializationContext ctxt) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.VALUE_NUMBER_INT) {
+                return ctxt.readValue(p, Sport.class);
+            }
+            int code = p.getIntValue();
+            try {
+                return Sport.fromCode(code);
+            } catch (IllegalArgumentException ex) {
+                return (Sport) ctxt.handleWeirdNumberValue(Sport.class, code, ex.getMessage());
+            }
+        }
+
+        private static List<MatchOddsRequest> readOdds(JsonParser p, DeserializationContext ctxt) {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                return ctxt.readValue(p, ctxt.getTypeFactory().constructCollectionType(List.class, MatchOddsRequest.class));
+            }
+            List<MatchOddsRequest> odds = new ArrayList<>();
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                odds.add(token == JsonToken.VALUE_NULL ? null : MatchOddsRequest.Deserializer.INSTANCE.deserialize(p, ctxt));
+            }
+            return odds;
+        }
+    }
+}
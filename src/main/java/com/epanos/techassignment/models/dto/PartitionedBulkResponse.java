@@ -0,0 +1,22 @@
+package com.epanos.techassignment.models.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Result of a partitioned bulk create")
+public class PartitionedBulkResponse {
+
+    @Schema(description = "Number of matches created", example = "7500")
+    private int created;
+
+    @Schema(description = "Number of matches in failed partitions", example = "2500")
+    private int failed;
+
+    @Schema(description = "Per-partition results, in payload order")
+    private List<BulkPartitionResult> partitions;
+}
@@ -3,6 +3,9 @@ package com.epanos.techassignment.models.entities;
 import com.epanos.techassignment.models.enums.Sport;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -10,7 +13,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "matches")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Match.CACHE_REGION)
+@Table(name = "matches",
+        uniqueConstraints = {@UniqueConstraint(name = "uk_match_fixture", columnNames = {"sport", "team_a", "team_b", "match_date", "match_time"})},
+        indexes = {@Index(name = "idx_match_kickoff_id", columnList = "match_date, match_time, id")}
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -18,6 +26,9 @@ import java.util.List;
 @Builder
 public class Match {
 
+    public static final String CACHE_REGION = "matches";
+    public static final String ODDS_CACHE_REGION = "matches.odds";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -42,6 +53,7 @@ public class Match {
     private Sport sport;
 
     @OneToMany(mappedBy = "match", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Match.ODDS_CACHE_REGION)
     @Builder.Default
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
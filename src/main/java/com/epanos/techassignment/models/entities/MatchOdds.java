@@ -1,15 +1,22 @@
 package com.epanos.techassignment.models.entities;
 
+import com.epanos.techassignment.models.odds.SpecifierConverter;
+import com.epanos.techassignment.models.odds.Thousandths;
+import com.epanos.techassignment.models.odds.ThousandthsConverter;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
-import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.Positive;
 import lombok.*;
-
-import java.math.BigDecimal;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = MatchOdds.CACHE_REGION)
 @Table(name = "match_odds",
-        uniqueConstraints = { @UniqueConstraint(name = "uk_match_specifier", columnNames = {"match_id", "specifier"})},
+        uniqueConstraints = { @UniqueConstraint(name = "uk_match_specifier", columnNames = {"match_id", "specifier_id"})},
         indexes = {@Index(name = "idx_match_id", columnList = "match_id")}
 )
 @Getter
@@ -19,21 +26,43 @@ import java.math.BigDecimal;
 @Builder
 public class MatchOdds {
 
+    public static final String CACHE_REGION = "match_odds";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "match_id", nullable = false)
+    @JoinColumn(name = "match_id", nullable = false, foreignKey = @ForeignKey(name = "fk_match_odds_match"))
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private Match match;
 
-    @Column(nullable = false, length = 16)
+    /**
+     * Stored as its id in {@code specifiers}, see {@link SpecifierConverter}.
+     */
+    @Convert(converter = SpecifierConverter.class)
+    @Column(name = "specifier_id", nullable = false)
     private String specifier;
 
-    @Digits(integer = 3, fraction = 3)
-    @DecimalMin(value = "0.0", inclusive = false)
+    /**
+     * The dictionary row of {@link #specifier}, mapped read-only for the foreign key and for sorting by name.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "specifier_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_match_odds_specifier"))
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Specifier specifierEntry;
+
+    /**
+     * The odd in thousandths, see {@link Thousandths}. The upper bound is enforced by the column's
+     * precision; a {@code @Max} here would be turned into a check constraint in the wrong unit.
+     */
+    @Positive
+    @Convert(converter = ThousandthsConverter.class)
     @Column(nullable = false, precision = 6, scale = 3)
-    private BigDecimal odd;
+    private int odd;
 }
\ No newline at end of file
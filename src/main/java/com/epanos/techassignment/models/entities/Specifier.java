@@ -0,0 +1,33 @@
+package com.epanos.techassignment.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Dictionary of odds specifiers, so {@code match_odds} stores a {@code smallint} instead of repeating the
+ * name. Rows are added by {@link com.epanos.techassignment.repositories.SpecifierDictionary} and never
+ * changed or deleted.
+ */
+@Entity
+@Immutable
+@Table(name = "specifiers",
+        uniqueConstraints = { @UniqueConstraint(name = "uk_specifier_name", columnNames = {"name"})}
+)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Specifier {
+
+    /**
+     * The longest name, in characters.
+     */
+    public static final int NAME_LENGTH = 16;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Short id;
+
+    @Column(nullable = false, length = NAME_LENGTH)
+    private String name;
+}
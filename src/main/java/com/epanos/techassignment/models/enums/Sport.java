@@ -3,13 +3,19 @@ package com.epanos.techassignment.models.enums;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 
-import java.util.Arrays;
-
 public enum Sport {
 
     FOOTBALL(1),
     BASKETBALL(2);
 
+    private static final Sport[] BY_CODE = new Sport[3];
+
+    static {
+        for (Sport sport : values()) {
+            BY_CODE[sport.code] = sport;
+        }
+    }
+
     private final int code;
 
     Sport(int code) {
@@ -23,10 +29,10 @@ public enum Sport {
 
     @JsonCreator
     public static Sport fromCode(int code) {
-        return Arrays.stream(values())
-                .filter(s -> s.code == code)
-                .findFirst()
-                .orElseThrow(() ->
-                        new IllegalArgumentException("Invalid sport value: " + code));
+        Sport sport = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (sport == null) {
+            throw new IllegalArgumentException("Invalid sport value: " + code);
+        }
+        return sport;
     }
 }
\ No newline at end of file
@@ -34,9 +34,24 @@ public class MatchMapper {
         match.setSport(req.getSport());
     }
 
+    /**
+     * Builds a request that represents the current state of a match, without odds.
+     * Used as the base document when applying a JSON Merge Patch.
+     */
+    public MatchRequest toRequest(Match match) {
+        MatchRequest req = new MatchRequest();
+        req.setDescription(match.getDescription());
+        req.setMatchDate(match.getMatchDate());
+        req.setMatchTime(match.getMatchTime());
+        req.setTeamA(match.getTeamA());
+        req.setTeamB(match.getTeamB());
+        req.setSport(match.getSport());
+        return req;
+    }
+
     public MatchOdds toEntity(MatchOddsRequest req) {
         return MatchOdds.builder()
-                .specifier(req.getSpecifier().trim())
+                .specifier(req.getSpecifier())
                 .odd(req.getOdd())
                 .build();
     }
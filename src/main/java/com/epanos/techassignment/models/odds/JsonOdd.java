@@ -0,0 +1,22 @@
+package com.epanos.techassignment.models.odds;
+
+import com.fasterxml.jackson.annotation.JacksonAnnotationsInside;
+import tools.jackson.databind.annotation.JsonDeserialize;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an {@code int} property holding an odd in thousandths, which appears in JSON as a decimal number
+ * ({@code 1850} as {@code 1.850}).
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@JacksonAnnotationsInside
+@JsonSerialize(using = ThousandthsSerializer.class)
+@JsonDeserialize(using = ThousandthsDeserializer.class)
+public @interface JsonOdd {
+}
@@ -0,0 +1,33 @@
+package com.epanos.techassignment.models.odds;
+
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps a specifier name to its {@code smallint} id in {@code specifiers}, through the in-memory
+ * {@link SpecifierDictionary}. Created by Spring, which injects the dictionary.
+ * <p>
+ * Converting a name that is not stored yet adds it to {@code specifiers}, which is what writing an odd
+ * needs. Hibernate converts query parameters the same way, so lookups by specifier must not go through
+ * JPQL; they are in {@code MatchOddsRepositoryImpl}, which resolves names without adding them.
+ */
+@Converter
+public class SpecifierConverter implements AttributeConverter<String, Short> {
+
+    private final SpecifierDictionary dictionary;
+
+    public SpecifierConverter(SpecifierDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(String specifier) {
+        return specifier == null ? null : (short) dictionary.code(specifier);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Short id) {
+        return id == null ? null : dictionary.name(id);
+    }
+}
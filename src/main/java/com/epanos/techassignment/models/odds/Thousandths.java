@@ -0,0 +1,143 @@
+package com.epanos.techassignment.models.odds;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point representation of odd values: an {@code int} counting thousandths, so {@code 1.850} is
+ * {@code 1850}. It covers the {@code numeric(6,3)} column exactly and lets odds be compared, stored and
+ * written to JSON without allocating {@link BigDecimal}s; conversion happens only at the JDBC boundary.
+ */
+public final class Thousandths {
+
+    public static final int SCALE = 3;
+
+    /**
+     * Largest odd that fits {@code numeric(6,3)}: {@code 999.999}.
+     */
+    public static final int MAX = 999_999;
+
+    /**
+     * Returned by the parsers for values with more than {@link #SCALE} decimals; fails validation.
+     */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    /**
+     * Returned by the parsers for values of {@code 1000} or more; fails validation.
+     */
+    public static final int TOO_LARGE = MAX + 1;
+
+    private static final int MAX_CHARS = 12;
+    private static final BigDecimal THOUSAND = BigDecimal.valueOf(1000);
+
+    private Thousandths() {
+    }
+
+    /**
+     * @return the odd in thousandths
+     * @throws ArithmeticException if the value has more than three decimals or does not fit an {@code int}
+     */
+    public static int of(BigDecimal odd) {
+        return odd.movePointRight(SCALE).intValueExact();
+    }
+
+    /**
+     * Converts any decimal with the same conventions as {@link #parse(char[], int, int)}.
+     */
+    public static int fromDecimal(BigDecimal odd) {
+        if (odd.abs().compareTo(THOUSAND) >= 0) {
+            return odd.signum() < 0 ? -TOO_LARGE : TOO_LARGE;
+        }
+        BigDecimal scaled = odd.movePointRight(SCALE);
+        if (scaled.signum() != 0 && scaled.stripTrailingZeros().scale() > 0) {
+            return INVALID;
+        }
+        return scaled.intValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(int odd) {
+        return BigDecimal.valueOf(odd, SCALE);
+    }
+
+    /**
+     * @return the odd as {@code d+.ddd}, e.g. {@code "1.500"}
+     */
+    public static String toString(int odd) {
+        char[] buf = new char[MAX_CHARS];
+        int len = format(odd, buf);
+        return new String(buf, buf.length - len, len);
+    }
+
+    /**
+     * Formats a non-negative odd as {@code d+.ddd}, right-aligned in {@code buf}, which must hold at least
+     * 12 characters.
+     *
+     * @return the number of characters written
+     */
+    public static int format(int odd, char[] buf) {
+        int value = odd;
+        int pos = buf.length;
+        for (int d = 0; d < SCALE; d++) {
+            buf[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        buf[--pos] = '.';
+        do {
+            buf[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        return buf.length - pos;
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 1.5}, {@code -2} or {@code 12.050} without allocating.
+     *
+     * @return the value in thousandths, {@link #INVALID} for more than three significant decimals,
+     * {@link #TOO_LARGE} (or its negation) for magnitudes of 1000 and above
+     * @throws NumberFormatException if the text is not a plain decimal, e.g. uses an exponent
+     */
+    public static int parse(char[] text, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = i < end && text[i] == '-';
+        if (negative || (i < end && text[i] == '+')) {
+            i++;
+        }
+        int units = 0;
+        int digits = 0;
+        boolean large = false;
+        while (i < end && text[i] >= '0' && text[i] <= '9') {
+            units = units * 10 + (text[i++] - '0');
+            large |= units > MAX / 1000;
+            digits++;
+        }
+        int fraction = 0;
+        int fractionDigits = 0;
+        boolean invalid = false;
+        if (i < end && text[i] == '.') {
+            i++;
+            while (i < end && text[i] >= '0' && text[i] <= '9') {
+                int d = text[i++] - '0';
+                if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + d;
+                } else {
+                    invalid |= d != 0;
+                }
+                fractionDigits++;
+            }
+        }
+        if (i != end || digits + fractionDigits == 0) {
+            throw new NumberFormatException("Not a plain decimal: " + new String(text, offset, length));
+        }
+        if (invalid) {
+            return INVALID;
+        }
+        if (large) {
+            return negative ? -TOO_LARGE : TOO_LARGE;
+        }
+        for (int d = Math.min(fractionDigits, SCALE); d < SCALE; d++) {
+            fraction *= 10;
+        }
+        int value = units * 1000 + fraction;
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,23 @@
+package com.epanos.techassignment.models.odds;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps an odd in thousandths to the {@code numeric(6,3)} column.
+ */
+@Converter
+public class ThousandthsConverter implements AttributeConverter<Integer, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Integer odd) {
+        return odd == null ? null : Thousandths.toBigDecimal(odd);
+    }
+
+    @Override
+    public Integer convertToEntityAttribute(BigDecimal odd) {
+        return odd == null ? null : Thousandths.of(odd);
+    }
+}
@@ -0,0 +1,52 @@
+package com.epanos.techassignment.models.odds;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.ValueDeserializer;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads a JSON number (or numeric string) into an odd in thousandths, parsing the token's characters
+ * directly instead of going through {@link BigDecimal}.
+ * <p>
+ * Values the column cannot hold are not rejected here but mapped to {@link Thousandths#INVALID} or
+ * {@link Thousandths#TOO_LARGE}, so they fail bean validation with a field-level message like any other
+ * bad odd. {@code null} reads as {@code 0}, which fails validation as well.
+ */
+public class ThousandthsDeserializer extends ValueDeserializer<Integer> {
+
+    @Override
+    public Integer deserialize(JsonParser p, DeserializationContext ctxt) {
+        return read(p, ctxt);
+    }
+
+    /**
+     * Reads the current token as an odd, for deserializers that bind odds themselves.
+     * {@code null} is not handled here.
+     */
+    public static int read(JsonParser p, DeserializationContext ctxt) {
+        JsonToken token = p.currentToken();
+        if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+            return (Integer) ctxt.handleUnexpectedToken(Integer.class, p);
+        }
+        try {
+            return Thousandths.parse(p.getStringCharacters(), p.getStringOffset(), p.getStringLength());
+        } catch (NumberFormatException ex) {
+            // exponents, binary formats and other spellings take the slow path
+            BigDecimal value;
+            try {
+                value = token == JsonToken.VALUE_STRING ? new BigDecimal(p.getString().trim()) : p.getDecimalValue();
+            } catch (NumberFormatException notNumeric) {
+                return (Integer) ctxt.handleWeirdStringValue(Integer.class, p.getString(), "not a valid odd value");
+            }
+            return Thousandths.fromDecimal(value);
+        }
+    }
+
+    @Override
+    public Integer getNullValue(DeserializationContext ctxt) {
+        return 0;
+    }
+}
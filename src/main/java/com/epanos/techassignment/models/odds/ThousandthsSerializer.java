@@ -0,0 +1,24 @@
+package com.epanos.techassignment.models.odds;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteCapability;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+
+/**
+ * Writes an odd in thousandths as a JSON number with three decimals ({@code 1850} as {@code 1.850}),
+ * straight from its digits.
+ */
+public class ThousandthsSerializer extends ValueSerializer<Integer> {
+
+    @Override
+    public void serialize(Integer odd, JsonGenerator gen, SerializationContext ctxt) {
+        if (odd < 0 || !gen.has(StreamWriteCapability.CAN_WRITE_FORMATTED_NUMBERS)) {
+            gen.writeNumber(Thousandths.toBigDecimal(odd));
+            return;
+        }
+        char[] buf = new char[12];
+        int len = Thousandths.format(odd, buf);
+        gen.writeNumber(buf, buf.length - len, len);
+    }
+}
@@ -0,0 +1,192 @@
+package com.epanos.techassignment.oddsbook;
+
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.odds.Thousandths;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.StreamWriteCapability;
+import tools.jackson.core.io.SerializedString;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable odds of one match, stored column-wise in primitive arrays: odd ids, specifier codes from
+ * {@link SpecifierDictionary}, and odds in {@link Thousandths}. Changes produce a new entry, which keeps
+ * the time the odds were loaded from the database: writes applied since then do not make it any fresher
+ * with respect to writes that bypassed the application.
+ * <p>
+ * Serializes to the same JSON array as a list of {@code MatchOddsResponse}, written straight from the
+ * arrays so a response allocates nothing per odd.
+ */
+@JsonSerialize(using = MatchOddsEntry.Serializer.class)
+public final class MatchOddsEntry {
+
+    private final long matchId;
+    private final long[] ids;
+    private final int[] specifierCodes;
+    private final int[] odds;
+    private final long loadedAt;
+    private final SpecifierDictionary dictionary;
+
+    MatchOddsEntry(long matchId, long[] ids, int[] specifierCodes, int[] odds, long loadedAt, SpecifierDictionary dictionary) {
+        this.matchId = matchId;
+        this.ids = ids;
+        this.specifierCodes = specifierCodes;
+        this.odds = odds;
+        this.loadedAt = loadedAt;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @param loadedAt when {@code odds} were read, in epoch milliseconds
+     */
+    public static MatchOddsEntry of(long matchId, List<MatchOdds> odds, long loadedAt, SpecifierDictionary dictionary) {
+        int n = odds.size();
+        long[] ids = new long[n];
+        int[] codes = new int[n];
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            MatchOdds o = odds.get(i);
+            ids[i] = o.getId();
+            codes[i] = dictionary.code(o.getSpecifier());
+            values[i] = o.getOdd();
+        }
+        return new MatchOddsEntry(matchId, ids, codes, values, loadedAt, dictionary);
+    }
+
+    public long matchId() {
+        return matchId;
+    }
+
+    /**
+     * @return when the odds were loaded from the database, in epoch milliseconds
+     */
+    long loadedAt() {
+        return loadedAt;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int i) {
+        return ids[i];
+    }
+
+    public String specifier(int i) {
+        return dictionary.name(specifierCodes[i]);
+    }
+
+    int specifierCode(int i) {
+        return specifierCodes[i];
+    }
+
+    /**
+     * @return the odd at {@code i} in thousandths
+     */
+    public int oddThousandths(int i) {
+        return odds[i];
+    }
+
+    /**
+     * @return a copy with the odd of {@code specifierCode} replaced, or {@code null} if the match has no such odd
+     */
+    MatchOddsEntry withOdd(int specifierCode, int odd) {
+        for (int i = 0; i < specifierCodes.length; i++) {
+            if (specifierCodes[i] == specifierCode) {
+                int[] values = odds.clone();
+                values[i] = odd;
+                return new MatchOddsEntry(matchId, ids, specifierCodes, values, loadedAt, dictionary);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a copy in which odd {@code id} has the given specifier and value, appended if it is new
+     */
+    MatchOddsEntry withSaved(long id, int specifierCode, int odd) {
+        int i = indexOf(id);
+        int n = ids.length;
+        long[] newIds = i < 0 ? Arrays.copyOf(ids, n + 1) : ids;
+        int[] codes = Arrays.copyOf(specifierCodes, newIds.length);
+        int[] values = Arrays.copyOf(odds, newIds.length);
+        int at = i < 0 ? n : i;
+        newIds[at] = id;
+        codes[at] = specifierCode;
+        values[at] = odd;
+        return new MatchOddsEntry(matchId, newIds, codes, values, loadedAt, dictionary);
+    }
+
+    /**
+     * @return a copy without odd {@code id}, or this entry if it does not contain it
+     */
+    MatchOddsEntry without(long id) {
+        int i = indexOf(id);
+        if (i < 0) {
+            return this;
+        }
+        int n = ids.length;
+        long[] newIds = new long[n - 1];
+        int[] codes = new int[n - 1];
+        int[] values = new int[n - 1];
+        System.arraycopy(ids, 0, newIds, 0, i);
+        System.arraycopy(ids, i + 1, newIds, i, n - i - 1);
+        System.arraycopy(specifierCodes, 0, codes, 0, i);
+        System.arraycopy(specifierCodes, i + 1, codes, i, n - i - 1);
+        System.arraycopy(odds, 0, values, 0, i);
+        System.arraycopy(odds, i + 1, values, i, n - i - 1);
+        return new MatchOddsEntry(matchId, newIds, codes, values, loadedAt, dictionary);
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Writes {@code [{"id":..,"matchId":..,"odd":1.850,"specifier":".."}, ...]}, the property order
+     * used for {@code MatchOddsResponse}.
+     */
+    public static final class Serializer extends ValueSerializer<MatchOddsEntry> {
+
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString MATCH_ID = new SerializedString("matchId");
+        private static final SerializableString ODD = new SerializedString("odd");
+        private static final SerializableString SPECIFIER = new SerializedString("specifier");
+
+        @Override
+        public void serialize(MatchOddsEntry entry, JsonGenerator gen, SerializationContext ctxt) {
+            char[] digits = new char[12];
+            boolean formatted = gen.has(StreamWriteCapability.CAN_WRITE_FORMATTED_NUMBERS);
+            gen.writeStartArray();
+            for (int i = 0; i < entry.ids.length; i++) {
+                gen.writeStartObject();
+                gen.writeName(ID);
+                gen.writeNumber(entry.ids[i]);
+                gen.writeName(MATCH_ID);
+                gen.writeNumber(entry.matchId);
+                gen.writeName(ODD);
+                if (formatted) {
+                    int len = Thousandths.format(entry.odds[i], digits);
+                    gen.writeNumber(digits, digits.length - len, len);
+                } else {
+                    gen.writeNumber(Thousandths.toBigDecimal(entry.odds[i]));
+                }
+                gen.writeName(SPECIFIER);
+                gen.writeString(entry.dictionary.name(entry.specifierCodes[i]));
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+}
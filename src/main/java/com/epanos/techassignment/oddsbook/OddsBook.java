@@ -0,0 +1,234 @@
+package com.epanos.techassignment.oddsbook;
+
+import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.repositories.MatchOddsRepository;
+import com.epanos.techassignment.repositories.MatchRepository;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * In-memory book of the current odds per match, serving "all odds of match X" without the database.
+ * <p>
+ * A match is loaded from the primary on first read and kept current from then on: the services report
+ * each odds write here and it is applied once the transaction commits, either as an in-place change of
+ * the entry or, for structural changes, by dropping the entry so the next read reloads it.
+ * <p>
+ * Only writes made through this instance reach its book. Writes through another instance, or that bypass
+ * the application, are not seen until the entry is reloaded, so an entry is reloaded once it is older than
+ * {@code maxAge}: that bounds how stale a read can be when more than one instance writes. Applied writes do
+ * not reset the age, which counts from the last load.
+ * <p>
+ * A load that raced with a commit must not install the pre-commit state. Every applied write bumps a
+ * version for the match's stripe, and a load is only installed if that version did not move while it
+ * was reading.
+ * <p>
+ * With an {@link OddsJournal} configured, every change is also journaled and the book is rebuilt from the
+ * journal while the application context starts, before the node reports ready. Recovered entries keep
+ * their load time, so those older than {@code maxAge} are left out and reload on their next read.
+ */
+@Service
+public class OddsBook {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    private final ConcurrentHashMap<Long, MatchOddsEntry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final SpecifierDictionary dictionary;
+    private final MatchRepository matchRepository;
+    private final MatchOddsRepository matchOddsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxMatches;
+    private final long maxAgeMillis;
+    private final Clock clock;
+    private final OddsJournal journal;
+
+    @Autowired
+    public OddsBook(SpecifierDictionary dictionary,
+                    MatchRepository matchRepository,
+                    MatchOddsRepository matchOddsRepository,
+                    PlatformTransactionManager transactionManager,
+                    @Value("${app.odds.book.max-matches:100000}") int maxMatches,
+                    @Value("${app.odds.book.max-age:1m}") Duration maxAge,
+                    Optional<OddsJournal> journal) {
+        this(dictionary, matchRepository, matchOddsRepository, transactionManager, maxMatches, maxAge, Clock.systemUTC(), journal);
+    }
+
+    OddsBook(SpecifierDictionary dictionary,
+             MatchRepository matchRepository,
+             MatchOddsRepository matchOddsRepository,
+             PlatformTransactionManager transactionManager,
+             int maxMatches,
+             Duration maxAge,
+             Clock clock,
+             Optional<OddsJournal> journal) {
+        this.dictionary = dictionary;
+        this.matchRepository = matchRepository;
+        this.matchOddsRepository = matchOddsRepository;
+        // read-write on purpose: loads must come from the primary, never from a lagging replica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxMatches = maxMatches;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.clock = clock;
+        this.journal = journal.orElse(null);
+        if (this.journal != null) {
+            try {
+                this.journal.recover().forEach((matchId, entry) -> {
+                    if (!stale(entry)) {
+                        entries.put(matchId, entry);
+                    }
+                });
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not open the odds journal", ex);
+            }
+            this.journal.start(entries::values);
+        }
+    }
+
+    /**
+     * Returns the current odds of a match, loading them on first access and once they are older than
+     * {@code maxAge}.
+     *
+     * @param matchId the match ID
+     * @return the match's odds
+     * @throws NotFoundException if match not found
+     */
+    public MatchOddsEntry current(Long matchId) {
+        MatchOddsEntry entry = entries.get(matchId);
+        return entry != null && !stale(entry) ? entry : load(matchId);
+    }
+
+    /**
+     * @return the number of matches currently held
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Records that the odd with the given specifier changed value. Applied after commit.
+     */
+    public void oddChanged(Long matchId, String specifier, int odd) {
+        int code = dictionary.code(specifier);
+        afterCommit(matchId, new OddsMutation.Changed(matchId, code, odd));
+    }
+
+    /**
+     * Records that an odd was created or replaced. Applied after commit.
+     */
+    public void oddSaved(Long matchId, Long oddId, String specifier, int odd) {
+        int code = dictionary.code(specifier);
+        afterCommit(matchId, new OddsMutation.Saved(matchId, oddId, code, odd));
+    }
+
+    /**
+     * Records that an odd was deleted. Applied after commit.
+     */
+    public void oddRemoved(Long matchId, Long oddId) {
+        afterCommit(matchId, new OddsMutation.Removed(matchId, oddId));
+    }
+
+    /**
+     * Drops a match, so its next read reloads it. Applied after commit.
+     */
+    public void invalidate(Long matchId) {
+        afterCommit(matchId, new OddsMutation.Invalidated(matchId));
+    }
+
+    /**
+     * Drops every match. Applied after commit.
+     */
+    public void invalidateAll() {
+        afterCommit(OddsJournal.ALL_MATCHES, new OddsMutation.Cleared());
+    }
+
+    private MatchOddsEntry load(Long matchId) {
+        int stripe = stripe(matchId);
+        long version = versions.get(stripe);
+        // taken before reading, so the entry is never younger than the data it holds
+        long loadedAt = clock.millis();
+        MatchOddsEntry loaded = transactionTemplate.execute(status -> {
+            List<MatchOdds> odds = matchOddsRepository.findByMatchId(matchId);
+            if (odds.isEmpty() && !matchRepository.existsById(matchId)) {
+                throw new NotFoundException("Match not found: " + matchId);
+            }
+            return MatchOddsEntry.of(matchId, odds, loadedAt, dictionary);
+        });
+        if (entries.size() < maxMatches || entries.containsKey(matchId)) {
+            record(() -> entries.compute(matchId, (id, current) -> versions.get(stripe) == version ? loaded : current) == loaded
+                    ? new OddsMutation.Loaded(loaded)
+                    : null);
+        }
+        return loaded;
+    }
+
+    private boolean stale(MatchOddsEntry entry) {
+        return clock.millis() - entry.loadedAt() >= maxAgeMillis;
+    }
+
+    private void afterCommit(long matchId, OddsMutation mutation) {
+        Supplier<OddsMutation> change = () -> {
+            if (matchId == OddsJournal.ALL_MATCHES) {
+                for (int i = 0; i < VERSION_STRIPES; i++) {
+                    versions.incrementAndGet(i);
+                }
+            } else {
+                versions.incrementAndGet(stripe(matchId));
+            }
+            mutation.applyTo(entries);
+            return mutation;
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (journal != null) {
+                    journal.pending(matchId);
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                record(change);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (journal != null) {
+                    journal.resolved(matchId);
+                }
+            }
+        });
+    }
+
+    private void record(Supplier<? extends OddsMutation> change) {
+        if (journal == null) {
+            change.get();
+        } else {
+            journal.record(change);
+        }
+    }
+
+    private static int stripe(long matchId) {
+        return Long.hashCode(matchId) & (VERSION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,616 @@
+package com.epanos.techassignment.oddsbook;
+
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only, memory-mapped journal of {@link OddsBook} mutations with periodic compact snapshots, so a
+ * restarted node rebuilds the book from local disk instead of reloading every match from the database.
+ * <p>
+ * The journal is a sequence of fixed-size segment files, {@code journal-<generation>.log}. Each record is
+ * {@code [length][crc32c][payload]}; the length is written last, so a record torn by a crash reads as the
+ * end of the journal. A snapshot ({@code snapshot.bin}) holds the complete book and the generation of the
+ * first segment it does not cover; older segments are deleted once it is on disk. Recovery loads the
+ * snapshot and replays the segments after it. Entries keep the time they were loaded from the database,
+ * so the book can tell how stale a recovered entry may be.
+ * <p>
+ * Mutations are applied to the book after the database commit, so a crash in between would lose one.
+ * Before commit a {@code pending} record is written for the match, and a {@code resolved} record once the
+ * transaction has completed; matches with a pending record still open after replay are dropped from the
+ * recovered book and reload on their next read.
+ * <p>
+ * Records reach the page cache immediately, which survives a crash of the process but not of the host.
+ * Segments and snapshots are forced to disk on snapshot and on shutdown, and a clean shutdown leaves a
+ * marker. After an unclean shutdown the journal is only trusted if the host has not rebooted since it was
+ * written (same kernel boot id); otherwise it is discarded and the book starts empty.
+ */
+@Slf4j
+public class OddsJournal {
+
+    /**
+     * Match ID of pending records for writes that affect every match.
+     */
+    static final long ALL_MATCHES = -1L;
+
+    private static final String SNAPSHOT = "snapshot.bin";
+    private static final String CLEAN_SHUTDOWN = "clean-shutdown";
+    private static final String BOOT_ID = "boot-id";
+    private static final Path SYSTEM_BOOT_ID = Path.of("/proc/sys/kernel/random/boot_id");
+    private static final Pattern SEGMENT = Pattern.compile("journal-(\\d{19})\\.log");
+    private static final int SNAPSHOT_MAGIC = 0x4f445353;
+    private static final int FORMAT_VERSION = 2;
+    private static final int RECORD_HEADER = 8;
+
+    // 1 was a loaded record without the load time; a journal holding one is discarded as unreadable
+    private static final byte LOADED = 9;
+    private static final byte CHANGED = 2;
+    private static final byte SAVED = 3;
+    private static final byte REMOVED = 4;
+    private static final byte INVALIDATED = 5;
+    private static final byte CLEARED = 6;
+    private static final byte PENDING = 7;
+    private static final byte RESOLVED = 8;
+
+    private final Path dir;
+    private final Path bootIdFile;
+    private final int segmentSize;
+    private final Duration snapshotInterval;
+    private final SpecifierDictionary dictionary;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, Integer> pending = new HashMap<>();
+    private final CRC32C crc = new CRC32C();
+    private final ScheduledExecutorService snapshotter;
+
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+    private long generation;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private Supplier<Collection<MatchOddsEntry>> state;
+    private boolean dirty;
+    private boolean broken;
+
+    public OddsJournal(Path dir, int segmentSize, Duration snapshotInterval, SpecifierDictionary dictionary) {
+        this(dir, SYSTEM_BOOT_ID, segmentSize, snapshotInterval, dictionary);
+    }
+
+    OddsJournal(Path dir, Path bootIdFile, int segmentSize, Duration snapshotInterval, SpecifierDictionary dictionary) {
+        this.dir = dir;
+        this.bootIdFile = bootIdFile;
+        this.segmentSize = segmentSize;
+        this.snapshotInterval = snapshotInterval;
+        this.dictionary = dictionary;
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "odds-journal-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Rebuilds the book from the last snapshot and the journal after it, and opens a new segment for writing.
+     *
+     * @return the recovered entries by match ID
+     */
+    Map<Long, MatchOddsEntry> recover() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(dir);
+        String bootId = readBootId();
+        boolean clean = Files.deleteIfExists(dir.resolve(CLEAN_SHUTDOWN));
+        boolean sameBoot = bootId != null && Files.exists(dir.resolve(BOOT_ID))
+                && bootId.equals(Files.readString(dir.resolve(BOOT_ID)));
+
+        Map<Long, MatchOddsEntry> entries = new HashMap<>();
+        Replay replay = new Replay(entries);
+        if (clean || sameBoot) {
+            try {
+                replay.run();
+            } catch (IOException | RuntimeException ex) {
+                log.warn("Odds journal in {} is unreadable, starting with an empty odds book: {}", dir, ex.toString());
+                entries.clear();
+                replay = new Replay(entries);
+                discard();
+            }
+        } else {
+            log.warn("Odds journal in {} was not shut down cleanly on this boot, starting with an empty odds book", dir);
+            discard();
+        }
+
+        Files.writeString(dir.resolve(BOOT_ID), bootId == null ? "" : bootId);
+        lock.lock();
+        try {
+            openSegment(replay.nextGeneration, segmentSize);
+            dirty = replay.records > 0 || replay.dropped > 0;
+        } finally {
+            lock.unlock();
+        }
+        log.info("Recovered {} matches from the odds journal ({} snapshot matches, {} journal records, {} dropped) in {} ms",
+                entries.size(), replay.snapshotMatches, replay.records, replay.dropped,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return entries;
+    }
+
+    /**
+     * Starts taking snapshots of {@code state} every {@code snapshotInterval}. The supplier is called with the
+     * journal locked, so it sees exactly the mutations recorded so far.
+     */
+    void start(Supplier<Collection<MatchOddsEntry>> state) {
+        this.state = state;
+        long interval = snapshotInterval.toMillis();
+        snapshotter.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException ex) {
+                log.error("Odds journal snapshot failed, keeping the journal: {}", ex.getMessage(), ex);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies a change to the book and journals the mutation it returns, atomically with respect to snapshots.
+     * A {@code null} result journals nothing.
+     */
+    void record(Supplier<? extends OddsMutation> change) {
+        lock.lock();
+        try {
+            OddsMutation mutation = change.get();
+            if (mutation != null) {
+                append(buf -> encode(mutation, buf));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that a transaction writing odds of the match is about to commit.
+     */
+    void pending(long matchId) {
+        lock.lock();
+        try {
+            pending.merge(matchId, 1, Integer::sum);
+            append(buf -> buf.put(PENDING).putLong(matchId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records that a transaction writing odds of the match has completed, whether or not it committed.
+     */
+    void resolved(long matchId) {
+        lock.lock();
+        try {
+            if (resolve(pending, matchId)) {
+                append(buf -> buf.put(RESOLVED).putLong(matchId));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the book and deletes the segments it covers. Does nothing if nothing was
+     * recorded since the last snapshot.
+     */
+    void snapshot() throws IOException {
+        long snapshotGeneration;
+        List<MatchOddsEntry> entries;
+        Map<Long, Integer> open;
+        lock.lock();
+        try {
+            if (!dirty || broken || state == null) {
+                return;
+            }
+            rotate(segmentSize);
+            snapshotGeneration = generation;
+            entries = List.copyOf(state.get());
+            open = Map.copyOf(pending);
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            writeSnapshot(snapshotGeneration, open, entries);
+        } catch (IOException | RuntimeException ex) {
+            lock.lock();
+            try {
+                dirty = true;
+            } finally {
+                lock.unlock();
+            }
+            throw ex;
+        }
+        for (long g : segmentGenerations()) {
+            if (g < snapshotGeneration) {
+                Files.deleteIfExists(segmentPath(g));
+            }
+        }
+    }
+
+    /**
+     * Takes a final snapshot, forces the journal to disk and marks the shutdown as clean.
+     */
+    public void close() throws IOException, InterruptedException {
+        snapshotter.shutdown();
+        snapshotter.awaitTermination(30, TimeUnit.SECONDS);
+        snapshot();
+        lock.lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            segment.force();
+            channel.close();
+            channel = null;
+            if (!broken) {
+                Files.writeString(dir.resolve(CLEAN_SHUTDOWN), "");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(Consumer<ByteBuffer> encoder) {
+        if (channel == null || broken) {
+            // a mutation the journal does not hold makes everything after it untrustworthy
+            poison();
+            return;
+        }
+        try {
+            while (true) {
+                scratch.clear();
+                try {
+                    encoder.accept(scratch);
+                    break;
+                } catch (BufferOverflowException ex) {
+                    scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+                }
+            }
+            scratch.flip();
+            int length = scratch.remaining();
+            if (segment.remaining() < RECORD_HEADER + length) {
+                rotate(Math.max(segmentSize, RECORD_HEADER + length));
+            }
+            crc.reset();
+            crc.update(scratch.duplicate());
+            int at = segment.position();
+            segment.position(at + RECORD_HEADER);
+            segment.put(scratch);
+            segment.putInt(at + 4, (int) crc.getValue());
+            // written last: until the length is there the record reads as the end of the journal
+            segment.putInt(at, length);
+            dirty = true;
+        } catch (IOException | RuntimeException ex) {
+            log.error("Writing the odds journal failed, it will be discarded on the next start: {}", ex.getMessage(), ex);
+            poison();
+        }
+    }
+
+    private void poison() {
+        if (broken) {
+            return;
+        }
+        broken = true;
+        try {
+            Files.deleteIfExists(dir.resolve(CLEAN_SHUTDOWN));
+            Files.deleteIfExists(dir.resolve(BOOT_ID));
+        } catch (IOException ex) {
+            log.error("Could not invalidate the odds journal in {}: {}", dir, ex.getMessage(), ex);
+        }
+    }
+
+    private void rotate(int size) throws IOException {
+        segment.force();
+        channel.close();
+        openSegment(generation + 1, size);
+    }
+
+    private void openSegment(long newGeneration, int size) throws IOException {
+        channel = FileChannel.open(segmentPath(newGeneration),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        generation = newGeneration;
+    }
+
+    private void encode(OddsMutation mutation, ByteBuffer buf) {
+        if (mutation instanceof OddsMutation.Loaded loaded) {
+            MatchOddsEntry entry = loaded.entry();
+            buf.put(LOADED).putLong(entry.matchId()).putLong(entry.loadedAt()).putInt(entry.size());
+            for (int i = 0; i < entry.size(); i++) {
+                buf.putLong(entry.id(i));
+                putString(buf, entry.specifier(i));
+                buf.putInt(entry.oddThousandths(i));
+            }
+        } else if (mutation instanceof OddsMutation.Changed changed) {
+            buf.put(CHANGED).putLong(changed.matchId());
+            putString(buf, dictionary.name(changed.specifierCode()));
+            buf.putInt(changed.odd());
+        } else if (mutation instanceof OddsMutation.Saved saved) {
+            buf.put(SAVED).putLong(saved.matchId()).putLong(saved.oddId());
+            putString(buf, dictionary.name(saved.specifierCode()));
+            buf.putInt(saved.odd());
+        } else if (mutation instanceof OddsMutation.Removed removed) {
+            buf.put(REMOVED).putLong(removed.matchId()).putLong(removed.oddId());
+        } else if (mutation instanceof OddsMutation.Invalidated invalidated) {
+            buf.put(INVALIDATED).putLong(invalidated.matchId());
+        } else if (mutation instanceof OddsMutation.Cleared) {
+            buf.put(CLEARED);
+        } else {
+            throw new IllegalArgumentException("Unknown odds mutation: " + mutation);
+        }
+    }
+
+    private static void putString(ByteBuffer buf, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buf.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return whether the match had a pending record; a transaction that rolled back before its commit
+     * started has none
+     */
+    private static boolean resolve(Map<Long, Integer> pending, long matchId) {
+        Integer count = pending.get(matchId);
+        if (count == null) {
+            return false;
+        }
+        if (count == 1) {
+            pending.remove(matchId);
+        } else {
+            pending.put(matchId, count - 1);
+        }
+        return true;
+    }
+
+    private void writeSnapshot(long snapshotGeneration, Map<Long, Integer> open, List<MatchOddsEntry> entries) throws IOException {
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream raw = Channels.newOutputStream(file);
+            CheckedOutputStream checked = new CheckedOutputStream(raw, new CRC32C());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(snapshotGeneration);
+
+            // indexed by code; codes are database ids and may have gaps, written as empty names
+            String[] names = dictionary.names();
+            out.writeInt(names.length);
+            for (String specifier : names) {
+                byte[] name = specifier == null ? new byte[0] : specifier.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+            }
+            out.writeInt(open.size());
+            for (Map.Entry<Long, Integer> p : open.entrySet()) {
+                out.writeLong(p.getKey());
+                out.writeInt(p.getValue());
+            }
+            out.writeInt(entries.size());
+            for (MatchOddsEntry entry : entries) {
+                out.writeLong(entry.matchId());
+                out.writeLong(entry.loadedAt());
+                out.writeInt(entry.size());
+                for (int i = 0; i < entry.size(); i++) {
+                    out.writeLong(entry.id(i));
+                    out.writeInt(entry.specifierCode(i));
+                    out.writeInt(entry.oddThousandths(i));
+                }
+            }
+            out.flush();
+            new DataOutputStream(raw).writeLong(checked.getChecksum().getValue());
+            file.force(true);
+        }
+        Files.move(tmp, dir.resolve(SNAPSHOT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<Long> segmentGenerations() throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(f -> {
+                Matcher m = SEGMENT.matcher(f.getFileName().toString());
+                if (m.matches()) {
+                    generations.add(Long.parseLong(m.group(1)));
+                }
+            });
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path segmentPath(long g) {
+        return dir.resolve(String.format("journal-%019d.log", g));
+    }
+
+    private void discard() throws IOException {
+        Files.deleteIfExists(dir.resolve(SNAPSHOT));
+        for (long g : segmentGenerations()) {
+            Files.deleteIfExists(segmentPath(g));
+        }
+    }
+
+    private String readBootId() {
+        try {
+            return Files.isReadable(bootIdFile) ? Files.readString(bootIdFile).trim() : null;
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads the snapshot and the segments after it into {@code entries}.
+     */
+    private final class Replay {
+
+        private final Map<Long, MatchOddsEntry> entries;
+        private final Map<Long, Integer> open = new LinkedHashMap<>();
+        private long nextGeneration;
+        private int snapshotMatches;
+        private long records;
+        private int dropped;
+
+        private Replay(Map<Long, MatchOddsEntry> entries) {
+            this.entries = entries;
+        }
+
+        private void run() throws IOException {
+            long first = readSnapshot();
+            nextGeneration = first;
+            for (long g : segmentGenerations()) {
+                if (g < first) {
+                    Files.deleteIfExists(segmentPath(g));
+                    continue;
+                }
+                replaySegment(g);
+                nextGeneration = g + 1;
+            }
+
+            for (Long matchId : open.keySet()) {
+                if (matchId == ALL_MATCHES) {
+                    dropped += entries.size();
+                    entries.clear();
+                } else if (entries.remove(matchId) != null) {
+                    dropped++;
+                }
+            }
+        }
+
+        private long readSnapshot() throws IOException {
+            Path file = dir.resolve(SNAPSHOT);
+            if (!Files.exists(file)) {
+                return 0;
+            }
+            ByteBuffer buf;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            int body = buf.limit() - Long.BYTES;
+            CRC32C check = new CRC32C();
+            check.update(buf.slice(0, Math.max(body, 0)));
+            if (body < 2 * Integer.BYTES || buf.getLong(body) != check.getValue()) {
+                throw new IOException("Odds snapshot checksum mismatch: " + file);
+            }
+            if (buf.getInt() != SNAPSHOT_MAGIC || buf.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not an odds snapshot: " + file);
+            }
+            long snapshotGeneration = buf.getLong();
+
+            int[] codes = new int[buf.getInt()];
+            for (int i = 0; i < codes.length; i++) {
+                String name = getString(buf);
+                codes[i] = name.isEmpty() ? SpecifierDictionary.NOT_FOUND : dictionary.code(name);
+            }
+            int openCount = buf.getInt();
+            for (int i = 0; i < openCount; i++) {
+                open.put(buf.getLong(), buf.getInt());
+            }
+            snapshotMatches = buf.getInt();
+            for (int m = 0; m < snapshotMatches; m++) {
+                long matchId = buf.getLong();
+                long loadedAt = buf.getLong();
+                int n = buf.getInt();
+                long[] ids = new long[n];
+                int[] specifierCodes = new int[n];
+                int[] odds = new int[n];
+                for (int i = 0; i < n; i++) {
+                    ids[i] = buf.getLong();
+                    specifierCodes[i] = codes[buf.getInt()];
+                    odds[i] = buf.getInt();
+                }
+                entries.put(matchId, new MatchOddsEntry(matchId, ids, specifierCodes, odds, loadedAt, dictionary));
+            }
+            return snapshotGeneration;
+        }
+
+        private void replaySegment(long g) throws IOException {
+            ByteBuffer buf;
+            try (FileChannel file = FileChannel.open(segmentPath(g), StandardOpenOption.READ)) {
+                buf = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+            }
+            CRC32C check = new CRC32C();
+            while (buf.remaining() >= RECORD_HEADER) {
+                int length = buf.getInt();
+                int checksum = buf.getInt();
+                if (length <= 0 || length > buf.remaining()) {
+                    return;
+                }
+                ByteBuffer payload = buf.slice(buf.position(), length);
+                check.reset();
+                check.update(payload.duplicate());
+                if ((int) check.getValue() != checksum) {
+                    return;
+                }
+                apply(payload);
+                buf.position(buf.position() + length);
+                records++;
+            }
+        }
+
+        private void apply(ByteBuffer buf) {
+            byte type = buf.get();
+            switch (type) {
+                case LOADED -> {
+                    long matchId = buf.getLong();
+                    long loadedAt = buf.getLong();
+                    int n = buf.getInt();
+                    long[] ids = new long[n];
+                    int[] codes = new int[n];
+                    int[] odds = new int[n];
+                    for (int i = 0; i < n; i++) {
+                        ids[i] = buf.getLong();
+                        codes[i] = dictionary.code(getString(buf));
+                        odds[i] = buf.getInt();
+                    }
+                    new OddsMutation.Loaded(new MatchOddsEntry(matchId, ids, codes, odds, loadedAt, dictionary)).applyTo(entries);
+                }
+                case CHANGED -> new OddsMutation.Changed(buf.getLong(), dictionary.code(getString(buf)), buf.getInt()).applyTo(entries);
+                case SAVED -> new OddsMutation.Saved(buf.getLong(), buf.getLong(), dictionary.code(getString(buf)), buf.getInt()).applyTo(entries);
+                case REMOVED -> new OddsMutation.Removed(buf.getLong(), buf.getLong()).applyTo(entries);
+                case INVALIDATED -> new OddsMutation.Invalidated(buf.getLong()).applyTo(entries);
+                case CLEARED -> new OddsMutation.Cleared().applyTo(entries);
+                case PENDING -> open.merge(buf.getLong(), 1, Integer::sum);
+                case RESOLVED -> resolve(open, buf.getLong());
+                default -> throw new IllegalStateException("Unknown odds journal record type " + type);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.epanos.techassignment.oddsbook;
+
+import java.util.Map;
+
+/**
+ * A change to the odds book's entries. The book applies mutations as they commit, and
+ * {@link OddsJournal} writes them down and replays them on startup, so both go through {@link #applyTo}.
+ */
+sealed interface OddsMutation {
+
+    void applyTo(Map<Long, MatchOddsEntry> entries);
+
+    /**
+     * A match was loaded from the database.
+     */
+    record Loaded(MatchOddsEntry entry) implements OddsMutation {
+
+        @Override
+        public void applyTo(Map<Long, MatchOddsEntry> entries) {
+            entries.put(entry.matchId(), entry);
+        }
+    }
+
+    /**
+     * The odd with the given specifier changed value; a match without that specifier is dropped.
+     */
+    record Changed(long matchId, int specifierCode, int odd) implements OddsMutation {
+
+        @Override
+        public void applyTo(Map<Long, MatchOddsEntry> entries) {
+            entries.computeIfPresent(matchId, (id, entry) -> entry.withOdd(specifierCode, odd));
+        }
+    }
+
+    /**
+     * An odd was created or replaced.
+     */
+    record Saved(long matchId, long oddId, int specifierCode, int odd) implements OddsMutation {
+
+        @Override
+        public void applyTo(Map<Long, MatchOddsEntry> entries) {
+            entries.computeIfPresent(matchId, (id, entry) -> entry.withSaved(oddId, specifierCode, odd));
+        }
+    }
+
+    /**
+     * An odd was deleted.
+     */
+    record Removed(long matchId, long oddId) implements OddsMutation {
+
+        @Override
+        public void applyTo(Map<Long, MatchOddsEntry> entries) {
+            entries.computeIfPresent(matchId, (id, entry) -> entry.without(oddId));
+        }
+    }
+
+    /**
+     * A match changed in a way that needs a reload.
+     */
+    record Invalidated(long matchId) implements OddsMutation {
+
+        @Override
+        public void applyTo(Map<Long, MatchOddsEntry> entries) {
+            entries.remove(matchId);
+        }
+    }
+
+    /**
+     * Every match needs a reload.
+     */
+    record Cleared() implements OddsMutation {
+
+        @Override
+        public void applyTo(Map<Long, MatchOddsEntry> entries) {
+            entries.clear();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.epanos.techassignment.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Paged Criteria queries that select only some attributes of an entity, so the SQL select list holds just
+ * their columns and nothing else is read or hydrated. The count query runs only when the page does not
+ * already tell the total, as for derived queries.
+ */
+final class AttributeProjection {
+
+    private AttributeProjection() {
+    }
+
+    /**
+     * @param attributes attribute paths such as {@code teamA} or {@code match.id}; tuple element {@code i}
+     *                   holds attribute {@code i}
+     * @param filter restricts the rows, or {@code null} for all of them
+     */
+    static <T> Page<Tuple> page(EntityManager entityManager, Class<T> type, List<String> attributes,
+                                PredicateSpecification<T> filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(type);
+        query.select(cb.tuple(attributes.stream().<Selection<?>>map(a -> path(root, a)).toList()));
+        if (filter != null) {
+            query.where(filter.toPredicate(root, cb));
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typed.getResultList(), pageable,
+                () -> count(entityManager, type, filter));
+    }
+
+    private static <T> long count(EntityManager entityManager, Class<T> type, PredicateSpecification<T> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(type);
+        query.select(cb.count(root));
+        if (filter != null) {
+            query.where(filter.toPredicate(root, cb));
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Path<?> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+}
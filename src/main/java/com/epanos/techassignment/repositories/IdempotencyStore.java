@@ -0,0 +1,180 @@
+package com.epanos.techassignment.repositories;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Outcomes of requests sent with an {@code Idempotency-Key}, kept in the {@code idempotency_keys} table so
+ * that a retry reaching any instance gets the stored response instead of repeating the work.
+ * <p>
+ * A key is first claimed, which stores only the request's hash and lasts for {@code lockTimeout}: a
+ * request that died without completing or releasing its claim does not block the key for longer. A
+ * completed key keeps the response status, content type and gzip-compressed body for {@code ttl}. Expired
+ * keys may be claimed again and are deleted every {@code purgeInterval}. Keys are scoped to the
+ * authenticated user.
+ * <p>
+ * Every statement auto-commits on its own, so a claim is visible to concurrent retries at once and is not
+ * rolled back with the request's transaction.
+ */
+@Slf4j
+public class IdempotencyStore {
+
+    private static final String CREATE_TABLE = """
+            create table if not exists idempotency_keys (
+                principal varchar(100) not null,
+                idempotency_key varchar(255) not null,
+                request_hash bytea not null,
+                status smallint,
+                content_type varchar(255),
+                body bytea,
+                expires_at timestamptz not null,
+                primary key (principal, idempotency_key))""";
+
+    /**
+     * Claims a new or expired key. The main query still sees the table as of before the insert, so a key
+     * the insert did not claim is returned as it was: completed, or claimed by a request in progress. A
+     * key claimed by a request that committed after this statement started is not visible at all.
+     */
+    private static final String CLAIM = """
+            with claimed as (
+                insert into idempotency_keys (principal, idempotency_key, request_hash, expires_at)
+                values (?, ?, ?, now() + ? * interval '1 millisecond')
+                on conflict (principal, idempotency_key) do update
+                    set request_hash = excluded.request_hash, status = null, content_type = null, body = null,
+                        expires_at = excluded.expires_at
+                    where idempotency_keys.expires_at < now()
+                returning 1)
+            select exists (select 1 from claimed), k.request_hash, k.status, k.content_type, k.body
+            from (select 1) one
+            left join idempotency_keys k on k.principal = ? and k.idempotency_key = ? and k.expires_at >= now()""";
+
+    private static final String COMPLETE = """
+            update idempotency_keys
+            set status = ?, content_type = ?, body = ?, expires_at = now() + ? * interval '1 millisecond'
+            where principal = ? and idempotency_key = ? and status is null""";
+
+    private static final String RELEASE =
+            "delete from idempotency_keys where principal = ? and idempotency_key = ? and status is null";
+
+    private static final String PURGE = "delete from idempotency_keys where expires_at < now()";
+
+    /**
+     * A key that is already claimed.
+     *
+     * @param requestHash the hash of the request that claimed it
+     * @param response    the stored response, or {@code null} while that request is in progress
+     */
+    public record Claim(byte[] requestHash, StoredResponse response) {
+    }
+
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration lockTimeout;
+    private final Duration purgeInterval;
+    private ScheduledExecutorService purger;
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration lockTimeout, Duration purgeInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.lockTimeout = lockTimeout;
+        this.purgeInterval = purgeInterval;
+    }
+
+    /**
+     * Creates the table if needed and starts purging expired keys in the background.
+     */
+    public void start() {
+        jdbcTemplate.execute(CREATE_TABLE);
+        purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-purge");
+            t.setDaemon(true);
+            return t;
+        });
+        purger.scheduleWithFixedDelay(this::purge, purgeInterval.toMillis(), purgeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    /**
+     * Claims a key for a request about to run, unless a live claim exists.
+     *
+     * @return empty if the caller now holds the key and must {@link #complete} or {@link #release} it,
+     *         otherwise the existing claim; a claim without a request hash was made by a concurrent request
+     *         that is still in progress
+     */
+    public Optional<Claim> claim(String principal, String key, byte[] requestHash) {
+        return jdbcTemplate.query(CLAIM, rs -> {
+            rs.next();
+            if (rs.getBoolean(1)) {
+                return Optional.empty();
+            }
+            byte[] body = rs.getBytes(5);
+            StoredResponse response = rs.getObject(3) == null ? null
+                    : new StoredResponse(rs.getInt(3), rs.getString(4), body == null ? new byte[0] : gunzip(body));
+            return Optional.of(new Claim(rs.getBytes(2), response));
+        }, principal, key, requestHash, lockTimeout.toMillis(), principal, key);
+    }
+
+    /**
+     * Stores the response of a claimed key, for {@code ttl}.
+     */
+    public void complete(String principal, String key, StoredResponse response) {
+        jdbcTemplate.update(COMPLETE, response.status(), response.contentType(), gzip(response.body()), ttl.toMillis(),
+                principal, key);
+    }
+
+    /**
+     * Drops a claimed key whose request did not succeed, so that a retry runs it again.
+     */
+    public void release(String principal, String key) {
+        jdbcTemplate.update(RELEASE, principal, key);
+    }
+
+    void purge() {
+        try {
+            int purged = jdbcTemplate.update(PURGE);
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Purging expired idempotency keys failed: {}", ex.getMessage());
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] bytes) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return gzip.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
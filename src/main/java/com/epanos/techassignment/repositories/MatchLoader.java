@@ -0,0 +1,365 @@
+package com.epanos.techassignment.repositories;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.models.dto.MatchLoadResult;
+import com.epanos.techassignment.models.dto.MatchOddsRequest;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.models.entities.Match;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.enums.Sport;
+import com.epanos.techassignment.models.odds.Thousandths;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Loads matches and odds in bulk through PostgreSQL's {@code COPY}, which streams rows into the server
+ * without a statement per row.
+ * <p>
+ * The input has one row per odd, with the fixture repeated on each, or one row without specifier and odd
+ * for a fixture without odds. It is copied into a temporary staging table, checked as a whole, and then
+ * merged with one statement for matches and one for odds: new fixtures are created, known ones get the
+ * loaded description; new odds are created and known ones, by {@code uk_match_specifier}, get the loaded
+ * value. Rows that repeat a fixture or an odd are merged in input order, the last one winning. Everything
+ * happens in the caller's transaction, so a load is applied completely or not at all.
+ * <p>
+ * The merge bypasses Hibernate, so the match and odds cache regions are evicted as a whole, immediately
+ * and again after the transaction completes. With odds documents enabled, the documents of every match
+ * that got odds are rebuilt in the same transaction.
+ */
+@Repository
+public class MatchLoader {
+
+    public enum Format {
+        /**
+         * Comma-separated, UTF-8, with the header {@code description,match_date,match_time,team_a,team_b,sport,specifier,odd}.
+         */
+        CSV,
+        /**
+         * One {@code MatchRequest} JSON object per line, with its odds.
+         */
+        NDJSON
+    }
+
+    private static final String COLUMNS = "description, match_date, match_time, team_a, team_b, sport, specifier, odd";
+
+    private static final String CREATE_STAGING = """
+            create temp table load_rows (
+                line bigint generated always as identity,
+                description text, match_date date, match_time time, team_a text, team_b text, sport text,
+                specifier text, odd numeric)
+            on commit drop""";
+
+    private static final String CREATE_TOUCHED = "create temp table load_touched (match_id bigint primary key) on commit drop";
+
+    /**
+     * {@code header match} fails a file whose header does not name the columns in this order.
+     */
+    private static final String COPY_CSV = "copy load_rows (" + COLUMNS + ") from stdin with (format csv, header match)";
+
+    private static final String COPY_ROWS = "copy load_rows (" + COLUMNS + ") from stdin with (format csv)";
+
+    /**
+     * Maps the sport codes of the API to the stored names; unknown codes map to {@code null}.
+     */
+    private static final String SPORT = Arrays.stream(Sport.values())
+            .map(sport -> "when '" + sport.getCode() + "' then '" + sport.name() + "'")
+            .collect(Collectors.joining(" ", "case r.sport ", " end"));
+
+    /**
+     * The first row that breaks a constraint of {@link MatchRequest} or {@link MatchOddsRequest}, by its position
+     * in the input.
+     */
+    private static final String FIRST_INVALID = """
+            select line, problem from (
+                select r.line, case
+                    when r.description is null or r.match_date is null or r.match_time is null
+                         or r.team_a is null or r.team_b is null or r.sport is null
+                        then 'description, match_date, match_time, team_a, team_b and sport are required'
+                    when btrim(r.description) = '' or btrim(r.team_a) = '' or btrim(r.team_b) = ''
+                        then 'description, team_a and team_b must not be blank'
+                    when length(r.description) > 255 then 'description must be at most 255 characters'
+                    when length(r.team_a) > 100 or length(r.team_b) > 100
+                        then 'team_a and team_b must be at most 100 characters'
+                    when %s is null then 'unknown sport ' || r.sport
+                    when (nullif(btrim(r.specifier), '') is null) <> (r.odd is null)
+                        then 'specifier and odd must be given together'
+                    when length(btrim(r.specifier)) > 16 then 'specifier must be at most 16 characters'
+                    when r.odd <= 0 or r.odd >= 1000 or r.odd <> round(r.odd, 3)
+                        then 'odd must be positive, less than 1000 and have at most 3 decimals'
+                end as problem
+                from load_rows r) checked
+            where problem is not null
+            order by line
+            limit 1""".formatted(SPORT);
+
+    private static final String MERGE_MATCHES = """
+            with upserted as (
+                insert into matches (description, match_date, match_time, team_a, team_b, sport)
+                select distinct on (sport, team_a, team_b, match_date, match_time)
+                    description, match_date, match_time, team_a, team_b, sport
+                from (select r.line, r.description, r.match_date, r.match_time, r.team_a, r.team_b, %s as sport
+                      from load_rows r) f
+                order by sport, team_a, team_b, match_date, match_time, line desc
+                on conflict on constraint uk_match_fixture do update set description = excluded.description
+                where matches.description is distinct from excluded.description
+                returning xmax = 0 as created)
+            select count(*) filter (where created), count(*) filter (where not created) from upserted""".formatted(SPORT);
+
+    private static final String ADD_SPECIFIERS = """
+            insert into specifiers (name)
+            select distinct btrim(r.specifier) from load_rows r where r.odd is not null
+            on conflict (name) do nothing""";
+
+    /**
+     * Takes the sport mapping, then {@link #RECORD_TOUCHED} when the odds documents need rebuilding.
+     */
+    private static final String MERGE_ODDS = """
+            with upserted as (
+                insert into match_odds (match_id, specifier_id, odd)
+                select distinct on (m.id, s.id) m.id, s.id, r.odd
+                from load_rows r
+                join matches m on (m.sport, m.team_a, m.team_b, m.match_date, m.match_time)
+                    = (%s, r.team_a, r.team_b, r.match_date, r.match_time)
+                join specifiers s on s.name = btrim(r.specifier)
+                where r.odd is not null
+                order by m.id, s.id, r.line desc
+                on conflict on constraint uk_match_specifier do update set odd = excluded.odd
+                where match_odds.odd is distinct from excluded.odd
+                returning match_id, xmax = 0 as created)%s
+            select count(*) filter (where created), count(*) filter (where not created) from upserted""";
+
+    private static final String RECORD_TOUCHED =
+            ",\ntouched as (insert into load_touched select distinct match_id from upserted)";
+
+    private static final String LOCK_TOUCHED =
+            "select id from matches where id in (select match_id from load_touched) order by id for update";
+
+    private static final String REBUILD_TOUCHED = """
+            update matches m set odds_document = coalesce((
+                select jsonb_object_agg(o.specifier_id, jsonb_build_array(o.id, (o.odd * 1000)::int))
+                from match_odds o where o.match_id = m.id), '{}')
+            where m.id in (select match_id from load_touched)""";
+
+    private static final String MATCH_ODDS_ROLE = Match.class.getName() + ".odds";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final boolean documentsEnabled;
+
+    public MatchLoader(JdbcTemplate jdbcTemplate,
+                       EntityManagerFactory entityManagerFactory,
+                       JsonMapper jsonMapper,
+                       Validator validator,
+                       @Value("${app.odds.documents.enabled:false}") boolean documentsEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.documentsEnabled = documentsEnabled;
+    }
+
+    /**
+     * Copies the input into staging and merges it into {@code matches} and {@code match_odds}. Must run
+     * in a transaction.
+     *
+     * @param input  the rows, read to the end but not closed
+     * @param format how the rows are written
+     * @return the row count and what the merge created or changed; the elapsed time is left for the caller
+     * @throws BadRequestException if a row is malformed or breaks a rule the API would enforce; nothing is
+     *                             loaded then
+     */
+    public MatchLoadResult load(InputStream input, Format format) {
+        return jdbcTemplate.execute((Connection con) -> {
+            try (Statement st = con.createStatement()) {
+                st.execute(CREATE_STAGING);
+            }
+            CopyManager copy = con.unwrap(PGConnection.class).getCopyAPI();
+            long rows;
+            try {
+                rows = format == Format.CSV ? copy.copyIn(COPY_CSV, input) : copyNdjson(copy, input);
+            } catch (PSQLException ex) {
+                throw badData(ex).orElseThrow(() -> ex);
+            } catch (IOException ex) {
+                if (ex.getCause() instanceof PSQLException cause) {
+                    throw badData(cause).orElseThrow(() -> cause);
+                }
+                throw new UncheckedIOException(ex);
+            }
+
+            try (Statement st = con.createStatement()) {
+                // temporary tables are never analyzed automatically; the merge joins on this one
+                st.execute("analyze load_rows");
+                try (ResultSet rs = st.executeQuery(FIRST_INVALID)) {
+                    if (rs.next()) {
+                        throw new BadRequestException("Row " + rs.getLong(1) + ": " + rs.getString(2));
+                    }
+                }
+
+                MatchLoadResult.MatchLoadResultBuilder result = MatchLoadResult.builder().rows(rows);
+                try (ResultSet rs = st.executeQuery(MERGE_MATCHES)) {
+                    rs.next();
+                    result.matchesCreated(rs.getLong(1)).matchesUpdated(rs.getLong(2));
+                }
+                st.executeUpdate(ADD_SPECIFIERS);
+                if (documentsEnabled) {
+                    st.execute(CREATE_TOUCHED);
+                }
+                try (ResultSet rs = st.executeQuery(MERGE_ODDS.formatted(SPORT, documentsEnabled ? RECORD_TOUCHED : ""))) {
+                    rs.next();
+                    result.oddsCreated(rs.getLong(1)).oddsUpdated(rs.getLong(2));
+                }
+                if (documentsEnabled) {
+                    st.execute(LOCK_TOUCHED);
+                    st.executeUpdate(REBUILD_TOUCHED);
+                }
+                evict(cache -> {
+                    cache.evictEntityData(Match.class);
+                    cache.evictEntityData(MatchOdds.class);
+                    cache.evictCollectionData(MATCH_ODDS_ROLE);
+                });
+                return result.build();
+            }
+        });
+    }
+
+    /**
+     * Validates each line as the API would validate a {@link MatchRequest} and writes it as CSV rows into
+     * the copy; the first invalid line cancels the copy.
+     */
+    private long copyNdjson(CopyManager copy, InputStream input) throws SQLException, IOException {
+        PGCopyOutputStream out = new PGCopyOutputStream(copy.copyIn(COPY_ROWS));
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                writeRows(writer, parse(line, lineNumber));
+            }
+            writer.flush();
+            return out.endCopy();
+        } finally {
+            if (out.isActive()) {
+                out.cancelCopy();
+            }
+        }
+    }
+
+    private MatchRequest parse(String line, long lineNumber) {
+        MatchRequest req;
+        try {
+            req = jsonMapper.readValue(line, MatchRequest.class);
+        } catch (JacksonException ex) {
+            throw new BadRequestException("Line " + lineNumber + ": " + ex.getOriginalMessage());
+        }
+        Set<ConstraintViolation<MatchRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<MatchRequest> first = violations.iterator().next();
+            throw new BadRequestException("Line " + lineNumber + ": " + first.getPropertyPath() + ": " + first.getMessage());
+        }
+        return req;
+    }
+
+    private static void writeRows(Writer writer, MatchRequest req) throws IOException {
+        List<MatchOddsRequest> odds = req.getOdds();
+        if (odds == null || odds.isEmpty()) {
+            writeRow(writer, req, null, null);
+            return;
+        }
+        for (MatchOddsRequest odd : odds) {
+            writeRow(writer, req, odd.getSpecifier(), Thousandths.toString(odd.getOdd()));
+        }
+    }
+
+    private static void writeRow(Writer writer, MatchRequest req, String specifier, String odd) throws IOException {
+        field(writer, req.getDescription()).write(',');
+        field(writer, req.getMatchDate() == null ? null : req.getMatchDate().toString()).write(',');
+        field(writer, req.getMatchTime() == null ? null : req.getMatchTime().toString()).write(',');
+        field(writer, req.getTeamA()).write(',');
+        field(writer, req.getTeamB()).write(',');
+        field(writer, req.getSport() == null ? null : String.valueOf(req.getSport().getCode())).write(',');
+        field(writer, specifier).write(',');
+        field(writer, odd).write('\n');
+    }
+
+    /**
+     * Writes a quoted CSV field, or nothing for {@code null}, which {@code COPY} reads as NULL.
+     */
+    private static Writer field(Writer writer, String value) throws IOException {
+        if (value != null) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+        return writer;
+    }
+
+    /**
+     * Input the server could not read, such as a bad date or a header that does not match, is the
+     * client's error; the server's message names the row and column.
+     *
+     * @return empty if the error is not about the input
+     */
+    private static Optional<BadRequestException> badData(PSQLException ex) {
+        ServerErrorMessage error = ex.getServerErrorMessage();
+        if (error == null || ex.getSQLState() == null || !ex.getSQLState().startsWith("22")) {
+            return Optional.empty();
+        }
+        return Optional.of(new BadRequestException(error.getWhere() == null ? error.getMessage()
+                : error.getMessage() + " (" + error.getWhere() + ")"));
+    }
+
+    private void evict(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        eviction.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.accept(cache);
+                }
+            });
+        }
+    }
+}
@@ -4,11 +4,15 @@ import com.epanos.techassignment.models.entities.MatchOdds;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface MatchOddsRepository extends JpaRepository<MatchOdds, Long> {
+public interface MatchOddsRepository extends JpaRepository<MatchOdds, Long>, MatchOddsRepositoryCustom {
 
     /**
      * Retrieves all non-paginated odds for a given match.
@@ -28,40 +32,40 @@ public interface MatchOddsRepository extends JpaRepository<MatchOdds, Long> {
     Page<MatchOdds> findByMatchId(Long matchId, Pageable pageable);
 
     /**
-     * Retrieves a specific odd by ID and match ID.
+     * Retrieves the odds of several matches in a single query.
      *
-     * @param id the odd ID
-     * @param matchId the match ID
-     * @return optional containing the odd if found
+     * @param matchIds the match IDs
+     * @return the odds of those matches, ordered by ID
      */
-    Optional<MatchOdds> findByIdAndMatchId(Long id, Long matchId);
+    List<MatchOdds> findByMatchIdInOrderById(Collection<Long> matchIds);
 
     /**
-     * Retrieves a specific odd by match ID and specifier.
+     * Retrieves a specific odd by ID and match ID.
      *
+     * @param id the odd ID
      * @param matchId the match ID
-     * @param specifier the odd specifier
      * @return optional containing the odd if found
      */
-    Optional<MatchOdds> findByMatchIdAndSpecifier(Long matchId, String specifier);
+    Optional<MatchOdds> findByIdAndMatchId(Long id, Long matchId);
 
     /**
-     * Checks if an odd with the given specifier exists for a match.
+     * Deletes a specific odd of a match with a single DELETE statement, without loading it.
      *
+     * @param id the odd ID
      * @param matchId the match ID
-     * @param specifier the odd specifier
-     * @return true if exists, false otherwise
+     * @return the number of odds deleted (0 or 1)
      */
-    boolean existsByMatchIdAndSpecifier(Long matchId, String specifier);
+    @Modifying
+    @Query("delete from MatchOdds o where o.id = :id and o.match.id = :matchId")
+    int deleteByIdAndMatchIdInBulk(@Param("id") Long id, @Param("matchId") Long matchId);
 
     /**
-     * Checks if an odd with the given specifier exists for a match, excluding a specific odd ID.
-     * Used during updates to allow the current odd to keep its own specifier.
+     * Deletes all odds of a match with a single DELETE statement, without loading the match or its odds.
      *
      * @param matchId the match ID
-     * @param specifier the odd specifier
-     * @param id the odd ID to exclude from the check
-     * @return true if another odd with the same specifier exists, false otherwise
+     * @return the number of odds deleted
      */
-    boolean existsByMatchIdAndSpecifierAndIdNot(Long matchId, String specifier, Long id);
+    @Modifying
+    @Query("delete from MatchOdds o where o.match.id = :matchId")
+    int deleteAllByMatchIdInBulk(@Param("matchId") Long matchId);
 }
@@ -0,0 +1,87 @@
+package com.epanos.techassignment.repositories;
+
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Odds write operations implemented with plain JDBC, for paths where a per-entity
+ * JPA load and dirty check would cost one round trip per row, the specifier conflict checks, and the
+ * sparse odds listing.
+ * <p>
+ * Lookups by specifier resolve names with {@link SpecifierDictionary#find}, so a name that was never
+ * stored simply matches nothing; only inserts add names to {@code specifiers}.
+ */
+public interface MatchOddsRepositoryCustom {
+
+    /**
+     * Updates odd values looked up by match ID and specifier, sent to the database as one JDBC batch.
+     * Specifiers are expected to be already normalized (trimmed).
+     *
+     * @param updates the (matchId, specifier, odd) tuples to apply
+     * @return the number of rows updated per item, in the same order as {@code updates}
+     */
+    int[] batchUpdateOdds(List<MatchOddsBulkUpdateRequest> updates);
+
+    /**
+     * Updates the odd value identified by match ID and specifier with a single
+     * {@code UPDATE ... RETURNING} statement, without loading the entity first.
+     *
+     * @param matchId the match ID
+     * @param specifier the normalized (trimmed) specifier
+     * @param odd the new odd value
+     * @return the ID of the updated odd, or empty if the match has no odd with that specifier
+     */
+    Optional<Long> updateOddBySpecifier(Long matchId, String specifier, int odd);
+
+    /**
+     * Inserts an odd with a single statement, using the {@code uk_match_specifier} constraint as the
+     * duplicate check and a join on {@code matches} as the existence check. Neither case raises an error,
+     * so the surrounding transaction stays usable. A specifier that is not in the dictionary yet is added
+     * in the surrounding transaction, and only once the match is known to exist.
+     *
+     * @param matchId the match ID
+     * @param specifier the normalized (trimmed) specifier
+     * @param odd the odd value
+     * @return the ID of the new odd, or empty if the match does not exist or already has that specifier
+     * @throws com.epanos.techassignment.exceptions.ConflictException if the specifier is new and the
+     *                                                              dictionary has no ids left
+     */
+    Optional<Long> insertIfAbsent(Long matchId, String specifier, int odd);
+
+    /**
+     * Returns which of the given specifiers already exist for a match, in a single query.
+     *
+     * @param matchId the match ID
+     * @param specifiers the normalized (trimmed) specifiers to look for
+     * @return the subset of {@code specifiers} already used by the match
+     */
+    List<String> findExistingSpecifiers(Long matchId, Collection<String> specifiers);
+
+    /**
+     * Checks if an odd with the given specifier exists for a match, excluding a specific odd ID.
+     * Used during updates to allow the current odd to keep its own specifier.
+     *
+     * @param matchId the match ID
+     * @param specifier the normalized (trimmed) specifier
+     * @param id the odd ID to exclude from the check
+     * @return true if another odd with the same specifier exists, false otherwise
+     */
+    boolean existsByMatchIdAndSpecifierAndIdNot(Long matchId, String specifier, Long id);
+
+    /**
+     * Retrieves a page of a match's odds with only the given attributes in the SQL select list.
+     *
+     * @param matchId the match ID
+     * @param attributes the {@link MatchOdds} attribute paths to select, e.g. {@code specifier} or {@code match.id}
+     * @param pageable the pagination parameters
+     * @return a page of tuples whose element {@code i} holds attribute {@code i}
+     */
+    Page<Tuple> findAttributesByMatchId(Long matchId, List<String> attributes, Pageable pageable);
+}
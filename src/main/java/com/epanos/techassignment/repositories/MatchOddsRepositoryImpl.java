@@ -0,0 +1,241 @@
+package com.epanos.techassignment.repositories;
+
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.entities.Match;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.odds.Thousandths;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Plain-JDBC writes bypass Hibernate, so every method here evicts the second-level cache entries it may
+ * have made stale: once immediately, and again after the transaction completes, so a concurrent reader
+ * cannot re-cache the old row between the write and the commit.
+ * <p>
+ * With odds documents enabled, value updates also patch the odd inside {@code matches.odds_document}
+ * in the same statement (see {@link MatchRepositoryCustom}).
+ */
+class MatchOddsRepositoryImpl implements MatchOddsRepositoryCustom {
+
+    private static final String UPDATE_ODD_BY_SPECIFIER =
+            "update match_odds set odd = ? where match_id = ? and specifier_id = ?";
+
+    private static final String UPDATE_ODD_BY_SPECIFIER_RETURNING_ID =
+            UPDATE_ODD_BY_SPECIFIER + " returning id";
+
+    /**
+     * The document keeps the odd at index 1 of the specifier's {@code [oddId, odd]} array; a match without
+     * that specifier is left as it is, and so is a document that has not been built yet.
+     */
+    private static final String UPDATE_ODD_AND_DOCUMENT_BY_SPECIFIER = """
+            with document as (
+                update matches set odds_document = jsonb_set(odds_document, array[?, '1'], to_jsonb(?::int), false)
+                where id = ?)
+            """ + UPDATE_ODD_BY_SPECIFIER;
+
+    private static final String UPDATE_ODD_AND_DOCUMENT_BY_SPECIFIER_RETURNING_ID =
+            UPDATE_ODD_AND_DOCUMENT_BY_SPECIFIER + " returning id";
+
+    private static final String INSERT_ODD_IF_ABSENT = """
+            insert into match_odds (match_id, specifier_id, odd)
+            select m.id, ?, ? from matches m where m.id = ?
+            on conflict on constraint uk_match_specifier do nothing
+            returning id""";
+
+    /**
+     * Keeps the match from being deleted until the transaction ends.
+     */
+    private static final String LOCK_MATCH = "select id from matches where id = ? for key share";
+
+    private static final String SELECT_EXISTING_SPECIFIERS =
+            "select specifier_id from match_odds where match_id = ? and specifier_id = any(?)";
+
+    /**
+     * The batch does not report which rows it updates, so their ids are looked up first by the same keys.
+     */
+    private static final String SELECT_IDS_BY_SPECIFIER = """
+            select o.id from match_odds o
+            join unnest(?::bigint[], ?::smallint[]) k(match_id, specifier_id)
+              on o.match_id = k.match_id and o.specifier_id = k.specifier_id""";
+
+    private static final String EXISTS_OTHER_WITH_SPECIFIER =
+            "select exists (select 1 from match_odds where match_id = ? and specifier_id = ? and id <> ?)";
+
+    private static final String MATCH_ODDS_ROLE = Match.class.getName() + ".odds";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final SpecifierDictionary specifierDictionary;
+    private final boolean documentsEnabled;
+
+    MatchOddsRepositoryImpl(JdbcTemplate jdbcTemplate,
+                            EntityManagerFactory entityManagerFactory,
+                            EntityManager entityManager,
+                            SpecifierDictionary specifierDictionary,
+                            @Value("${app.odds.documents.enabled:false}") boolean documentsEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+        this.specifierDictionary = specifierDictionary;
+        this.documentsEnabled = documentsEnabled;
+    }
+
+    @Override
+    public int[] batchUpdateOdds(List<MatchOddsBulkUpdateRequest> updates) {
+        if (updates.isEmpty()) {
+            return new int[0];
+        }
+
+        List<Long> ids = findIdsBySpecifier(updates);
+        evict(cache -> ids.forEach(id -> cache.evictEntityData(MatchOdds.class, id)));
+        String sql = documentsEnabled ? UPDATE_ODD_AND_DOCUMENT_BY_SPECIFIER : UPDATE_ODD_BY_SPECIFIER;
+        return jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                MatchOddsBulkUpdateRequest u = updates.get(i);
+                // an unknown specifier cannot match any row; NOT_FOUND binds an id that does not exist
+                int specifierId = specifierDictionary.find(u.getSpecifier());
+                int p = documentsEnabled ? bindDocumentUpdate(ps, u.getMatchId(), specifierId, u.getOdd()) : 1;
+                ps.setBigDecimal(p, Thousandths.toBigDecimal(u.getOdd()));
+                ps.setLong(p + 1, u.getMatchId());
+                ps.setShort(p + 2, (short) specifierId);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return updates.size();
+            }
+        });
+    }
+
+    @Override
+    public Optional<Long> updateOddBySpecifier(Long matchId, String specifier, int odd) {
+        int specifierId = specifierDictionary.find(specifier);
+        if (specifierId == SpecifierDictionary.NOT_FOUND) {
+            return Optional.empty();
+        }
+        String sql = documentsEnabled ? UPDATE_ODD_AND_DOCUMENT_BY_SPECIFIER_RETURNING_ID : UPDATE_ODD_BY_SPECIFIER_RETURNING_ID;
+        Optional<Long> id = jdbcTemplate.query(sql, ps -> {
+            int p = documentsEnabled ? bindDocumentUpdate(ps, matchId, specifierId, odd) : 1;
+            ps.setBigDecimal(p, Thousandths.toBigDecimal(odd));
+            ps.setLong(p + 1, matchId);
+            ps.setShort(p + 2, (short) specifierId);
+        }, (rs, rowNum) -> rs.getLong(1)).stream().findFirst();
+        id.ifPresent(oddId -> evict(cache -> cache.evictEntityData(MatchOdds.class, oddId)));
+        return id;
+    }
+
+    @Override
+    public Optional<Long> insertIfAbsent(Long matchId, String specifier, int odd) {
+        int specifierId = specifierDictionary.find(specifier);
+        if (specifierId == SpecifierDictionary.NOT_FOUND) {
+            // a new specifier cannot be a duplicate, and is only added to the dictionary for a match that exists
+            if (jdbcTemplate.queryForList(LOCK_MATCH, Long.class, matchId).isEmpty()) {
+                return Optional.empty();
+            }
+            specifierId = specifierDictionary.code(specifier);
+        }
+        Optional<Long> id = jdbcTemplate.query(INSERT_ODD_IF_ABSENT,
+                (rs, rowNum) -> rs.getLong(1), (short) specifierId, Thousandths.toBigDecimal(odd), matchId).stream().findFirst();
+        id.ifPresent(oddId -> evict(cache -> cache.evictCollectionData(MATCH_ODDS_ROLE, matchId)));
+        return id;
+    }
+
+    @Override
+    public List<String> findExistingSpecifiers(Long matchId, Collection<String> specifiers) {
+        // unknown specifiers cannot be in use, and must not be added to the dictionary by a mere check
+        Short[] ids = specifiers.stream()
+                .mapToInt(specifierDictionary::find)
+                .filter(id -> id != SpecifierDictionary.NOT_FOUND)
+                .distinct()
+                .mapToObj(id -> (short) id)
+                .toArray(Short[]::new);
+        if (ids.length == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_EXISTING_SPECIFIERS, ps -> {
+            ps.setLong(1, matchId);
+            ps.setArray(2, ps.getConnection().createArrayOf("smallint", ids));
+        }, (rs, rowNum) -> specifierDictionary.name(rs.getShort(1)));
+    }
+
+    @Override
+    public boolean existsByMatchIdAndSpecifierAndIdNot(Long matchId, String specifier, Long id) {
+        int specifierId = specifierDictionary.find(specifier);
+        if (specifierId == SpecifierDictionary.NOT_FOUND) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_OTHER_WITH_SPECIFIER, Boolean.class,
+                matchId, (short) specifierId, id));
+    }
+
+    @Override
+    public Page<Tuple> findAttributesByMatchId(Long matchId, List<String> attributes, Pageable pageable) {
+        PredicateSpecification<MatchOdds> ofMatch = (from, cb) -> cb.equal(from.get("match").get("id"), matchId);
+        return AttributeProjection.page(entityManager, MatchOdds.class, attributes, ofMatch, pageable);
+    }
+
+    /**
+     * @return the ids of the odds {@code updates} address; unknown specifiers address none
+     */
+    private List<Long> findIdsBySpecifier(List<MatchOddsBulkUpdateRequest> updates) {
+        List<MatchOddsBulkUpdateRequest> known = updates.stream()
+                .filter(u -> specifierDictionary.find(u.getSpecifier()) != SpecifierDictionary.NOT_FOUND)
+                .toList();
+        if (known.isEmpty()) {
+            return List.of();
+        }
+        Long[] matchIds = known.stream().map(MatchOddsBulkUpdateRequest::getMatchId).toArray(Long[]::new);
+        Short[] specifierIds = known.stream()
+                .map(u -> (short) specifierDictionary.find(u.getSpecifier()))
+                .toArray(Short[]::new);
+        return jdbcTemplate.query(SELECT_IDS_BY_SPECIFIER, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("bigint", matchIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("smallint", specifierIds));
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+
+    /**
+     * Binds the {@code document} CTE parameters.
+     *
+     * @return the index of the first parameter after them
+     */
+    private static int bindDocumentUpdate(PreparedStatement ps, long matchId, int specifierId, int odd) throws SQLException {
+        ps.setString(1, Integer.toString(specifierId));
+        ps.setInt(2, odd);
+        ps.setLong(3, matchId);
+        return 4;
+    }
+
+    private void evict(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        eviction.accept(cache);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.accept(cache);
+                }
+            });
+        }
+    }
+}
@@ -4,12 +4,15 @@ import com.epanos.techassignment.models.entities.Match;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface MatchRepository extends JpaRepository<Match, Long> {
+public interface MatchRepository extends JpaRepository<Match, Long>, JpaSpecificationExecutor<Match>, MatchRepositoryCustom {
     /**
      * Retrieves all matches with associated odds (non-paginated).
      *
@@ -18,6 +21,15 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
     @Query("select distinct m from Match m left join fetch m.odds")
     List<Match> findAllWithOdds();
 
+    /**
+     * Retrieves a single match with its odds collection loaded in the same query.
+     *
+     * @param id the match ID
+     * @return optional containing the match with odds if found
+     */
+    @Query("select m from Match m left join fetch m.odds where m.id = :id")
+    Optional<Match> findWithOddsById(@Param("id") Long id);
+
     /**
      * Retrieves a paginated list of matches with associated odds.
      *
@@ -37,4 +49,15 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
      */
     @Query("select distinct m from Match m left join fetch m.odds where m.id in :ids")
     List<Match> findAllWithOddsByIds(@Param("ids") List<Long> ids);
-}
\ No newline at end of file
+
+    /**
+     * Deletes a match with a single DELETE statement, without loading it or its odds.
+     * Odds are removed by the database through {@code ON DELETE CASCADE} on {@code match_odds.match_id}.
+     *
+     * @param id the match ID
+     * @return the number of matches deleted (0 or 1)
+     */
+    @Modifying
+    @Query("delete from Match m where m.id = :id")
+    int deleteMatchById(@Param("id") Long id);
+}
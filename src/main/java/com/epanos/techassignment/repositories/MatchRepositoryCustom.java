@@ -0,0 +1,82 @@
+package com.epanos.techassignment.repositories;
+
+import com.epanos.techassignment.models.dto.MatchIngestResult;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.models.entities.Match;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Optional odds documents: with {@code app.odds.documents.enabled}, every match keeps a denormalized
+ * copy of its odds in {@code matches.odds_document}, a compact JSONB object, so matches can be read with
+ * their odds from the {@code matches} row alone instead of joining {@code match_odds}.
+ * {@code match_odds} stays the source of truth.
+ * <p>
+ * Also holds the sparse listing, which selects only the requested columns, the planner's estimate of
+ * odds per match used to cost listings, and fixture ingestion.
+ */
+public interface MatchRepositoryCustom {
+
+    /**
+     * @return whether odds documents are maintained and used for reads
+     */
+    boolean oddsDocumentsEnabled();
+
+    /**
+     * Retrieves matches with their odds read from the odds documents, in one query without a join.
+     * Matches whose document has not been built yet are loaded with the join instead.
+     * The returned entities are not managed by the persistence context.
+     *
+     * @param ids the match IDs to fetch
+     * @return the matches with odds, in no particular order
+     */
+    List<Match> findAllWithOddsDocuments(List<Long> ids);
+
+    /**
+     * Retrieves all matches with their odds read from the odds documents (non-paginated).
+     *
+     * @return all matches with odds
+     * @see #findAllWithOddsDocuments(List)
+     */
+    List<Match> findAllWithOddsDocuments();
+
+    /**
+     * Rebuilds the odds document of a match from {@code match_odds} just before the current transaction
+     * commits, after pending entity changes are flushed. Several calls in one transaction are sent as one
+     * statement. Does nothing when odds documents are disabled.
+     *
+     * @param matchId the match whose odds were added, removed or replaced
+     */
+    void refreshOddsDocument(Long matchId);
+
+    /**
+     * Retrieves a page of matches with only the given attributes in the SQL select list, so the other
+     * columns are neither read nor hydrated.
+     *
+     * @param attributes the {@link Match} attributes to select, e.g. {@code teamA}
+     * @param pageable the pagination parameters; sorting may use attributes that are not selected
+     * @return a page of tuples whose element {@code i} holds attribute {@code i}
+     */
+    Page<Tuple> findAllAttributes(List<String> attributes, Pageable pageable);
+
+    /**
+     * Estimates the average number of odds per match from the planner statistics of {@code matches} and
+     * {@code match_odds}, without reading either table.
+     *
+     * @return the estimate, or {@code null} if the tables have not been analyzed yet
+     */
+    Double estimateOddsPerMatch();
+
+    /**
+     * Upserts fixtures by their natural key, {@code uk_match_fixture} (sport, teams and kickoff), in a single
+     * statement. A new fixture is inserted, a known one gets the sent description, and one already stored as
+     * sent is left untouched, so a resent fixture writes nothing. Odds are not part of a fixture.
+     *
+     * @param fixtures the fixtures, each key at most once
+     * @return one result per fixture, in the same order
+     */
+    List<MatchIngestResult> ingest(List<MatchRequest> fixtures);
+}
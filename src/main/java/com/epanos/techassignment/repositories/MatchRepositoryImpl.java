@@ -0,0 +1,301 @@
+package com.epanos.techassignment.repositories;
+
+import com.epanos.techassignment.models.dto.MatchIngestResult;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.models.entities.Match;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.enums.Sport;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Tuple;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.json.JsonFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * The odds document of a match maps each specifier id to {@code [oddId, oddInThousandths]}, e.g.
+ * {@code {"1": [10, 1500], "2": [11, 3250]}}. Value changes are applied in place with {@code jsonb_set}
+ * (see {@link MatchOddsRepositoryImpl}); added, removed or replaced odds rebuild the whole document.
+ */
+class MatchRepositoryImpl implements MatchRepositoryCustom, InitializingBean {
+
+    private static final String ADD_COLUMN = "alter table matches add column if not exists odds_document jsonb";
+
+    private static final String SELECT_WITH_DOCUMENT =
+            "select id, description, match_date, match_time, team_a, team_b, sport, odds_document from matches";
+
+    /**
+     * Taken in a statement of its own: a rebuild that had to wait for a concurrent one would otherwise
+     * still read {@code match_odds} as of before that transaction committed.
+     */
+    private static final String LOCK = "select id from matches where id = any(?) order by id for update";
+
+    private static final String REBUILD = """
+            update matches m set odds_document = coalesce((
+                select jsonb_object_agg(o.specifier_id, jsonb_build_array(o.id, (o.odd * 1000)::int))
+                from match_odds o where o.match_id = m.id), '{}')
+            where m.id = any(?)""";
+
+    private static final String FIND_ALL_WITH_ODDS_BY_IDS =
+            "select distinct m from Match m left join fetch m.odds where m.id in :ids";
+
+    /**
+     * {@code reltuples} is kept up to date by autovacuum, and is -1 before a table's first analyze.
+     */
+    private static final String ODDS_PER_MATCH = """
+            select case when m.reltuples > 0 and o.reltuples >= 0 then (o.reltuples / m.reltuples)::float8 end
+            from pg_class m, pg_class o
+            where m.oid = 'matches'::regclass and o.oid = 'match_odds'::regclass""";
+
+    /**
+     * The main query still sees {@code matches} as of before the insert, so a fixture the insert neither
+     * created nor updated is found there, and one it did is found in {@code upserted}. The {@code where} of
+     * the update skips fixtures stored as sent: those write no new row version and return nothing.
+     */
+    private static final String INGEST = """
+            with input as (
+                select * from unnest(?::text[], ?::date[], ?::time[], ?::text[], ?::text[], ?::text[])
+                    with ordinality as f(description, match_date, match_time, team_a, team_b, sport, ord)),
+            upserted as (
+                insert into matches (description, match_date, match_time, team_a, team_b, sport)
+                select description, match_date, match_time, team_a, team_b, sport from input order by ord
+                on conflict on constraint uk_match_fixture do update set description = excluded.description
+                where matches.description is distinct from excluded.description
+                returning id, sport, team_a, team_b, match_date, match_time, xmax = 0 as created)
+            select coalesce(u.id, m.id), case when u.id is null then 'UNCHANGED' when u.created then 'CREATED' else 'UPDATED' end
+            from input i
+            left join upserted u on (u.sport, u.team_a, u.team_b, u.match_date, u.match_time)
+                = (i.sport, i.team_a, i.team_b, i.match_date, i.match_time)
+            left join matches m on (m.sport, m.team_a, m.team_b, m.match_date, m.match_time)
+                = (i.sport, i.team_a, i.team_b, i.match_date, i.match_time)
+            order by i.ord""";
+
+    private static final String FIND_FIXTURE_ID = """
+            select id from matches
+            where sport = ? and team_a = ? and team_b = ? and match_date = ? and match_time = ?""";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final SpecifierDictionary specifierDictionary;
+    private final boolean documentsEnabled;
+
+    MatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                        EntityManagerFactory entityManagerFactory,
+                        EntityManager entityManager,
+                        SpecifierDictionary specifierDictionary,
+                        @Value("${app.odds.documents.enabled:false}") boolean documentsEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+        this.specifierDictionary = specifierDictionary;
+        this.documentsEnabled = documentsEnabled;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (documentsEnabled) {
+            // not mapped on the entity, so Hibernate neither creates it nor reads it with every Match
+            jdbcTemplate.execute(ADD_COLUMN);
+        }
+    }
+
+    @Override
+    public boolean oddsDocumentsEnabled() {
+        return documentsEnabled;
+    }
+
+    @Override
+    public List<Match> findAllWithOddsDocuments(List<Long> ids) {
+        return withDocuments(SELECT_WITH_DOCUMENT + " where id = any(?)", ids.toArray(Long[]::new));
+    }
+
+    @Override
+    public List<Match> findAllWithOddsDocuments() {
+        return withDocuments(SELECT_WITH_DOCUMENT, null);
+    }
+
+    @Override
+    public void refreshOddsDocument(Long matchId) {
+        if (!documentsEnabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild(List.of(matchId));
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof DocumentRebuild pending) {
+                pending.matchIds.add(matchId);
+                return;
+            }
+        }
+        DocumentRebuild rebuild = new DocumentRebuild();
+        rebuild.matchIds.add(matchId);
+        TransactionSynchronizationManager.registerSynchronization(rebuild);
+    }
+
+    @Override
+    public Page<Tuple> findAllAttributes(List<String> attributes, Pageable pageable) {
+        return AttributeProjection.page(entityManager, Match.class, attributes, null, pageable);
+    }
+
+    @Override
+    public Double estimateOddsPerMatch() {
+        return jdbcTemplate.query(ODDS_PER_MATCH, rs -> rs.next() ? rs.getObject(1, Double.class) : null);
+    }
+
+    @Override
+    public List<MatchIngestResult> ingest(List<MatchRequest> fixtures) {
+        if (fixtures.isEmpty()) {
+            return List.of();
+        }
+        List<MatchIngestResult> results = jdbcTemplate.query(INGEST, ps -> {
+            setTextArray(ps, 1, fixtures.stream().map(MatchRequest::getDescription));
+            setTextArray(ps, 2, fixtures.stream().map(f -> f.getMatchDate().toString()));
+            setTextArray(ps, 3, fixtures.stream().map(f -> f.getMatchTime().toString()));
+            setTextArray(ps, 4, fixtures.stream().map(MatchRequest::getTeamA));
+            setTextArray(ps, 5, fixtures.stream().map(MatchRequest::getTeamB));
+            setTextArray(ps, 6, fixtures.stream().map(f -> f.getSport().name()));
+        }, (rs, rowNum) -> MatchIngestResult.builder()
+                .id(rs.getObject(1, Long.class))
+                .status(MatchIngestResult.Status.valueOf(rs.getString(2)))
+                .build());
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).getId() == null) {
+                // inserted as sent by a concurrent ingest that committed after this statement's snapshot
+                MatchRequest f = fixtures.get(i);
+                results.get(i).setId(jdbcTemplate.queryForObject(FIND_FIXTURE_ID, Long.class,
+                        f.getSport().name(), f.getTeamA(), f.getTeamB(), f.getMatchDate(), f.getMatchTime()));
+            }
+        }
+        // a plain-JDBC update bypasses the second-level cache
+        List<Long> updated = results.stream()
+                .filter(r -> r.getStatus() == MatchIngestResult.Status.UPDATED)
+                .map(MatchIngestResult::getId)
+                .toList();
+        if (!updated.isEmpty()) {
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            updated.forEach(id -> cache.evictEntityData(Match.class, id));
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        updated.forEach(id -> cache.evictEntityData(Match.class, id));
+                    }
+                });
+            }
+        }
+        return results;
+    }
+
+    private static void setTextArray(PreparedStatement ps, int index, Stream<String> values) throws SQLException {
+        ps.setArray(index, ps.getConnection().createArrayOf("text", values.toArray()));
+    }
+
+    private List<Match> withDocuments(String sql, Long[] ids) {
+        List<Match> matches = new ArrayList<>();
+        List<Long> withoutDocument = new ArrayList<>();
+        jdbcTemplate.query(sql, ps -> {
+            if (ids != null) {
+                ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+            }
+        }, rs -> {
+            String document = rs.getString(8);
+            if (document == null) {
+                withoutDocument.add(rs.getLong(1));
+            } else {
+                matches.add(readMatch(rs, document, specifierDictionary));
+            }
+        });
+        if (!withoutDocument.isEmpty()) {
+            matches.addAll(entityManager.createQuery(FIND_ALL_WITH_ODDS_BY_IDS, Match.class)
+                    .setParameter("ids", withoutDocument)
+                    .getResultList());
+        }
+        return matches;
+    }
+
+    private void rebuild(Collection<Long> matchIds) {
+        Long[] ids = matchIds.toArray(Long[]::new);
+        jdbcTemplate.query(LOCK, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)), rs -> {});
+        jdbcTemplate.update(REBUILD, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+    }
+
+    static Match readMatch(ResultSet rs, String document, SpecifierDictionary dictionary) throws SQLException {
+        Match match = Match.builder()
+                .id(rs.getLong(1))
+                .description(rs.getString(2))
+                .matchDate(rs.getObject(3, LocalDate.class))
+                .matchTime(rs.getObject(4, LocalTime.class))
+                .teamA(rs.getString(5))
+                .teamB(rs.getString(6))
+                .sport(Sport.valueOf(rs.getString(7)))
+                .build();
+        readOdds(match, document, dictionary);
+        return match;
+    }
+
+    static void readOdds(Match match, String document, SpecifierDictionary dictionary) {
+        try (JsonParser p = JSON.createParser(ObjectReadContext.empty(), document)) {
+            expect(p.nextToken(), JsonToken.START_OBJECT);
+            String specifierId;
+            while ((specifierId = p.nextName()) != null) {
+                expect(p.nextToken(), JsonToken.START_ARRAY);
+                expect(p.nextToken(), JsonToken.VALUE_NUMBER_INT);
+                long id = p.getLongValue();
+                expect(p.nextToken(), JsonToken.VALUE_NUMBER_INT);
+                int odd = p.getIntValue();
+                expect(p.nextToken(), JsonToken.END_ARRAY);
+                match.getOdds().add(MatchOdds.builder()
+                        .id(id)
+                        .match(match)
+                        .specifier(dictionary.name(Integer.parseInt(specifierId)))
+                        .odd(odd)
+                        .build());
+            }
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new IllegalStateException("Malformed odds document: expected " + expected + " but found " + actual);
+        }
+    }
+
+    private final class DocumentRebuild implements TransactionSynchronization {
+
+        private final Set<Long> matchIds = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // inserts and orphan removals made through the entities must be in match_odds first
+            entityManager.flush();
+            rebuild(matchIds);
+        }
+    }
+}
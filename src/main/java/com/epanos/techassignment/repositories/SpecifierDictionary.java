@@ -0,0 +1,267 @@
+package com.epanos.techassignment.repositories;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.models.entities.Specifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code specifiers} table held in memory as a bidirectional map between specifier names and their
+ * {@code smallint} ids. {@code match_odds} stores the id and is translated to the name at the persistence
+ * boundary; the odds book uses the ids as its specifier codes. Every name is one shared {@code String}.
+ * <p>
+ * Rows are never changed or deleted, so cached entries never go stale. A miss looks the name or id up in
+ * the table, which picks up specifiers added by other instances, and only a name that is still missing is
+ * inserted. Lookups and inserts run on the caller's connection, so a name added by a write is committed or
+ * rolled back with it, and is cached only once that transaction commits. No lock is held while the
+ * database is queried: concurrent misses for one name settle on the same row through its unique
+ * constraint.
+ * <p>
+ * Created without a {@link DataSource}, the dictionary assigns codes itself, from 0.
+ */
+@Repository
+public class SpecifierDictionary {
+
+    /**
+     * Returned by {@link #find(String)} for a specifier that does not exist.
+     */
+    public static final int NOT_FOUND = -1;
+
+    private static final String SELECT_ID = "select id from specifiers where name = ?";
+    private static final String SELECT_NAME = "select name from specifiers where id = ?";
+    private static final String INSERT = "insert into specifiers (name) values (?) on conflict (name) do nothing returning id";
+
+    /**
+     * {@code sequence_generator_limit_exceeded} and {@code numeric_value_out_of_range}: the {@code smallint}
+     * identity has no ids left.
+     */
+    private static final Set<String> EXHAUSTED = Set.of("2200H", "22003");
+
+    private final DataSource dataSource;
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private int nextCode;
+
+    public SpecifierDictionary() {
+        this(null);
+    }
+
+    @Autowired
+    public SpecifierDictionary(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * @return the code of the specifier, adding it to the table if it does not exist yet
+     * @throws BadRequestException if the specifier is blank or longer than {@value Specifier#NAME_LENGTH}
+     *                             characters
+     * @throws ConflictException   if it is new and the table has no ids left
+     */
+    public int code(String specifier) {
+        Integer code = codes.get(specifier);
+        return code != null ? code : intern(specifier);
+    }
+
+    /**
+     * @return the code of the specifier, or {@link #NOT_FOUND} if it does not exist; never adds it
+     */
+    public int find(String specifier) {
+        Integer code = codes.get(specifier);
+        if (code != null) {
+            return code;
+        }
+        if (dataSource == null) {
+            return NOT_FOUND;
+        }
+        Integer added = added().get(specifier);
+        if (added != null) {
+            return added;
+        }
+        // a row the current transaction added is in added(), so any row found here is committed
+        return withConnection(con -> {
+            int id = queryInt(con, SELECT_ID, specifier);
+            return id != NOT_FOUND ? register(specifier, id) : NOT_FOUND;
+        });
+    }
+
+    /**
+     * @return the specifier for a code returned by {@link #code(String)} or read from {@code match_odds}
+     * @throws IllegalStateException if no specifier has that code
+     */
+    public String name(int code) {
+        String[] known = names;
+        String name = code >= 0 && code < known.length ? known[code] : null;
+        return name != null ? name : load(code);
+    }
+
+    /**
+     * @return the specifiers known to this instance, indexed by code, with {@code null} for unknown codes
+     */
+    public String[] names() {
+        synchronized (this) {
+            int length = names.length;
+            while (length > 0 && names[length - 1] == null) {
+                length--;
+            }
+            return Arrays.copyOf(names, length);
+        }
+    }
+
+    private int intern(String specifier) {
+        if (specifier.isBlank() || specifier.length() > Specifier.NAME_LENGTH) {
+            throw new BadRequestException("Specifier must be between 1 and " + Specifier.NAME_LENGTH + " characters");
+        }
+        if (dataSource == null) {
+            synchronized (this) {
+                Integer existing = codes.get(specifier);
+                return existing != null ? existing : register(specifier, nextCode++);
+            }
+        }
+        Integer pending = added().get(specifier);
+        if (pending != null) {
+            return pending;
+        }
+        return withConnection(con -> {
+            // select first, so instances that restart and re-intern do not burn identity values on conflicts
+            int id = queryInt(con, SELECT_ID, specifier);
+            if (id != NOT_FOUND) {
+                // not added by this transaction, so committed
+                return register(specifier, id);
+            }
+            id = insert(con, specifier);
+            if (id == NOT_FOUND) {
+                // lost a race with another transaction, whose row was committed by the time the insert returned
+                return register(specifier, queryInt(con, SELECT_ID, specifier));
+            }
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return register(specifier, id);
+            }
+            addedInTransaction().put(specifier, id);
+            return id;
+        });
+    }
+
+    /**
+     * @return the names the current transaction added, which are registered once it commits
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Integer> added() {
+        Map<String, Integer> added = TransactionSynchronizationManager.isSynchronizationActive()
+                ? (Map<String, Integer>) TransactionSynchronizationManager.getResource(this)
+                : null;
+        return added != null ? added : Map.of();
+    }
+
+    private Map<String, Integer> addedInTransaction() {
+        Map<String, Integer> added = added();
+        if (!added.isEmpty()) {
+            return added;
+        }
+        Map<String, Integer> bound = new HashMap<>();
+        TransactionSynchronizationManager.bindResource(this, bound);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SpecifierDictionary.this);
+                if (status == STATUS_COMMITTED) {
+                    bound.forEach(SpecifierDictionary.this::register);
+                }
+            }
+        });
+        return bound;
+    }
+
+    private String load(int code) {
+        if (dataSource != null) {
+            String name = withConnection(con -> {
+                try (PreparedStatement ps = con.prepareStatement(SELECT_NAME)) {
+                    ps.setShort(1, (short) code);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return rs.next() ? rs.getString(1) : null;
+                    }
+                }
+            });
+            if (name != null) {
+                return name(register(name, code));
+            }
+        }
+        throw new IllegalStateException("Unknown specifier code: " + code);
+    }
+
+    /**
+     * Only updates memory; never call the database while holding the lock.
+     */
+    private synchronized int register(String specifier, int code) {
+        Integer existing = codes.get(specifier);
+        if (existing != null) {
+            return existing;
+        }
+        if (code >= names.length) {
+            names = Arrays.copyOf(names, Math.max(code + 1, names.length * 2));
+        }
+        // written before the code is published through the map, so any holder of the code can see the name
+        names[code] = specifier;
+        codes.put(specifier, code);
+        return code;
+    }
+
+    private static int insert(Connection con, String specifier) throws SQLException {
+        try {
+            return queryInt(con, INSERT, specifier);
+        } catch (SQLException ex) {
+            if (EXHAUSTED.contains(ex.getSQLState())) {
+                throw new ConflictException("No more specifiers can be added: all " + Short.MAX_VALUE
+                        + " ids are in use. Use an existing specifier: " + specifier);
+            }
+            throw ex;
+        }
+    }
+
+    private static int queryInt(Connection con, String sql, String specifier) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, specifier);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : NOT_FOUND;
+            }
+        }
+    }
+
+    /**
+     * Runs on the connection of the current transaction, or outside one on a connection of its own in
+     * auto-commit mode.
+     */
+    private <T> T withConnection(SqlFunction<T> work) {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try {
+            if (!DataSourceUtils.isConnectionTransactional(con, dataSource) && !con.getAutoCommit()) {
+                con.setAutoCommit(true);
+            }
+            return work.apply(con);
+        } catch (SQLException ex) {
+            throw new DataAccessResourceFailureException("Specifier lookup failed", ex);
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlFunction<T> {
+        T apply(Connection con) throws SQLException;
+    }
+}
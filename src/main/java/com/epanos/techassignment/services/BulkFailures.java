@@ -0,0 +1,35 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.exceptions.NotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Describes why part of a non-atomic bulk write failed, for reporting next to the parts that succeeded.
+ */
+@Slf4j
+final class BulkFailures {
+
+    private BulkFailures() {
+    }
+
+    /**
+     * The message a client would have got from the synchronous endpoints; database errors name the violated
+     * constraint, without the rest of the driver's message.
+     */
+    static String message(RuntimeException ex) {
+        if (ex instanceof BadRequestException || ex instanceof ConflictException || ex instanceof NotFoundException) {
+            return ex.getMessage();
+        }
+        if (ex instanceof DataIntegrityViolationException) {
+            return ex.getCause() instanceof ConstraintViolationException cve && cve.getConstraintName() != null
+                    ? "Database constraint violation: " + cve.getConstraintName()
+                    : "Database constraint violation";
+        }
+        log.warn("Bulk write failed unexpectedly: {}", ex.getMessage(), ex);
+        return "Unexpected error";
+    }
+}
@@ -0,0 +1,299 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.configs.BulkJobProperties;
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.BulkJobError;
+import com.epanos.techassignment.models.dto.BulkJobResponse;
+import com.epanos.techassignment.models.dto.MatchOddsRequest;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.repositories.MatchRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs bulk creates of matches or odds in the background, so a large payload does not hold an HTTP
+ * thread until it is written.
+ * <p>
+ * A submitted job waits in a bounded queue for one of {@code workers} threads; when the queue is full the
+ * submission is refused with 503 rather than piling payloads up in memory. A worker writes the items in
+ * chunks of {@code chunkSize}, each through the regular {@code createBulk} in its own transaction. When a
+ * chunk fails, its items are written one by one instead, so every bad item is reported with its index and
+ * the good ones around it are still created. Cancelling takes effect between chunks: what was written
+ * stays written.
+ * <p>
+ * Jobs are held in memory by the instance that accepted them, and can be polled there for
+ * {@code retention} after they finish. Their payload is dropped as soon as they finish.
+ */
+@Slf4j
+public class BulkJobService {
+
+    private final MatchService matchService;
+    private final MatchOddsService matchOddsService;
+    private final MatchRepository matchRepository;
+    private final int chunkSize;
+    private final Duration retention;
+    private final Clock clock;
+    private final ThreadPoolExecutor executor;
+    private final Map<UUID, Job<?>> jobs = new ConcurrentHashMap<>();
+
+    public BulkJobService(MatchService matchService, MatchOddsService matchOddsService, MatchRepository matchRepository,
+                          BulkJobProperties properties, Clock clock) {
+        this.matchService = matchService;
+        this.matchOddsService = matchOddsService;
+        this.matchRepository = matchRepository;
+        this.chunkSize = properties.chunkSize();
+        this.retention = properties.retention();
+        this.clock = clock;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.workers(), properties.workers(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()), r -> {
+            Thread t = new Thread(r, "bulk-job-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Accepts matches to be created in the background, as {@link MatchService#createBulk} would.
+     *
+     * @return the queued job
+     * @throws BadRequestException         if there is nothing to create
+     * @throws ServiceUnavailableException if too many jobs are already waiting
+     */
+    public BulkJobResponse submitMatches(List<MatchRequest> reqs) {
+        return submit(new Job<>(BulkJobResponse.Type.MATCHES, null, reqs, now(),
+                matchService::createBulk, matchService::create));
+    }
+
+    /**
+     * Accepts odds to be created in the background for one match, as {@link MatchOddsService#createBulk}
+     * would. The match is checked up front; specifiers are checked per chunk as they are written.
+     *
+     * @return the queued job
+     * @throws NotFoundException           if the match does not exist
+     * @throws BadRequestException         if there is nothing to create
+     * @throws ServiceUnavailableException if too many jobs are already waiting
+     */
+    public BulkJobResponse submitOdds(Long matchId, List<MatchOddsRequest> reqs) {
+        if (!matchRepository.existsById(matchId)) {
+            throw new NotFoundException("Match not found: " + matchId);
+        }
+        return submit(new Job<>(BulkJobResponse.Type.ODDS, matchId, reqs, now(),
+                chunk -> matchOddsService.createBulk(matchId, chunk), req -> matchOddsService.create(matchId, req)));
+    }
+
+    /**
+     * @throws NotFoundException if no such job exists on this instance, or it expired
+     */
+    public BulkJobResponse get(UUID id) {
+        return find(id).toResponse();
+    }
+
+    /**
+     * @return the items that failed so far, in payload order
+     * @throws NotFoundException if no such job exists on this instance, or it expired
+     */
+    public List<BulkJobError> errors(UUID id) {
+        return find(id).errors();
+    }
+
+    /**
+     * Cancels a job. A queued job is cancelled at once; a running one stops after its current chunk, and
+     * reports {@code CANCELLED} from then on.
+     *
+     * @return the job as it is now
+     * @throws NotFoundException if no such job exists on this instance, or it expired
+     * @throws ConflictException if the job already finished
+     */
+    public BulkJobResponse cancel(UUID id) {
+        Job<?> job = find(id);
+        synchronized (job) {
+            switch (job.status) {
+                case QUEUED -> job.finish(BulkJobResponse.Status.CANCELLED, now());
+                case RUNNING -> job.cancelRequested = true;
+                default -> throw new ConflictException("Bulk job " + id + " already " + job.status);
+            }
+            return job.toResponse();
+        }
+    }
+
+    private BulkJobResponse submit(Job<?> job) {
+        if (job.total == 0) {
+            throw new BadRequestException("Bulk job payload must not be empty");
+        }
+        purgeExpired();
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.id);
+            throw new ServiceUnavailableException("Too many bulk jobs queued; retry later");
+        }
+        return job.toResponse();
+    }
+
+    private Job<?> find(UUID id) {
+        Job<?> job = jobs.get(id);
+        if (job == null || job.expired(now().minus(retention))) {
+            throw new NotFoundException("Bulk job not found: " + id);
+        }
+        return job;
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = now().minus(retention);
+        jobs.values().removeIf(job -> job.expired(cutoff));
+    }
+
+    private <T> void run(Job<T> job) {
+        synchronized (job) {
+            if (job.status != BulkJobResponse.Status.QUEUED) {
+                return;
+            }
+            job.status = BulkJobResponse.Status.RUNNING;
+            job.startedAt = now();
+        }
+        BulkJobResponse.Status outcome = BulkJobResponse.Status.COMPLETED;
+        try {
+            List<T> items = job.items;
+            for (int from = 0; from < items.size(); from += chunkSize) {
+                if (job.cancelRequested) {
+                    outcome = BulkJobResponse.Status.CANCELLED;
+                    break;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    outcome = BulkJobResponse.Status.FAILED;
+                    break;
+                }
+                writeChunk(job, from, Math.min(from + chunkSize, items.size()));
+            }
+        } catch (RuntimeException ex) {
+            log.error("Bulk job {} failed: {}", job.id, ex.getMessage(), ex);
+            outcome = BulkJobResponse.Status.FAILED;
+        }
+        synchronized (job) {
+            job.finish(outcome, now());
+        }
+        log.info("Bulk job {} {}: {} of {} items created, {} failed",
+                job.id, job.status, job.succeeded.get(), job.total, job.failed.get());
+    }
+
+    private <T> void writeChunk(Job<T> job, int from, int to) {
+        List<T> chunk = job.items.subList(from, to);
+        try {
+            job.bulk.accept(chunk);
+            job.succeeded.addAndGet(chunk.size());
+        } catch (RuntimeException chunkFailure) {
+            for (int i = from; i < to; i++) {
+                try {
+                    job.single.accept(job.items.get(i));
+                    job.succeeded.incrementAndGet();
+                } catch (RuntimeException ex) {
+                    job.fail(new BulkJobError(i, BulkFailures.message(ex)));
+                }
+            }
+        }
+        job.processed.addAndGet(chunk.size());
+    }
+
+    private Instant now() {
+        return clock.instant();
+    }
+
+    /**
+     * Status transitions happen while holding the job's monitor; the counters are read without it, so a
+     * poll may see a chunk half counted.
+     */
+    private static final class Job<T> {
+
+        private final UUID id = UUID.randomUUID();
+        private final BulkJobResponse.Type type;
+        private final Long matchId;
+        private final int total;
+        private final Instant createdAt;
+        private final Consumer<List<T>> bulk;
+        private final Consumer<T> single;
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final List<BulkJobError> errors = new ArrayList<>();
+
+        private volatile List<T> items;
+        private volatile BulkJobResponse.Status status = BulkJobResponse.Status.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+
+        Job(BulkJobResponse.Type type, Long matchId, List<T> items, Instant createdAt,
+            Consumer<List<T>> bulk, Consumer<T> single) {
+            this.type = type;
+            this.matchId = matchId;
+            this.items = items == null ? List.of() : List.copyOf(items);
+            this.total = this.items.size();
+            this.createdAt = createdAt;
+            this.bulk = bulk;
+            this.single = single;
+        }
+
+        void fail(BulkJobError error) {
+            synchronized (errors) {
+                errors.add(error);
+            }
+            failed.incrementAndGet();
+        }
+
+        List<BulkJobError> errors() {
+            synchronized (errors) {
+                return List.copyOf(errors);
+            }
+        }
+
+        void finish(BulkJobResponse.Status outcome, Instant at) {
+            status = outcome;
+            finishedAt = at;
+            items = null;
+        }
+
+        boolean expired(Instant cutoff) {
+            Instant finished = finishedAt;
+            return finished != null && finished.isBefore(cutoff);
+        }
+
+        BulkJobResponse toResponse() {
+            return BulkJobResponse.builder()
+                    .id(id)
+                    .type(type)
+                    .matchId(matchId)
+                    .status(status)
+                    .total(total)
+                    .processed(processed.get())
+                    .succeeded(succeeded.get())
+                    .failed(failed.get())
+                    .createdAt(createdAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.configs.ListingCostProperties;
+import com.epanos.techassignment.exceptions.BadRequestException;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Bounds how many rows one match listing request may read, so a single {@code size=100000&includeOdds=true}
+ * cannot exhaust the heap or hold a pooled connection for the whole table.
+ * <p>
+ * A request is costed before it runs as page size × rows per match, where a match with its odds counts as
+ * one row plus the average odds per match. That average comes from the planner statistics, read at most
+ * once per {@code statisticsInterval}, and until they exist from the configured {@code oddsPerMatch}.
+ * Requests above {@code maxRows} get a smaller page starting at the same row ({@code CLAMP}) or a 400 naming
+ * the largest page size that fits ({@code REJECT}).
+ */
+public class ListingCostGuard {
+
+    private final int maxRows;
+    private final ListingCostProperties.Mode mode;
+    private final double defaultOddsPerMatch;
+    private final Duration statisticsInterval;
+    private final Supplier<Double> oddsPerMatchEstimate;
+    private final Clock clock;
+
+    private volatile double oddsPerMatch;
+    private volatile Instant estimatedAt;
+
+    public ListingCostGuard(ListingCostProperties properties, Supplier<Double> oddsPerMatchEstimate, Clock clock) {
+        this.maxRows = properties.maxRows();
+        this.mode = properties.mode();
+        this.defaultOddsPerMatch = properties.oddsPerMatch();
+        this.statisticsInterval = properties.statisticsInterval();
+        this.oddsPerMatchEstimate = oddsPerMatchEstimate;
+        this.clock = clock;
+    }
+
+    /**
+     * @param pageable    the requested page of matches
+     * @param includeOdds whether each match is read with its odds
+     * @return {@code pageable}, or with {@code CLAMP} a page of the largest size that fits, starting at the same
+     *         offset so no rows are skipped
+     * @throws BadRequestException with {@code REJECT}, if the page would read more than {@code maxRows} rows
+     */
+    public Pageable matches(Pageable pageable, boolean includeOdds) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        double rowsPerMatch = includeOdds ? 1 + oddsPerMatch() : 1;
+        long rows = (long) Math.ceil(pageable.getPageSize() * rowsPerMatch);
+        if (rows <= maxRows) {
+            return pageable;
+        }
+        int fitting = Math.max(1, (int) (maxRows / rowsPerMatch));
+        if (mode == ListingCostProperties.Mode.CLAMP) {
+            return new OffsetPageRequest(pageable.getOffset(), fitting, pageable.getSort());
+        }
+        throw new BadRequestException("Listing would read about " + rows + " rows, more than the limit of " + maxRows
+                + ". Request at most " + fitting + " matches per page"
+                + (includeOdds ? ", or list without includeOdds and get odds per match" : ""));
+    }
+
+    private double oddsPerMatch() {
+        Instant now = clock.instant();
+        Instant last = estimatedAt;
+        if (last == null || !now.isBefore(last.plus(statisticsInterval))) {
+            // concurrent callers may both refresh; the estimate is cheap and either result will do
+            Double estimate = oddsPerMatchEstimate.get();
+            oddsPerMatch = estimate == null ? defaultOddsPerMatch : estimate;
+            estimatedAt = now;
+        }
+        return oddsPerMatch;
+    }
+}
@@ -0,0 +1,68 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.repositories.MatchLoader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Loads a file through {@link MatchLoadService} at startup. Enabled by {@code app.load.file}; the format is
+ * {@code app.load.format}, or taken from the file extension ({@code .csv}, {@code .ndjson} or
+ * {@code .jsonl}). Its exit code is 0 if the load committed and 1 otherwise;
+ * {@link com.epanos.techassignment.TechAssignmentApplication#main} exits with it once the application has
+ * started.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("app.load.file")
+public class MatchLoadRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private final MatchLoadService matchLoadService;
+    private final Path file;
+    private final MatchLoader.Format format;
+
+    private volatile int exitCode = 1;
+
+    public MatchLoadRunner(MatchLoadService matchLoadService,
+                           @Value("${app.load.file}") Path file,
+                           @Value("${app.load.format:#{null}}") MatchLoader.Format format) {
+        this.matchLoadService = matchLoadService;
+        this.file = file;
+        this.format = format != null ? format : formatOf(file);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try (InputStream input = Files.newInputStream(file)) {
+            matchLoadService.load(input, format);
+            exitCode = 0;
+        } catch (Exception ex) {
+            log.error("Loading {} failed: {}", file, ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    static MatchLoader.Format formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return MatchLoader.Format.CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return MatchLoader.Format.NDJSON;
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + file + "; set app.load.format to CSV or NDJSON");
+    }
+}
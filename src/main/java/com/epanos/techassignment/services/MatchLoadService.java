@@ -0,0 +1,43 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.models.dto.MatchLoadResult;
+import com.epanos.techassignment.oddsbook.OddsBook;
+import com.epanos.techassignment.repositories.MatchLoader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class MatchLoadService {
+
+    private final MatchLoader matchLoader;
+    private final OddsBook oddsBook;
+
+    /**
+     * Loads matches and odds through {@code COPY} in one transaction, see {@link MatchLoader}. The odds
+     * book is cleared once the load commits, since any match may have changed.
+     *
+     * @param input  the rows to load
+     * @param format how the rows are written
+     * @return the row count and what was created or changed
+     * @throws BadRequestException if a row is malformed or invalid; nothing is loaded then
+     */
+    public MatchLoadResult load(InputStream input, MatchLoader.Format format) {
+        long start = System.nanoTime();
+        MatchLoadResult result = matchLoader.load(input, format);
+        oddsBook.invalidateAll();
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Loaded {} rows: {} matches created, {} updated; {} odds created, {} updated in {} ms",
+                result.getRows(), result.getMatchesCreated(), result.getMatchesUpdated(),
+                result.getOddsCreated(), result.getOddsUpdated(), result.getElapsedMillis());
+        return result;
+    }
+}
@@ -1,52 +1,93 @@
 package com.epanos.techassignment.services;
 
+import com.epanos.techassignment.exceptions.BadRequestException;
 import com.epanos.techassignment.exceptions.ConflictException;
 import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateResult;
 import com.epanos.techassignment.models.dto.MatchOddsRequest;
 import com.epanos.techassignment.models.dto.MatchOddsResponse;
 import com.epanos.techassignment.models.entities.Match;
 import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.odds.Thousandths;
+import com.epanos.techassignment.oddsbook.MatchOddsEntry;
+import com.epanos.techassignment.oddsbook.OddsBook;
 import com.epanos.techassignment.repositories.MatchOddsRepository;
 import com.epanos.techassignment.repositories.MatchRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class MatchOddsService {
 
+    private static final SparseFields SPARSE_FIELDS = new SparseFields()
+            .field("id")
+            .field("matchId", "match.id")
+            .field("specifier")
+            .field("odd");
+
+    /**
+     * Odds are always listed for one match, found through {@code idx_match_id}, so these sort only that
+     * match's odds. An index per sort key would cost more on odds updates than it saves here.
+     */
+    private static final SortKeys SORT_KEYS = new SortKeys()
+            .key("id")
+            .key("specifier")
+            .key("odd");
+
     private final MatchRepository matchRepository;
     private final MatchOddsRepository matchOddsRepository;
+    private final OddsBook oddsBook;
 
+    /**
+     * Creates an odd for a match with a single INSERT. The match is not loaded and the specifier is not
+     * checked up front: the unique constraint decides, and only when nothing was inserted is the match
+     * looked up to tell a missing match from a duplicate specifier.
+     *
+     * @param matchId the match ID
+     * @param req     the specifier and odd value
+     * @return the created odd
+     * @throws NotFoundException if match not found
+     * @throws ConflictException if the match already has an odd with that specifier
+     */
     public MatchOddsResponse create(Long matchId, MatchOddsRequest req) {
-        Match match = matchRepository.findById(matchId).orElseThrow(() -> new NotFoundException("Match not found: " + matchId));
+        String specifier = req.getSpecifier();
 
-        String specifier = req.getSpecifier().trim();
-
-        // prevent duplicate specifier per match
-        if (matchOddsRepository.existsByMatchIdAndSpecifier(matchId, specifier)) {
-            throw new ConflictException("Odds specifier already exists for match " + matchId + ": " + specifier);
-        }
+        Long id = matchOddsRepository.insertIfAbsent(matchId, specifier, req.getOdd())
+                .orElseThrow(() -> matchRepository.existsById(matchId)
+                        ? new ConflictException("Odds specifier already exists for match " + matchId + ": " + specifier)
+                        : new NotFoundException("Match not found: " + matchId));
+        oddsBook.oddSaved(matchId, id, specifier, req.getOdd());
+        matchRepository.refreshOddsDocument(matchId);
 
-        MatchOdds odds = MatchOdds.builder()
-                .match(match)
+        return MatchOddsResponse.builder()
+                .id(id)
+                .matchId(matchId)
                 .specifier(specifier)
                 .odd(req.getOdd())
                 .build();
-
-        MatchOdds saved = matchOddsRepository.save(odds);
-        return toResponse(saved);
     }
 
     public List<MatchOddsResponse> createBulk(Long matchId, List<MatchOddsRequest> reqs) {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new NotFoundException("Match not found: " + matchId));
+        if (!matchRepository.existsById(matchId)) {
+            throw new NotFoundException("Match not found: " + matchId);
+        }
 
         if (reqs == null || reqs.isEmpty()) {
             return List.of();
@@ -55,19 +96,19 @@ public class MatchOddsService {
         // 1) Validate duplicates inside payload
         validateUniqueSpecifiers(reqs);
 
-        // 2) Block if any specifier already exists in DB for this match
-        for (MatchOddsRequest r : reqs) {
-            String spec = r.getSpecifier().trim();
-            if (matchOddsRepository.existsByMatchIdAndSpecifier(matchId, spec)) {
-                throw new ConflictException("Odds specifier already exists for match " + matchId + ": " + spec);
-            }
+        // 2) Block if any specifier already exists in DB for this match (one query for the whole payload)
+        List<String> specifiers = reqs.stream().map(MatchOddsRequest::getSpecifier).toList();
+        List<String> existing = matchOddsRepository.findExistingSpecifiers(matchId, specifiers);
+        if (!existing.isEmpty()) {
+            throw new ConflictException("Odds specifier already exists for match " + matchId + ": " + existing.get(0));
         }
 
-        // 3) Create entities
+        // 3) Create entities against a reference proxy, so the match itself is never loaded
+        Match match = matchRepository.getReferenceById(matchId);
         List<MatchOdds> oddsEntities = reqs.stream()
                 .map(r -> MatchOdds.builder()
                         .match(match)
-                        .specifier(r.getSpecifier().trim())
+                        .specifier(r.getSpecifier())
                         .odd(r.getOdd())
                         .build())
                 .toList();
@@ -75,15 +116,17 @@ public class MatchOddsService {
         // 4) Persist as a batch
         List<MatchOdds> saved = matchOddsRepository.saveAll(oddsEntities);
         matchOddsRepository.flush();
+        saved.forEach(o -> oddsBook.oddSaved(matchId, o.getId(), o.getSpecifier(), o.getOdd()));
+        matchRepository.refreshOddsDocument(matchId);
 
         return saved.stream().map(this::toResponse).toList();
     }
 
     private void validateUniqueSpecifiers(List<MatchOddsRequest> reqs) {
-        // normalize to avoid duplicates slipping through
+        // specifiers arrive trimmed (see MatchOddsRequest#setSpecifier), so " X " and "X" collide here
         java.util.Set<String> seen = new java.util.HashSet<>();
         for (MatchOddsRequest r : reqs) {
-            String spec = (r.getSpecifier() == null) ? null : r.getSpecifier().trim();
+            String spec = r.getSpecifier();
             if (spec != null && !seen.add(spec)) {
                 throw new ConflictException("Duplicate odds specifier in request payload: " + spec);
             }
@@ -92,6 +135,7 @@ public class MatchOddsService {
 
     /**
      * Retrieves all non-paginated odds for a given match.
+     * The match is only looked up when it has no odds, to tell an empty match from a missing one.
      *
      * @param matchId the match ID
      * @return list of odds responses
@@ -99,11 +143,40 @@ public class MatchOddsService {
      */
     @Transactional(readOnly = true)
     public List<MatchOddsResponse> listByMatch(Long matchId) {
-        // ensure match exists
-        if (!matchRepository.existsById(matchId)) {
+        List<MatchOdds> odds = matchOddsRepository.findByMatchId(matchId);
+        if (odds.isEmpty() && !matchRepository.existsById(matchId)) {
             throw new NotFoundException("Match not found: " + matchId);
         }
-        return matchOddsRepository.findByMatchId(matchId).stream().map(this::toResponse).toList();
+        return odds.stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * Returns all current odds of a match from the in-memory {@link OddsBook}. Served without a
+     * transaction or database access once the match has been loaded into the book.
+     *
+     * @param matchId the match ID
+     * @return the match's odds
+     * @throws NotFoundException if match not found
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public MatchOddsEntry current(Long matchId) {
+        return oddsBook.current(matchId);
+    }
+
+    /**
+     * Retrieves the odds of several matches in a single query.
+     *
+     * @param matchIds the match IDs
+     * @return the odds of each match, ordered by ID; matches without odds are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<MatchOddsResponse>> listByMatchIds(Collection<Long> matchIds) {
+        if (matchIds.isEmpty()) {
+            return Map.of();
+        }
+        return matchOddsRepository.findByMatchIdInOrderById(matchIds).stream()
+                .map(this::toResponse)
+                .collect(Collectors.groupingBy(MatchOddsResponse::getMatchId));
     }
 
     /**
@@ -113,14 +186,45 @@ public class MatchOddsService {
      * @param pageable the pagination parameters (page, size, sort)
      * @return a page of odds responses
      * @throws NotFoundException if match not found
+     * @throws BadRequestException if sorted by anything other than {@code id}, {@code specifier} or {@code odd}
      */
     @Transactional(readOnly = true)
     public Page<MatchOddsResponse> listByMatchPage(Long matchId, Pageable pageable) {
+        pageable = SORT_KEYS.check(pageable);
         // ensure match exists
         if (!matchRepository.existsById(matchId)) {
             throw new NotFoundException("Match not found: " + matchId);
         }
-        return matchOddsRepository.findByMatchId(matchId, pageable).map(this::toResponse);
+        return matchOddsRepository.findByMatchId(matchId, sortSpecifierByName(pageable)).map(this::toResponse);
+    }
+
+    /**
+     * Retrieves a paginated list of odds for a given match with only the requested properties, selecting
+     * just their columns. Each odd is a map from property name to value, in the property order of
+     * {@link MatchOddsResponse}.
+     *
+     * @param matchId the match ID
+     * @param fields the requested properties of {@link MatchOddsResponse}
+     * @param pageable the pagination parameters (page, size, sort)
+     * @return a page of partial odds
+     * @throws NotFoundException if match not found
+     * @throws BadRequestException if no field or an unknown field is requested, or the sort is not supported
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> listByMatchPage(Long matchId, List<String> fields, Pageable pageable) {
+        List<String> properties = SPARSE_FIELDS.select(fields);
+        pageable = SORT_KEYS.check(pageable);
+        if (!matchRepository.existsById(matchId)) {
+            throw new NotFoundException("Match not found: " + matchId);
+        }
+        return matchOddsRepository
+                .findAttributesByMatchId(matchId, SPARSE_FIELDS.attributes(properties), sortSpecifierByName(pageable))
+                .map(tuple -> {
+                    Map<String, Object> row = SparseFields.row(properties, tuple);
+                    // thousandths are written as decimals, as in MatchOddsResponse
+                    row.computeIfPresent("odd", (property, odd) -> Thousandths.toBigDecimal((Integer) odd));
+                    return row;
+                });
     }
 
     @Transactional(readOnly = true)
@@ -134,7 +238,7 @@ public class MatchOddsService {
         MatchOdds odds = matchOddsRepository.findByIdAndMatchId(oddId, matchId)
                 .orElseThrow(() -> new NotFoundException("Odds not found: " + oddId + " for match " + matchId));
 
-        String newSpec = req.getSpecifier().trim();
+        String newSpec = req.getSpecifier();
 
         // only block if a DIFFERENT odd already owns this specifier
         if (matchOddsRepository.existsByMatchIdAndSpecifierAndIdNot(matchId, newSpec, oddId)) {
@@ -143,13 +247,16 @@ public class MatchOddsService {
 
         odds.setSpecifier(newSpec);
         odds.setOdd(req.getOdd());
+        oddsBook.oddSaved(matchId, oddId, newSpec, req.getOdd());
+        // the specifier may have changed, which moves the odd to another key of the document
+        matchRepository.refreshOddsDocument(matchId);
 
         return toResponse(odds);
     }
 
     /**
      * Updates an existing odd for the specified match, looked up by the specifier in the request body.
-     * The odd is found using the specifier, and its value is updated.
+     * The odd is found and updated by a single {@code UPDATE ... RETURNING} statement.
      *
      * @param matchId the match ID
      * @param req     the match odds request containing the specifier to look up and the new odd value
@@ -157,28 +264,83 @@ public class MatchOddsService {
      * @throws NotFoundException if no odd with the given specifier exists for the match
      */
     public MatchOddsResponse updateBySpecifier(Long matchId, MatchOddsRequest req) {
-        String specifier = req.getSpecifier().trim();
-        MatchOdds odds = matchOddsRepository.findByMatchIdAndSpecifier(matchId, specifier)
+        String specifier = req.getSpecifier();
+        Long id = matchOddsRepository.updateOddBySpecifier(matchId, specifier, req.getOdd())
                 .orElseThrow(() -> new NotFoundException(
                         "Odds with specifier '" + specifier + "' not found for match " + matchId));
+        oddsBook.oddChanged(matchId, specifier, req.getOdd());
 
-        odds.setOdd(req.getOdd());
+        return MatchOddsResponse.builder()
+                .id(id)
+                .matchId(matchId)
+                .specifier(specifier)
+                .odd(req.getOdd())
+                .build();
+    }
 
-        return toResponse(odds);
+    /**
+     * Updates odd values across any number of matches in a single transaction.
+     * Each item is looked up by (matchId, specifier); all UPDATEs are sent as one JDBC batch.
+     * Items whose odd does not exist are reported as {@code NOT_FOUND} without failing the others.
+     *
+     * @param reqs the (matchId, specifier, odd) tuples to apply
+     * @return per-item results, in the same order as the request
+     * @throws ConflictException if the same (matchId, specifier) appears more than once in the payload
+     */
+    public List<MatchOddsBulkUpdateResult> updateBulk(List<MatchOddsBulkUpdateRequest> reqs) {
+        if (reqs == null || reqs.isEmpty()) {
+            return List.of();
+        }
+
+        List<MatchOddsBulkUpdateRequest> updates = new ArrayList<>(reqs.size());
+        Set<String> seen = new HashSet<>();
+        for (MatchOddsBulkUpdateRequest r : reqs) {
+            String spec = r.getSpecifier().trim();
+            if (!seen.add(r.getMatchId() + "/" + spec)) {
+                throw new ConflictException("Duplicate odds specifier in request payload for match " + r.getMatchId() + ": " + spec);
+            }
+            updates.add(new MatchOddsBulkUpdateRequest(r.getMatchId(), spec, r.getOdd()));
+        }
+
+        int[] counts = matchOddsRepository.batchUpdateOdds(updates);
+
+        List<MatchOddsBulkUpdateResult> results = new ArrayList<>(updates.size());
+        for (int i = 0; i < updates.size(); i++) {
+            MatchOddsBulkUpdateRequest u = updates.get(i);
+            if (counts[i] != 0) {
+                oddsBook.oddChanged(u.getMatchId(), u.getSpecifier(), u.getOdd());
+            }
+            results.add(MatchOddsBulkUpdateResult.builder()
+                    .matchId(u.getMatchId())
+                    .specifier(u.getSpecifier())
+                    .odd(u.getOdd())
+                    .status(counts[i] == 0 ? MatchOddsBulkUpdateResult.Status.NOT_FOUND : MatchOddsBulkUpdateResult.Status.UPDATED)
+                    .build());
+        }
+        return results;
     }
 
     public void delete(Long matchId, Long oddId) {
-        MatchOdds odds = matchOddsRepository.findByIdAndMatchId(oddId, matchId)
-                .orElseThrow(() -> new NotFoundException("Odds not found: " + oddId + " for match " + matchId));
-        matchOddsRepository.delete(odds);
+        if (matchOddsRepository.deleteByIdAndMatchIdInBulk(oddId, matchId) == 0) {
+            throw new NotFoundException("Odds not found: " + oddId + " for match " + matchId);
+        }
+        oddsBook.oddRemoved(matchId, oddId);
+        matchRepository.refreshOddsDocument(matchId);
     }
 
-    @Transactional
+    /**
+     * Deletes all odds of a match with a single statement, without loading the match or its odds.
+     * The match is only looked up when nothing was deleted, to tell an empty match from a missing one.
+     *
+     * @param matchId the match ID
+     * @throws NotFoundException if match not found
+     */
     public void deleteAll(Long matchId) {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new NotFoundException("Match not found: " + matchId));
-
-        match.getOdds().clear();
+        oddsBook.invalidate(matchId);
+        if (matchOddsRepository.deleteAllByMatchIdInBulk(matchId) == 0 && !matchRepository.existsById(matchId)) {
+            throw new NotFoundException("Match not found: " + matchId);
+        }
+        matchRepository.refreshOddsDocument(matchId);
     }
 
     private MatchOddsResponse toResponse(MatchOdds odds) {
@@ -189,4 +351,18 @@ public class MatchOddsService {
                 .odd(odds.getOdd())
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * The specifier column holds a dictionary id, so sorting by specifier is redirected to the
+     * dictionary's name to stay alphabetical.
+     */
+    private static Pageable sortSpecifierByName(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor("specifier") == null) {
+            return pageable;
+        }
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(o -> o.getProperty().equals("specifier") ? o.withProperty("specifierEntry.name") : o)
+                .toList());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+}
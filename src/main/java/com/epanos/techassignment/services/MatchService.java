@@ -1,32 +1,72 @@
 package com.epanos.techassignment.services;
 
+import com.epanos.techassignment.exceptions.BadRequestException;
 import com.epanos.techassignment.exceptions.ConflictException;
 import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.dto.MatchBatchResponse;
+import com.epanos.techassignment.models.dto.MatchIngestResult;
 import com.epanos.techassignment.models.dto.MatchOddsRequest;
 import com.epanos.techassignment.models.dto.MatchRequest;
 import com.epanos.techassignment.models.dto.MatchResponse;
 import com.epanos.techassignment.models.entities.Match;
 import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.enums.Sport;
 import com.epanos.techassignment.models.mappers.MatchMapper;
+import com.epanos.techassignment.oddsbook.OddsBook;
 import com.epanos.techassignment.repositories.MatchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.PredicateSpecification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class MatchService {
 
+    private static final SparseFields SPARSE_FIELDS = new SparseFields()
+            .field("id")
+            .field("description")
+            .field("matchDate")
+            .field("matchTime")
+            .field("teamA")
+            .field("teamB")
+            .field("sport");
+
+    /**
+     * {@code id} is the primary key and the kickoff, with its {@code id} tiebreaker, is {@code idx_match_kickoff_id}.
+     */
+    private static final SortKeys SORT_KEYS = new SortKeys()
+            .key("id")
+            .key("matchDate", "matchTime");
+
     private final MatchRepository matchRepository;
     private final MatchMapper mapper;
+    private final JsonMapper jsonMapper;
+    private final Validator validator;
+    private final OddsBook oddsBook;
+    private final ListingCostGuard listingCostGuard;
 
     /**
      * Creates a new match with optional associated odds.
@@ -42,6 +82,7 @@ public class MatchService {
         addOddsToMatch(match, req.getOdds());
 
         Match saved = matchRepository.save(match);
+        matchRepository.refreshOddsDocument(saved.getId());
         return mapper.toResponse(saved, true);
     }
 
@@ -62,7 +103,9 @@ public class MatchService {
             return match;
         }).toList();
 
-        return matchRepository.saveAll(matches).stream()
+        List<Match> saved = matchRepository.saveAll(matches);
+        saved.forEach(m -> matchRepository.refreshOddsDocument(m.getId()));
+        return saved.stream()
                 .map(m -> mapper.toResponse(m, true))
                 .toList();
     }
@@ -80,6 +123,55 @@ public class MatchService {
         return mapper.toResponse(match, true);
     }
 
+    /**
+     * Retrieves several matches by ID with all associated odds in a single query.
+     * Matches are returned in the order their IDs were requested (duplicates collapsed);
+     * IDs that do not exist are reported instead of failing the whole call.
+     *
+     * @param ids the match IDs to retrieve
+     * @return the found matches with odds included, plus the IDs that were not found
+     */
+    @Transactional(readOnly = true)
+    public MatchBatchResponse getAll(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return MatchBatchResponse.builder().matches(List.of()).missingIds(List.of()).build();
+        }
+
+        List<Long> requested = List.copyOf(new LinkedHashSet<>(ids));
+
+        Map<Long, Match> matchMap = findAllWithOddsByIds(requested).stream()
+                .collect(Collectors.toMap(Match::getId, m -> m));
+
+        List<MatchResponse> matches = new ArrayList<>(matchMap.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            Match match = matchMap.get(id);
+            if (match == null) {
+                missingIds.add(id);
+            } else {
+                matches.add(mapper.toResponse(match, true));
+            }
+        }
+
+        return MatchBatchResponse.builder().matches(matches).missingIds(missingIds).build();
+    }
+
+    /**
+     * Retrieves several matches by ID without their odds, in a single query. Callers that need odds load
+     * them for all matches at once, see {@link MatchOddsService#listByMatchIds}.
+     *
+     * @param ids the match IDs to retrieve
+     * @return the matches that exist, by ID
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, MatchResponse> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return matchRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Match::getId, m -> mapper.toResponse(m, false)));
+    }
+
     /**
      * Retrieves all matches with optional odds inclusion (non-paginated).
      *
@@ -90,7 +182,10 @@ public class MatchService {
     public List<MatchResponse> list(boolean includeOdds) {
 
         if (includeOdds) {
-            return matchRepository.findAllWithOdds().stream().map(m -> mapper.toResponse(m, true)).toList();
+            List<Match> matches = matchRepository.oddsDocumentsEnabled()
+                    ? matchRepository.findAllWithOddsDocuments()
+                    : matchRepository.findAllWithOdds();
+            return matches.stream().map(m -> mapper.toResponse(m, true)).toList();
         }
 
         return matchRepository.findAll().stream().map(m -> mapper.toResponse(m, false)).toList();
@@ -101,10 +196,13 @@ public class MatchService {
      *
      * @param includeOdds whether to include odds in responses
      * @param pageable the pagination parameters (page, size, sort)
-     * @return a page of match responses
+     * @return a page of match responses, smaller than requested if clamped by the {@link ListingCostGuard}
+     * @throws BadRequestException if sorted by anything other than {@code id} or the kickoff ({@code matchDate},
+     *                             then {@code matchTime}), or if the page would read too many rows
      */
     @Transactional(readOnly = true)
     public Page<MatchResponse> listPage(boolean includeOdds, Pageable pageable) {
+        pageable = listingCostGuard.matches(SORT_KEYS.check(pageable), includeOdds);
         if (includeOdds) {
             // Step 1: get paginated IDs only (proper DB-level pagination)
             Page<Long> idsPage = matchRepository.findAllIds(pageable);
@@ -114,7 +212,7 @@ public class MatchService {
             }
 
             // Step 2: fetch full entities with odds for those IDs
-            List<Match> matches = matchRepository.findAllWithOddsByIds(idsPage.getContent());
+            List<Match> matches = findAllWithOddsByIds(idsPage.getContent());
 
             // Preserve the page order from step 1
             java.util.Map<Long, Match> matchMap = matches.stream()
@@ -131,9 +229,29 @@ public class MatchService {
         return matchRepository.findAll(pageable).map(m -> mapper.toResponse(m, false));
     }
 
+    /**
+     * Retrieves a paginated list of matches with only the requested properties, selecting just their
+     * columns. Each match is a map from property name to value, in the property order of {@link MatchResponse}.
+     *
+     * @param fields the requested properties of {@link MatchResponse}, except {@code odds}
+     * @param pageable the pagination parameters (page, size, sort)
+     * @return a page of partial matches
+     * @throws BadRequestException if no field or an unknown field is requested, the sort is not supported, or
+     *                             the page would read too many rows
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> listPage(List<String> fields, Pageable pageable) {
+        List<String> properties = SPARSE_FIELDS.select(fields);
+        pageable = listingCostGuard.matches(SORT_KEYS.check(pageable), false);
+        return matchRepository.findAllAttributes(SPARSE_FIELDS.attributes(properties), pageable)
+                .map(tuple -> SparseFields.row(properties, tuple));
+    }
+
     /**
      * Updates an existing match with full replacement semantics.
-     * If odds are provided in the request, existing odds are replaced.
+     * If odds are provided in the request, they replace the existing odds, merged by specifier:
+     * odds whose value changed are updated in place (keeping their IDs), new specifiers are inserted
+     * and specifiers missing from the request are deleted. Unchanged odds cause no statements.
      * If odds are not provided (null), existing odds remain unchanged.
      *
      * @param id the match ID to update
@@ -145,28 +263,144 @@ public class MatchService {
     public MatchResponse update(Long id, MatchRequest req) {
         validateOddsSpecifiers(req.getOdds());
 
-        Match match = matchRepository.findById(id).orElseThrow(() -> new NotFoundException("Match not found: " + id));
+        Match match = (req.getOdds() != null ? matchRepository.findWithOddsById(id) : matchRepository.findById(id))
+                .orElseThrow(() -> new NotFoundException("Match not found: " + id));
         mapper.updateEntity(match, req);
 
         if (req.getOdds() != null) {
-            match.getOdds().clear();
-            matchRepository.flush();
-            addOddsToMatch(match, req.getOdds());
-            matchRepository.flush();
+            mergeOdds(match, req.getOdds());
         }
 
         return mapper.toResponse(match, true);
     }
 
     /**
-     * Deletes a match by ID. Associated odds are automatically deleted due to cascade configuration.
+     * Partially updates a match using JSON Merge Patch (RFC 7396) semantics.
+     * Only the members present in the patch are changed; the result is validated like a full
+     * {@link MatchRequest}. Unchanged columns are not written, and the odds collection is neither
+     * loaded nor touched unless {@code odds} is part of the patch. A patched {@code odds} array is
+     * merged by specifier like in {@link #update}; {@code "odds": null} removes all odds.
+     *
+     * @param id the match ID to patch
+     * @param patch the merge patch document
+     * @return the patched match response
+     * @throws NotFoundException if match not found
+     * @throws BadRequestException if the patch is not a JSON object or cannot be applied
+     * @throws ConstraintViolationException if the patched match is invalid
+     * @throws ConflictException if patched odds contain duplicate specifiers
+     */
+    public MatchResponse patch(Long id, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new BadRequestException("Merge patch must be a JSON object");
+        }
+        boolean patchesOdds = patch.has("odds");
+
+        Match match = (patchesOdds ? matchRepository.findWithOddsById(id) : matchRepository.findById(id))
+                .orElseThrow(() -> new NotFoundException("Match not found: " + id));
+
+        MatchRequest req;
+        try {
+            req = jsonMapper.readerForUpdating(mapper.toRequest(match)).readValue(patch);
+        } catch (JacksonException ex) {
+            throw new BadRequestException("Invalid merge patch: " + ex.getOriginalMessage());
+        }
+        if (patchesOdds && req.getOdds() == null) {
+            req.setOdds(List.of());
+        }
+
+        Set<ConstraintViolation<MatchRequest>> violations = validator.validate(req);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        validateOddsSpecifiers(req.getOdds());
+
+        mapper.updateEntity(match, req);
+        if (patchesOdds) {
+            mergeOdds(match, req.getOdds());
+        }
+
+        return mapper.toResponse(match, patchesOdds);
+    }
+
+    /**
+     * Deletes a match by ID with a single statement. Associated odds are deleted by the database
+     * through {@code ON DELETE CASCADE}, without being loaded.
      *
      * @param id the match ID to delete
      * @throws NotFoundException if match not found
      */
     public void delete(Long id) {
-        Match match = matchRepository.findById(id).orElseThrow(() -> new NotFoundException("Match not found: " + id));
-        matchRepository.delete(match);
+        oddsBook.invalidate(id);
+        if (matchRepository.deleteMatchById(id) == 0) {
+            throw new NotFoundException("Match not found: " + id);
+        }
+    }
+
+    /**
+     * Deletes all matches matching the given filters with a single statement and returns how many
+     * were deleted. Filters are combined with AND; at least one is required.
+     * Associated odds are deleted by the database through {@code ON DELETE CASCADE}.
+     *
+     * @param before if set, only matches dated strictly before this date are deleted
+     * @param sport if set, only matches of this sport are deleted
+     * @return the number of matches deleted
+     * @throws BadRequestException if no filter is given
+     */
+    public long deleteMatching(LocalDate before, Sport sport) {
+        if (before == null && sport == null) {
+            throw new BadRequestException("At least one filter (before, sport) is required for a bulk delete");
+        }
+
+        List<PredicateSpecification<Match>> filters = new ArrayList<>();
+        if (before != null) {
+            filters.add((from, cb) -> cb.lessThan(from.get("matchDate"), before));
+        }
+        if (sport != null) {
+            filters.add((from, cb) -> cb.equal(from.get("sport"), sport));
+        }
+
+        oddsBook.invalidateAll();
+        return matchRepository.delete(PredicateSpecification.allOf(filters));
+    }
+
+    /**
+     * Ingests fixtures from an upstream feed, keyed by sport, teams and kickoff, with a single upsert.
+     * Fixtures already stored as sent cost no write, so a feed may resend them freely; a changed
+     * description is updated in place. Odds are not ingested with fixtures.
+     *
+     * @param fixtures the fixtures to ingest
+     * @return one result per fixture, in request order
+     * @throws BadRequestException if a fixture carries odds
+     * @throws ConflictException if the same fixture appears more than once in the payload
+     */
+    public List<MatchIngestResult> ingest(List<MatchRequest> fixtures) {
+        if (fixtures == null || fixtures.isEmpty()) {
+            return List.of();
+        }
+
+        Set<List<Object>> seen = new HashSet<>();
+        for (MatchRequest f : fixtures) {
+            if (f.getOdds() != null && !f.getOdds().isEmpty()) {
+                throw new BadRequestException("Fixtures are ingested without odds: " + f.getDescription());
+            }
+            if (!seen.add(List.of(f.getSport(), f.getTeamA(), f.getTeamB(), f.getMatchDate(), f.getMatchTime()))) {
+                throw new ConflictException("Duplicate fixture in request payload: " + f.getTeamA() + " - " + f.getTeamB()
+                        + " at " + f.getMatchDate() + " " + f.getMatchTime());
+            }
+        }
+        return matchRepository.ingest(fixtures);
+    }
+
+    /**
+     * Loads matches with their odds, from the odds documents when they are enabled.
+     *
+     * @param ids the match IDs to fetch
+     * @return the found matches, in no particular order
+     */
+    private List<Match> findAllWithOddsByIds(List<Long> ids) {
+        return matchRepository.oddsDocumentsEnabled()
+                ? matchRepository.findAllWithOddsDocuments(ids)
+                : matchRepository.findAllWithOddsByIds(ids);
     }
 
     /**
@@ -181,13 +415,41 @@ public class MatchService {
 
         Set<String> seen = new HashSet<>();
         for (MatchOddsRequest o : odds) {
-            String spec = (o.getSpecifier() == null) ? null : o.getSpecifier().trim();
+            String spec = o.getSpecifier();
             if (spec != null && !seen.add(spec)) {
                 throw new ConflictException("Duplicate odds specifier in request payload: " + spec);
             }
         }
     }
 
+    /**
+     * Replaces the odds of a match with the requested ones, matched by specifier.
+     * Existing odds keep their identity; only their value is touched, and only if it differs.
+     *
+     * @param match the match entity whose odds collection is loaded
+     * @param odds the requested odds (already validated for duplicate specifiers)
+     */
+    private void mergeOdds(Match match, List<MatchOddsRequest> odds) {
+        oddsBook.invalidate(match.getId());
+        matchRepository.refreshOddsDocument(match.getId());
+
+        Map<String, MatchOddsRequest> requested = new LinkedHashMap<>();
+        odds.forEach(o -> requested.put(o.getSpecifier(), o));
+
+        Iterator<MatchOdds> it = match.getOdds().iterator();
+        while (it.hasNext()) {
+            MatchOdds existing = it.next();
+            MatchOddsRequest req = requested.remove(existing.getSpecifier());
+            if (req == null) {
+                it.remove();
+            } else if (existing.getOdd() != req.getOdd()) {
+                existing.setOdd(req.getOdd());
+            }
+        }
+
+        addOddsToMatch(match, List.copyOf(requested.values()));
+    }
+
     /**
      * Adds odds to a match entity. Creates the relationship between odds and match.
      *
@@ -0,0 +1,235 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.configs.OddsWriteBehindProperties;
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for high-frequency odds ticks.
+ * <p>
+ * Ticks are keyed by (matchId, specifier) and only the latest odd per key is kept, so a price that
+ * changes many times between flushes costs one row update. The buffer is split into independently
+ * locked stripes so concurrent producers rarely contend. A single flusher thread drains all stripes
+ * and writes them through {@link MatchOddsService#updateBulk}, in batches of at most {@code batchSize}, every
+ * {@code flushInterval}, or earlier once {@code flushThreshold} keys are pending. When a batch fails, it and
+ * the batches not yet written are put back, unless a newer tick for the same key has arrived meanwhile, and
+ * the flush stops there.
+ * <p>
+ * The buffer is bounded: while {@code maxDepth} keys are pending, typically because the database is down,
+ * new ticks are refused with 503 instead of growing the heap. A call that is accepted may take the depth
+ * past the bound by at most its own size.
+ * <p>
+ * Metrics: {@code odds.ticks.received}, {@code odds.ticks.rejected}, {@code odds.ticks.flushed} (rows written),
+ * {@code odds.ticks.unmatched}, {@code odds.ticks.coalescing.ratio} (share of received ticks that
+ * were superseded before reaching the database), {@code odds.ticks.buffer.depth},
+ * {@code odds.ticks.flush} (latency) and {@code odds.ticks.flush.failures}.
+ */
+@Slf4j
+public class OddsWriteBehindBuffer {
+
+    private final MatchOddsService matchOddsService;
+    private final Duration flushInterval;
+    private final int flushThreshold;
+    private final int maxDepth;
+    private final int batchSize;
+    private final Stripe[] stripes;
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+
+    private final Counter received;
+    private final Counter rejected;
+    private final Counter flushed;
+    private final Counter unmatched;
+    private final Counter flushFailures;
+    private final Timer flushTimer;
+
+    public OddsWriteBehindBuffer(MatchOddsService matchOddsService, OddsWriteBehindProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.matchOddsService = matchOddsService;
+        this.flushInterval = properties.flushInterval();
+        this.flushThreshold = properties.flushThreshold();
+        this.maxDepth = properties.maxDepth();
+        this.batchSize = properties.batchSize();
+        int stripeCount = 1;
+        while (stripeCount < properties.stripes()) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "odds-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.received = meterRegistry.counter("odds.ticks.received");
+        this.rejected = meterRegistry.counter("odds.ticks.rejected");
+        this.flushed = meterRegistry.counter("odds.ticks.flushed");
+        this.unmatched = meterRegistry.counter("odds.ticks.unmatched");
+        this.flushFailures = meterRegistry.counter("odds.ticks.flush.failures");
+        this.flushTimer = meterRegistry.timer("odds.ticks.flush");
+        Gauge.builder("odds.ticks.buffer.depth", depth, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("odds.ticks.coalescing.ratio", this, OddsWriteBehindBuffer::coalescingRatio).register(meterRegistry);
+    }
+
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flush, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the flusher and writes whatever is still pending.
+     */
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(30, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * Accepts ticks into the buffer, replacing any pending odd for the same (matchId, specifier).
+     * Within one call, later ticks win over earlier ones.
+     *
+     * @param ticks the (matchId, specifier, odd) price ticks
+     * @throws ServiceUnavailableException if {@code maxDepth} keys are already pending; none of the ticks is kept
+     */
+    public void offer(List<MatchOddsBulkUpdateRequest> ticks) {
+        if (depth.get() >= maxDepth) {
+            rejected.increment(ticks.size());
+            throw new ServiceUnavailableException("Odds tick buffer is full; retry later");
+        }
+        for (MatchOddsBulkUpdateRequest tick : ticks) {
+            Key key = new Key(tick.getMatchId(), tick.getSpecifier().trim());
+            Stripe stripe = stripeFor(key);
+            stripe.lock.lock();
+            try {
+                if (stripe.pending.put(key, tick.getOdd()) == null) {
+                    depth.incrementAndGet();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        received.increment(ticks.size());
+
+        if (depth.get() >= flushThreshold && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * @return the number of distinct (matchId, specifier) keys waiting to be written
+     */
+    public int depth() {
+        return depth.get();
+    }
+
+    /**
+     * Drains every stripe and writes the latest odds in batches of at most {@code batchSize}. Runs on the
+     * flusher thread.
+     */
+    void flush() {
+        flushRequested.set(false);
+        List<MatchOddsBulkUpdateRequest> pending = drain();
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<MatchOddsBulkUpdateRequest> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            if (!write(batch)) {
+                requeue(pending.subList(from, pending.size()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether the batch was written
+     */
+    private boolean write(List<MatchOddsBulkUpdateRequest> batch) {
+        Timer.Sample sample = Timer.start();
+        try {
+            List<MatchOddsBulkUpdateResult> results = matchOddsService.updateBulk(batch);
+            long missing = results.stream().filter(r -> r.getStatus() == MatchOddsBulkUpdateResult.Status.NOT_FOUND).count();
+            flushed.increment(batch.size());
+            unmatched.increment(missing);
+            if (missing > 0) {
+                log.debug("{} of {} buffered odds ticks did not match an existing odd", missing, batch.size());
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            flushFailures.increment();
+            log.error("Flushing {} buffered odds ticks failed, keeping them for the next flush: {}", batch.size(), ex.getMessage(), ex);
+            return false;
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+
+    private List<MatchOddsBulkUpdateRequest> drain() {
+        List<MatchOddsBulkUpdateRequest> batch = new ArrayList<>(depth.get());
+        for (Stripe stripe : stripes) {
+            Map<Key, Integer> drained;
+            stripe.lock.lock();
+            try {
+                drained = stripe.pending;
+                stripe.pending = new HashMap<>();
+            } finally {
+                stripe.lock.unlock();
+            }
+            depth.addAndGet(-drained.size());
+            drained.forEach((key, odd) -> batch.add(new MatchOddsBulkUpdateRequest(key.matchId(), key.specifier(), odd)));
+        }
+        return batch;
+    }
+
+    private void requeue(List<MatchOddsBulkUpdateRequest> batch) {
+        for (MatchOddsBulkUpdateRequest tick : batch) {
+            Key key = new Key(tick.getMatchId(), tick.getSpecifier());
+            Stripe stripe = stripeFor(key);
+            stripe.lock.lock();
+            try {
+                if (stripe.pending.putIfAbsent(key, tick.getOdd()) == null) {
+                    depth.incrementAndGet();
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private double coalescingRatio() {
+        double total = received.count();
+        return total == 0 ? 0 : (total - flushed.count() - depth.get()) / total;
+    }
+
+    private Stripe stripeFor(Key key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    private record Key(long matchId, String specifier) {}
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<Key, Integer> pending = new HashMap<>();
+    }
+}
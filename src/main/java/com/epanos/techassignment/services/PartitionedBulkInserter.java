@@ -0,0 +1,105 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.models.dto.BulkPartitionResult;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.models.dto.PartitionedBulkResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates matches in parallel partitions, for large loads that need not be all-or-nothing.
+ * <p>
+ * {@link MatchService#createBulk} writes its payload through one connection in one transaction, and with
+ * identity ids every row is a round trip of its own, so a large payload is bound by latency rather than by
+ * the database. Here the payload is split into contiguous partitions of near-equal size, each written by
+ * {@code createBulk} on its own pooled connection and transaction. A partition that fails is rolled back
+ * on its own and reported next to the ones that were created.
+ * <p>
+ * Partitions of all requests share {@code maxPartitions} threads, so this mode never holds more than that
+ * many connections; keep it well below the connection pool size.
+ */
+public class PartitionedBulkInserter {
+
+    private final MatchService matchService;
+    private final int maxPartitions;
+    private final ExecutorService executor;
+
+    public PartitionedBulkInserter(MatchService matchService, int maxPartitions) {
+        this.matchService = matchService;
+        this.maxPartitions = maxPartitions;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxPartitions, r -> {
+            Thread t = new Thread(r, "bulk-insert-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates the matches in up to {@code partitions} concurrent transactions and waits for all of them.
+     *
+     * @param reqs       the matches to create
+     * @param partitions the requested partition count; clamped to {@code maxPartitions} and to the payload size
+     * @return per-partition results in payload order
+     */
+    public PartitionedBulkResponse createMatches(List<MatchRequest> reqs, int partitions) {
+        if (reqs == null || reqs.isEmpty()) {
+            return PartitionedBulkResponse.builder().partitions(List.of()).build();
+        }
+        int count = Math.max(1, Math.min(partitions, Math.min(maxPartitions, reqs.size())));
+        int base = reqs.size() / count;
+        int larger = reqs.size() % count;
+
+        List<CompletableFuture<BulkPartitionResult>> futures = new ArrayList<>(count);
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            int partition = i;
+            int from = offset;
+            List<MatchRequest> slice = reqs.subList(from, from + base + (i < larger ? 1 : 0));
+            futures.add(CompletableFuture.supplyAsync(() -> write(partition, from, slice), executor));
+            offset += slice.size();
+        }
+
+        List<BulkPartitionResult> results = futures.stream().map(CompletableFuture::join).toList();
+        int created = results.stream()
+                .filter(r -> r.getStatus() == BulkPartitionResult.Status.CREATED)
+                .mapToInt(BulkPartitionResult::getSize)
+                .sum();
+        return PartitionedBulkResponse.builder()
+                .created(created)
+                .failed(reqs.size() - created)
+                .partitions(results)
+                .build();
+    }
+
+    private BulkPartitionResult write(int partition, int offset, List<MatchRequest> slice) {
+        BulkPartitionResult.BulkPartitionResultBuilder result = BulkPartitionResult.builder()
+                .partition(partition)
+                .offset(offset)
+                .size(slice.size());
+        long start = System.nanoTime();
+        try {
+            List<Long> ids = matchService.createBulk(slice).stream().map(MatchResponse::getId).toList();
+            result.status(BulkPartitionResult.Status.CREATED).ids(ids);
+        } catch (RuntimeException ex) {
+            result.status(BulkPartitionResult.Status.FAILED).ids(List.of()).error(BulkFailures.message(ex));
+        }
+        return result.elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).build();
+    }
+}
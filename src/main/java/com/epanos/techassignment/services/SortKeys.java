@@ -0,0 +1,74 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The sort orders a listing accepts, declared as keys: sequences of properties. A sort may use any leading
+ * part of a key, in one direction, since a B-tree index can be read forwards or backwards but not in mixed
+ * directions. Listings declare only keys the database can serve without sorting the whole table, and every
+ * other sort is rejected.
+ * <p>
+ * An accepted sort is completed with the rest of its key and then {@value #TIEBREAKER}, in the same
+ * direction, so rows that tie on the requested properties still come back in one order and pages neither
+ * skip nor repeat them. Keys other than {@value #TIEBREAKER} itself should be backed by an index that ends
+ * with it.
+ */
+final class SortKeys {
+
+    static final String TIEBREAKER = "id";
+
+    private final List<List<String>> keys = new ArrayList<>();
+
+    SortKeys key(String... properties) {
+        keys.add(List.of(properties));
+        return this;
+    }
+
+    /**
+     * @return {@code pageable} with its sort completed, or for an unsorted one the same page sorted ascending
+     *         by the first key, so pages are stable and read in index order as well
+     * @throws BadRequestException if its sort is not a leading part of a key, or mixes directions
+     */
+    Pageable check(Pageable pageable) {
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted()) {
+            return pageable.isPaged()
+                    ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), complete(sort, keys.get(0), Sort.Direction.ASC))
+                    : pageable;
+        }
+        List<String> properties = sort.stream().map(Sort.Order::getProperty).toList();
+        List<String> key = keys.stream()
+                .filter(k -> properties.size() <= k.size() && k.subList(0, properties.size()).equals(properties))
+                .findFirst()
+                .orElseThrow(() -> new BadRequestException("Unsupported sort: " + String.join(",", properties)
+                        + ". Supported sorts: " + keys.stream().map(k -> String.join(",", k)).collect(Collectors.joining("; "))));
+        if (sort.stream().map(Sort.Order::getDirection).distinct().count() > 1) {
+            throw new BadRequestException("Sort properties must all use the same direction");
+        }
+        Sort completed = complete(sort, key, sort.iterator().next().getDirection());
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), completed)
+                : Pageable.unpaged(completed);
+    }
+
+    /**
+     * Appends the properties of {@code key} that {@code sort} leaves out, then the tiebreaker.
+     */
+    private static Sort complete(Sort sort, List<String> key, Sort.Direction direction) {
+        List<Sort.Order> orders = new ArrayList<>(sort.toList());
+        for (String property : key.subList(orders.size(), key.size())) {
+            orders.add(new Sort.Order(direction, property));
+        }
+        if (!key.contains(TIEBREAKER)) {
+            orders.add(new Sort.Order(direction, TIEBREAKER));
+        }
+        return Sort.by(orders);
+    }
+}
@@ -0,0 +1,63 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import jakarta.persistence.Tuple;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The response properties a sparse listing may select with {@code fields=}, each backed by the entity
+ * attribute it is read from. Properties are always returned in the order they are declared here, which is
+ * the property order of the full response.
+ */
+final class SparseFields {
+
+    private final Map<String, String> attributes = new LinkedHashMap<>();
+
+    SparseFields field(String property) {
+        return field(property, property);
+    }
+
+    SparseFields field(String property, String attribute) {
+        attributes.put(property, attribute);
+        return this;
+    }
+
+    /**
+     * @param requested the property names from the request, in any order and possibly repeated
+     * @return the requested properties in declaration order
+     * @throws BadRequestException if none is requested or one is unknown
+     */
+    List<String> select(List<String> requested) {
+        if (requested.isEmpty()) {
+            throw new BadRequestException("fields must name at least one of: " + String.join(",", attributes.keySet()));
+        }
+        for (String property : requested) {
+            if (!attributes.containsKey(property)) {
+                throw new BadRequestException("Unknown field: " + property
+                        + ". Allowed fields: " + String.join(",", attributes.keySet()));
+            }
+        }
+        return attributes.keySet().stream().filter(requested::contains).toList();
+    }
+
+    /**
+     * @return the attribute paths to select for {@code properties}, in the same order
+     */
+    List<String> attributes(List<String> properties) {
+        return properties.stream().map(attributes::get).toList();
+    }
+
+    /**
+     * @return one response row: tuple element {@code i} under property {@code i}
+     */
+    static Map<String, Object> row(List<String> properties, Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < properties.size(); i++) {
+            row.put(properties.get(i), tuple.get(i));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,64 @@
+package com.epanos.techassignment.configs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through a "replica" that is the configured database itself, tagged with a distinct
+ * {@code ApplicationName} so the test can tell which pool served a transaction. Pointing
+ * {@code app.datasource.replicas.urls} at a real standby exercises the same path.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replicas.urls=${spring.datasource.url}?ApplicationName=replica-it",
+        "app.datasource.replicas.lag-check-interval=100ms"
+})
+class ReadReplicaRoutingIntegrationTest {
+
+    private static final String APPLICATION_NAME = "select current_setting('application_name')";
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void awaitReplica() throws InterruptedException {
+        for (int i = 0; i < 50 && replicaDataSource.usableReplicas() == 0; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(replicaDataSource.usableReplicas()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("read-only transactions are served by the replica pool")
+    void readOnly_usesReplica() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        String applicationName = tx.execute(status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+
+        assertThat(applicationName).isEqualTo("replica-it");
+    }
+
+    @Test
+    @DisplayName("read-write transactions are served by the primary pool")
+    void readWrite_usesPrimary() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        String applicationName = tx.execute(status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+
+        assertThat(applicationName).isNotEqualTo("replica-it");
+    }
+}
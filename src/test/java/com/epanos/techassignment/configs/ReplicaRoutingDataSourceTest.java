@@ -0,0 +1,130 @@
+package com.epanos.techassignment.configs;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("getConnection: reads go to the primary until the replica has passed a lag check")
+    void beforeFirstCheck_usesPrimary() throws SQLException {
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    @DisplayName("getConnection: a replica within the lag limit serves reads")
+    void replicaCaughtUp_usesReplica() throws SQLException {
+        replicaReportsLag(0.5);
+
+        routing.checkReplicas();
+
+        assertThat(routing.usableReplicas()).isEqualTo(1);
+        assertThat(routing.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection: a replica lagging past the limit is skipped in favour of the primary")
+    void replicaLagging_usesPrimary() throws SQLException {
+        replicaReportsLag(0.5);
+        routing.checkReplicas();
+        replicaReportsLag(12.0);
+
+        routing.checkReplicas();
+
+        assertThat(routing.usableReplicas()).isZero();
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection: a replica whose lag check fails is skipped in favour of the primary")
+    void lagCheckFails_usesPrimary() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        routing.checkReplicas();
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection: a replica refusing a connection falls back to the primary and leaves rotation")
+    void replicaRefusesConnection_fallsBackToPrimary() throws SQLException {
+        replicaReportsLag(0);
+        routing.checkReplicas();
+        reset(replica);
+        when(replica.getConnection()).thenThrow(new SQLException("too many connections"));
+
+        assertThat(routing.getConnection()).isSameAs(primaryConnection);
+        assertThat(routing.usableReplicas()).isZero();
+    }
+
+    @Test
+    @DisplayName("getConnection: reads are spread round-robin across usable replicas")
+    void roundRobin() throws SQLException {
+        DataSource second = mock(DataSource.class);
+        Connection secondConnection = mock(Connection.class);
+        stubLag(second, secondConnection, 0);
+        replicaReportsLag(0);
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica, second), Duration.ofSeconds(5));
+        routing.checkReplicas();
+
+        assertThat(List.of(routing.getConnection(), routing.getConnection(), routing.getConnection()))
+                .containsExactly(replicaConnection, secondConnection, replicaConnection);
+    }
+
+    @Test
+    @DisplayName("getConnection(username, password): routed like getConnection, with the given credentials")
+    void explicitCredentials() throws SQLException {
+        Connection replicaAsReporter = mock(Connection.class);
+        Connection primaryAsReporter = mock(Connection.class);
+        when(replica.getConnection("reporter", "secret")).thenReturn(replicaAsReporter);
+        when(primary.getConnection("reporter", "secret")).thenReturn(primaryAsReporter);
+
+        assertThat(routing.getConnection("reporter", "secret")).isSameAs(primaryAsReporter);
+
+        replicaReportsLag(0);
+        routing.checkReplicas();
+
+        assertThat(routing.getConnection("reporter", "secret")).isSameAs(replicaAsReporter);
+    }
+
+    private void replicaReportsLag(double seconds) throws SQLException {
+        stubLag(replica, replicaConnection, seconds);
+    }
+
+    private static void stubLag(DataSource dataSource, Connection connection, double seconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+    }
+}
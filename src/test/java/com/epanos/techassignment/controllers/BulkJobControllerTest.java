@@ -0,0 +1,106 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.dto.BulkJobError;
+import com.epanos.techassignment.models.dto.BulkJobResponse;
+import com.epanos.techassignment.services.BulkJobService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BulkJobController.class)
+@WithMockUser
+class BulkJobControllerTest {
+
+    private static final UUID JOB_ID = UUID.fromString("5b0d7f3e-9a55-4a7e-9f5c-0c1a7d6f2b11");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BulkJobService bulkJobService;
+
+    private final BulkJobResponse running = BulkJobResponse.builder()
+            .id(JOB_ID)
+            .type(BulkJobResponse.Type.MATCHES)
+            .status(BulkJobResponse.Status.RUNNING)
+            .total(5000)
+            .processed(1500)
+            .succeeded(1498)
+            .failed(2)
+            .build();
+
+    // ── GET /api/jobs/{id} ──────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET /api/jobs/{id} → 200 with progress")
+    void get_success() throws Exception {
+        when(bulkJobService.get(JOB_ID)).thenReturn(running);
+
+        mockMvc.perform(get("/api/jobs/{id}", JOB_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.processed").value(1500))
+                .andExpect(jsonPath("$.failed").value(2));
+    }
+
+    @Test
+    @DisplayName("GET /api/jobs/{id} → 404 when job not found")
+    void get_notFound() throws Exception {
+        when(bulkJobService.get(JOB_ID)).thenThrow(new NotFoundException("Bulk job not found: " + JOB_ID));
+
+        mockMvc.perform(get("/api/jobs/{id}", JOB_ID))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("NOT_FOUND"));
+    }
+
+    // ── GET /api/jobs/{id}/errors ───────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET /api/jobs/{id}/errors → 200 with failed items by index")
+    void errors_success() throws Exception {
+        when(bulkJobService.errors(JOB_ID)).thenReturn(List.of(
+                new BulkJobError(7, "Duplicate odds specifier in request payload: X"),
+                new BulkJobError(912, "Database constraint violation: uk_match_fixture")));
+
+        mockMvc.perform(get("/api/jobs/{id}/errors", JOB_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].index").value(912))
+                .andExpect(jsonPath("$[1].message").value("Database constraint violation: uk_match_fixture"));
+    }
+
+    // ── DELETE /api/jobs/{id} ───────────────────────────────────────────────
+
+    @Test
+    @DisplayName("DELETE /api/jobs/{id} → 200 with the job as it is now")
+    void cancel_success() throws Exception {
+        when(bulkJobService.cancel(JOB_ID)).thenReturn(running);
+
+        mockMvc.perform(delete("/api/jobs/{id}", JOB_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(JOB_ID.toString()));
+        verify(bulkJobService).cancel(JOB_ID);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/jobs/{id} → 409 when the job already finished")
+    void cancel_finished() throws Exception {
+        when(bulkJobService.cancel(JOB_ID)).thenThrow(new ConflictException("Bulk job " + JOB_ID + " already COMPLETED"));
+
+        mockMvc.perform(delete("/api/jobs/{id}", JOB_ID))
+                .andExpect(status().isConflict());
+    }
+}
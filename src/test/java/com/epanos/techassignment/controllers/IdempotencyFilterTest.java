@@ -0,0 +1,243 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.repositories.IdempotencyStore;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+    private static final String BODY = "[{\"description\":\"OSFP-PAO\"}]";
+
+    @Mock
+    private IdempotencyStore store;
+
+    @Mock
+    private HandlerExceptionResolver exceptionResolver;
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(store, exceptionResolver);
+    }
+
+    @Test
+    @DisplayName("first request: runs once, reads the body it was hashed from and stores the response")
+    void firstRequest_runsAndStores() throws Exception {
+        when(store.claim(eq("admin"), eq("k1"), any())).thenReturn(Optional.empty());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                assertThat(new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+                res.setStatus(201);
+                res.setContentType("application/json");
+                res.getWriter().write("[{\"id\":1}]");
+            }
+        });
+
+        filter.doFilter(request("k1"), response, chain);
+
+        ArgumentCaptor<IdempotencyStore.StoredResponse> stored = ArgumentCaptor.captor();
+        verify(store).complete(eq("admin"), eq("k1"), stored.capture());
+        assertThat(stored.getValue().status()).isEqualTo(201);
+        assertThat(stored.getValue().contentType()).startsWith("application/json");
+        assertThat(new String(stored.getValue().body(), StandardCharsets.UTF_8)).isEqualTo("[{\"id\":1}]");
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getContentAsString()).isEqualTo("[{\"id\":1}]");
+        verify(store, never()).release(any(), any());
+    }
+
+    @Test
+    @DisplayName("first request: a non-blocking reader is told the buffered body is available and complete")
+    void firstRequest_readListener() throws Exception {
+        when(store.claim(eq("admin"), eq("k1"), any())).thenReturn(Optional.empty());
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> events = new ArrayList<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                ServletInputStream in = req.getInputStream();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        events.add("data");
+                        while (in.isReady() && !in.isFinished()) {
+                            read.write(in.read());
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        events.add("done");
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        events.add("error");
+                    }
+                });
+                res.setStatus(201);
+            }
+        });
+
+        filter.doFilter(request("k1"), new MockHttpServletResponse(), chain);
+
+        assertThat(events).containsExactly("data", "done");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+    }
+
+    @Test
+    @DisplayName("retry: gets the stored response without running the request")
+    void retry_replaysStoredResponse() throws Exception {
+        byte[] hash = claimedHash();
+        when(store.claim(eq("admin"), eq("k1"), any())).thenReturn(Optional.of(new IdempotencyStore.Claim(hash,
+                new IdempotencyStore.StoredResponse(201, "application/json", "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8)))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("k1"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(response.getContentAsString()).isEqualTo("[{\"id\":1}]");
+    }
+
+    @Test
+    @DisplayName("retry: 409 while the first request is still running")
+    void retry_inProgress() throws Exception {
+        when(store.claim(eq("admin"), eq("k1"), any())).thenReturn(Optional.of(new IdempotencyStore.Claim(null, null)));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("k1"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNull();
+        verify(exceptionResolver).resolveException(any(), any(), isNull(), isA(ConflictException.class));
+    }
+
+    @Test
+    @DisplayName("reused key: 400 when the key was used for a different body")
+    void reusedKey_differentRequest() throws Exception {
+        when(store.claim(eq("admin"), eq("k1"), any())).thenReturn(Optional.of(new IdempotencyStore.Claim(new byte[]{1},
+                new IdempotencyStore.StoredResponse(201, "application/json", new byte[0]))));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("k1"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNull();
+        verify(exceptionResolver).resolveException(any(), any(), isNull(), isA(BadRequestException.class));
+    }
+
+    @Test
+    @DisplayName("failed request: the key is released so a retry runs again")
+    void failedRequest_released() throws Exception {
+        when(store.claim(eq("admin"), eq("k1"), any())).thenReturn(Optional.empty());
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest req, HttpServletResponse res) {
+                res.setStatus(409);
+            }
+        });
+
+        filter.doFilter(request("k1"), new MockHttpServletResponse(), chain);
+
+        verify(store).release("admin", "k1");
+        verify(store, never()).complete(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("requests without the header, and other methods, pass straight through")
+    void noHeader_passesThrough() throws Exception {
+        MockHttpServletRequest noHeader = request(null);
+        MockHttpServletRequest put = request("k1");
+        put.setMethod("PUT");
+
+        filter.doFilter(noHeader, new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(put, new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    @DisplayName("only the match and odds create and bulk paths are covered; others pass through unread")
+    void otherPaths_passThrough() throws Exception {
+        when(store.claim(eq("admin"), eq("k1"), any())).thenReturn(Optional.empty());
+        for (String path : new String[]{"/api/matches", "/api/matches/42/odds", "/api/matches/42/odds/bulk"}) {
+            MockHttpServletRequest covered = request("k1");
+            covered.setRequestURI(path);
+            filter.doFilter(covered, new MockHttpServletResponse(), new MockFilterChain());
+        }
+        verify(store, times(3)).claim(eq("admin"), eq("k1"), any());
+        clearInvocations(store);
+
+        for (String path : new String[]{"/api/admin/load", "/api/odds/ticks", "/api/matches/42/odds/7"}) {
+            MockHttpServletRequest other = request("k1");
+            other.setRequestURI(path);
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(other, new MockHttpServletResponse(), chain);
+            assertThat(chain.getRequest()).isSameAs(other);
+        }
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    @DisplayName("blank key: 400 without claiming")
+    void blankKey_badRequest() throws Exception {
+        filter.doFilter(request(" "), new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(store);
+        verify(exceptionResolver).resolveException(any(), any(), isNull(), isA(BadRequestException.class));
+    }
+
+    /**
+     * @return the hash the filter computes for {@link #request}
+     */
+    private byte[] claimedHash() throws Exception {
+        ArgumentCaptor<byte[]> hash = ArgumentCaptor.captor();
+        IdempotencyStore recording = mock(IdempotencyStore.class);
+        when(recording.claim(any(), any(), hash.capture())).thenReturn(Optional.of(new IdempotencyStore.Claim(null, null)));
+        new IdempotencyFilter(recording, exceptionResolver).doFilter(request("k1"), new MockHttpServletResponse(), new MockFilterChain());
+        clearInvocations(exceptionResolver);
+        return hash.getValue();
+    }
+
+    private static MockHttpServletRequest request(String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/matches/bulk");
+        request.setRemoteUser("admin");
+        request.setContentType("application/json");
+        request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        return request;
+    }
+}
@@ -1,9 +1,19 @@
 package com.epanos.techassignment.controllers;
 
+import com.epanos.techassignment.configs.BinaryContentConfig;
 import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.BulkJobResponse;
+import com.epanos.techassignment.models.dto.BulkPartitionResult;
+import com.epanos.techassignment.models.dto.MatchBatchResponse;
+import com.epanos.techassignment.models.dto.MatchIngestResult;
 import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.models.dto.PartitionedBulkResponse;
 import com.epanos.techassignment.models.enums.Sport;
+import com.epanos.techassignment.services.BulkJobService;
 import com.epanos.techassignment.services.MatchService;
+import com.epanos.techassignment.services.PartitionedBulkInserter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,13 +24,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.security.test.context.support.WithMockUser;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,6 +56,14 @@ class MatchControllerTest {
     @MockitoBean
     private MatchService matchService;
 
+    @MockitoBean
+    private BulkJobService bulkJobService;
+
+    @MockitoBean
+    private PartitionedBulkInserter partitionedBulkInserter;
+
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+
     private final MatchResponse sampleResponse = MatchResponse.builder()
             .id(1L)
             .description("OSFP-PAO")
@@ -95,6 +120,147 @@ class MatchControllerTest {
                 .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
     }
 
+    // ── POST /api/matches/bulk?partitions= ──────────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/matches/bulk?partitions=2 → 201 when every partition was created")
+    void createBulkPartitioned_created() throws Exception {
+        when(partitionedBulkInserter.createMatches(any(), eq(2))).thenReturn(PartitionedBulkResponse.builder()
+                .created(2)
+                .partitions(List.of(
+                        BulkPartitionResult.builder().partition(0).offset(0).size(1).status(BulkPartitionResult.Status.CREATED).ids(List.of(1L)).build(),
+                        BulkPartitionResult.builder().partition(1).offset(1).size(1).status(BulkPartitionResult.Status.CREATED).ids(List.of(2L)).build()))
+                .build());
+
+        mockMvc.perform(post("/api/matches/bulk").param("partitions", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"description": "OSFP-PAO", "matchDate": "2024-03-31", "matchTime": "18:00", "teamA": "OSFP", "teamB": "PAO", "sport": 1},
+                                  {"description": "AEK-PAOK", "matchDate": "2024-04-01", "matchTime": "20:00", "teamA": "AEK", "teamB": "PAOK", "sport": 2}
+                                ]
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.partitions[1].ids[0]").value(2));
+        verify(matchService, never()).createBulk(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/bulk?partitions=2 → 207 when a partition failed")
+    void createBulkPartitioned_partial() throws Exception {
+        when(partitionedBulkInserter.createMatches(any(), eq(2))).thenReturn(PartitionedBulkResponse.builder()
+                .created(1)
+                .failed(1)
+                .partitions(List.of(
+                        BulkPartitionResult.builder().partition(0).offset(0).size(1).status(BulkPartitionResult.Status.CREATED).ids(List.of(1L)).build(),
+                        BulkPartitionResult.builder().partition(1).offset(1).size(1).status(BulkPartitionResult.Status.FAILED).ids(List.of())
+                                .error("Database constraint violation: uk_match_fixture").build()))
+                .build());
+
+        mockMvc.perform(post("/api/matches/bulk").param("partitions", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.partitions[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.partitions[1].error").value("Database constraint violation: uk_match_fixture"));
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/bulk?partitions=0 → 400")
+    void createBulkPartitioned_invalidPartitions() throws Exception {
+        mockMvc.perform(post("/api/matches/bulk").param("partitions", "0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(partitionedBulkInserter);
+    }
+
+    // ── POST /api/matches/bulk?async=true ───────────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/matches/bulk?async=true → 202 with the queued job and its Location")
+    void createBulkAsync_accepted() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(bulkJobService.submitMatches(any())).thenReturn(BulkJobResponse.builder()
+                .id(jobId).type(BulkJobResponse.Type.MATCHES).status(BulkJobResponse.Status.QUEUED).total(1).build());
+
+        mockMvc.perform(post("/api/matches/bulk").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"description": "OSFP-PAO", "matchDate": "2024-03-31", "matchTime": "18:00", "teamA": "OSFP", "teamB": "PAO", "sport": 1}]
+                                """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/jobs/" + jobId))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.total").value(1));
+        verify(matchService, never()).createBulk(any());
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/bulk?async=true → 503 when too many jobs are queued")
+    void createBulkAsync_queueFull() throws Exception {
+        when(bulkJobService.submitMatches(any())).thenThrow(new ServiceUnavailableException("Too many bulk jobs queued"));
+
+        mockMvc.perform(post("/api/matches/bulk").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"description": "OSFP-PAO", "matchDate": "2024-03-31", "matchTime": "18:00", "teamA": "OSFP", "teamB": "PAO", "sport": 1}]
+                                """))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value("SERVICE_UNAVAILABLE"));
+    }
+
+    // ── PUT /api/matches/ingest ─────────────────────────────────────────────
+
+    @Test
+    @DisplayName("PUT /api/matches/ingest → 200 with per-fixture results")
+    void ingest_success() throws Exception {
+        when(matchService.ingest(any())).thenReturn(List.of(
+                MatchIngestResult.builder().id(1L).status(MatchIngestResult.Status.UNCHANGED).build(),
+                MatchIngestResult.builder().id(2L).status(MatchIngestResult.Status.CREATED).build()));
+
+        String body = """
+                [
+                  {"description": "OSFP-PAO", "matchDate": "2024-03-31", "matchTime": "18:00", "teamA": "OSFP", "teamB": "PAO", "sport": 1},
+                  {"description": "AEK-PAOK", "matchDate": "2024-04-01", "matchTime": "20:00", "teamA": "AEK", "teamB": "PAOK", "sport": 2}
+                ]
+                """;
+
+        mockMvc.perform(put("/api/matches/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UNCHANGED"))
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(jsonPath("$[1].status").value("CREATED"));
+        verify(matchService).ingest(argThat(fixtures -> fixtures.size() == 2 && fixtures.get(1).getSport() == Sport.BASKETBALL));
+    }
+
+    @Test
+    @DisplayName("PUT /api/matches/ingest → 400 on an invalid fixture")
+    void ingest_validation() throws Exception {
+        mockMvc.perform(put("/api/matches/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+
+        verify(matchService, never()).ingest(any());
+    }
+
+    @Test
+    @DisplayName("PUT /api/matches/ingest → 409 on a duplicate fixture")
+    void ingest_duplicate() throws Exception {
+        when(matchService.ingest(any())).thenThrow(new ConflictException("Duplicate fixture in request payload"));
+
+        mockMvc.perform(put("/api/matches/ingest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isConflict());
+    }
+
     // ── GET /api/matches/{id} ───────────────────────────────────────────────
 
     @Test
@@ -118,6 +284,40 @@ class MatchControllerTest {
                 .andExpect(jsonPath("$.code").value("NOT_FOUND"));
     }
 
+    // ── GET /api/matches?ids= ───────────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET /api/matches?ids=1,99 → 200 with found matches and missing ids")
+    void getAll_success() throws Exception {
+        MatchBatchResponse batch = MatchBatchResponse.builder()
+                .matches(List.of(sampleResponse))
+                .missingIds(List.of(99L))
+                .build();
+        when(matchService.getAll(List.of(1L, 99L))).thenReturn(batch);
+
+        mockMvc.perform(get("/api/matches").param("ids", "1,99"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matches", hasSize(1)))
+                .andExpect(jsonPath("$.matches[0].id").value(1))
+                .andExpect(jsonPath("$.missingIds[0]").value(99));
+
+        verify(matchService, never()).listPage(anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/matches?ids=... → 400 when more than 100 ids are requested")
+    void getAll_tooManyIds() throws Exception {
+        String ids = java.util.stream.LongStream.rangeClosed(1, 101)
+                .mapToObj(Long::toString)
+                .collect(java.util.stream.Collectors.joining(","));
+
+        mockMvc.perform(get("/api/matches").param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+
+        verifyNoInteractions(matchService);
+    }
+
     // ── GET /api/matches ────────────────────────────────────────────────────
 
     @Test
@@ -145,6 +345,117 @@ class MatchControllerTest {
         verify(matchService).listPage(eq(true), any());
     }
 
+    @Test
+    @DisplayName("GET /api/matches?fields=id,teamA → 200 with only the requested properties")
+    void list_fields() throws Exception {
+        Map<String, Object> match = new LinkedHashMap<>();
+        match.put("id", 1L);
+        match.put("teamA", "OSFP");
+        Page<Map<String, Object>> page = new PageImpl<>(List.of(match), PageRequest.of(0, 20), 1);
+        when(matchService.listPage(eq(List.of("id", "teamA")), any())).thenReturn(page);
+
+        mockMvc.perform(get("/api/matches").param("fields", "id,teamA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0].teamA").value("OSFP"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.page.totalElements").value(1));
+
+        verify(matchService, never()).listPage(anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/matches?fields=id&includeOdds=true → 400")
+    void list_fieldsWithOdds_badRequest() throws Exception {
+        mockMvc.perform(get("/api/matches").param("fields", "id").param("includeOdds", "true"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(matchService);
+    }
+
+    // ── CBOR content negotiation ────────────────────────────────────────────
+
+    @Test
+    @DisplayName("GET /api/matches with Accept: application/cbor → page encoded as CBOR")
+    void list_cbor() throws Exception {
+        Page<MatchResponse> page = new PageImpl<>(List.of(sampleResponse), PageRequest.of(0, 20), 1);
+        when(matchService.listPage(eq(false), any())).thenReturn(page);
+
+        byte[] body = mockMvc.perform(get("/api/matches").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode match = cborMapper.readTree(body).get("content").get(0);
+        assertThat(match.get("id").asLong()).isEqualTo(1L);
+        assertThat(match.get("teamA").asString()).isEqualTo("OSFP");
+        assertThat(match.get("matchDate").asString()).isEqualTo("2024-03-31");
+    }
+
+    @Test
+    @DisplayName("GET /api/matches with Accept: application/x-jackson-smile → page encoded as Smile")
+    void list_smile() throws Exception {
+        Page<MatchResponse> page = new PageImpl<>(List.of(sampleResponse), PageRequest.of(0, 20), 1);
+        when(matchService.listPage(eq(false), any())).thenReturn(page);
+
+        byte[] body = mockMvc.perform(get("/api/matches").accept(BinaryContentConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryContentConfig.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode match = SmileMapper.builder().build().readTree(body).get("content").get(0);
+        assertThat(match.get("id").asLong()).isEqualTo(1L);
+        assertThat(match.get("description").asString()).isEqualTo("OSFP-PAO");
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/1 with Accept: */* → JSON stays the default")
+    void get_anyAccept_json() throws Exception {
+        when(matchService.get(1L)).thenReturn(sampleResponse);
+
+        mockMvc.perform(get("/api/matches/1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("POST /api/matches with a CBOR body → 201, bound like JSON")
+    void create_cborBody() throws Exception {
+        when(matchService.create(any())).thenReturn(sampleResponse);
+
+        byte[] body = cborMapper.writeValueAsBytes(Map.of(
+                "description", "OSFP-PAO",
+                "matchDate", "2024-03-31",
+                "matchTime", "18:00",
+                "teamA", "OSFP",
+                "teamB", "PAO",
+                "sport", 1,
+                "odds", List.of(Map.of("specifier", "1", "odd", 1.85))));
+
+        mockMvc.perform(post("/api/matches")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(matchService).create(argThat(req -> req.getSport() == Sport.FOOTBALL
+                && req.getOdds().get(0).getOdd() == 1850));
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/99 with Accept: application/cbor → 404 error body encoded as CBOR")
+    void get_notFound_cbor() throws Exception {
+        when(matchService.get(99L)).thenThrow(new NotFoundException("Match not found: 99"));
+
+        byte[] body = mockMvc.perform(get("/api/matches/99").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(cborMapper.readTree(body).get("code").asString()).isEqualTo("NOT_FOUND");
+    }
+
     // ── PUT /api/matches/{id} ───────────────────────────────────────────────
 
     @Test
@@ -201,6 +512,36 @@ class MatchControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    // ── PATCH /api/matches/{id} ─────────────────────────────────────────────
+
+    @Test
+    @DisplayName("PATCH /api/matches/1 → 200 with merge-patch content type")
+    void patch_success() throws Exception {
+        when(matchService.patch(eq(1L), any())).thenReturn(sampleResponse);
+
+        mockMvc.perform(patch("/api/matches/1")
+                        .contentType("application/merge-patch+json")
+                        .content("""
+                                { "matchTime": "20:45" }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        verify(matchService).patch(eq(1L), argThat(p -> p.has("matchTime") && !p.has("description")));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/matches/1 → 415 with plain JSON content type")
+    void patch_unsupportedMediaType() throws Exception {
+        mockMvc.perform(patch("/api/matches/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isUnsupportedMediaType())
+                .andExpect(jsonPath("$.code").value("UNSUPPORTED_MEDIA_TYPE"));
+
+        verifyNoInteractions(matchService);
+    }
+
     // ── DELETE /api/matches/{id} ────────────────────────────────────────────
 
     @Test
@@ -220,5 +561,24 @@ class MatchControllerTest {
         mockMvc.perform(delete("/api/matches/99"))
                 .andExpect(status().isNotFound());
     }
-}
 
+    @Test
+    @DisplayName("DELETE /api/matches?before=...&sport=2 → 200 with number of deleted rows")
+    void deleteMatching_success() throws Exception {
+        when(matchService.deleteMatching(LocalDate.of(2024, 1, 1), Sport.BASKETBALL)).thenReturn(5L);
+
+        mockMvc.perform(delete("/api/matches").param("before", "2024-01-01").param("sport", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(5));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/matches?sport=9 → 400 on invalid sport code")
+    void deleteMatching_invalidSport() throws Exception {
+        mockMvc.perform(delete("/api/matches").param("sport", "9"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
+
+        verifyNoInteractions(matchService);
+    }
+}
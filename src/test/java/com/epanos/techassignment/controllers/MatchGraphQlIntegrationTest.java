@@ -0,0 +1,141 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.models.dto.MatchOddsRequest;
+import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.repositories.MatchRepository;
+import com.epanos.techassignment.services.MatchService;
+import com.epanos.techassignment.support.JdbcStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.execution.ErrorType;
+import org.springframework.graphql.test.tester.ExecutionGraphQlServiceTester;
+import org.springframework.graphql.test.tester.GraphQlTester;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.epanos.techassignment.support.MatchFixtures.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs GraphQL queries against the configured PostgreSQL database and asserts the number of statements
+ * issued, which must not grow with the number of matches in the response.
+ */
+@SpringBootTest
+@Import(JdbcStatementCounter.class)
+class MatchGraphQlIntegrationTest {
+
+    private static final int MATCHES = 100;
+
+    private static final List<MatchOddsRequest> ODDS = List.of(odd("1", "1.850"), odd("X", "3.100"), odd("2", "4.250"));
+
+    private static final String MATCHES_WITH_ODDS = """
+            query($ids: [ID!]!) {
+              matchesByIds(ids: $ids) { id teamB odds { specifier odd } }
+            }""";
+
+    @Autowired
+    private ExecutionGraphQlService graphQlService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    private GraphQlTester graphQlTester;
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        graphQlTester = ExecutionGraphQlServiceTester.create(graphQlService);
+        ids = matchService.createBulk(IntStream.range(0, MATCHES).mapToObj(i -> matchRequest(ODDS)).toList()).stream()
+                .map(MatchResponse::getId)
+                .toList();
+        JdbcStatementCounter.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchRepository.deleteAllById(ids);
+    }
+
+    @Test
+    @DisplayName("matchesByIds: 100 matches with odds take one query for the matches and one for all their odds")
+    void matchesByIds_withOdds_twoStatements() {
+        List<Object> specifiers = graphQlTester.document(MATCHES_WITH_ODDS)
+                .variable("ids", ids)
+                .execute()
+                .path("matchesByIds[*].odds[*].specifier").entityList(Object.class).get();
+
+        assertThat(specifiers).hasSize(MATCHES * 3);
+        assertThat(JdbcStatementCounter.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("matchesByIds: statement count is the same for 1, 10 and 100 matches")
+    void matchesByIds_statementCountIndependentOfSize() {
+        List<Integer> counts = new ArrayList<>();
+        for (int size : new int[]{1, 10, MATCHES}) {
+            JdbcStatementCounter.clear();
+            graphQlTester.document(MATCHES_WITH_ODDS).variable("ids", ids.subList(0, size)).executeAndVerify();
+            counts.add(JdbcStatementCounter.count());
+        }
+
+        assertThat(counts).containsOnly(2);
+    }
+
+    @Test
+    @DisplayName("matchesByIds: odds are decimals, missing ids are null in place")
+    void matchesByIds_oddsAndMissingIds() {
+        GraphQlTester.Response response = graphQlTester.document(MATCHES_WITH_ODDS)
+                .variable("ids", List.of(ids.get(0), -1L))
+                .execute();
+
+        response.path("matchesByIds[0].teamB").entity(String.class).isEqualTo("PAO");
+        response.path("matchesByIds[0].odds[*].odd").entityList(BigDecimal.class)
+                .containsExactly(new BigDecimal("1.85"), new BigDecimal("3.1"), new BigDecimal("4.25"));
+        response.path("matchesByIds[1]").valueIsNull();
+    }
+
+    @Test
+    @DisplayName("matches: a page without odds selected never queries match_odds")
+    void matches_withoutOdds_noOddsQuery() {
+        graphQlTester.document("{ matches(size: 100) { totalElements content { id sport } } }")
+                .execute()
+                .path("matches.content").entityList(Object.class).hasSize(MATCHES);
+
+        // the page and its count
+        assertThat(JdbcStatementCounter.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("matches: a page with odds adds a single statement")
+    void matches_withOdds_oneMoreStatement() {
+        graphQlTester.document("{ matches(size: 100) { content { id odds { id } } } }")
+                .execute()
+                .path("matches.content[*].odds").entityList(Object.class).hasSize(MATCHES);
+
+        assertThat(JdbcStatementCounter.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("matches: size above 100 is a BAD_REQUEST error")
+    void matches_sizeTooLarge_badRequest() {
+        graphQlTester.document("{ matches(size: 101) { totalElements } }")
+                .execute()
+                .errors()
+                .expect(error -> error.getErrorType() == ErrorType.BAD_REQUEST)
+                .verify();
+
+        assertThat(JdbcStatementCounter.count()).isZero();
+    }
+}
@@ -0,0 +1,116 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.models.dto.MatchLoadResult;
+import com.epanos.techassignment.repositories.MatchLoader;
+import com.epanos.techassignment.services.MatchLoadService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(MatchLoadController.class)
+@WithMockUser
+class MatchLoadControllerTest {
+
+    private static final String CSV = """
+            description,match_date,match_time,team_a,team_b,sport,specifier,odd
+            OSFP-PAO,2024-03-31,18:00,OSFP,PAO,1,1,1.85
+            OSFP-PAO,2024-03-31,18:00,OSFP,PAO,1,X,3.40
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MatchLoadService matchLoadService;
+
+    private final MatchLoadResult loaded = MatchLoadResult.builder()
+            .rows(2)
+            .matchesCreated(1)
+            .oddsCreated(2)
+            .elapsedMillis(12)
+            .build();
+
+    // ── POST /api/admin/load ────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("POST /api/admin/load text/csv → 200, body streamed to the CSV loader")
+    void loadCsv_success() throws Exception {
+        AtomicReference<String> body = new AtomicReference<>();
+        when(matchLoadService.load(any(), eq(MatchLoader.Format.CSV))).thenAnswer(inv -> {
+            body.set(read(inv.getArgument(0)));
+            return loaded;
+        });
+
+        mockMvc.perform(post("/api/admin/load")
+                        .contentType("text/csv")
+                        .content(CSV))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.matchesCreated").value(1))
+                .andExpect(jsonPath("$.oddsCreated").value(2));
+
+        assertThat(body.get()).isEqualTo(CSV);
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/load application/x-ndjson → 200 through the NDJSON loader")
+    void loadNdjson_success() throws Exception {
+        when(matchLoadService.load(any(), eq(MatchLoader.Format.NDJSON))).thenReturn(loaded);
+
+        mockMvc.perform(post("/api/admin/load")
+                        .contentType("application/x-ndjson")
+                        .content("{\"description\":\"OSFP-PAO\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/load → 400 when a row is invalid")
+    void load_invalidRow() throws Exception {
+        when(matchLoadService.load(any(), eq(MatchLoader.Format.CSV)))
+                .thenThrow(new BadRequestException("Row 2: unknown sport 7"));
+
+        mockMvc.perform(post("/api/admin/load")
+                        .contentType("text/csv")
+                        .content(CSV))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.message").value("Row 2: unknown sport 7"));
+    }
+
+    @Test
+    @DisplayName("POST /api/admin/load → 415 for other content types")
+    void load_unsupportedType() throws Exception {
+        mockMvc.perform(post("/api/admin/load")
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(matchLoadService);
+    }
+
+    private static String read(InputStream input) {
+        try {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.epanos.techassignment.controllers;
 
+import com.epanos.techassignment.exceptions.BadRequestException;
 import com.epanos.techassignment.exceptions.ConflictException;
 import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.dto.BulkJobResponse;
 import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import com.epanos.techassignment.models.entities.Match;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.oddsbook.MatchOddsEntry;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import com.epanos.techassignment.services.BulkJobService;
 import com.epanos.techassignment.services.MatchOddsService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,12 +21,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import org.springframework.security.test.context.support.WithMockUser;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,11 +51,14 @@ class MatchOddsControllerTest {
     @MockitoBean
     private MatchOddsService matchOddsService;
 
+    @MockitoBean
+    private BulkJobService bulkJobService;
+
     private final MatchOddsResponse sampleResponse = MatchOddsResponse.builder()
             .id(10L)
             .matchId(1L)
             .specifier("X")
-            .odd(BigDecimal.valueOf(1.5))
+            .odd(1500)
             .build();
 
     // ── POST /api/matches/{matchId}/odds ────────────────────────────────────
@@ -77,6 +93,31 @@ class MatchOddsControllerTest {
                 .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
     }
 
+    @Test
+    @DisplayName("POST /api/matches/1/odds → 400 when the odd has more than 3 decimals or is 1000 or more")
+    void create_oddOutOfRange() throws Exception {
+        for (String odd : List.of("1.2345", "1000", "-1.5", "0")) {
+            mockMvc.perform(post("/api/matches/1/odds")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"specifier\":\"X\",\"odd\":" + odd + "}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+        }
+        verifyNoInteractions(matchOddsService);
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/1/odds → reads the odd in thousandths and writes it with 3 decimals")
+    void create_oddInThousandths() throws Exception {
+        when(matchOddsService.create(eq(1L), argThat(r -> r.getOdd() == 1850))).thenReturn(sampleResponse);
+
+        mockMvc.perform(post("/api/matches/1/odds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"specifier\":\"X\",\"odd\":1.85}"))
+                .andExpect(status().isCreated())
+                .andExpect(content().string(containsString("\"odd\":1.500")));
+    }
+
     @Test
     @DisplayName("POST /api/matches/99/odds → 404 when match not found")
     void create_matchNotFound() throws Exception {
@@ -126,6 +167,37 @@ class MatchOddsControllerTest {
                 .andExpect(jsonPath("$.code").value("BAD_REQUEST"));
     }
 
+    // ── POST /api/matches/{matchId}/odds/bulk?async=true ────────────────────
+
+    @Test
+    @DisplayName("POST /api/matches/{matchId}/odds/bulk?async=true → 202 with the queued job and its Location")
+    void createBulkAsync_accepted() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(bulkJobService.submitOdds(eq(1L), any())).thenReturn(BulkJobResponse.builder()
+                .id(jobId).type(BulkJobResponse.Type.ODDS).matchId(1L).status(BulkJobResponse.Status.QUEUED).total(2).build());
+
+        mockMvc.perform(post("/api/matches/1/odds/bulk").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"specifier\":\"1\",\"odd\":1.5},{\"specifier\":\"X\",\"odd\":3.2}]"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/jobs/" + jobId))
+                .andExpect(jsonPath("$.matchId").value(1))
+                .andExpect(jsonPath("$.type").value("ODDS"));
+        verify(bulkJobService).submitOdds(eq(1L), argThat(reqs -> reqs.size() == 2));
+        verify(matchOddsService, never()).createBulk(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/matches/{matchId}/odds/bulk?async=true → 404 when match not found")
+    void createBulkAsync_matchNotFound() throws Exception {
+        when(bulkJobService.submitOdds(eq(99L), any())).thenThrow(new NotFoundException("Match not found: 99"));
+
+        mockMvc.perform(post("/api/matches/99/odds/bulk").param("async", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"specifier\":\"1\",\"odd\":1.5}]"))
+                .andExpect(status().isNotFound());
+    }
+
     // ── GET /api/matches/{matchId}/odds/{oddId} ─────────────────────────────
 
     @Test
@@ -174,13 +246,86 @@ class MatchOddsControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /api/matches/1/odds?fields=specifier,odd → 200 with only the requested properties")
+    void list_fields() throws Exception {
+        Map<String, Object> odd = new LinkedHashMap<>();
+        odd.put("specifier", "X");
+        odd.put("odd", new BigDecimal("3.100"));
+        Page<Map<String, Object>> page = new PageImpl<>(List.of(odd), PageRequest.of(0, 20), 1);
+        when(matchOddsService.listByMatchPage(eq(1L), eq(List.of("specifier", "odd")), any())).thenReturn(page);
+
+        mockMvc.perform(get("/api/matches/1/odds").param("fields", "specifier,odd"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("{\"specifier\":\"X\",\"odd\":3.100}")));
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/1/odds?fields=colour → 400 for an unknown field")
+    void list_unknownField_badRequest() throws Exception {
+        when(matchOddsService.listByMatchPage(eq(1L), eq(List.of("colour")), any()))
+                .thenThrow(new BadRequestException("Unknown field: colour"));
+
+        mockMvc.perform(get("/api/matches/1/odds").param("fields", "colour"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ── GET /api/matches/{matchId}/odds/current ─────────────────────────────
+
+    @Test
+    @DisplayName("GET /api/matches/1/odds/current → 200 with every odd of the match")
+    void listCurrent_success() throws Exception {
+        MatchOdds odds = MatchOdds.builder()
+                .id(10L)
+                .match(Match.builder().id(1L).build())
+                .specifier("X")
+                .odd(1500)
+                .build();
+        when(matchOddsService.current(1L)).thenReturn(MatchOddsEntry.of(1L, List.of(odds), 0L, new SpecifierDictionary()));
+
+        mockMvc.perform(get("/api/matches/1/odds/current"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{\"id\":10,\"matchId\":1,\"odd\":1.500,\"specifier\":\"X\"}]"));
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/1/odds/current with Accept: application/cbor → odds encoded as CBOR, odd as an exact decimal")
+    void listCurrent_cbor() throws Exception {
+        MatchOdds odds = MatchOdds.builder()
+                .id(10L)
+                .match(Match.builder().id(1L).build())
+                .specifier("X")
+                .odd(1850)
+                .build();
+        when(matchOddsService.current(1L)).thenReturn(MatchOddsEntry.of(1L, List.of(odds), 0L, new SpecifierDictionary()));
+
+        byte[] body = mockMvc.perform(get("/api/matches/1/odds/current").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode odd = CBORMapper.builder().build().readTree(body).get(0);
+        assertThat(odd.get("id").asLong()).isEqualTo(10L);
+        assertThat(odd.get("specifier").asString()).isEqualTo("X");
+        assertThat(odd.get("odd").decimalValue()).isEqualByComparingTo(new BigDecimal("1.850"));
+    }
+
+    @Test
+    @DisplayName("GET /api/matches/99/odds/current → 404 when match not found")
+    void listCurrent_matchNotFound() throws Exception {
+        when(matchOddsService.current(99L)).thenThrow(new NotFoundException("Match not found: 99"));
+
+        mockMvc.perform(get("/api/matches/99/odds/current"))
+                .andExpect(status().isNotFound());
+    }
+
     // ── PUT /api/matches/{matchId}/odds/{oddId} ─────────────────────────────
 
     @Test
     @DisplayName("PUT /api/matches/1/odds/10 → 200 on valid update")
     void update_success() throws Exception {
         MatchOddsResponse updated = MatchOddsResponse.builder()
-                .id(10L).matchId(1L).specifier("2").odd(BigDecimal.valueOf(3.0)).build();
+                .id(10L).matchId(1L).specifier("2").odd(3000).build();
         when(matchOddsService.update(eq(1L), eq(10L), any())).thenReturn(updated);
 
         String body = """
@@ -231,7 +376,7 @@ class MatchOddsControllerTest {
     @DisplayName("PUT /api/matches/1/odds → 200 on valid update by specifier")
     void updateBySpecifier_success() throws Exception {
         MatchOddsResponse updated = MatchOddsResponse.builder()
-                .id(10L).matchId(1L).specifier("X").odd(BigDecimal.valueOf(5.0)).build();
+                .id(10L).matchId(1L).specifier("X").odd(5000).build();
         when(matchOddsService.updateBySpecifier(eq(1L), any())).thenReturn(updated);
 
         String body = """
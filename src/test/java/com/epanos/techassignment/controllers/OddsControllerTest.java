@@ -0,0 +1,97 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateResult;
+import com.epanos.techassignment.services.MatchOddsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import org.springframework.security.test.context.support.WithMockUser;
+
+import static org.hamcrest.Matchers.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OddsController.class)
+@WithMockUser
+class OddsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private MatchOddsService matchOddsService;
+
+    // ── PUT /api/odds/bulk ──────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("PUT /api/odds/bulk → 200 with per-item results")
+    void updateBulk_success() throws Exception {
+        when(matchOddsService.updateBulk(anyList())).thenReturn(List.of(
+                MatchOddsBulkUpdateResult.builder().matchId(1L).specifier("X").odd(1800)
+                        .status(MatchOddsBulkUpdateResult.Status.UPDATED).build(),
+                MatchOddsBulkUpdateResult.builder().matchId(2L).specifier("Z").odd(2000)
+                        .status(MatchOddsBulkUpdateResult.Status.NOT_FOUND).build()));
+
+        String body = """
+                [
+                  { "matchId": 1, "specifier": "X", "odd": 1.8 },
+                  { "matchId": 2, "specifier": "Z", "odd": 2.0 }
+                ]
+                """;
+
+        mockMvc.perform(put("/api/odds/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/odds/bulk → 400 when an item is missing its matchId")
+    void updateBulk_validation() throws Exception {
+        String body = """
+                [ { "specifier": "X", "odd": 1.8 } ]
+                """;
+
+        mockMvc.perform(put("/api/odds/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VALIDATION_ERROR"));
+
+        verifyNoInteractions(matchOddsService);
+    }
+
+    @Test
+    @DisplayName("PUT /api/odds/bulk → 409 on duplicate items in payload")
+    void updateBulk_conflict() throws Exception {
+        when(matchOddsService.updateBulk(anyList()))
+                .thenThrow(new ConflictException("Duplicate odds specifier in request payload for match 1: X"));
+
+        String body = """
+                [
+                  { "matchId": 1, "specifier": "X", "odd": 1.8 },
+                  { "matchId": 1, "specifier": "X", "odd": 1.9 }
+                ]
+                """;
+
+        mockMvc.perform(put("/api/odds/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("CONFLICT"));
+    }
+}
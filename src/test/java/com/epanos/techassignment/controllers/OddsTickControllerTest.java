@@ -0,0 +1,72 @@
+package com.epanos.techassignment.controllers;
+
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.services.OddsWriteBehindBuffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = OddsTickController.class, properties = "app.odds.write-behind.enabled=true")
+@WithMockUser
+class OddsTickControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OddsWriteBehindBuffer oddsWriteBehindBuffer;
+
+    @Test
+    @DisplayName("POST /api/odds/ticks → 202 and ticks handed to the buffer")
+    void submit_accepted() throws Exception {
+        mockMvc.perform(post("/api/odds/ticks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [ { "matchId": 1, "specifier": "X", "odd": 1.8 } ]
+                                """))
+                .andExpect(status().isAccepted());
+
+        verify(oddsWriteBehindBuffer).offer(List.of(new MatchOddsBulkUpdateRequest(1L, "X", 1800)));
+    }
+
+    @Test
+    @DisplayName("POST /api/odds/ticks → 503 while the buffer is full")
+    void submit_bufferFull() throws Exception {
+        doThrow(new ServiceUnavailableException("Odds tick buffer is full; retry later"))
+                .when(oddsWriteBehindBuffer).offer(anyList());
+
+        mockMvc.perform(post("/api/odds/ticks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [ { "matchId": 1, "specifier": "X", "odd": 1.8 } ]
+                                """))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.code").value("SERVICE_UNAVAILABLE"));
+    }
+
+    @Test
+    @DisplayName("POST /api/odds/ticks with an invalid odd → 400")
+    void submit_invalid() throws Exception {
+        mockMvc.perform(post("/api/odds/ticks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [ { "matchId": 1, "specifier": "X", "odd": -1 } ]
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(oddsWriteBehindBuffer);
+    }
+}
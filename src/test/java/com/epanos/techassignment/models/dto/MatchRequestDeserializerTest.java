@@ -0,0 +1,109 @@
+package com.epanos.techassignment.models.dto;
+
+import com.epanos.techassignment.models.enums.Sport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MatchRequestDeserializerTest {
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("binds every property, trimming specifiers once")
+    void bindsAllProperties() {
+        MatchRequest req = mapper.readValue("""
+                {"description":"OSFP-PAO","matchDate":"2024-03-31","matchTime":"18:00","teamA":"OSFP","teamB":"PAO",
+                 "sport":2,"unknown":{"nested":[1,2]},"odds":[{"specifier":"  X\\t","odd":1.85},{"specifier":"1","odd":"2"}]}
+                """, MatchRequest.class);
+
+        assertThat(req.getDescription()).isEqualTo("OSFP-PAO");
+        assertThat(req.getMatchDate()).isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(req.getMatchTime()).isEqualTo(LocalTime.of(18, 0));
+        assertThat(req.getTeamA()).isEqualTo("OSFP");
+        assertThat(req.getTeamB()).isEqualTo("PAO");
+        assertThat(req.getSport()).isEqualTo(Sport.BASKETBALL);
+        assertThat(req.getOdds()).extracting(MatchOddsRequest::getSpecifier, MatchOddsRequest::getOdd)
+                .containsExactly(tuple("X", 1850), tuple("1", 2000));
+    }
+
+    @Test
+    @DisplayName("binds a bulk body and the same body encoded as CBOR alike")
+    void bulkBody_jsonAndCbor() {
+        List<Map<String, Object>> body = List.of(
+                Map.of("description", "A", "sport", 1, "odds", List.of(Map.of("specifier", " 1 ", "odd", 1.5))),
+                Map.of("description", "B", "sport", 2));
+        byte[] cbor = CBORMapper.builder().build().writeValueAsBytes(body);
+
+        List<MatchRequest> fromJson = List.of(mapper.readValue(mapper.writeValueAsString(body), MatchRequest[].class));
+        List<MatchRequest> fromCbor = List.of(CBORMapper.builder().build().readValue(cbor, MatchRequest[].class));
+
+        assertThat(fromCbor).isEqualTo(fromJson);
+        assertThat(fromJson.get(0).getOdds()).singleElement().extracting(MatchOddsRequest::getSpecifier).isEqualTo("1");
+        assertThat(fromJson.get(1).getOdds()).isNull();
+    }
+
+    @Test
+    @DisplayName("dates and times: ISO values are read directly, others fall back to Jackson's parsing")
+    void datesAndTimes() {
+        assertThat(read("{\"matchDate\":\"2024-02-29\",\"matchTime\":\"18:00:30\"}"))
+                .extracting(MatchRequest::getMatchDate, MatchRequest::getMatchTime)
+                .containsExactly(LocalDate.of(2024, 2, 29), LocalTime.of(18, 0, 30));
+        assertThat(read("{\"matchTime\":\"18:00:30.5\"}").getMatchTime()).isEqualTo(LocalTime.of(18, 0, 30, 500_000_000));
+        assertThat(read("{\"matchDate\":[2024,3,31]}").getMatchDate()).isEqualTo(LocalDate.of(2024, 3, 31));
+
+        for (String invalid : new String[]{"{\"matchDate\":\"2023-02-29\"}", "{\"matchDate\":\"2024/03/31\"}",
+                "{\"matchTime\":\"24:00\"}", "{\"matchTime\":\"18-00\"}"}) {
+            assertThatThrownBy(() -> read(invalid)).as(invalid).isInstanceOf(DatabindException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("an unknown sport code fails as a databind error")
+    void unknownSport_fails() {
+        assertThatThrownBy(() -> mapper.readValue("{\"sport\":9}", MatchRequest.class))
+                .isInstanceOf(DatabindException.class)
+                .hasMessageContaining("Invalid sport value: 9");
+        assertThatThrownBy(() -> mapper.readValue("{\"sport\":-1}", MatchRequest.class))
+                .isInstanceOf(DatabindException.class);
+    }
+
+    @Test
+    @DisplayName("updating keeps absent members and applies explicit nulls")
+    void readerForUpdating_mergesMembers() {
+        MatchRequest base = new MatchRequest();
+        base.setDescription("OSFP-PAO");
+        base.setTeamA("OSFP");
+        base.setSport(Sport.FOOTBALL);
+
+        MatchRequest patched = mapper.readerForUpdating(base).readValue("{\"teamA\":\"AEK\",\"description\":null,\"odds\":[]}");
+
+        assertThat(patched).isSameAs(base);
+        assertThat(patched.getTeamA()).isEqualTo("AEK");
+        assertThat(patched.getDescription()).isNull();
+        assertThat(patched.getSport()).isEqualTo(Sport.FOOTBALL);
+        assertThat(patched.getOdds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("the specifier setter trims as well, for requests built in code")
+    void setter_trims() {
+        MatchOddsRequest req = new MatchOddsRequest();
+        req.setSpecifier(" O2.5 ");
+
+        assertThat(req.getSpecifier()).isEqualTo("O2.5");
+    }
+
+    private MatchRequest read(String json) {
+        return mapper.readValue(json, MatchRequest.class);
+    }
+}
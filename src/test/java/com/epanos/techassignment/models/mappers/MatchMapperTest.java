@@ -77,18 +77,41 @@ class MatchMapperTest {
         assertThat(match.getSport()).isEqualTo(Sport.BASKETBALL);
     }
 
+    @Test
+    @DisplayName("toRequest: should map current match fields without odds")
+    void toRequest_mapsFieldsWithoutOdds() {
+        Match match = Match.builder()
+                .id(1L).description("OSFP-PAO")
+                .matchDate(LocalDate.of(2024, 3, 31))
+                .matchTime(LocalTime.of(18, 0))
+                .teamA("OSFP").teamB("PAO")
+                .sport(Sport.FOOTBALL)
+                .odds(new ArrayList<>(List.of(MatchOdds.builder().id(10L).specifier("X").odd(1000).build())))
+                .build();
+
+        MatchRequest req = mapper.toRequest(match);
+
+        assertThat(req.getDescription()).isEqualTo("OSFP-PAO");
+        assertThat(req.getMatchDate()).isEqualTo(LocalDate.of(2024, 3, 31));
+        assertThat(req.getMatchTime()).isEqualTo(LocalTime.of(18, 0));
+        assertThat(req.getTeamA()).isEqualTo("OSFP");
+        assertThat(req.getTeamB()).isEqualTo("PAO");
+        assertThat(req.getSport()).isEqualTo(Sport.FOOTBALL);
+        assertThat(req.getOdds()).isNull();
+    }
+
     @Test
     @DisplayName("toEntity(MatchOddsRequest): should map and trim specifier")
     void toOddsEntity_mapsAndTrims() {
         MatchOddsRequest req = new MatchOddsRequest();
         req.setSpecifier("  X  ");
-        req.setOdd(BigDecimal.valueOf(1.5));
+        req.setOdd(1500);
 
         MatchOdds entity = mapper.toEntity(req);
 
         assertThat(entity.getId()).isNull();
         assertThat(entity.getSpecifier()).isEqualTo("X");
-        assertThat(entity.getOdd()).isEqualByComparingTo(BigDecimal.valueOf(1.5));
+        assertThat(entity.getOdd()).isEqualTo(1500);
         assertThat(entity.getMatch()).isNull();
     }
 
@@ -100,7 +123,7 @@ class MatchMapperTest {
                 .id(10L)
                 .match(match)
                 .specifier("X")
-                .odd(BigDecimal.valueOf(1.5))
+                .odd(1500)
                 .build();
 
         MatchOddsResponse response = mapper.toOddsResponse(entity);
@@ -108,7 +131,7 @@ class MatchMapperTest {
         assertThat(response.getId()).isEqualTo(10L);
         assertThat(response.getMatchId()).isEqualTo(1L);
         assertThat(response.getSpecifier()).isEqualTo("X");
-        assertThat(response.getOdd()).isEqualByComparingTo(BigDecimal.valueOf(1.5));
+        assertThat(response.getOdd()).isEqualTo(1500);
     }
 
     @Test
@@ -123,8 +146,8 @@ class MatchMapperTest {
                 .odds(new ArrayList<>())
                 .build();
 
-        MatchOdds odds1 = MatchOdds.builder().id(2L).match(match).specifier("1").odd(BigDecimal.valueOf(1.2)).build();
-        MatchOdds odds2 = MatchOdds.builder().id(1L).match(match).specifier("X").odd(BigDecimal.valueOf(3.0)).build();
+        MatchOdds odds1 = MatchOdds.builder().id(2L).match(match).specifier("1").odd(1200).build();
+        MatchOdds odds2 = MatchOdds.builder().id(1L).match(match).specifier("X").odd(3000).build();
         match.getOdds().addAll(List.of(odds1, odds2));
 
         MatchResponse response = mapper.toResponse(match, true);
@@ -0,0 +1,73 @@
+package com.epanos.techassignment.models.odds;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ThousandthsTest {
+
+    @Test
+    @DisplayName("parse: reads plain decimals into thousandths")
+    void parse_plainDecimals() {
+        assertThat(parse("1.5")).isEqualTo(1500);
+        assertThat(parse("1.85")).isEqualTo(1850);
+        assertThat(parse("12.050")).isEqualTo(12050);
+        assertThat(parse("2")).isEqualTo(2000);
+        assertThat(parse("0.001")).isEqualTo(1);
+        assertThat(parse(".5")).isEqualTo(500);
+        assertThat(parse("-2.25")).isEqualTo(-2250);
+        assertThat(parse("999.999")).isEqualTo(Thousandths.MAX);
+        assertThat(parse("1.50000")).isEqualTo(1500);
+    }
+
+    @Test
+    @DisplayName("parse: maps values the column cannot hold to sentinels")
+    void parse_sentinels() {
+        assertThat(parse("1.2345")).isEqualTo(Thousandths.INVALID);
+        assertThat(parse("1000")).isEqualTo(Thousandths.TOO_LARGE);
+        assertThat(parse("123456789012")).isEqualTo(Thousandths.TOO_LARGE);
+        assertThat(parse("-1000.5")).isEqualTo(-Thousandths.TOO_LARGE);
+    }
+
+    @Test
+    @DisplayName("parse: rejects text that is not a plain decimal")
+    void parse_rejectsNonPlain() {
+        for (String text : new String[]{"", "-", ".", "1e3", "1.5x", "abc"}) {
+            assertThatThrownBy(() -> parse(text)).isInstanceOf(NumberFormatException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("fromDecimal: agrees with parse")
+    void fromDecimal_matchesParse() {
+        for (String text : new String[]{"1.5", "1.85", "2", "0.001", "-2.25", "1.2345", "1000", "1.50000"}) {
+            assertThat(Thousandths.fromDecimal(new BigDecimal(text))).as(text).isEqualTo(parse(text));
+        }
+        assertThat(Thousandths.fromDecimal(new BigDecimal("1.5E+1"))).isEqualTo(15000);
+    }
+
+    @Test
+    @DisplayName("of: is exact and fails on lost precision")
+    void of_exact() {
+        assertThat(Thousandths.of(new BigDecimal("1.850"))).isEqualTo(1850);
+        assertThatThrownBy(() -> Thousandths.of(new BigDecimal("1.8505"))).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    @DisplayName("format: writes three decimals, right-aligned")
+    void format_threeDecimals() {
+        assertThat(Thousandths.toString(1500)).isEqualTo("1.500");
+        assertThat(Thousandths.toString(1)).isEqualTo("0.001");
+        assertThat(Thousandths.toString(0)).isEqualTo("0.000");
+        assertThat(Thousandths.toString(Thousandths.MAX)).isEqualTo("999.999");
+        assertThat(Thousandths.toBigDecimal(1850)).isEqualTo(new BigDecimal("1.850"));
+    }
+
+    private static int parse(String text) {
+        char[] buf = ("  " + text + "  ").toCharArray();
+        return Thousandths.parse(buf, 2, text.length());
+    }
+}
@@ -0,0 +1,73 @@
+package com.epanos.techassignment.oddsbook;
+
+import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import com.epanos.techassignment.models.entities.Match;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.odds.Thousandths;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MatchOddsEntryTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    @DisplayName("serializes exactly like the equivalent list of MatchOddsResponse")
+    void serialize_matchesResponseList() {
+        // as read back from the numeric(6,3) column
+        List<MatchOdds> odds = List.of(
+                odds(10L, "1", "1.500"),
+                odds(11L, "X", "12.050"),
+                odds(12L, "2", "0.001"),
+                odds(13L, "1/X", "999.999"));
+        List<MatchOddsResponse> responses = odds.stream()
+                .map(o -> MatchOddsResponse.builder()
+                        .id(o.getId())
+                        .matchId(7L)
+                        .specifier(o.getSpecifier())
+                        .odd(o.getOdd())
+                        .build())
+                .toList();
+
+        String entryJson = jsonMapper.writeValueAsString(MatchOddsEntry.of(7L, odds, 0L, new SpecifierDictionary()));
+
+        assertThat(entryJson).isEqualTo(jsonMapper.writeValueAsString(responses));
+    }
+
+    @Test
+    @DisplayName("serializes an empty entry as an empty array")
+    void serialize_empty() {
+        assertThat(jsonMapper.writeValueAsString(MatchOddsEntry.of(7L, List.of(), 0L, new SpecifierDictionary())))
+                .isEqualTo("[]");
+    }
+
+    @Test
+    @DisplayName("without: removes only the given odd and leaves the original untouched")
+    void without_copies() {
+        MatchOddsEntry entry = MatchOddsEntry.of(7L, List.of(odds(10L, "1", "1.500"), odds(11L, "X", "2.000")), 0L, new SpecifierDictionary());
+
+        MatchOddsEntry removed = entry.without(10L);
+
+        assertThat(removed.size()).isEqualTo(1);
+        assertThat(removed.id(0)).isEqualTo(11L);
+        assertThat(removed.specifier(0)).isEqualTo("X");
+        assertThat(entry.size()).isEqualTo(2);
+        assertThat(entry.without(99L)).isSameAs(entry);
+    }
+
+    private static MatchOdds odds(Long id, String specifier, String odd) {
+        return MatchOdds.builder()
+                .id(id)
+                .match(Match.builder().id(7L).build())
+                .specifier(specifier)
+                .odd(Thousandths.of(new BigDecimal(odd)))
+                .build();
+    }
+}
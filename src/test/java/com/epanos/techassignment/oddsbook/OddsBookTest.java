@@ -0,0 +1,324 @@
+package com.epanos.techassignment.oddsbook;
+
+import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.entities.Match;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.repositories.MatchOddsRepository;
+import com.epanos.techassignment.repositories.MatchRepository;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import com.epanos.techassignment.models.odds.Thousandths;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OddsBookTest {
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private MatchOddsRepository matchOddsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MutableClock clock = new MutableClock();
+
+    private OddsBook oddsBook;
+
+    @BeforeEach
+    void setUp() {
+        oddsBook = book(new SpecifierDictionary(), Optional.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("current: loads a match once and serves later reads from memory")
+    void current_loadsOnce() {
+        when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of(odds(10L, 1L, "1", "1.5"), odds(11L, 1L, "X", "3.25")));
+
+        MatchOddsEntry first = oddsBook.current(1L);
+        MatchOddsEntry second = oddsBook.current(1L);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.size()).isEqualTo(2);
+        assertThat(first.specifier(1)).isEqualTo("X");
+        assertThat(first.oddThousandths(1)).isEqualTo(3250);
+        verify(matchOddsRepository, times(1)).findByMatchId(1L);
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("current: throws NotFoundException for a missing match and caches nothing")
+    void current_notFound() {
+        when(matchOddsRepository.findByMatchId(99L)).thenReturn(List.of());
+        when(matchRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> oddsBook.current(99L))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("99");
+        assertThat(oddsBook.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("oddChanged: updates the held entry in place")
+    void oddChanged_updatesEntry() {
+        when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of(odds(10L, 1L, "1", "1.5"), odds(11L, 1L, "X", "3.25")));
+        oddsBook.current(1L);
+
+        oddsBook.oddChanged(1L, "X", 2800);
+
+        MatchOddsEntry entry = oddsBook.current(1L);
+        assertThat(entry.oddThousandths(0)).isEqualTo(1500);
+        assertThat(entry.oddThousandths(1)).isEqualTo(2800);
+        verify(matchOddsRepository, times(1)).findByMatchId(1L);
+    }
+
+    @Test
+    @DisplayName("oddChanged: drops the entry when the specifier is unknown for the match")
+    void oddChanged_unknownSpecifierDrops() {
+        when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of(odds(10L, 1L, "1", "1.5")));
+        oddsBook.current(1L);
+
+        oddsBook.oddChanged(1L, "2", 4000);
+
+        assertThat(oddsBook.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("oddSaved and oddRemoved: append and remove odds of a held entry")
+    void oddSavedAndRemoved() {
+        when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of(odds(10L, 1L, "1", "1.5")));
+        oddsBook.current(1L);
+
+        oddsBook.oddSaved(1L, 12L, "2", 5500);
+        oddsBook.oddSaved(1L, 10L, "1", 1400);
+        assertThat(ids(oddsBook.current(1L))).containsExactly(10L, 12L);
+        assertThat(oddsBook.current(1L).oddThousandths(0)).isEqualTo(1400);
+
+        oddsBook.oddRemoved(1L, 10L);
+        MatchOddsEntry entry = oddsBook.current(1L);
+        assertThat(ids(entry)).containsExactly(12L);
+        assertThat(entry.specifier(0)).isEqualTo("2");
+        verify(matchOddsRepository, times(1)).findByMatchId(1L);
+    }
+
+    @Test
+    @DisplayName("changes inside a transaction are applied only after commit")
+    void changes_appliedAfterCommit() {
+        when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of(odds(10L, 1L, "1", "1.5")));
+        oddsBook.current(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        oddsBook.oddChanged(1L, "1", 1900);
+        assertThat(oddsBook.current(1L).oddThousandths(0)).isEqualTo(1500);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(oddsBook.current(1L).oddThousandths(0)).isEqualTo(1900);
+    }
+
+    @Test
+    @DisplayName("current: does not install a load that raced with a committed write")
+    void current_racingWriteNotInstalled() {
+        when(matchOddsRepository.findByMatchId(1L)).thenAnswer(inv -> {
+            // a commit lands while the stale rows are being read
+            oddsBook.invalidate(1L);
+            return List.of(odds(10L, 1L, "1", "1.5"));
+        }).thenReturn(List.of(odds(10L, 1L, "1", "1.9")));
+
+        assertThat(oddsBook.current(1L).oddThousandths(0)).isEqualTo(1500);
+        assertThat(oddsBook.size()).isZero();
+        assertThat(oddsBook.current(1L).oddThousandths(0)).isEqualTo(1900);
+        assertThat(oddsBook.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("invalidateAll: drops every held match")
+    void invalidateAll() {
+        when(matchOddsRepository.findByMatchId(anyLong())).thenReturn(List.of());
+        when(matchRepository.existsById(anyLong())).thenReturn(true);
+        oddsBook.current(1L);
+        oddsBook.current(2L);
+        assertThat(oddsBook.size()).isEqualTo(2);
+
+        oddsBook.invalidateAll();
+
+        assertThat(oddsBook.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("current: stops holding new matches once max-matches is reached")
+    void current_boundedByMaxMatches() {
+        when(matchOddsRepository.findByMatchId(anyLong())).thenReturn(List.of());
+        when(matchRepository.existsById(anyLong())).thenReturn(true);
+
+        for (long id = 1; id <= 15; id++) {
+            oddsBook.current(id);
+        }
+
+        assertThat(oddsBook.size()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("journal: a restarted book serves recovered matches without the database")
+    void journal_recoversAfterRestart(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("boot_id"), "boot-1");
+        when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of(odds(10L, 1L, "1", "1.5"), odds(11L, 1L, "X", "3.25")));
+        SpecifierDictionary dictionary = new SpecifierDictionary();
+        oddsBook = book(dictionary, Optional.of(journal(dir, dictionary)));
+        oddsBook.current(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        oddsBook.oddChanged(1L, "X", 2800);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.beforeCommit(false));
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        SpecifierDictionary restartedDictionary = new SpecifierDictionary();
+        OddsBook restarted = book(restartedDictionary, Optional.of(journal(dir, restartedDictionary)));
+
+        MatchOddsEntry entry = restarted.current(1L);
+        assertThat(entry.specifier(1)).isEqualTo("X");
+        assertThat(entry.oddThousandths(1)).isEqualTo(2800);
+        verify(matchOddsRepository, times(1)).findByMatchId(1L);
+    }
+
+    @Test
+    @DisplayName("current: reloads a match once it is older than the maximum age, even if writes were applied")
+    void current_reloadsAfterMaxAge() {
+        when(matchOddsRepository.findByMatchId(1L))
+                .thenReturn(List.of(odds(10L, 1L, "1", "1.5")))
+                .thenReturn(List.of(odds(10L, 1L, "1", "1.9")));
+        oddsBook.current(1L);
+        clock.advance(MAX_AGE.minusSeconds(1));
+        oddsBook.oddChanged(1L, "1", 1700);
+
+        assertThat(oddsBook.current(1L).oddThousandths(0)).isEqualTo(1700);
+
+        clock.advance(Duration.ofSeconds(1));
+        MatchOddsEntry reloaded = oddsBook.current(1L);
+
+        assertThat(reloaded.oddThousandths(0)).isEqualTo(1900);
+        assertThat(oddsBook.current(1L)).isSameAs(reloaded);
+        verify(matchOddsRepository, times(2)).findByMatchId(1L);
+    }
+
+    @Test
+    @DisplayName("current: a full book still replaces its expired entries")
+    void current_fullBookReplacesExpired() {
+        when(matchOddsRepository.findByMatchId(anyLong())).thenReturn(List.of(odds(10L, 1L, "1", "1.5")));
+        for (long id = 1; id <= 10; id++) {
+            oddsBook.current(id);
+        }
+        clock.advance(MAX_AGE);
+
+        MatchOddsEntry reloaded = oddsBook.current(1L);
+
+        assertThat(oddsBook.current(1L)).isSameAs(reloaded);
+        assertThat(oddsBook.size()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("journal: a restarted book leaves out recovered matches older than the maximum age")
+    void journal_dropsExpiredAfterRestart(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("boot_id"), "boot-1");
+        when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of(odds(10L, 1L, "1", "1.5")));
+        when(matchOddsRepository.findByMatchId(2L)).thenReturn(List.of(odds(20L, 2L, "1", "2.5")));
+        SpecifierDictionary dictionary = new SpecifierDictionary();
+        oddsBook = book(dictionary, Optional.of(journal(dir, dictionary)));
+        oddsBook.current(1L);
+        clock.advance(MAX_AGE.minusSeconds(10));
+        oddsBook.current(2L);
+        clock.advance(Duration.ofSeconds(10));
+
+        SpecifierDictionary restartedDictionary = new SpecifierDictionary();
+        OddsBook restarted = book(restartedDictionary, Optional.of(journal(dir, restartedDictionary)));
+
+        assertThat(restarted.size()).isEqualTo(1);
+        restarted.current(1L);
+        restarted.current(2L);
+        verify(matchOddsRepository, times(2)).findByMatchId(1L);
+        verify(matchOddsRepository, times(1)).findByMatchId(2L);
+    }
+
+    private OddsBook book(SpecifierDictionary dictionary, Optional<OddsJournal> journal) {
+        return new OddsBook(dictionary, matchRepository, matchOddsRepository, transactionManager, 10, MAX_AGE, clock, journal);
+    }
+
+    private static List<Long> ids(MatchOddsEntry entry) {
+        return IntStream.range(0, entry.size()).mapToObj(entry::id).toList();
+    }
+
+    private static OddsJournal journal(Path dir, SpecifierDictionary dictionary) {
+        return new OddsJournal(dir.resolve("journal"), dir.resolve("boot_id"), 1 << 16, Duration.ofHours(1), dictionary);
+    }
+
+    private static MatchOdds odds(Long id, Long matchId, String specifier, String odd) {
+        return MatchOdds.builder()
+                .id(id)
+                .match(Match.builder().id(matchId).build())
+                .specifier(specifier)
+                .odd(Thousandths.of(new BigDecimal(odd)))
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.epanos.techassignment.oddsbook;
+
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OddsJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    private Path tmp;
+
+    private Path dir;
+    private Path bootId;
+    private SpecifierDictionary dictionary;
+    private Map<Long, MatchOddsEntry> book;
+    private OddsJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = tmp.resolve("journal");
+        bootId = tmp.resolve("boot_id");
+        Files.writeString(bootId, "boot-1");
+        open();
+    }
+
+    @Test
+    @DisplayName("recover: replays the journal after a crash of the process")
+    void recover_afterCrash() throws IOException {
+        apply(new OddsMutation.Loaded(entry(1L, 10L, "1", 1500, 11L, "X", 3250)));
+        apply(new OddsMutation.Loaded(entry(2L, 20L, "1", 2000)));
+        apply(new OddsMutation.Changed(1L, dictionary.code("X"), 3100));
+        apply(new OddsMutation.Saved(2L, 21L, dictionary.code("2"), 4200));
+        apply(new OddsMutation.Removed(1L, 10L));
+        Map<Long, String> expected = render(book);
+
+        open();
+
+        assertThat(render(book)).isEqualTo(expected).containsEntry(1L, "11:X=3100").containsEntry(2L, "20:1=2000,21:2=4200");
+    }
+
+    @Test
+    @DisplayName("recover: loads the snapshot plus the journal written after it, and drops covered segments")
+    void recover_snapshotPlusTail() throws IOException {
+        for (long m = 1; m <= 200; m++) {
+            apply(new OddsMutation.Loaded(entry(m, m * 10, "1", 1000 + (int) m)));
+        }
+        assertThat(segments()).hasSizeGreaterThan(1);
+
+        journal.snapshot();
+        assertThat(segments()).hasSize(1);
+        apply(new OddsMutation.Changed(7L, dictionary.code("1"), 9999));
+        apply(new OddsMutation.Invalidated(8L));
+        Map<Long, String> expected = render(book);
+
+        open();
+
+        assertThat(render(book)).isEqualTo(expected).hasSize(199).containsEntry(7L, "70:1=9999");
+    }
+
+    @Test
+    @DisplayName("recover: keeps the time each match was loaded, through the snapshot and the journal")
+    void recover_keepsLoadTime() throws IOException {
+        apply(new OddsMutation.Loaded(entry(1L, 10L, "1", 1500)));
+        journal.snapshot();
+        apply(new OddsMutation.Loaded(entry(2L, 20L, "1", 2000)));
+        apply(new OddsMutation.Changed(1L, dictionary.code("1"), 1600));
+
+        open();
+
+        assertThat(book.get(1L).loadedAt()).isEqualTo(loadedAt(1L));
+        assertThat(book.get(2L).loadedAt()).isEqualTo(loadedAt(2L));
+    }
+
+    @Test
+    @DisplayName("recover: drops matches whose write was pending when the process died")
+    void recover_dropsPendingMatches() throws IOException {
+        apply(new OddsMutation.Loaded(entry(1L, 10L, "1", 1500)));
+        apply(new OddsMutation.Loaded(entry(2L, 20L, "1", 2000)));
+        apply(new OddsMutation.Loaded(entry(3L, 30L, "1", 2500)));
+        // committed and applied
+        journal.pending(1L);
+        apply(new OddsMutation.Changed(1L, dictionary.code("1"), 1600));
+        journal.resolved(1L);
+        // rolled back
+        journal.pending(2L);
+        journal.resolved(2L);
+        // committed, then the process died before the change was applied
+        journal.pending(3L);
+
+        open();
+
+        assertThat(render(book)).containsOnlyKeys(1L, 2L).containsEntry(1L, "10:1=1600");
+    }
+
+    @Test
+    @DisplayName("recover: open pending writes survive a snapshot")
+    void recover_pendingAcrossSnapshot() throws IOException {
+        apply(new OddsMutation.Loaded(entry(1L, 10L, "1", 1500)));
+        journal.pending(OddsJournal.ALL_MATCHES);
+        journal.snapshot();
+
+        open();
+
+        assertThat(book).isEmpty();
+    }
+
+    @Test
+    @DisplayName("recover: trusts a cleanly closed journal after a reboot")
+    void recover_cleanShutdownAfterReboot() throws Exception {
+        apply(new OddsMutation.Loaded(entry(1L, 10L, "1", 1500)));
+        journal.close();
+        Files.writeString(bootId, "boot-2");
+
+        open();
+
+        assertThat(render(book)).containsEntry(1L, "10:1=1500");
+    }
+
+    @Test
+    @DisplayName("recover: discards a journal that was not closed cleanly before a reboot")
+    void recover_uncleanShutdownAfterReboot() throws IOException {
+        apply(new OddsMutation.Loaded(entry(1L, 10L, "1", 1500)));
+        Files.writeString(bootId, "boot-2");
+
+        open();
+
+        assertThat(book).isEmpty();
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("recover: stops at a torn record")
+    void recover_tornRecord() throws IOException {
+        apply(new OddsMutation.Loaded(entry(1L, 10L, "1", 1500)));
+        apply(new OddsMutation.Changed(1L, dictionary.code("1"), 1600));
+        apply(new OddsMutation.Changed(1L, dictionary.code("1"), 1700));
+        corruptLastByteOf(segments().get(0), 3);
+
+        open();
+
+        assertThat(render(book)).containsEntry(1L, "10:1=1600");
+    }
+
+    @Test
+    @DisplayName("close: further writes invalidate the journal instead of being lost silently")
+    void writeAfterClose_invalidates() throws Exception {
+        apply(new OddsMutation.Loaded(entry(1L, 10L, "1", 1500)));
+        journal.close();
+        apply(new OddsMutation.Changed(1L, dictionary.code("1"), 1600));
+
+        open();
+
+        assertThat(book).isEmpty();
+    }
+
+    private void open() throws IOException {
+        dictionary = new SpecifierDictionary();
+        book = new HashMap<>();
+        journal = new OddsJournal(dir, bootId, SEGMENT_SIZE, Duration.ofHours(1), dictionary);
+        book.putAll(journal.recover());
+        journal.start(book::values);
+    }
+
+    private void apply(OddsMutation mutation) {
+        journal.record(() -> {
+            mutation.applyTo(book);
+            return mutation;
+        });
+    }
+
+    private MatchOddsEntry entry(long matchId, Object... odds) {
+        int n = odds.length / 3;
+        long[] ids = new long[n];
+        int[] codes = new int[n];
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = (Long) odds[i * 3];
+            codes[i] = dictionary.code((String) odds[i * 3 + 1]);
+            values[i] = (Integer) odds[i * 3 + 2];
+        }
+        return new MatchOddsEntry(matchId, ids, codes, values, loadedAt(matchId), dictionary);
+    }
+
+    private static long loadedAt(long matchId) {
+        return 1_700_000_000_000L + matchId;
+    }
+
+    private static Map<Long, String> render(Map<Long, MatchOddsEntry> entries) {
+        Map<Long, String> rendered = new TreeMap<>();
+        entries.forEach((matchId, e) -> rendered.put(matchId, String.join(",", IntStream.range(0, e.size())
+                .mapToObj(i -> e.id(i) + ":" + e.specifier(i) + "=" + e.oddThousandths(i))
+                .toList())));
+        return rendered;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().startsWith("journal-")).sorted().toList();
+        }
+    }
+
+    /**
+     * Flips a byte inside the last non-empty record of a segment.
+     */
+    private static void corruptLastByteOf(Path segment, int recordsInSegment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int at = 0;
+            for (int r = 0; r < recordsInSegment - 1; r++) {
+                at += 8 + buf.getInt(at);
+            }
+            int last = at + 8 + buf.getInt(at) - 1;
+            buf.put(last, (byte) (buf.get(last) ^ 0xFF));
+            buf.force();
+        }
+    }
+}
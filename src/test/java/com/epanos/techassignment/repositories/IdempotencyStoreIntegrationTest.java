@@ -0,0 +1,79 @@
+package com.epanos.techassignment.repositories;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs {@link IdempotencyStore} against the configured PostgreSQL database.
+ */
+@SpringBootTest
+class IdempotencyStoreIntegrationTest {
+
+    private static final String PRINCIPAL = "idempotency-it";
+    private static final byte[] HASH = {1, 2, 3};
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from idempotency_keys where principal = ?", PRINCIPAL);
+    }
+
+    @Test
+    @DisplayName("claim: a claimed key is in progress for others until completed, then holds the response")
+    void claim_thenComplete() {
+        assertThat(store.claim(PRINCIPAL, "k1", HASH)).isEmpty();
+
+        IdempotencyStore.Claim inProgress = store.claim(PRINCIPAL, "k1", HASH).orElseThrow();
+        assertThat(inProgress.requestHash()).isEqualTo(HASH);
+        assertThat(inProgress.response()).isNull();
+
+        byte[] body = "[{\"id\":1}]".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        store.complete(PRINCIPAL, "k1", new IdempotencyStore.StoredResponse(201, "application/json", body));
+
+        IdempotencyStore.StoredResponse stored = store.claim(PRINCIPAL, "k1", HASH).orElseThrow().response();
+        assertThat(stored.status()).isEqualTo(201);
+        assertThat(stored.contentType()).isEqualTo("application/json");
+        assertThat(stored.body()).isEqualTo(body);
+        assertThat(jdbcTemplate.queryForObject("select length(body) from idempotency_keys where principal = ?",
+                Integer.class, PRINCIPAL)).isLessThan(body.length / 10);
+    }
+
+    @Test
+    @DisplayName("claim: keys are scoped per principal, and a released key can be claimed again")
+    void claim_scopedAndReleased() {
+        assertThat(store.claim(PRINCIPAL, "k2", HASH)).isEmpty();
+        assertThat(store.claim(PRINCIPAL + "-other", "k2", HASH)).isEmpty();
+        jdbcTemplate.update("delete from idempotency_keys where principal = ?", PRINCIPAL + "-other");
+
+        store.release(PRINCIPAL, "k2");
+
+        assertThat(store.claim(PRINCIPAL, "k2", HASH)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("claim: an expired key is claimed again and purged")
+    void claim_expired() {
+        IdempotencyStore shortLived = new IdempotencyStore(jdbcTemplate, Duration.ZERO, Duration.ZERO, Duration.ofHours(1));
+        assertThat(shortLived.claim(PRINCIPAL, "k3", HASH)).isEmpty();
+
+        assertThat(shortLived.claim(PRINCIPAL, "k3", new byte[]{9})).isEmpty();
+
+        shortLived.purge();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from idempotency_keys where principal = ?",
+                Integer.class, PRINCIPAL)).isZero();
+    }
+}
@@ -0,0 +1,107 @@
+package com.epanos.techassignment.repositories;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.models.entities.Specifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs {@link SpecifierDictionary} against the configured PostgreSQL database. Each test uses fresh
+ * instances, as separate application instances would.
+ */
+@SpringBootTest
+class SpecifierDictionaryIntegrationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("code: the id of the specifiers row, shared by every instance")
+    void code_sharedAcrossInstances() {
+        int code = new SpecifierDictionary(dataSource).code("DICT-TEST");
+
+        assertThat(new SpecifierDictionary(dataSource).code("DICT-TEST")).isEqualTo(code);
+        assertThat(new SpecifierDictionary(dataSource).name(code)).isEqualTo("DICT-TEST");
+        assertThat(jdbcTemplate.queryForObject("select id from specifiers where name = 'DICT-TEST'", Integer.class))
+                .isEqualTo(code);
+    }
+
+    @Test
+    @DisplayName("code: one shared String instance per specifier")
+    void code_internsNames() {
+        SpecifierDictionary dictionary = new SpecifierDictionary(dataSource);
+        String first = new String("DICT-TEST");
+        int code = dictionary.code(first);
+
+        assertThat(dictionary.code(new String("DICT-TEST"))).isEqualTo(code);
+        assertThat(dictionary.name(code)).isSameAs(first);
+        assertThat(dictionary.names()[code]).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("find: does not add unknown specifiers")
+    void find_doesNotInsert() {
+        assertThat(new SpecifierDictionary(dataSource).find("DICT-NEVER-ADDED")).isEqualTo(SpecifierDictionary.NOT_FOUND);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from specifiers where name = 'DICT-NEVER-ADDED'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("code: a name added by a rolled-back transaction is neither kept nor cached")
+    void code_rolledBack() {
+        SpecifierDictionary dictionary = new SpecifierDictionary(dataSource);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            int code = dictionary.code("DICT-ROLLBACK");
+            assertThat(dictionary.code("DICT-ROLLBACK")).isEqualTo(code);
+            assertThat(dictionary.find("DICT-ROLLBACK")).isEqualTo(code);
+            status.setRollbackOnly();
+        });
+
+        assertThat(dictionary.find("DICT-ROLLBACK")).isEqualTo(SpecifierDictionary.NOT_FOUND);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from specifiers where name = 'DICT-ROLLBACK'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("code: a name added by a committed transaction is cached once it commits")
+    void code_committed() {
+        SpecifierDictionary dictionary = new SpecifierDictionary(dataSource);
+        int code = new TransactionTemplate(transactionManager).execute(status -> dictionary.code("DICT-COMMIT"));
+
+        assertThat(dictionary.names()[code]).isEqualTo("DICT-COMMIT");
+        assertThat(new SpecifierDictionary(dataSource).find("DICT-COMMIT")).isEqualTo(code);
+    }
+
+    @Test
+    @DisplayName("code: names that do not fit the column are rejected before querying")
+    void code_tooLong() {
+        assertThatThrownBy(() -> new SpecifierDictionary(dataSource).code("DICT-" + "X".repeat(Specifier.NAME_LENGTH)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> new SpecifierDictionary(dataSource).code(" "))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("name: an unknown code fails instead of returning null")
+    void name_unknownCode() {
+        assertThatThrownBy(() -> new SpecifierDictionary(dataSource).name(Short.MAX_VALUE))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,267 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.configs.BulkJobProperties;
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.BulkJobError;
+import com.epanos.techassignment.models.dto.BulkJobResponse;
+import com.epanos.techassignment.models.dto.MatchOddsRequest;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.repositories.MatchRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkJobServiceTest {
+
+    @Mock
+    private MatchService matchService;
+
+    @Mock
+    private MatchOddsService matchOddsService;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    private final MutableClock clock = new MutableClock();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BulkJobService service;
+
+    @BeforeEach
+    void setUp() {
+        // one worker, one queued job, chunks of two items
+        service = new BulkJobService(matchService, matchOddsService, matchRepository,
+                new BulkJobProperties(1, 1, 2, Duration.ofHours(1)), clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.stop();
+    }
+
+    @Test
+    @DisplayName("submitMatches: writes the payload in chunks and completes")
+    void submitMatches_chunks() throws Exception {
+        BulkJobResponse queued = service.submitMatches(matches(5));
+
+        assertThat(queued.getTotal()).isEqualTo(5);
+        assertThat(queued.getType()).isEqualTo(BulkJobResponse.Type.MATCHES);
+        BulkJobResponse done = awaitFinished(queued.getId());
+        assertThat(done.getStatus()).isEqualTo(BulkJobResponse.Status.COMPLETED);
+        assertThat(done.getProcessed()).isEqualTo(5);
+        assertThat(done.getSucceeded()).isEqualTo(5);
+        assertThat(done.getFailed()).isZero();
+        assertThat(done.getStartedAt()).isNotNull();
+        verify(matchService, times(2)).createBulk(argThat(chunk -> chunk.size() == 2));
+        verify(matchService).createBulk(argThat(chunk -> chunk.size() == 1));
+        verify(matchService, never()).create(any());
+    }
+
+    @Test
+    @DisplayName("submitMatches: a failed chunk is retried item by item and only the bad items are reported")
+    void submitMatches_failedChunkRetriedPerItem() throws Exception {
+        List<MatchRequest> reqs = matches(4);
+        ConflictException duplicate = new ConflictException("Duplicate odds specifier in request payload: X");
+        when(matchService.createBulk(any())).thenAnswer(inv -> {
+            if (inv.<List<MatchRequest>>getArgument(0).contains(reqs.get(3))) {
+                throw duplicate;
+            }
+            return List.of();
+        });
+        when(matchService.create(any())).thenAnswer(inv -> {
+            if (inv.getArgument(0) == reqs.get(3)) {
+                throw duplicate;
+            }
+            return null;
+        });
+
+        BulkJobResponse done = awaitFinished(service.submitMatches(reqs).getId());
+
+        assertThat(done.getStatus()).isEqualTo(BulkJobResponse.Status.COMPLETED);
+        assertThat(done.getSucceeded()).isEqualTo(3);
+        assertThat(done.getFailed()).isEqualTo(1);
+        assertThat(service.errors(done.getId()))
+                .containsExactly(new BulkJobError(3, "Duplicate odds specifier in request payload: X"));
+        verify(matchService).create(reqs.get(2));
+    }
+
+    @Test
+    @DisplayName("submitOdds: database errors name the violated constraint only")
+    void submitOdds_constraintViolation() throws Exception {
+        when(matchRepository.existsById(1L)).thenReturn(true);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key value", new SQLException("ERROR: duplicate key"), "uk_match_specifier"));
+        when(matchOddsService.createBulk(eq(1L), any())).thenThrow(violation);
+        when(matchOddsService.create(eq(1L), any())).thenThrow(violation);
+
+        BulkJobResponse done = awaitFinished(service.submitOdds(1L, List.of(odd("1"))).getId());
+
+        assertThat(done.getMatchId()).isEqualTo(1L);
+        assertThat(service.errors(done.getId()))
+                .containsExactly(new BulkJobError(0, "Database constraint violation: uk_match_specifier"));
+    }
+
+    @Test
+    @DisplayName("submitOdds: 404 up front when the match does not exist")
+    void submitOdds_matchNotFound() {
+        when(matchRepository.existsById(99L)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.submitOdds(99L, List.of(odd("1"))))
+                .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(matchOddsService);
+    }
+
+    @Test
+    @DisplayName("submit: empty payloads are rejected")
+    void submit_empty() {
+        assertThatThrownBy(() -> service.submitMatches(List.of())).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("submit: 503 once the queue is full; a queued job is cancelled at once")
+    void submit_queueFull() throws Exception {
+        BulkJobResponse running = blockingJob();
+        BulkJobResponse queued = service.submitMatches(matches(1));
+
+        assertThatThrownBy(() -> service.submitMatches(matches(1))).isInstanceOf(ServiceUnavailableException.class);
+
+        assertThat(service.cancel(queued.getId()).getStatus()).isEqualTo(BulkJobResponse.Status.CANCELLED);
+        release.countDown();
+        assertThat(awaitFinished(running.getId()).getStatus()).isEqualTo(BulkJobResponse.Status.COMPLETED);
+        assertThat(service.get(queued.getId()).getProcessed()).isZero();
+        verify(matchService, times(3)).createBulk(any());
+    }
+
+    @Test
+    @DisplayName("cancel: a running job stops after its current chunk")
+    void cancel_running() throws Exception {
+        BulkJobResponse job = blockingJob();
+
+        assertThat(service.cancel(job.getId()).getStatus()).isEqualTo(BulkJobResponse.Status.RUNNING);
+        release.countDown();
+
+        BulkJobResponse done = awaitFinished(job.getId());
+        assertThat(done.getStatus()).isEqualTo(BulkJobResponse.Status.CANCELLED);
+        assertThat(done.getProcessed()).isEqualTo(2);
+        verify(matchService).createBulk(any());
+    }
+
+    @Test
+    @DisplayName("cancel: 409 for a finished job")
+    void cancel_finished() throws Exception {
+        UUID id = service.submitMatches(matches(1)).getId();
+        awaitFinished(id);
+
+        assertThatThrownBy(() -> service.cancel(id)).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    @DisplayName("get: unknown and expired jobs are not found")
+    void get_expired() throws Exception {
+        UUID id = service.submitMatches(matches(1)).getId();
+        awaitFinished(id);
+
+        assertThatThrownBy(() -> service.get(UUID.randomUUID())).isInstanceOf(NotFoundException.class);
+        clock.advance(Duration.ofMinutes(59));
+        assertThat(service.get(id).getStatus()).isEqualTo(BulkJobResponse.Status.COMPLETED);
+        clock.advance(Duration.ofMinutes(2));
+        assertThatThrownBy(() -> service.get(id)).isInstanceOf(NotFoundException.class);
+    }
+
+    /**
+     * Submits a job of three chunks whose first chunk blocks until {@link #release} and waits until it runs.
+     */
+    private BulkJobResponse blockingJob() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(matchService.createBulk(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return List.of();
+        });
+        BulkJobResponse job = service.submitMatches(matches(6));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        return job;
+    }
+
+    private BulkJobResponse awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            BulkJobResponse job = service.get(id);
+            if (job.getFinishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Bulk job " + id + " did not finish");
+    }
+
+    private static List<MatchRequest> matches(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    MatchRequest req = new MatchRequest();
+                    req.setDescription("M" + i);
+                    req.setTeamA("A" + i);
+                    req.setTeamB("B" + i);
+                    return req;
+                })
+                .toList();
+    }
+
+    private static MatchOddsRequest odd(String specifier) {
+        MatchOddsRequest req = new MatchOddsRequest();
+        req.setSpecifier(specifier);
+        req.setOdd(1500);
+        return req;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
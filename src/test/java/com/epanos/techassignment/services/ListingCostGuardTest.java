@@ -0,0 +1,133 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.configs.ListingCostProperties;
+import com.epanos.techassignment.exceptions.BadRequestException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ListingCostGuardTest {
+
+    private static final Sort BY_KICKOFF = Sort.by(Sort.Direction.DESC, "matchDate", "matchTime");
+
+    @Test
+    @DisplayName("matches: pages within the limit are returned unchanged")
+    void matches_withinLimit() {
+        ListingCostGuard guard = guard(ListingCostProperties.Mode.REJECT, () -> 9.0);
+        Pageable pageable = PageRequest.of(3, 100, BY_KICKOFF);
+
+        assertThat(guard.matches(pageable, true)).isSameAs(pageable);
+        assertThat(guard.matches(PageRequest.of(0, 1000), false)).isEqualTo(PageRequest.of(0, 1000));
+    }
+
+    @Test
+    @DisplayName("matches: REJECT fails with the largest page size that fits")
+    void matches_reject() {
+        ListingCostGuard guard = guard(ListingCostProperties.Mode.REJECT, () -> 9.0);
+
+        assertThatThrownBy(() -> guard.matches(PageRequest.of(0, 2000), true))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("about 20000 rows")
+                .hasMessageContaining("limit of 1000")
+                .hasMessageContaining("at most 100 matches per page")
+                .hasMessageContaining("without includeOdds");
+        assertThatThrownBy(() -> guard.matches(PageRequest.of(0, 1001), false))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageNotContaining("includeOdds");
+    }
+
+    @Test
+    @DisplayName("matches: CLAMP keeps the offset and sort and shrinks the size to fit")
+    void matches_clamp() {
+        ListingCostGuard guard = guard(ListingCostProperties.Mode.CLAMP, () -> 9.0);
+
+        Pageable clamped = guard.matches(PageRequest.of(2, 2000, BY_KICKOFF), true);
+        assertThat(clamped.getOffset()).isEqualTo(4000);
+        assertThat(clamped.getPageSize()).isEqualTo(100);
+        assertThat(clamped.getPageNumber()).isEqualTo(40);
+        assertThat(clamped.getSort()).isEqualTo(BY_KICKOFF);
+        assertThat(clamped.next().getOffset()).isEqualTo(4100);
+        assertThat(guard(ListingCostProperties.Mode.CLAMP, () -> 5000.0).matches(PageRequest.of(3, 20), true).getOffset())
+                .isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("matches: uses the configured odds per match until statistics exist")
+    void matches_noStatistics() {
+        ListingCostGuard guard = guard(ListingCostProperties.Mode.CLAMP, () -> null);
+
+        // 1 + 19 configured odds per match
+        assertThat(guard.matches(PageRequest.of(0, 1000), true).getPageSize()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("matches: reads statistics only for odds listings and at most once per interval")
+    void matches_statisticsCached() {
+        AtomicInteger reads = new AtomicInteger();
+        MutableClock clock = new MutableClock();
+        ListingCostGuard guard = new ListingCostGuard(properties(ListingCostProperties.Mode.CLAMP),
+                () -> reads.incrementAndGet() == 1 ? 9.0 : 1.0, clock);
+
+        guard.matches(PageRequest.of(0, 20), false);
+        assertThat(reads).hasValue(0);
+
+        assertThat(guard.matches(PageRequest.of(0, 1000), true).getPageSize()).isEqualTo(100);
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(guard.matches(PageRequest.of(0, 1000), true).getPageSize()).isEqualTo(100);
+        assertThat(reads).hasValue(1);
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(guard.matches(PageRequest.of(0, 1000), true).getPageSize()).isEqualTo(500);
+        assertThat(reads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("matches: unpaged requests are not costed")
+    void matches_unpaged() {
+        assertThat(guard(ListingCostProperties.Mode.REJECT, () -> 9.0).matches(Pageable.unpaged(), true))
+                .isEqualTo(Pageable.unpaged());
+    }
+
+    private static ListingCostGuard guard(ListingCostProperties.Mode mode, Supplier<Double> oddsPerMatch) {
+        return new ListingCostGuard(properties(mode), oddsPerMatch, Clock.systemUTC());
+    }
+
+    private static ListingCostProperties properties(ListingCostProperties.Mode mode) {
+        return new ListingCostProperties(1000, mode, 19, Duration.ofMinutes(1));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import com.epanos.techassignment.support.SqlStatementRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs every supported listing and sort against a seeded table of {@value #MATCHES} matches, captures the
+ * SQL Hibernate generates, and asserts on its {@code EXPLAIN} plan: matches are read in index order, with
+ * no sequential scan and no sort node. Every ordered select ends its {@code order by} with {@code id}, so
+ * rows that tie on the requested sort keep one order. Odds are reached through the {@code match_id} index,
+ * so a sort only ever covers the odds of one match.
+ * <p>
+ * Count queries are not checked: counting the whole table reads all of it whatever the plan.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.epanos.techassignment.support.SqlStatementRecorder"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ListingQueryPlanIntegrationTest {
+
+    private static final int MATCHES = 50_000;
+    private static final int ODDS_PER_MATCH = 8;
+    private static final String PREFIX = "PLAN-";
+    private static final int PAGE_SIZE = 20;
+    private static final Pattern TIEBREAKER = Pattern.compile(" order by .*\\.id( asc| desc)?( offset| fetch|$)");
+
+    private static final List<Sort> MATCH_SORTS = List.of(
+            Sort.unsorted(),
+            Sort.by("id"),
+            Sort.by(Sort.Direction.DESC, "id"),
+            Sort.by("matchDate"),
+            Sort.by(Sort.Direction.DESC, "matchDate"),
+            Sort.by("matchDate", "matchTime"),
+            Sort.by(Sort.Direction.DESC, "matchDate", "matchTime"));
+
+    private static final List<Sort> ODDS_SORTS = List.of(
+            Sort.unsorted(),
+            Sort.by("id"),
+            Sort.by("specifier"),
+            Sort.by(Sort.Direction.DESC, "odd"));
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchOddsService matchOddsService;
+
+    @Autowired
+    private SpecifierDictionary specifierDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private long matchId;
+
+    @BeforeAll
+    void seed() {
+        Integer[] specifiers = IntStream.range(0, ODDS_PER_MATCH)
+                .mapToObj(i -> specifierDictionary.code("PLAN" + i))
+                .toArray(Integer[]::new);
+        jdbcTemplate.update("""
+                insert into matches (description, match_date, match_time, team_a, team_b, sport)
+                select ? || g, date '2020-01-01' + g % 2000, time '12:00' + (g % 48) * interval '15 minutes',
+                       'A' || g, 'B' || g % 500, case when g % 2 = 0 then 'FOOTBALL' else 'BASKETBALL' end
+                from generate_series(1, ?) g""", PREFIX, MATCHES);
+        // fresh statistics also replan the foreign key checks of the odds insert, which a pooled connection
+        // may have cached for a nearly empty table
+        jdbcTemplate.execute("analyze matches");
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("""
+                    insert into match_odds (match_id, specifier_id, odd)
+                    select m.id, s, 1 + (m.id + s) % 900 / 100.0
+                    from matches m cross join unnest(?::smallint[]) s
+                    where m.description like ? || '%'""");
+            ps.setArray(1, con.createArrayOf("smallint", specifiers));
+            ps.setString(2, PREFIX);
+            return ps;
+        });
+        jdbcTemplate.execute("analyze match_odds");
+        matchId = jdbcTemplate.queryForObject("select max(id) from matches where description like ? || '%'",
+                Long.class, PREFIX);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("delete from matches where description like ? || '%'", PREFIX);
+        jdbcTemplate.execute("analyze matches");
+        jdbcTemplate.execute("analyze match_odds");
+    }
+
+    @BeforeEach
+    void setUp() {
+        SqlStatementRecorder.clear();
+    }
+
+    @Test
+    @DisplayName("listPage: every supported sort reads the page in index order")
+    void listPage_withoutOdds() {
+        for (Sort sort : MATCH_SORTS) {
+            assertPlans(() -> matchService.listPage(false, page(sort)), sort, sql -> List.of(),
+                    ListingQueryPlanIntegrationTest::assertIndexOrder);
+        }
+    }
+
+    @Test
+    @DisplayName("listPage(includeOdds): the id page is read in index order and its odds through idx_match_id")
+    void listPage_withOdds() {
+        for (Sort sort : MATCH_SORTS) {
+            List<Object> ids = new ArrayList<>(matchService.listPage(false, page(sort)).map(m -> (Object) m.getId()).getContent());
+            SqlStatementRecorder.clear();
+            // the page of ids, then the matches with their odds by id
+            assertPlans(() -> matchService.listPage(true, page(sort)), sort, sql -> sql.contains(" in (") ? ids : List.of(), plan -> {
+                assertNoSeqScan(plan);
+                assertThat(nodes(plan, "Sort")).isEmpty();
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("listPage(fields): every supported sort reads the page in index order")
+    void listPage_sparse() {
+        for (Sort sort : MATCH_SORTS) {
+            assertPlans(() -> matchService.listPage(List.of("id", "teamA", "teamB", "matchDate", "matchTime"), page(sort)),
+                    sort, sql -> List.of(), ListingQueryPlanIntegrationTest::assertIndexOrder);
+        }
+    }
+
+    @Test
+    @DisplayName("listByMatchPage: odds are found through the match_id index for every supported sort")
+    void listByMatchPage() {
+        for (Sort sort : ODDS_SORTS) {
+            assertPlans(() -> matchOddsService.listByMatchPage(matchId, page(sort)), sort, sql -> List.of(matchId),
+                    ListingQueryPlanIntegrationTest::assertOddsOfOneMatch);
+            assertPlans(() -> matchOddsService.listByMatchPage(matchId, List.of("specifier", "odd"), page(sort)),
+                    sort, sql -> List.of(matchId), ListingQueryPlanIntegrationTest::assertOddsOfOneMatch);
+        }
+    }
+
+    /**
+     * Runs the listing, then explains every select it sent apart from counts and existence checks, with the
+     * values {@code leading} returns for the statement bound to its first parameters and the page size to
+     * the rest.
+     */
+    private void assertPlans(Runnable listing, Sort sort, Function<String, List<Object>> leading,
+                             Consumer<JsonNode> assertion) {
+        SqlStatementRecorder.clear();
+        listing.run();
+        List<String> selects = SqlStatementRecorder.statements().stream()
+                .filter(sql -> sql.startsWith("select") && !sql.contains("count(") && !sql.contains("fetch first 1 rows"))
+                .toList();
+        assertThat(selects).as("selects for %s", sort).isNotEmpty();
+        for (String sql : selects) {
+            if (sql.contains(" order by ")) {
+                assertThat(sql).as("sort %s", sort).containsPattern(TIEBREAKER);
+            }
+            JsonNode plan = explain(sql, leading.apply(sql));
+            assertThatCode(() -> assertion.accept(plan))
+                    .as("sort %s, query %s, plan %s", sort, sql, plan)
+                    .doesNotThrowAnyException();
+        }
+    }
+
+    private JsonNode explain(String sql, List<Object> leading) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        String json = jdbcTemplate.query("explain (format json) " + sql, ps -> {
+            for (int i = 0; i < parameters; i++) {
+                ps.setObject(i + 1, i < leading.size() ? leading.get(i) : PAGE_SIZE);
+            }
+        }, rs -> {
+            rs.next();
+            return rs.getString(1);
+        });
+        return jsonMapper.readTree(json).get(0).get("Plan");
+    }
+
+    private static void assertIndexOrder(JsonNode plan) {
+        assertNoSeqScan(plan);
+        assertThat(nodes(plan, "Sort")).isEmpty();
+        assertThat(nodes(plan, "Incremental Sort")).isEmpty();
+        assertThat(nodes(plan, "Index Scan")).isNotEmpty();
+    }
+
+    private static void assertOddsOfOneMatch(JsonNode plan) {
+        assertNoSeqScan(plan);
+        List<JsonNode> oddsScans = new ArrayList<>();
+        collect(plan, node -> "match_odds".equals(text(node, "Relation Name")) || text(node, "Index Name").contains("match"), oddsScans);
+        assertThat(oddsScans).isNotEmpty();
+        assertThat(oddsScans).allSatisfy(node -> assertThat(text(node, "Index Name"))
+                .isIn("idx_match_id", "uk_match_specifier"));
+    }
+
+    /**
+     * {@code specifiers} is a dictionary of a few hundred rows at most, which the planner may read in full
+     * to join against one match's odds.
+     */
+    private static void assertNoSeqScan(JsonNode plan) {
+        assertThat(nodes(plan, "Seq Scan"))
+                .allSatisfy(node -> assertThat(text(node, "Relation Name")).isEqualTo("specifiers"));
+    }
+
+    private static List<JsonNode> nodes(JsonNode plan, String type) {
+        List<JsonNode> found = new ArrayList<>();
+        collect(plan, node -> type.equals(text(node, "Node Type")), found);
+        return found;
+    }
+
+    private static void collect(JsonNode node, Predicate<JsonNode> filter, List<JsonNode> found) {
+        if (filter.test(node)) {
+            found.add(node);
+        }
+        JsonNode children = node.get("Plans");
+        if (children != null) {
+            children.forEach(child -> collect(child, filter, found));
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null ? "" : value.asString();
+    }
+
+    private static Pageable page(Sort sort) {
+        return PageRequest.of(0, PAGE_SIZE, sort);
+    }
+}
@@ -0,0 +1,64 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.repositories.MatchLoader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MatchLoadRunnerTest {
+
+    @Test
+    @DisplayName("run: the exit code is 0 once the load committed")
+    void run_committed(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("odds.csv"), "description,match_date,match_time,team_a,team_b,sport,specifier,odd\n");
+        MatchLoadService matchLoadService = mock(MatchLoadService.class);
+        MatchLoadRunner runner = new MatchLoadRunner(matchLoadService, file, null);
+
+        runner.run(null);
+
+        assertThat(runner.getExitCode()).isZero();
+        verify(matchLoadService).load(any(InputStream.class), eq(MatchLoader.Format.CSV));
+    }
+
+    @Test
+    @DisplayName("run: the exit code is 1 if the load failed, and the runner does not exit the JVM itself")
+    void run_failed(@TempDir Path dir) throws IOException {
+        Path file = Files.writeString(dir.resolve("odds.ndjson"), "{}\n");
+        MatchLoadService matchLoadService = mock(MatchLoadService.class);
+        when(matchLoadService.load(any(InputStream.class), eq(MatchLoader.Format.NDJSON)))
+                .thenThrow(new BadRequestException("Line 1: description is required"));
+        MatchLoadRunner runner = new MatchLoadRunner(matchLoadService, file, null);
+
+        runner.run(null);
+
+        assertThat(runner.getExitCode()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("formatOf: the format follows the file extension, case-insensitively")
+    void formatOf_extension() {
+        assertThat(MatchLoadRunner.formatOf(Path.of("data/odds.csv"))).isEqualTo(MatchLoader.Format.CSV);
+        assertThat(MatchLoadRunner.formatOf(Path.of("ODDS.CSV"))).isEqualTo(MatchLoader.Format.CSV);
+        assertThat(MatchLoadRunner.formatOf(Path.of("odds.ndjson"))).isEqualTo(MatchLoader.Format.NDJSON);
+        assertThat(MatchLoadRunner.formatOf(Path.of("odds.jsonl"))).isEqualTo(MatchLoader.Format.NDJSON);
+    }
+
+    @Test
+    @DisplayName("formatOf: an unknown extension fails and names app.load.format")
+    void formatOf_unknown() {
+        assertThatThrownBy(() -> MatchLoadRunner.formatOf(Path.of("odds.txt")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("app.load.format");
+    }
+}
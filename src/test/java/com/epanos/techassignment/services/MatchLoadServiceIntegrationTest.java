@@ -0,0 +1,169 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.models.dto.MatchLoadResult;
+import com.epanos.techassignment.repositories.MatchLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs {@link MatchLoadService} and {@link MatchLoader} against the configured PostgreSQL database. Every
+ * fixture loaded here has a team named with {@value #TEAM}, and is deleted after each test.
+ */
+@SpringBootTest
+class MatchLoadServiceIntegrationTest {
+
+    private static final String TEAM = "LOAD-TEST";
+    private static final String HEADER = "description,match_date,match_time,team_a,team_b,sport,specifier,odd\n";
+
+    @Autowired
+    private MatchLoadService matchLoadService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from matches where team_a = ?", TEAM);
+    }
+
+    @Test
+    @DisplayName("load CSV: creates matches and odds, a fixture without odds, and merges repeated rows")
+    void loadCsv_creates() {
+        MatchLoadResult result = load(MatchLoader.Format.CSV, HEADER + """
+                A v B,2024-03-31,18:00,LOAD-TEST,B,1,1,1.85
+                A v B,2024-03-31,18:00,LOAD-TEST,B,1,X,3.4
+                A v B,2024-03-31,18:00,LOAD-TEST,B,1,2,4.1
+                A v C,2024-03-31,20:00,LOAD-TEST,C,2,,
+                A v B (late),2024-03-31,18:00,LOAD-TEST,B,1,X,3.5
+                """);
+
+        assertThat(result.getRows()).isEqualTo(5);
+        assertThat(result.getMatchesCreated()).isEqualTo(2);
+        assertThat(result.getOddsCreated()).isEqualTo(3);
+        assertThat(descriptions()).containsOnly(Map.entry("B", "A v B (late)"), Map.entry("C", "A v C"));
+        assertThat(odds("B")).containsOnly(
+                Map.entry("1", new BigDecimal("1.850")),
+                Map.entry("X", new BigDecimal("3.500")),
+                Map.entry("2", new BigDecimal("4.100")));
+        assertThat(odds("C")).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "select sport from matches where team_a = ? and team_b = 'C'", String.class, TEAM))
+                .isEqualTo("BASKETBALL");
+    }
+
+    @Test
+    @DisplayName("load NDJSON: known fixtures and odds are updated in place by uk_match_specifier")
+    void loadNdjson_upserts() {
+        load(MatchLoader.Format.CSV, HEADER + """
+                A v B,2024-03-31,18:00,LOAD-TEST,B,1,1,1.85
+                A v B,2024-03-31,18:00,LOAD-TEST,B,1,X,3.4
+                """);
+        Long oddId = jdbcTemplate.queryForObject("""
+                select o.id from match_odds o join matches m on m.id = o.match_id
+                join specifiers s on s.id = o.specifier_id
+                where m.team_a = ? and s.name = '1'""", Long.class, TEAM);
+
+        MatchLoadResult result = load(MatchLoader.Format.NDJSON, """
+                {"description":"A v B","matchDate":"2024-03-31","matchTime":"18:00","teamA":"LOAD-TEST","teamB":"B","sport":1,"odds":[{"specifier":"1","odd":1.9},{"specifier":"X","odd":3.4},{"specifier":"2","odd":4.2}]}
+
+                {"description":"A v D","matchDate":"2024-04-01","matchTime":"18:00","teamA":"LOAD-TEST","teamB":"D","sport":1,"odds":[]}
+                """);
+
+        assertThat(result.getRows()).isEqualTo(4);
+        assertThat(result.getMatchesCreated()).isEqualTo(1);
+        // the unchanged description of A v B is not rewritten
+        assertThat(result.getMatchesUpdated()).isZero();
+        assertThat(result.getOddsCreated()).isEqualTo(1);
+        // 1 changed; the unchanged X is not rewritten
+        assertThat(result.getOddsUpdated()).isEqualTo(1);
+        assertThat(odds("B")).containsOnly(
+                Map.entry("1", new BigDecimal("1.900")),
+                Map.entry("X", new BigDecimal("3.400")),
+                Map.entry("2", new BigDecimal("4.200")));
+        assertThat(jdbcTemplate.queryForObject("select odd from match_odds where id = ?", BigDecimal.class, oddId))
+                .isEqualByComparingTo("1.9");
+    }
+
+    @Test
+    @DisplayName("load: an invalid row rejects the whole load with its row number")
+    void load_invalidRow() {
+        assertThatThrownBy(() -> load(MatchLoader.Format.CSV, HEADER + """
+                A v B,2024-03-31,18:00,LOAD-TEST,B,1,1,1.85
+                A v B,2024-03-31,18:00,LOAD-TEST,B,7,X,3.4
+                """))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Row 2: unknown sport 7");
+
+        assertThat(descriptions()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("load CSV: blank texts and team names over 100 characters are rejected, as by the API")
+    void loadCsv_apiRules() {
+        assertThatThrownBy(() -> load(MatchLoader.Format.CSV, HEADER + "A v B,2024-03-31,18:00,LOAD-TEST,\"  \",1,,\n"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Row 1: description, team_a and team_b must not be blank");
+        assertThatThrownBy(() -> load(MatchLoader.Format.CSV, HEADER + "\" \",2024-03-31,18:00,LOAD-TEST,B,1,,\n"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Row 1: description, team_a and team_b must not be blank");
+        assertThatThrownBy(() -> load(MatchLoader.Format.CSV,
+                HEADER + "A v B,2024-03-31,18:00,LOAD-TEST," + "B".repeat(101) + ",1,,\n"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Row 1: team_a and team_b must be at most 100 characters");
+
+        assertThat(descriptions()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("load CSV: a malformed value or header is a bad request")
+    void loadCsv_malformed() {
+        assertThatThrownBy(() -> load(MatchLoader.Format.CSV, HEADER + "A v B,31/03/2024,18:00,LOAD-TEST,B,1,1,1.85\n"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> load(MatchLoader.Format.CSV, "team_a,team_b\nLOAD-TEST,B\n"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("load NDJSON: a line the API would reject fails with its line number")
+    void loadNdjson_invalidLine() {
+        assertThatThrownBy(() -> load(MatchLoader.Format.NDJSON, """
+                {"description":"A v B","matchDate":"2024-03-31","matchTime":"18:00","teamA":"LOAD-TEST","teamB":"B","sport":1}
+                {"description":"A v C","matchDate":"2024-03-31","matchTime":"18:00","teamA":"LOAD-TEST","sport":1}
+                """))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageStartingWith("Line 2: teamB");
+
+        assertThat(descriptions()).isEmpty();
+    }
+
+    private MatchLoadResult load(MatchLoader.Format format, String content) {
+        return matchLoadService.load(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    private Map<String, String> descriptions() {
+        return jdbcTemplate.queryForList("select team_b, description from matches where team_a = ?", TEAM).stream()
+                .collect(Collectors.toMap(row -> (String) row.get("team_b"), row -> (String) row.get("description")));
+    }
+
+    private Map<String, BigDecimal> odds(String teamB) {
+        return jdbcTemplate.queryForList("""
+                        select s.name, o.odd from match_odds o
+                        join matches m on m.id = o.match_id
+                        join specifiers s on s.id = o.specifier_id
+                        where m.team_a = ? and m.team_b = ?""", TEAM, teamB).stream()
+                .collect(Collectors.toMap(row -> (String) row.get("name"), row -> (BigDecimal) row.get("odd")));
+    }
+}
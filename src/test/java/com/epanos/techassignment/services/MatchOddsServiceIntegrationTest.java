@@ -0,0 +1,191 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.oddsbook.MatchOddsEntry;
+import com.epanos.techassignment.repositories.MatchRepository;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import com.epanos.techassignment.support.JdbcStatementCounter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.epanos.techassignment.support.MatchFixtures.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs {@link MatchOddsService} against the configured PostgreSQL database and asserts the number of
+ * statements each call sends, counted at the JDBC level so plain-JDBC repository methods are included.
+ */
+@SpringBootTest
+@Import(JdbcStatementCounter.class)
+class MatchOddsServiceIntegrationTest {
+
+    private static final long MISSING_MATCH_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private MatchOddsService matchOddsService;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private SpecifierDictionary specifierDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long matchId;
+
+    @BeforeEach
+    void setUp() {
+        matchId = matchService.create(matchRequest()).getId();
+        matchOddsService.createBulk(matchId, List.of(odd("1", "1.500"), odd("X", "3.100")));
+        // specifiers are looked up once per process; keep that out of the per-call statement counts
+        List.of("2", "O2.5").forEach(specifierDictionary::code);
+        JdbcStatementCounter.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchRepository.deleteById(matchId);
+    }
+
+    @Test
+    @DisplayName("updateBySpecifier: one UPDATE ... RETURNING statement")
+    void updateBySpecifier_singleStatement() {
+        MatchOddsResponse updated = matchOddsService.updateBySpecifier(matchId, odd(" X ", "2.750"));
+
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+        assertThat(updated.getSpecifier()).isEqualTo("X");
+        assertThat(updated.getId()).isNotNull();
+        assertThat(matchOddsService.get(matchId, updated.getId()).getOdd()).isEqualTo(2750);
+    }
+
+    @Test
+    @DisplayName("updateBySpecifier: unknown specifier is reported after the single UPDATE")
+    void updateBySpecifier_notFound() {
+        assertThatThrownBy(() -> matchOddsService.updateBySpecifier(matchId, odd("Z", "2.000")))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("create: one INSERT statement, without loading the match or checking the specifier first")
+    void create_singleStatement() {
+        MatchOddsResponse created = matchOddsService.create(matchId, odd("2", "4.200"));
+
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+        assertThat(created.getMatchId()).isEqualTo(matchId);
+        assertThat(matchOddsService.get(matchId, created.getId()).getSpecifier()).isEqualTo("2");
+    }
+
+    @Test
+    @DisplayName("create: duplicate specifier is detected by the unique constraint and reported as a conflict")
+    void create_duplicate() {
+        assertThatThrownBy(() -> matchOddsService.create(matchId, odd("X", "4.200")))
+                .isInstanceOf(ConflictException.class);
+        // the INSERT, plus the existence check that tells a duplicate from a missing match
+        assertThat(JdbcStatementCounter.count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("create: missing match is reported as not found")
+    void create_missingMatch() {
+        assertThatThrownBy(() -> matchOddsService.create(MISSING_MATCH_ID, odd("X", "4.200")))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("create: a new specifier for a missing match is not added to the dictionary")
+    void create_missingMatch_newSpecifier() {
+        assertThatThrownBy(() -> matchOddsService.create(MISSING_MATCH_ID, odd("NEVER-ADDED", "4.200")))
+                .isInstanceOf(NotFoundException.class);
+
+        assertThat(specifierDictionary.find("NEVER-ADDED")).isEqualTo(SpecifierDictionary.NOT_FOUND);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from specifiers where name = 'NEVER-ADDED'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("listByMatch: one SELECT for a match with odds")
+    void listByMatch_singleStatement() {
+        List<MatchOddsResponse> odds = matchOddsService.listByMatch(matchId);
+
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+        assertThat(odds).extracting(MatchOddsResponse::getSpecifier).containsExactlyInAnyOrder("1", "X");
+    }
+
+    @Test
+    @DisplayName("listByMatch: missing match is reported as not found")
+    void listByMatch_missingMatch() {
+        assertThatThrownBy(() -> matchOddsService.listByMatch(MISSING_MATCH_ID))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("createBulk: the match is referenced by proxy, never selected")
+    void createBulk_noMatchLoad() {
+        List<MatchOddsResponse> created = matchOddsService.createBulk(matchId, List.of(odd("2", "4.200"), odd("O2.5", "1.900")));
+
+        assertThat(created).extracting(MatchOddsResponse::getMatchId).containsOnly(matchId);
+        // existence check, existing-specifier check, two INSERTs
+        assertThat(JdbcStatementCounter.count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("createBulk: the conflict check does not add the payload's unknown specifiers to the dictionary")
+    void createBulk_conflictCheckDoesNotAddSpecifiers() {
+        assertThatThrownBy(() -> matchOddsService.createBulk(matchId, List.of(odd("X", "2.000"), odd("NEVER-ADDED", "2.000"))))
+                .isInstanceOf(ConflictException.class);
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from specifiers where name = 'NEVER-ADDED'", Integer.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("listByMatchPage: sorting by specifier orders by name, not by dictionary id")
+    void listByMatchPage_sortBySpecifierName() {
+        matchOddsService.create(matchId, odd("2", "4.200"));
+        assertThat(specifierDictionary.code("2")).isGreaterThan(specifierDictionary.code("X"));
+
+        assertThat(matchOddsService.listByMatchPage(matchId, PageRequest.of(0, 10, Sort.by("specifier"))))
+                .extracting(MatchOddsResponse::getSpecifier).containsExactly("1", "2", "X");
+        assertThat(matchOddsService.listByMatchPage(matchId, PageRequest.of(0, 10, Sort.by("specifier").descending())))
+                .extracting(MatchOddsResponse::getSpecifier).containsExactly("X", "2", "1");
+    }
+
+    @Test
+    @DisplayName("current: loaded once, then served from memory and kept current by committed writes")
+    void current_servedFromBook() {
+        assertThat(matchOddsService.current(matchId).size()).isEqualTo(2);
+        JdbcStatementCounter.clear();
+
+        matchOddsService.current(matchId);
+        assertThat(JdbcStatementCounter.count()).isZero();
+
+        matchOddsService.updateBySpecifier(matchId, odd("X", "2.750"));
+        matchOddsService.create(matchId, odd("2", "4.200"));
+        JdbcStatementCounter.clear();
+
+        MatchOddsEntry entry = matchOddsService.current(matchId);
+        assertThat(JdbcStatementCounter.count()).isZero();
+        assertThat(IntStream.range(0, entry.size()).mapToObj(i -> entry.specifier(i) + "=" + entry.oddThousandths(i)))
+                .containsExactlyInAnyOrder("1=1500", "X=2750", "2=4200");
+    }
+}
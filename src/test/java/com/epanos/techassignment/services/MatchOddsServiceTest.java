@@ -1,11 +1,15 @@
 package com.epanos.techassignment.services;
 
+import com.epanos.techassignment.exceptions.BadRequestException;
 import com.epanos.techassignment.exceptions.ConflictException;
 import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateResult;
 import com.epanos.techassignment.models.dto.MatchOddsRequest;
 import com.epanos.techassignment.models.dto.MatchOddsResponse;
 import com.epanos.techassignment.models.entities.Match;
 import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.oddsbook.OddsBook;
 import com.epanos.techassignment.repositories.MatchOddsRepository;
 import com.epanos.techassignment.repositories.MatchRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,8 +23,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
-import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +42,9 @@ class MatchOddsServiceTest {
     @Mock
     private MatchOddsRepository matchOddsRepository;
 
+    @Mock
+    private OddsBook oddsBook;
+
     @InjectMocks
     private MatchOddsService matchOddsService;
 
@@ -57,35 +64,38 @@ class MatchOddsServiceTest {
                 .id(10L)
                 .match(match)
                 .specifier("X")
-                .odd(BigDecimal.valueOf(1.5))
+                .odd(1500)
                 .build();
 
         oddsRequest = new MatchOddsRequest();
         oddsRequest.setSpecifier("X");
-        oddsRequest.setOdd(BigDecimal.valueOf(1.5));
+        oddsRequest.setOdd(1500);
     }
 
     // ── create ──────────────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("create: should create odd successfully")
+    @DisplayName("create: should create odd with a single insert and no match lookup")
     void create_success() {
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
-        when(matchOddsRepository.existsByMatchIdAndSpecifier(1L, "X")).thenReturn(false);
-        when(matchOddsRepository.save(any(MatchOdds.class))).thenReturn(oddsEntity);
+        oddsRequest.setSpecifier(" X ");
+        when(matchOddsRepository.insertIfAbsent(1L, "X", 1500)).thenReturn(Optional.of(10L));
 
         MatchOddsResponse result = matchOddsService.create(1L, oddsRequest);
 
         assertThat(result.getId()).isEqualTo(10L);
         assertThat(result.getMatchId()).isEqualTo(1L);
         assertThat(result.getSpecifier()).isEqualTo("X");
-        assertThat(result.getOdd()).isEqualByComparingTo(BigDecimal.valueOf(1.5));
+        assertThat(result.getOdd()).isEqualTo(1500);
+        verify(matchRepository).refreshOddsDocument(1L);
+        verifyNoMoreInteractions(matchRepository);
+        verify(oddsBook).oddSaved(1L, 10L, "X", 1500);
     }
 
     @Test
     @DisplayName("create: should throw NotFoundException when match not found")
     void create_matchNotFound() {
-        when(matchRepository.findById(99L)).thenReturn(Optional.empty());
+        when(matchOddsRepository.insertIfAbsent(99L, "X", 1500)).thenReturn(Optional.empty());
+        when(matchRepository.existsById(99L)).thenReturn(false);
 
         assertThatThrownBy(() -> matchOddsService.create(99L, oddsRequest))
                 .isInstanceOf(NotFoundException.class)
@@ -95,8 +105,8 @@ class MatchOddsServiceTest {
     @Test
     @DisplayName("create: should throw ConflictException when specifier already exists")
     void create_duplicateSpecifier() {
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
-        when(matchOddsRepository.existsByMatchIdAndSpecifier(1L, "X")).thenReturn(true);
+        when(matchOddsRepository.insertIfAbsent(1L, "X", 1500)).thenReturn(Optional.empty());
+        when(matchRepository.existsById(1L)).thenReturn(true);
 
         assertThatThrownBy(() -> matchOddsService.create(1L, oddsRequest))
                 .isInstanceOf(ConflictException.class)
@@ -108,7 +118,7 @@ class MatchOddsServiceTest {
     @Test
     @DisplayName("createBulk: should return empty list for null input")
     void createBulk_nullInput() {
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        when(matchRepository.existsById(1L)).thenReturn(true);
 
         List<MatchOddsResponse> result = matchOddsService.createBulk(1L, null);
         assertThat(result).isEmpty();
@@ -117,7 +127,7 @@ class MatchOddsServiceTest {
     @Test
     @DisplayName("createBulk: should return empty list for empty input")
     void createBulk_emptyInput() {
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        when(matchRepository.existsById(1L)).thenReturn(true);
 
         List<MatchOddsResponse> result = matchOddsService.createBulk(1L, List.of());
         assertThat(result).isEmpty();
@@ -128,18 +138,20 @@ class MatchOddsServiceTest {
     void createBulk_success() {
         MatchOddsRequest req2 = new MatchOddsRequest();
         req2.setSpecifier("1");
-        req2.setOdd(BigDecimal.valueOf(2.0));
+        req2.setOdd(2000);
 
-        MatchOdds entity2 = MatchOdds.builder().id(11L).match(match).specifier("1").odd(BigDecimal.valueOf(2.0)).build();
+        MatchOdds entity2 = MatchOdds.builder().id(11L).match(match).specifier("1").odd(2000).build();
 
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
-        when(matchOddsRepository.existsByMatchIdAndSpecifier(eq(1L), anyString())).thenReturn(false);
+        when(matchRepository.existsById(1L)).thenReturn(true);
+        when(matchOddsRepository.findExistingSpecifiers(1L, List.of("X", "1"))).thenReturn(List.of());
+        when(matchRepository.getReferenceById(1L)).thenReturn(match);
         when(matchOddsRepository.saveAll(anyList())).thenReturn(List.of(oddsEntity, entity2));
 
         List<MatchOddsResponse> result = matchOddsService.createBulk(1L, List.of(oddsRequest, req2));
 
         assertThat(result).hasSize(2);
         verify(matchOddsRepository).flush();
+        verify(matchRepository, never()).findById(any());
     }
 
     @Test
@@ -147,9 +159,9 @@ class MatchOddsServiceTest {
     void createBulk_duplicateInPayload() {
         MatchOddsRequest req2 = new MatchOddsRequest();
         req2.setSpecifier("X");
-        req2.setOdd(BigDecimal.valueOf(3.0));
+        req2.setOdd(3000);
 
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        when(matchRepository.existsById(1L)).thenReturn(true);
 
         assertThatThrownBy(() -> matchOddsService.createBulk(1L, List.of(oddsRequest, req2)))
                 .isInstanceOf(ConflictException.class)
@@ -159,8 +171,8 @@ class MatchOddsServiceTest {
     @Test
     @DisplayName("createBulk: should throw ConflictException when specifier already exists in DB")
     void createBulk_existsInDb() {
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
-        when(matchOddsRepository.existsByMatchIdAndSpecifier(1L, "X")).thenReturn(true);
+        when(matchRepository.existsById(1L)).thenReturn(true);
+        when(matchOddsRepository.findExistingSpecifiers(1L, List.of("X"))).thenReturn(List.of("X"));
 
         assertThatThrownBy(() -> matchOddsService.createBulk(1L, List.of(oddsRequest)))
                 .isInstanceOf(ConflictException.class)
@@ -170,7 +182,7 @@ class MatchOddsServiceTest {
     @Test
     @DisplayName("createBulk: should throw NotFoundException when match not found")
     void createBulk_matchNotFound() {
-        when(matchRepository.findById(99L)).thenReturn(Optional.empty());
+        when(matchRepository.existsById(99L)).thenReturn(false);
 
         assertThatThrownBy(() -> matchOddsService.createBulk(99L, List.of(oddsRequest)))
                 .isInstanceOf(NotFoundException.class);
@@ -202,20 +214,30 @@ class MatchOddsServiceTest {
     // ── listByMatch ─────────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("listByMatch: should return odds for existing match")
+    @DisplayName("listByMatch: should return odds for existing match without an existence check")
     void listByMatch_success() {
-        when(matchRepository.existsById(1L)).thenReturn(true);
         when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of(oddsEntity));
 
         List<MatchOddsResponse> result = matchOddsService.listByMatch(1L);
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getSpecifier()).isEqualTo("X");
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("listByMatch: should return empty list for existing match without odds")
+    void listByMatch_noOdds() {
+        when(matchOddsRepository.findByMatchId(1L)).thenReturn(List.of());
+        when(matchRepository.existsById(1L)).thenReturn(true);
+
+        assertThat(matchOddsService.listByMatch(1L)).isEmpty();
     }
 
     @Test
     @DisplayName("listByMatch: should throw NotFoundException when match not found")
     void listByMatch_matchNotFound() {
+        when(matchOddsRepository.findByMatchId(99L)).thenReturn(List.of());
         when(matchRepository.existsById(99L)).thenReturn(false);
 
         assertThatThrownBy(() -> matchOddsService.listByMatch(99L))
@@ -227,7 +249,7 @@ class MatchOddsServiceTest {
     @Test
     @DisplayName("listByMatchPage: should return paginated odds")
     void listByMatchPage_success() {
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
         Page<MatchOdds> page = new PageImpl<>(List.of(oddsEntity), pageable, 1);
 
         when(matchRepository.existsById(1L)).thenReturn(true);
@@ -249,19 +271,28 @@ class MatchOddsServiceTest {
                 .isInstanceOf(NotFoundException.class);
     }
 
+    @Test
+    @DisplayName("listByMatchPage: should reject sorts outside the match's own odds properties")
+    void listByMatchPage_unsupportedSort() {
+        assertThatThrownBy(() -> matchOddsService.listByMatchPage(1L, PageRequest.of(0, 10, Sort.by("match.description"))))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(matchRepository, matchOddsRepository);
+    }
+
     // ── update ──────────────────────────────────────────────────────────────
 
     @Test
     @DisplayName("update: should update odd with same specifier")
     void update_sameSpecifier() {
-        oddsRequest.setOdd(BigDecimal.valueOf(3.0));
+        oddsRequest.setOdd(3000);
 
         when(matchOddsRepository.findByIdAndMatchId(10L, 1L)).thenReturn(Optional.of(oddsEntity));
         when(matchOddsRepository.existsByMatchIdAndSpecifierAndIdNot(1L, "X", 10L)).thenReturn(false);
 
         MatchOddsResponse result = matchOddsService.update(1L, 10L, oddsRequest);
 
-        assertThat(result.getOdd()).isEqualByComparingTo(BigDecimal.valueOf(3.0));
+        assertThat(result.getOdd()).isEqualTo(3000);
     }
 
     @Test
@@ -269,7 +300,7 @@ class MatchOddsServiceTest {
     void update_newSpecifier() {
         MatchOddsRequest updateReq = new MatchOddsRequest();
         updateReq.setSpecifier("2");
-        updateReq.setOdd(BigDecimal.valueOf(2.5));
+        updateReq.setOdd(2500);
 
         when(matchOddsRepository.findByIdAndMatchId(10L, 1L)).thenReturn(Optional.of(oddsEntity));
         when(matchOddsRepository.existsByMatchIdAndSpecifierAndIdNot(1L, "2", 10L)).thenReturn(false);
@@ -284,7 +315,7 @@ class MatchOddsServiceTest {
     void update_duplicateSpecifier() {
         MatchOddsRequest updateReq = new MatchOddsRequest();
         updateReq.setSpecifier("1");
-        updateReq.setOdd(BigDecimal.valueOf(2.0));
+        updateReq.setOdd(2000);
 
         when(matchOddsRepository.findByIdAndMatchId(10L, 1L)).thenReturn(Optional.of(oddsEntity));
         when(matchOddsRepository.existsByMatchIdAndSpecifierAndIdNot(1L, "1", 10L)).thenReturn(true);
@@ -310,13 +341,16 @@ class MatchOddsServiceTest {
     void updateBySpecifier_success() {
         MatchOddsRequest updateReq = new MatchOddsRequest();
         updateReq.setSpecifier("X");
-        updateReq.setOdd(BigDecimal.valueOf(5.0));
+        updateReq.setOdd(5000);
 
-        when(matchOddsRepository.findByMatchIdAndSpecifier(1L, "X")).thenReturn(Optional.of(oddsEntity));
+        when(matchOddsRepository.updateOddBySpecifier(1L, "X", 5000)).thenReturn(Optional.of(10L));
 
         MatchOddsResponse result = matchOddsService.updateBySpecifier(1L, updateReq);
 
-        assertThat(result.getOdd()).isEqualByComparingTo(BigDecimal.valueOf(5.0));
+        assertThat(result.getId()).isEqualTo(10L);
+        assertThat(result.getMatchId()).isEqualTo(1L);
+        assertThat(result.getOdd()).isEqualTo(5000);
+        verify(oddsBook).oddChanged(1L, "X", 5000);
         assertThat(result.getSpecifier()).isEqualTo("X");
     }
 
@@ -325,54 +359,128 @@ class MatchOddsServiceTest {
     void updateBySpecifier_notFound() {
         MatchOddsRequest updateReq = new MatchOddsRequest();
         updateReq.setSpecifier("Z");
-        updateReq.setOdd(BigDecimal.valueOf(1.5));
+        updateReq.setOdd(1500);
 
-        when(matchOddsRepository.findByMatchIdAndSpecifier(1L, "Z")).thenReturn(Optional.empty());
+        when(matchOddsRepository.updateOddBySpecifier(1L, "Z", 1500)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> matchOddsService.updateBySpecifier(1L, updateReq))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("Odds with specifier 'Z' not found for match 1");
     }
 
+    // ── updateBulk ──────────────────────────────────────────────────────────
+
+    @Test
+    @DisplayName("updateBulk: should apply all items in one batch and report per-item status")
+    void updateBulk_success() {
+        List<MatchOddsBulkUpdateRequest> reqs = List.of(
+                new MatchOddsBulkUpdateRequest(1L, " X ", 1800),
+                new MatchOddsBulkUpdateRequest(2L, "1", 2100),
+                new MatchOddsBulkUpdateRequest(3L, "Z", 4000));
+
+        when(matchOddsRepository.batchUpdateOdds(anyList())).thenReturn(new int[]{1, 1, 0});
+
+        List<MatchOddsBulkUpdateResult> result = matchOddsService.updateBulk(reqs);
+
+        assertThat(result).extracting(MatchOddsBulkUpdateResult::getStatus).containsExactly(
+                MatchOddsBulkUpdateResult.Status.UPDATED,
+                MatchOddsBulkUpdateResult.Status.UPDATED,
+                MatchOddsBulkUpdateResult.Status.NOT_FOUND);
+        assertThat(result.get(0).getSpecifier()).isEqualTo("X");
+        verify(matchOddsRepository, times(1)).batchUpdateOdds(argThat(l -> l.size() == 3 && l.get(0).getSpecifier().equals("X")));
+        verify(oddsBook).oddChanged(1L, "X", 1800);
+        verify(oddsBook).oddChanged(2L, "1", 2100);
+        verifyNoMoreInteractions(oddsBook);
+        verifyNoMoreInteractions(matchOddsRepository);
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("updateBulk: should allow the same specifier on different matches")
+    void updateBulk_sameSpecifierDifferentMatches() {
+        List<MatchOddsBulkUpdateRequest> reqs = List.of(
+                new MatchOddsBulkUpdateRequest(1L, "X", 1800),
+                new MatchOddsBulkUpdateRequest(2L, "X", 2100));
+
+        when(matchOddsRepository.batchUpdateOdds(anyList())).thenReturn(new int[]{1, 1});
+
+        assertThat(matchOddsService.updateBulk(reqs)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("updateBulk: should throw ConflictException for duplicate (matchId, specifier) in payload")
+    void updateBulk_duplicateInPayload() {
+        List<MatchOddsBulkUpdateRequest> reqs = List.of(
+                new MatchOddsBulkUpdateRequest(1L, "X", 1800),
+                new MatchOddsBulkUpdateRequest(1L, "X ", 2100));
+
+        assertThatThrownBy(() -> matchOddsService.updateBulk(reqs))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Duplicate odds specifier in request payload");
+        verifyNoInteractions(matchOddsRepository);
+    }
+
+    @Test
+    @DisplayName("updateBulk: should return empty list for empty input")
+    void updateBulk_emptyInput() {
+        assertThat(matchOddsService.updateBulk(List.of())).isEmpty();
+        verifyNoInteractions(matchOddsRepository);
+    }
+
     // ── delete ──────────────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("delete: should delete odd when found")
+    @DisplayName("delete: should delete odd with a single statement when found")
     void delete_success() {
-        when(matchOddsRepository.findByIdAndMatchId(10L, 1L)).thenReturn(Optional.of(oddsEntity));
+        when(matchOddsRepository.deleteByIdAndMatchIdInBulk(10L, 1L)).thenReturn(1);
 
         matchOddsService.delete(1L, 10L);
 
-        verify(matchOddsRepository).delete(oddsEntity);
+        verify(matchOddsRepository).deleteByIdAndMatchIdInBulk(10L, 1L);
+        verify(oddsBook).oddRemoved(1L, 10L);
+        verifyNoMoreInteractions(matchOddsRepository);
     }
 
     @Test
     @DisplayName("delete: should throw NotFoundException when odd not found")
     void delete_notFound() {
-        when(matchOddsRepository.findByIdAndMatchId(99L, 1L)).thenReturn(Optional.empty());
+        when(matchOddsRepository.deleteByIdAndMatchIdInBulk(99L, 1L)).thenReturn(0);
 
         assertThatThrownBy(() -> matchOddsService.delete(1L, 99L))
-                .isInstanceOf(NotFoundException.class);
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Odds not found: 99 for match 1");
     }
 
     // ── deleteAll ───────────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("deleteAll: should clear all odds from match")
+    @DisplayName("deleteAll: should delete all odds with a single statement without loading the match")
     void deleteAll_success() {
-        match.getOdds().add(oddsEntity);
+        when(matchOddsRepository.deleteAllByMatchIdInBulk(1L)).thenReturn(3);
 
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(match));
+        matchOddsService.deleteAll(1L);
+
+        verify(matchOddsRepository).deleteAllByMatchIdInBulk(1L);
+        verify(matchRepository).refreshOddsDocument(1L);
+        verifyNoMoreInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("deleteAll: should succeed for an existing match without odds")
+    void deleteAll_noOdds() {
+        when(matchOddsRepository.deleteAllByMatchIdInBulk(1L)).thenReturn(0);
+        when(matchRepository.existsById(1L)).thenReturn(true);
 
         matchOddsService.deleteAll(1L);
 
-        assertThat(match.getOdds()).isEmpty();
+        verify(matchRepository, never()).findById(any());
     }
 
     @Test
     @DisplayName("deleteAll: should throw NotFoundException when match not found")
     void deleteAll_notFound() {
-        when(matchRepository.findById(99L)).thenReturn(Optional.empty());
+        when(matchOddsRepository.deleteAllByMatchIdInBulk(99L)).thenReturn(0);
+        when(matchRepository.existsById(99L)).thenReturn(false);
 
         assertThatThrownBy(() -> matchOddsService.deleteAll(99L))
                 .isInstanceOf(NotFoundException.class);
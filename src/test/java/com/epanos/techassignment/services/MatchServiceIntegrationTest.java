@@ -0,0 +1,357 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.BadRequestException;
+import com.epanos.techassignment.models.dto.MatchIngestResult;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.dto.MatchOddsRequest;
+import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.models.entities.Match;
+import com.epanos.techassignment.models.entities.MatchOdds;
+import com.epanos.techassignment.models.enums.Sport;
+import com.epanos.techassignment.repositories.MatchOddsRepository;
+import com.epanos.techassignment.repositories.MatchRepository;
+import com.epanos.techassignment.support.JdbcStatementCounter;
+import com.epanos.techassignment.support.SqlStatementRecorder;
+import com.epanos.techassignment.models.odds.Thousandths;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.epanos.techassignment.support.MatchFixtures.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs {@link MatchService} against the configured PostgreSQL database and asserts the
+ * number of SQL statements issued, using Hibernate statistics.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.epanos.techassignment.support.SqlStatementRecorder"
+})
+@Import(JdbcStatementCounter.class)
+class MatchServiceIntegrationTest {
+
+    private static final int ODDS_COUNT = 100;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private MatchOddsRepository matchOddsRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private Statistics statistics;
+    private final List<Long> createdIds = new ArrayList<>();
+
+    @Autowired
+    private MatchOddsService matchOddsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // statement counts below assume a cold second-level cache
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        createdIds.forEach(id -> matchRepository.findById(id).ifPresent(matchRepository::delete));
+        createdIds.clear();
+    }
+
+    @Test
+    @DisplayName("update: changing one of 100 odds issues a single odds UPDATE and keeps all ids")
+    void update_oneChangedOdd_singleUpdate() {
+        MatchRequest req = matchRequest(odds(ODDS_COUNT));
+        MatchResponse created = create(req);
+
+        req.getOdds().get(42).setOdd(9999);
+        statistics.clear();
+
+        MatchResponse updated = matchService.update(created.getId(), req);
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        // one fetch-join SELECT for the match with its odds, one UPDATE for the changed odd
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(ids(updated)).containsExactlyElementsOf(ids(created));
+    }
+
+    @Test
+    @DisplayName("update: identical odds payload issues no write statements")
+    void update_unchangedOdds_noWrites() {
+        MatchRequest req = matchRequest(odds(ODDS_COUNT));
+        MatchResponse created = create(req);
+        statistics.clear();
+
+        matchService.update(created.getId(), req);
+
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isZero();
+        assertThat(statistics.getEntityDeleteCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("update: one removed and one new specifier issue one DELETE and one INSERT")
+    void update_addAndRemove() {
+        MatchRequest req = matchRequest(odds(ODDS_COUNT));
+        MatchResponse created = create(req);
+
+        List<MatchOddsRequest> odds = new ArrayList<>(req.getOdds());
+        odds.remove(0);
+        odds.add(odd("NEW", "1.750"));
+        req.setOdds(odds);
+        statistics.clear();
+
+        MatchResponse updated = matchService.update(created.getId(), req);
+
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getEntityDeleteCount()).isEqualTo(1);
+        assertThat(updated.getOdds()).hasSize(ODDS_COUNT);
+        assertThat(ids(updated)).containsAll(ids(created).subList(1, ODDS_COUNT));
+    }
+
+    @Test
+    @DisplayName("patch: changing the kickoff time writes only that column and never touches odds")
+    void patch_kickoffOnly() {
+        MatchResponse created = create(matchRequest(odds(ODDS_COUNT)));
+        statistics.clear();
+        SqlStatementRecorder.clear();
+
+        MatchResponse patched = matchService.patch(created.getId(), jsonMapper.readTree("""
+                { "matchTime": "20:45" }
+                """));
+
+        assertThat(patched.getMatchTime()).isEqualTo(LocalTime.of(20, 45));
+        assertThat(patched.getOdds()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(SqlStatementRecorder.statements())
+                .filteredOn(sql -> sql.startsWith("update"))
+                .singleElement(as(STRING))
+                .contains("match_time")
+                .doesNotContain("description", "team_a", "team_b", "match_date", "sport");
+    }
+
+    @Test
+    @DisplayName("delete: a match with 100 odds is removed by one statement, odds cascade in the database")
+    void delete_singleStatement() {
+        MatchResponse created = create(matchRequest(odds(ODDS_COUNT)));
+        statistics.clear();
+
+        matchService.delete(created.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(matchRepository.existsById(created.getId())).isFalse();
+        assertThat(matchOddsRepository.findByMatchId(created.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deleteMatching: removes every matching row with one statement and leaves the rest")
+    void deleteMatching_singleStatement() {
+        MatchRequest old = matchRequest(odds(10));
+        old.setMatchDate(LocalDate.of(1900, 1, 1));
+        MatchResponse a = create(old);
+        old.setTeamB("PAO-B");
+        MatchResponse b = create(old);
+        MatchRequest kept = matchRequest(odds(10));
+        kept.setMatchDate(LocalDate.of(1900, 1, 2));
+        MatchResponse c = create(kept);
+        statistics.clear();
+
+        long deleted = matchService.deleteMatching(LocalDate.of(1900, 1, 2), Sport.FOOTBALL);
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(matchRepository.existsById(a.getId())).isFalse();
+        assertThat(matchRepository.existsById(b.getId())).isFalse();
+        assertThat(matchRepository.existsById(c.getId())).isTrue();
+        assertThat(matchOddsRepository.findByMatchId(a.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("get: repeated calls are served from the second-level cache without any SQL")
+    void get_repeated_servedFromSecondLevelCache() {
+        MatchResponse created = create(matchRequest(odds(ODDS_COUNT)));
+        entityManagerFactory.getCache().evictAll();
+
+        matchService.get(created.getId());
+        statistics.clear();
+
+        MatchResponse cached = matchService.get(created.getId());
+        matchService.get(created.getId());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheMissCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics(Match.CACHE_REGION).getHitCount()).isEqualTo(2);
+        assertThat(statistics.getDomainDataRegionStatistics(Match.ODDS_CACHE_REGION).getHitCount()).isEqualTo(2);
+        assertThat(cached.getOdds()).hasSize(ODDS_COUNT);
+        assertThat(meterRegistry.get("hibernate.second.level.cache.requests")
+                .tags("region", Match.CACHE_REGION, "result", "hit").functionCounter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("get: writes that bypass Hibernate evict the cached odds they touch")
+    void get_afterJdbcWrites_seesFreshOdds() {
+        MatchResponse created = create(matchRequest(odds(2)));
+        matchService.get(created.getId());
+
+        matchOddsService.updateBySpecifier(created.getId(), odd("S0", "7.000"));
+        matchOddsService.create(created.getId(), odd("NEW", "2.000"));
+        matchOddsService.createBulk(created.getId(), List.of(odd("BULK", "3.000")));
+
+        assertThat(matchService.get(created.getId()).getOdds())
+                .extracting(MatchOddsResponse::getSpecifier, o -> Thousandths.toString(o.getOdd()))
+                .containsExactlyInAnyOrder(
+                        tuple("S0", "7.000"), tuple("S1", "1.500"), tuple("NEW", "2.000"), tuple("BULK", "3.000"));
+    }
+
+    @Test
+    @DisplayName("updateBulk: evicts only the cached odds it updates")
+    void updateBulk_evictsUpdatedOddsOnly() {
+        MatchResponse created = create(matchRequest(odds(2)));
+        matchService.get(created.getId());
+        Map<String, Long> ids = new HashMap<>();
+        created.getOdds().forEach(o -> ids.put(o.getSpecifier(), o.getId()));
+
+        matchOddsService.updateBulk(List.of(new MatchOddsBulkUpdateRequest(created.getId(), "S0", Thousandths.of(new BigDecimal("7.000")))));
+
+        assertThat(entityManagerFactory.getCache().contains(MatchOdds.class, ids.get("S0"))).isFalse();
+        assertThat(entityManagerFactory.getCache().contains(MatchOdds.class, ids.get("S1"))).isTrue();
+        assertThat(matchService.get(created.getId()).getOdds())
+                .extracting(MatchOddsResponse::getSpecifier, o -> Thousandths.toString(o.getOdd()))
+                .containsExactlyInAnyOrder(tuple("S0", "7.000"), tuple("S1", "1.500"));
+    }
+
+    @Test
+    @DisplayName("listPage(fields): selects only the requested columns and returns only those properties")
+    void listPage_fields_narrowsSelectList() {
+        MatchResponse created = create(matchRequest(odds(2)));
+        SqlStatementRecorder.clear();
+
+        List<Map<String, Object>> page = matchService.listPage(List.of("teamB", "id", "matchTime"),
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id"))).getContent();
+
+        assertThat(page).singleElement().isEqualTo(Map.of("id", created.getId(), "teamB", "PAO",
+                "matchTime", LocalTime.of(18, 0)));
+        assertThat(page.get(0).keySet()).containsExactly("id", "matchTime", "teamB");
+        assertThat(SqlStatementRecorder.statements())
+                .filteredOn(sql -> sql.startsWith("select") && !sql.contains("count("))
+                .singleElement(as(STRING))
+                .contains("match_time", "team_b")
+                .doesNotContain("description", "team_a", "match_date", "sport");
+    }
+
+    @Test
+    @DisplayName("listByMatchPage(fields): selects only the requested odds columns, sorted by specifier name")
+    void listByMatchPage_fields_narrowsSelectList() {
+        MatchResponse created = create(matchRequest(odds(2)));
+        SqlStatementRecorder.clear();
+
+        List<Map<String, Object>> page = matchOddsService.listByMatchPage(created.getId(), List.of("odd", "specifier"),
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "specifier"))).getContent();
+
+        assertThat(page).containsExactly(
+                Map.of("specifier", "S1", "odd", new BigDecimal("1.500")),
+                Map.of("specifier", "S0", "odd", new BigDecimal("1.500")));
+        assertThat(SqlStatementRecorder.statements())
+                .filteredOn(sql -> sql.contains("match_odds"))
+                .singleElement(as(STRING))
+                .doesNotContain("match_id,", ".id,");
+    }
+
+    @Test
+    @DisplayName("listPage(fields): unknown field is rejected before any SQL is run")
+    void listPage_unknownField_badRequest() {
+        SqlStatementRecorder.clear();
+
+        assertThatThrownBy(() -> matchService.listPage(List.of("id", "odds"), PageRequest.of(0, 20)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unknown field: odds");
+        assertThat(SqlStatementRecorder.statements()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("ingest: resent fixtures are no-ops and a changed description is updated, each batch in one statement")
+    void ingest_resentFixtures() {
+        MatchRequest a = matchRequest(null);
+        MatchRequest b = matchRequest(null);
+        b.setSport(Sport.BASKETBALL);
+
+        List<MatchIngestResult> created = matchService.ingest(List.of(a, b));
+        created.forEach(r -> createdIds.add(r.getId()));
+        assertThat(created).extracting(MatchIngestResult::getStatus)
+                .containsExactly(MatchIngestResult.Status.CREATED, MatchIngestResult.Status.CREATED);
+        assertThat(matchService.get(created.get(0).getId()).getDescription()).isEqualTo(a.getDescription());
+
+        JdbcStatementCounter.clear();
+        List<MatchIngestResult> resent = matchService.ingest(List.of(a, b));
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+        assertThat(resent).extracting(MatchIngestResult::getId, MatchIngestResult::getStatus).containsExactly(
+                tuple(created.get(0).getId(), MatchIngestResult.Status.UNCHANGED),
+                tuple(created.get(1).getId(), MatchIngestResult.Status.UNCHANGED));
+
+        a.setDescription("renamed");
+        JdbcStatementCounter.clear();
+        List<MatchIngestResult> changed = matchService.ingest(List.of(b, a));
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+        assertThat(changed).extracting(MatchIngestResult::getId, MatchIngestResult::getStatus).containsExactly(
+                tuple(created.get(1).getId(), MatchIngestResult.Status.UNCHANGED),
+                tuple(created.get(0).getId(), MatchIngestResult.Status.UPDATED));
+        // the cached entity was evicted
+        assertThat(matchService.get(created.get(0).getId()).getDescription()).isEqualTo("renamed");
+    }
+
+    private MatchResponse create(MatchRequest req) {
+        MatchResponse created = matchService.create(req);
+        createdIds.add(created.getId());
+        return created;
+    }
+
+    private static List<Long> ids(MatchResponse response) {
+        return response.getOdds().stream().map(MatchOddsResponse::getId).toList();
+    }
+
+    private static List<MatchOddsRequest> odds(int count) {
+        return new ArrayList<>(IntStream.range(0, count)
+                .mapToObj(i -> odd("S" + i, "1.500"))
+                .toList());
+    }
+}
@@ -1,7 +1,10 @@
 package com.epanos.techassignment.services;
 
+import com.epanos.techassignment.exceptions.BadRequestException;
 import com.epanos.techassignment.exceptions.ConflictException;
 import com.epanos.techassignment.exceptions.NotFoundException;
+import com.epanos.techassignment.models.dto.MatchBatchResponse;
+import com.epanos.techassignment.models.dto.MatchIngestResult;
 import com.epanos.techassignment.models.dto.MatchOddsRequest;
 import com.epanos.techassignment.models.dto.MatchRequest;
 import com.epanos.techassignment.models.dto.MatchResponse;
@@ -9,18 +12,29 @@ import com.epanos.techassignment.models.entities.Match;
 import com.epanos.techassignment.models.entities.MatchOdds;
 import com.epanos.techassignment.models.enums.Sport;
 import com.epanos.techassignment.models.mappers.MatchMapper;
+import com.epanos.techassignment.oddsbook.OddsBook;
 import com.epanos.techassignment.repositories.MatchRepository;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -42,6 +56,18 @@ class MatchServiceTest {
     @Mock
     private MatchMapper mapper;
 
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private OddsBook oddsBook;
+
+    @Mock
+    private ListingCostGuard listingCostGuard;
+
     @InjectMocks
     private MatchService matchService;
 
@@ -51,6 +77,8 @@ class MatchServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(listingCostGuard.matches(any(), anyBoolean())).thenAnswer(inv -> inv.getArgument(0));
+
         matchRequest = new MatchRequest();
         matchRequest.setDescription("OSFP-PAO");
         matchRequest.setMatchDate(LocalDate.of(2024, 3, 31));
@@ -100,10 +128,10 @@ class MatchServiceTest {
     void create_withOdds() {
         MatchOddsRequest oddsReq = new MatchOddsRequest();
         oddsReq.setSpecifier("X");
-        oddsReq.setOdd(BigDecimal.valueOf(1.5));
+        oddsReq.setOdd(1500);
         matchRequest.setOdds(List.of(oddsReq));
 
-        MatchOdds oddsEntity = MatchOdds.builder().specifier("X").odd(BigDecimal.valueOf(1.5)).build();
+        MatchOdds oddsEntity = MatchOdds.builder().specifier("X").odd(1500).build();
 
         when(mapper.toEntity(matchRequest)).thenReturn(matchEntity);
         when(mapper.toEntity(oddsReq)).thenReturn(oddsEntity);
@@ -122,10 +150,10 @@ class MatchServiceTest {
     void create_duplicateSpecifiers() {
         MatchOddsRequest odds1 = new MatchOddsRequest();
         odds1.setSpecifier("X");
-        odds1.setOdd(BigDecimal.valueOf(1.5));
+        odds1.setOdd(1500);
         MatchOddsRequest odds2 = new MatchOddsRequest();
         odds2.setSpecifier("X");
-        odds2.setOdd(BigDecimal.valueOf(2.0));
+        odds2.setOdd(2000);
         matchRequest.setOdds(List.of(odds1, odds2));
 
         assertThatThrownBy(() -> matchService.create(matchRequest))
@@ -195,6 +223,35 @@ class MatchServiceTest {
                 .hasMessageContaining("Match not found: 99");
     }
 
+    @Test
+    @DisplayName("getAll: should return matches in requested order and report missing ids")
+    void getAll_preservesOrderAndReportsMissing() {
+        Match match2 = Match.builder().id(2L).description("AEK-OLY").odds(new ArrayList<>()).build();
+        MatchResponse resp2 = MatchResponse.builder().id(2L).description("AEK-OLY").build();
+
+        when(matchRepository.findAllWithOddsByIds(List.of(2L, 99L, 1L))).thenReturn(List.of(matchEntity, match2));
+        when(mapper.toResponse(matchEntity, true)).thenReturn(matchResponse);
+        when(mapper.toResponse(match2, true)).thenReturn(resp2);
+
+        MatchBatchResponse result = matchService.getAll(List.of(2L, 99L, 1L, 2L));
+
+        assertThat(result.getMatches()).extracting(MatchResponse::getId).containsExactly(2L, 1L);
+        assertThat(result.getMissingIds()).containsExactly(99L);
+        verify(matchRepository).oddsDocumentsEnabled();
+        verify(matchRepository).findAllWithOddsByIds(List.of(2L, 99L, 1L));
+        verifyNoMoreInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("getAll: should return empty result without querying for empty input")
+    void getAll_emptyInput() {
+        MatchBatchResponse result = matchService.getAll(List.of());
+
+        assertThat(result.getMatches()).isEmpty();
+        assertThat(result.getMissingIds()).isEmpty();
+        verifyNoInteractions(matchRepository);
+    }
+
     @Test
     @DisplayName("list: should list without odds")
     void list_withoutOdds() {
@@ -223,7 +280,7 @@ class MatchServiceTest {
     @Test
     @DisplayName("listPage: should return paginated results without odds")
     void listPage_withoutOdds() {
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
         Page<Match> page = new PageImpl<>(List.of(matchEntity), pageable, 1);
 
         when(matchRepository.findAll(pageable)).thenReturn(page);
@@ -238,7 +295,7 @@ class MatchServiceTest {
     @Test
     @DisplayName("listPage: should return paginated results with odds")
     void listPage_withOdds() {
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
         Page<Long> idsPage = new PageImpl<>(List.of(1L), pageable, 1);
 
         when(matchRepository.findAllIds(pageable)).thenReturn(idsPage);
@@ -256,7 +313,7 @@ class MatchServiceTest {
     @Test
     @DisplayName("listPage: should return empty page with odds when no matches exist")
     void listPage_withOdds_empty() {
-        Pageable pageable = PageRequest.of(0, 10);
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("id"));
         Page<Long> emptyPage = new PageImpl<>(List.of(), pageable, 0);
 
         when(matchRepository.findAllIds(pageable)).thenReturn(emptyPage);
@@ -268,6 +325,89 @@ class MatchServiceTest {
         verify(matchRepository, never()).findAllWithOddsByIds(anyList());
     }
 
+    @Test
+    @DisplayName("listPage: should sort an unsorted page by id")
+    void listPage_unsorted_sortedById() {
+        Pageable sorted = PageRequest.of(2, 10, Sort.by("id"));
+        when(matchRepository.findAll(sorted)).thenReturn(new PageImpl<>(List.of(), sorted, 0));
+
+        assertThat(matchService.listPage(false, PageRequest.of(2, 10))).isEmpty();
+        verify(matchRepository).findAll(sorted);
+    }
+
+    @Test
+    @DisplayName("listPage: should accept a descending kickoff sort and break ties by id")
+    void listPage_kickoffSort() {
+        Pageable completed = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "matchDate", "matchTime", "id"));
+        when(matchRepository.findAll(completed)).thenReturn(new PageImpl<>(List.of(), completed, 0));
+
+        assertThat(matchService.listPage(false, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "matchDate", "matchTime"))))
+                .isEmpty();
+        verify(matchRepository).findAll(completed);
+    }
+
+    @Test
+    @DisplayName("listPage: should complete a sort by date with the kickoff time and id")
+    void listPage_dateSort() {
+        Pageable completed = PageRequest.of(1, 10, Sort.by("matchDate", "matchTime", "id"));
+        when(matchRepository.findAll(completed)).thenReturn(new PageImpl<>(List.of(), completed, 0));
+
+        assertThat(matchService.listPage(false, PageRequest.of(1, 10, Sort.by("matchDate")))).isEmpty();
+        verify(matchRepository).findAll(completed);
+    }
+
+    @Test
+    @DisplayName("listPage: should reject sorts without a matching index before querying")
+    void listPage_unsupportedSort() {
+        assertThatThrownBy(() -> matchService.listPage(false, PageRequest.of(0, 10, Sort.by("description"))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unsupported sort: description");
+        assertThatThrownBy(() -> matchService.listPage(true, PageRequest.of(0, 10, Sort.by("matchTime"))))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> matchService.listPage(false, PageRequest.of(0, 10,
+                Sort.by(Sort.Order.desc("matchDate"), Sort.Order.asc("matchTime")))))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("same direction");
+
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("ingest: should upsert all fixtures with one repository call")
+    void ingest_success() {
+        List<MatchIngestResult> results = List.of(MatchIngestResult.builder().id(1L).status(MatchIngestResult.Status.UNCHANGED).build());
+        when(matchRepository.ingest(List.of(matchRequest))).thenReturn(results);
+
+        assertThat(matchService.ingest(List.of(matchRequest))).isEqualTo(results);
+    }
+
+    @Test
+    @DisplayName("ingest: should reject the same fixture twice before writing")
+    void ingest_duplicateFixture() {
+        MatchRequest again = new MatchRequest();
+        again.setDescription("renamed");
+        again.setMatchDate(matchRequest.getMatchDate());
+        again.setMatchTime(matchRequest.getMatchTime());
+        again.setTeamA(matchRequest.getTeamA());
+        again.setTeamB(matchRequest.getTeamB());
+        again.setSport(matchRequest.getSport());
+
+        assertThatThrownBy(() -> matchService.ingest(List.of(matchRequest, again)))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Duplicate fixture");
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("ingest: should reject fixtures carrying odds")
+    void ingest_withOdds() {
+        matchRequest.setOdds(List.of(new MatchOddsRequest()));
+
+        assertThatThrownBy(() -> matchService.ingest(List.of(matchRequest)))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(matchRepository);
+    }
+
     @Test
     @DisplayName("update: should update match fields without replacing odds")
     void update_withoutOdds() {
@@ -284,23 +424,55 @@ class MatchServiceTest {
     }
 
     @Test
-    @DisplayName("update: should update match and replace odds when provided")
+    @DisplayName("update: should merge odds by specifier when provided")
     void update_withOdds() {
-        MatchOddsRequest oddsReq = new MatchOddsRequest();
-        oddsReq.setSpecifier("1");
-        oddsReq.setOdd(BigDecimal.valueOf(2.0));
-        matchRequest.setOdds(List.of(oddsReq));
+        MatchOdds unchanged = MatchOdds.builder().id(10L).match(matchEntity).specifier("1").odd(2000).build();
+        MatchOdds changed = MatchOdds.builder().id(11L).match(matchEntity).specifier("X").odd(3100).build();
+        MatchOdds removed = MatchOdds.builder().id(12L).match(matchEntity).specifier("2").odd(4000).build();
+        matchEntity.getOdds().addAll(List.of(unchanged, changed, removed));
+
+        MatchOddsRequest sameReq = new MatchOddsRequest();
+        sameReq.setSpecifier("1");
+        sameReq.setOdd(2000);
+        MatchOddsRequest changedReq = new MatchOddsRequest();
+        changedReq.setSpecifier(" X ");
+        changedReq.setOdd(3250);
+        MatchOddsRequest newReq = new MatchOddsRequest();
+        newReq.setSpecifier("O2.5");
+        newReq.setOdd(1900);
+        matchRequest.setOdds(List.of(sameReq, changedReq, newReq));
+
+        MatchOdds newEntity = MatchOdds.builder().specifier("O2.5").odd(1900).build();
+
+        when(matchRepository.findWithOddsById(1L)).thenReturn(Optional.of(matchEntity));
+        when(mapper.toEntity(newReq)).thenReturn(newEntity);
+        when(mapper.toResponse(matchEntity, true)).thenReturn(matchResponse);
 
-        MatchOdds oddsEntity = MatchOdds.builder().specifier("1").odd(BigDecimal.valueOf(2.0)).build();
+        matchService.update(1L, matchRequest);
 
-        when(matchRepository.findById(1L)).thenReturn(Optional.of(matchEntity));
-        when(mapper.toEntity(oddsReq)).thenReturn(oddsEntity);
+        verify(mapper).updateEntity(matchEntity, matchRequest);
+        assertThat(matchEntity.getOdds()).containsExactly(unchanged, changed, newEntity);
+        assertThat(unchanged.getOdd()).isEqualTo(2000);
+        assertThat(changed.getOdd()).isEqualTo(3250);
+        assertThat(newEntity.getMatch()).isEqualTo(matchEntity);
+        verify(mapper, never()).toEntity(sameReq);
+        verify(mapper, never()).toEntity(changedReq);
+        verify(matchRepository, never()).flush();
+        verify(matchRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("update: should remove all odds when an empty odds list is provided")
+    void update_withEmptyOdds() {
+        matchEntity.getOdds().add(MatchOdds.builder().id(10L).match(matchEntity).specifier("1").odd(1000).build());
+        matchRequest.setOdds(List.of());
+
+        when(matchRepository.findWithOddsById(1L)).thenReturn(Optional.of(matchEntity));
         when(mapper.toResponse(matchEntity, true)).thenReturn(matchResponse);
 
         matchService.update(1L, matchRequest);
 
-        verify(mapper).updateEntity(matchEntity, matchRequest);
-        verify(matchRepository, times(2)).flush();
+        assertThat(matchEntity.getOdds()).isEmpty();
     }
 
     @Test
@@ -317,10 +489,10 @@ class MatchServiceTest {
     void update_duplicateSpecifiers() {
         MatchOddsRequest o1 = new MatchOddsRequest();
         o1.setSpecifier("1");
-        o1.setOdd(BigDecimal.ONE);
+        o1.setOdd(1000);
         MatchOddsRequest o2 = new MatchOddsRequest();
         o2.setSpecifier("1");
-        o2.setOdd(BigDecimal.TEN);
+        o2.setOdd(10000);
         matchRequest.setOdds(List.of(o1, o2));
 
         assertThatThrownBy(() -> matchService.update(1L, matchRequest))
@@ -328,19 +500,134 @@ class MatchServiceTest {
     }
 
     @Test
-    @DisplayName("delete: should delete match when found")
-    void delete_found() {
+    @DisplayName("patch: should change only patched fields and leave odds untouched")
+    void patch_fieldsOnly() {
         when(matchRepository.findById(1L)).thenReturn(Optional.of(matchEntity));
+        when(mapper.toRequest(matchEntity)).thenReturn(matchRequest);
+        when(mapper.toResponse(matchEntity, false)).thenReturn(matchResponse);
+
+        MatchResponse result = matchService.patch(1L, json("""
+                { "matchTime": "20:45" }
+                """));
+
+        assertThat(result).isEqualTo(matchResponse);
+        ArgumentCaptor<MatchRequest> captor = ArgumentCaptor.forClass(MatchRequest.class);
+        verify(mapper).updateEntity(eq(matchEntity), captor.capture());
+        assertThat(captor.getValue().getMatchTime()).isEqualTo(LocalTime.of(20, 45));
+        assertThat(captor.getValue().getDescription()).isEqualTo("OSFP-PAO");
+        assertThat(captor.getValue().getOdds()).isNull();
+        verify(matchRepository, never()).findWithOddsById(any());
+        verify(mapper, never()).toResponse(any(), eq(true));
+    }
+
+    @Test
+    @DisplayName("patch: should merge odds when present in the patch")
+    void patch_withOdds() {
+        MatchOdds existing = MatchOdds.builder().id(10L).match(matchEntity).specifier("1").odd(2000).build();
+        matchEntity.getOdds().add(existing);
+
+        when(matchRepository.findWithOddsById(1L)).thenReturn(Optional.of(matchEntity));
+        when(mapper.toRequest(matchEntity)).thenReturn(matchRequest);
+        when(mapper.toResponse(matchEntity, true)).thenReturn(matchResponse);
+
+        matchService.patch(1L, json("""
+                { "odds": [ { "specifier": "1", "odd": 2.2 } ] }
+                """));
+
+        assertThat(matchEntity.getOdds()).containsExactly(existing);
+        assertThat(existing.getOdd()).isEqualTo(2200);
+        verify(matchRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("patch: should remove all odds when odds is null in the patch")
+    void patch_nullOdds() {
+        matchEntity.getOdds().add(MatchOdds.builder().id(10L).match(matchEntity).specifier("1").odd(1000).build());
+
+        when(matchRepository.findWithOddsById(1L)).thenReturn(Optional.of(matchEntity));
+        when(mapper.toRequest(matchEntity)).thenReturn(matchRequest);
+
+        matchService.patch(1L, json("""
+                { "odds": null }
+                """));
+
+        assertThat(matchEntity.getOdds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("patch: should reject removal of a required field")
+    void patch_nullRequiredField() {
+        when(matchRepository.findById(1L)).thenReturn(Optional.of(matchEntity));
+        when(mapper.toRequest(matchEntity)).thenReturn(matchRequest);
+
+        assertThatThrownBy(() -> matchService.patch(1L, json("""
+                { "description": null }
+                """)))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("description");
+        verify(mapper, never()).updateEntity(any(), any());
+    }
+
+    @Test
+    @DisplayName("patch: should reject a patch that is not a JSON object")
+    void patch_notAnObject() {
+        assertThatThrownBy(() -> matchService.patch(1L, json("[]")))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("patch: should throw NotFoundException when match not found")
+    void patch_notFound() {
+        when(matchRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> matchService.patch(99L, json("{}")))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("delete: should delete match with a single statement when found")
+    void delete_found() {
+        when(matchRepository.deleteMatchById(1L)).thenReturn(1);
+
         matchService.delete(1L);
-        verify(matchRepository).delete(matchEntity);
+
+        verify(matchRepository).deleteMatchById(1L);
+        verifyNoMoreInteractions(matchRepository);
     }
 
     @Test
     @DisplayName("delete: should throw NotFoundException when match not found")
     void delete_notFound() {
-        when(matchRepository.findById(99L)).thenReturn(Optional.empty());
+        when(matchRepository.deleteMatchById(99L)).thenReturn(0);
 
         assertThatThrownBy(() -> matchService.delete(99L))
-                .isInstanceOf(NotFoundException.class);
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("Match not found: 99");
+    }
+
+    @Test
+    @DisplayName("deleteMatching: should run one filtered delete and return the affected rows")
+    void deleteMatching_success() {
+        when(matchRepository.delete(ArgumentMatchers.<PredicateSpecification<Match>>any())).thenReturn(7L);
+
+        long deleted = matchService.deleteMatching(LocalDate.of(2024, 1, 1), Sport.BASKETBALL);
+
+        assertThat(deleted).isEqualTo(7L);
+        verify(matchRepository, times(1)).delete(ArgumentMatchers.<PredicateSpecification<Match>>any());
+        verifyNoMoreInteractions(matchRepository);
+    }
+
+    @Test
+    @DisplayName("deleteMatching: should reject a delete without filters")
+    void deleteMatching_noFilters() {
+        assertThatThrownBy(() -> matchService.deleteMatching(null, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("At least one filter");
+        verifyNoInteractions(matchRepository);
+    }
+
+    private JsonNode json(String content) {
+        return jsonMapper.readTree(content);
     }
 }
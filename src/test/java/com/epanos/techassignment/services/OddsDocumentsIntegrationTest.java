@@ -0,0 +1,170 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.dto.MatchOddsResponse;
+import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.models.odds.Thousandths;
+import com.epanos.techassignment.repositories.MatchRepository;
+import com.epanos.techassignment.repositories.SpecifierDictionary;
+import com.epanos.techassignment.support.JdbcStatementCounter;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static com.epanos.techassignment.support.MatchFixtures.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs {@link MatchService} and {@link MatchOddsService} with odds documents enabled against the configured
+ * PostgreSQL database: matches with odds are read from {@code matches.odds_document} alone, and every write
+ * keeps the document in step with {@code match_odds}.
+ */
+@SpringBootTest(properties = "app.odds.documents.enabled=true")
+@Import(JdbcStatementCounter.class)
+class OddsDocumentsIntegrationTest {
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchOddsService matchOddsService;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private SpecifierDictionary specifierDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private Long matchId;
+
+    @BeforeEach
+    void setUp() {
+        matchId = matchService.create(matchRequest(List.of(odd("1", "1.500"), odd("X", "3.100")))).getId();
+        List.of("2", "O2.5").forEach(specifierDictionary::code);
+        JdbcStatementCounter.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchRepository.deleteById(matchId);
+    }
+
+    @Test
+    @DisplayName("create: builds the document from the inserted odds")
+    void create_buildsDocument() {
+        assertThat(jsonMapper.readTree(document())).isEqualTo(jsonMapper.readTree("{\"%d\": [%d, 1500], \"%d\": [%d, 3100]}"
+                .formatted(specifierDictionary.code("1"), oddId("1"), specifierDictionary.code("X"), oddId("X"))));
+    }
+
+    @Test
+    @DisplayName("getAll: reads matches with odds in one statement, without joining match_odds")
+    void getAll_singleStatementWithoutJoin() {
+        List<MatchResponse> matches = matchService.getAll(List.of(matchId)).getMatches();
+
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+        assertThat(odds(matches.get(0)))
+                .containsExactlyInAnyOrder(tuple("1", "1.500"), tuple("X", "3.100"));
+        assertThat(matches.get(0).getOdds())
+                .extracting(MatchOddsResponse::getId)
+                .containsExactlyInAnyOrder(oddId("1"), oddId("X"));
+    }
+
+    @Test
+    @DisplayName("listPage: reads the page of matches with odds from their documents")
+    void listPage_readsDocuments() {
+        List<MatchResponse> page = matchService.listPage(true, PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "id")))
+                .getContent();
+
+        assertThat(page).singleElement().extracting(MatchResponse::getId).isEqualTo(matchId);
+        assertThat(odds(page.get(0))).containsExactlyInAnyOrder(tuple("1", "1.500"), tuple("X", "3.100"));
+    }
+
+    @Test
+    @DisplayName("updateBySpecifier: patches the document in the same statement as the odd")
+    void updateBySpecifier_patchesDocument() {
+        matchOddsService.updateBySpecifier(matchId, odd("X", "3.250"));
+
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+        assertThat(odds(get())).containsExactlyInAnyOrder(tuple("1", "1.500"), tuple("X", "3.250"));
+    }
+
+    @Test
+    @DisplayName("updateBulk: patches the documents in the same batch, ignoring unknown specifiers")
+    void updateBulk_patchesDocument() {
+        matchOddsService.updateBulk(List.of(
+                new MatchOddsBulkUpdateRequest(matchId, "1", Thousandths.of(new BigDecimal("1.450"))),
+                new MatchOddsBulkUpdateRequest(matchId, "2", Thousandths.of(new BigDecimal("9.000")))));
+
+        assertThat(JdbcStatementCounter.count()).isEqualTo(1);
+        assertThat(odds(get())).containsExactlyInAnyOrder(tuple("1", "1.450"), tuple("X", "3.100"));
+    }
+
+    @Test
+    @DisplayName("added, renamed and removed odds rebuild the document")
+    void structuralChanges_rebuildDocument() {
+        matchOddsService.create(matchId, odd("2", "4.000"));
+        matchOddsService.update(matchId, oddId("X"), odd("O2.5", "1.900"));
+        matchOddsService.delete(matchId, oddId("1"));
+
+        assertThat(odds(get())).containsExactlyInAnyOrder(tuple("2", "4.000"), tuple("O2.5", "1.900"));
+
+        matchOddsService.deleteAll(matchId);
+
+        assertThat(document()).isEqualTo("{}");
+        assertThat(get().getOdds()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("update: merged odds are flushed before the document is rebuilt")
+    void update_rebuildsDocumentAfterMerge() {
+        matchService.update(matchId, matchRequest(List.of(odd("X", "3.000"), odd("2", "2.500"))));
+
+        assertThat(odds(get())).containsExactlyInAnyOrder(tuple("X", "3.000"), tuple("2", "2.500"));
+    }
+
+    @Test
+    @DisplayName("getAll: a match whose document was not built yet is read with the join")
+    void getAll_withoutDocument_fallsBackToJoin() {
+        jdbcTemplate.update("update matches set odds_document = null where id = ?", matchId);
+
+        assertThat(odds(get())).containsExactlyInAnyOrder(tuple("1", "1.500"), tuple("X", "3.100"));
+    }
+
+    private MatchResponse get() {
+        return matchService.getAll(List.of(matchId)).getMatches().get(0);
+    }
+
+    private String document() {
+        return jdbcTemplate.queryForObject("select odds_document::text from matches where id = ?", String.class, matchId);
+    }
+
+    private Long oddId(String specifier) {
+        return jdbcTemplate.queryForObject("""
+                select o.id from match_odds o join specifiers s on s.id = o.specifier_id
+                where o.match_id = ? and s.name = ?""", Long.class, matchId, specifier);
+    }
+
+    private static List<Tuple> odds(MatchResponse match) {
+        return match.getOdds().stream()
+                .map(o -> tuple(o.getSpecifier(), Thousandths.toString(o.getOdd())))
+                .toList();
+    }
+}
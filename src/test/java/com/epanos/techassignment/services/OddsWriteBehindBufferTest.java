@@ -0,0 +1,214 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.configs.OddsWriteBehindProperties;
+import com.epanos.techassignment.exceptions.ServiceUnavailableException;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateRequest;
+import com.epanos.techassignment.models.dto.MatchOddsBulkUpdateResult;
+import com.epanos.techassignment.models.odds.Thousandths;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OddsWriteBehindBufferTest {
+
+    @Mock
+    private MatchOddsService matchOddsService;
+
+    private MeterRegistry meterRegistry;
+    private OddsWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = buffer(1000, 100);
+    }
+
+    @Test
+    @DisplayName("offer: keeps only the latest odd per (matchId, specifier)")
+    void offer_coalescesByKey() {
+        buffer.offer(List.of(tick(1L, "X", "1.10"), tick(1L, " X ", "1.20"), tick(2L, "X", "3.00")));
+        buffer.offer(List.of(tick(1L, "X", "1.30")));
+
+        assertThat(buffer.depth()).isEqualTo(2);
+        assertThat(meterRegistry.get("odds.ticks.buffer.depth").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("flush: writes one batch with the latest odds and records coalescing and latency metrics")
+    void flush_writesLatestOdds() {
+        when(matchOddsService.updateBulk(anyList())).thenAnswer(inv -> results(inv.getArgument(0)));
+        buffer.offer(List.of(tick(1L, "X", "1.10"), tick(1L, "X", "1.20"), tick(1L, "X", "1.30"), tick(2L, "1", "2.00")));
+
+        buffer.flush();
+
+        ArgumentCaptor<List<MatchOddsBulkUpdateRequest>> batch = ArgumentCaptor.captor();
+        verify(matchOddsService).updateBulk(batch.capture());
+        assertThat(batch.getValue())
+                .extracting(MatchOddsBulkUpdateRequest::getMatchId, MatchOddsBulkUpdateRequest::getSpecifier, r -> Thousandths.toString(r.getOdd()))
+                .containsExactlyInAnyOrder(tuple(1L, "X", "1.300"), tuple(2L, "1", "2.000"));
+        assertThat(buffer.depth()).isZero();
+        assertThat(meterRegistry.get("odds.ticks.received").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("odds.ticks.flushed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("odds.ticks.coalescing.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("odds.ticks.flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("flush: does nothing when the buffer is empty")
+    void flush_empty() {
+        buffer.flush();
+
+        verifyNoInteractions(matchOddsService);
+    }
+
+    @Test
+    @DisplayName("flush: a failed write keeps the ticks, without overwriting newer ones")
+    void flush_failure_requeues() {
+        when(matchOddsService.updateBulk(anyList())).thenThrow(new IllegalStateException("db down"));
+        buffer.offer(List.of(tick(1L, "X", "1.10"), tick(2L, "X", "2.00")));
+
+        buffer.flush();
+        buffer.offer(List.of(tick(1L, "X", "1.50")));
+
+        assertThat(buffer.depth()).isEqualTo(2);
+        assertThat(meterRegistry.get("odds.ticks.flush.failures").counter().count()).isEqualTo(1);
+
+        reset(matchOddsService);
+        when(matchOddsService.updateBulk(anyList())).thenAnswer(inv -> results(inv.getArgument(0)));
+        buffer.flush();
+
+        ArgumentCaptor<List<MatchOddsBulkUpdateRequest>> batch = ArgumentCaptor.captor();
+        verify(matchOddsService).updateBulk(batch.capture());
+        assertThat(batch.getValue())
+                .extracting(MatchOddsBulkUpdateRequest::getMatchId, r -> Thousandths.toString(r.getOdd()))
+                .containsExactlyInAnyOrder(tuple(1L, "1.500"), tuple(2L, "2.000"));
+    }
+
+    @Test
+    @DisplayName("flush: writes at most batchSize rows per call; a failed batch and the ones after it are kept")
+    void flush_batches() {
+        buffer = buffer(1000, 2);
+        List<Integer> sizes = new ArrayList<>();
+        when(matchOddsService.updateBulk(anyList())).thenAnswer(inv -> {
+            List<MatchOddsBulkUpdateRequest> batch = inv.getArgument(0);
+            sizes.add(batch.size());
+            if (sizes.size() == 2) {
+                throw new IllegalStateException("db down");
+            }
+            return results(batch);
+        });
+        buffer.offer(IntStream.range(0, 5).mapToObj(i -> tick((long) i, "X", "1.50")).toList());
+
+        buffer.flush();
+
+        assertThat(sizes).containsExactly(2, 2);
+        assertThat(buffer.depth()).isEqualTo(3);
+        assertThat(meterRegistry.get("odds.ticks.flushed").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("odds.ticks.flush.failures").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("offer: refused with 503 while maxDepth keys are pending, and accepted again once flushed")
+    void offer_full_refused() {
+        buffer = buffer(3, 100);
+        buffer.offer(List.of(tick(1L, "X", "1.10"), tick(2L, "X", "1.10"), tick(3L, "X", "1.10")));
+
+        assertThatThrownBy(() -> buffer.offer(List.of(tick(4L, "X", "1.10"))))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(buffer.depth()).isEqualTo(3);
+        assertThat(meterRegistry.get("odds.ticks.rejected").counter().count()).isEqualTo(1);
+
+        when(matchOddsService.updateBulk(anyList())).thenAnswer(inv -> results(inv.getArgument(0)));
+        buffer.flush();
+        buffer.offer(List.of(tick(4L, "X", "1.10")));
+
+        assertThat(buffer.depth()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("flush: unmatched ticks are counted, not retried")
+    void flush_countsUnmatched() {
+        when(matchOddsService.updateBulk(anyList())).thenReturn(List.of(
+                MatchOddsBulkUpdateResult.builder().status(MatchOddsBulkUpdateResult.Status.NOT_FOUND).build()));
+        buffer.offer(List.of(tick(9L, "Z", "1.10")));
+
+        buffer.flush();
+
+        assertThat(buffer.depth()).isZero();
+        assertThat(meterRegistry.get("odds.ticks.unmatched").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("offer: reaching the size threshold triggers a flush before the interval")
+    void offer_thresholdTriggersFlush() {
+        when(matchOddsService.updateBulk(anyList())).thenAnswer(inv -> results(inv.getArgument(0)));
+
+        buffer.offer(IntStream.range(0, 100).mapToObj(i -> tick((long) i, "X", "1.50")).toList());
+
+        verify(matchOddsService, timeout(2000)).updateBulk(argThat(batch -> batch.size() == 100));
+    }
+
+    @Test
+    @DisplayName("offer: concurrent producers lose no keys")
+    void offer_concurrentProducers() throws Exception {
+        ExecutorService producers = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int p = 0; p < 8; p++) {
+            long base = p * 10L;
+            producers.execute(() -> {
+                for (int round = 0; round < 500; round++) {
+                    for (long m = base; m < base + 10; m++) {
+                        buffer.offer(List.of(tick(m, "X", "1." + (round % 10))));
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        producers.shutdown();
+
+        assertThat(buffer.depth()).isEqualTo(80);
+        assertThat(meterRegistry.get("odds.ticks.received").counter().count()).isEqualTo(40_000);
+    }
+
+    private OddsWriteBehindBuffer buffer(int maxDepth, int batchSize) {
+        return new OddsWriteBehindBuffer(matchOddsService,
+                new OddsWriteBehindProperties(true, Duration.ofHours(1), 100, 4, maxDepth, batchSize), meterRegistry);
+    }
+
+    private static MatchOddsBulkUpdateRequest tick(Long matchId, String specifier, String odd) {
+        return new MatchOddsBulkUpdateRequest(matchId, specifier, Thousandths.of(new BigDecimal(odd)));
+    }
+
+    private static List<MatchOddsBulkUpdateResult> results(List<MatchOddsBulkUpdateRequest> batch) {
+        return batch.stream()
+                .map(r -> MatchOddsBulkUpdateResult.builder()
+                        .matchId(r.getMatchId())
+                        .specifier(r.getSpecifier())
+                        .odd(r.getOdd())
+                        .status(MatchOddsBulkUpdateResult.Status.UPDATED)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,118 @@
+package com.epanos.techassignment.services;
+
+import com.epanos.techassignment.exceptions.ConflictException;
+import com.epanos.techassignment.models.dto.BulkPartitionResult;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.models.dto.MatchResponse;
+import com.epanos.techassignment.models.dto.PartitionedBulkResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PartitionedBulkInserterTest {
+
+    @Mock
+    private MatchService matchService;
+
+    private PartitionedBulkInserter inserter;
+
+    @BeforeEach
+    void setUp() {
+        inserter = new PartitionedBulkInserter(matchService, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inserter.stop();
+    }
+
+    @Test
+    @DisplayName("createMatches: splits the payload into contiguous partitions written concurrently")
+    void createMatches_partitions() {
+        CyclicBarrier allRunning = new CyclicBarrier(3);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(matchService.createBulk(any())).thenAnswer(inv -> {
+            threads.add(Thread.currentThread().getName());
+            allRunning.await(10, TimeUnit.SECONDS);
+            return ids(inv.getArgument(0));
+        });
+
+        PartitionedBulkResponse response = inserter.createMatches(matches(10), 3);
+
+        assertThat(response.getCreated()).isEqualTo(10);
+        assertThat(response.getFailed()).isZero();
+        assertThat(response.getPartitions()).extracting(BulkPartitionResult::getOffset).containsExactly(0, 4, 7);
+        assertThat(response.getPartitions()).extracting(BulkPartitionResult::getSize).containsExactly(4, 3, 3);
+        assertThat(response.getPartitions().get(1).getIds()).containsExactly(4L, 5L, 6L);
+        assertThat(threads).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("createMatches: a failed partition is reported and the others are still created")
+    void createMatches_partitionFails() {
+        List<MatchRequest> reqs = matches(6);
+        when(matchService.createBulk(any())).thenAnswer(inv -> {
+            List<MatchRequest> slice = inv.getArgument(0);
+            if (slice.contains(reqs.get(2))) {
+                throw new ConflictException("Duplicate odds specifier in request payload: X");
+            }
+            return ids(slice);
+        });
+
+        PartitionedBulkResponse response = inserter.createMatches(reqs, 3);
+
+        assertThat(response.getCreated()).isEqualTo(4);
+        assertThat(response.getFailed()).isEqualTo(2);
+        BulkPartitionResult failed = response.getPartitions().get(1);
+        assertThat(failed.getStatus()).isEqualTo(BulkPartitionResult.Status.FAILED);
+        assertThat(failed.getIds()).isEmpty();
+        assertThat(failed.getError()).isEqualTo("Duplicate odds specifier in request payload: X");
+        assertThat(response.getPartitions().get(2).getStatus()).isEqualTo(BulkPartitionResult.Status.CREATED);
+    }
+
+    @Test
+    @DisplayName("createMatches: the partition count is clamped to maxPartitions and the payload size")
+    void createMatches_clamped() {
+        when(matchService.createBulk(any())).thenAnswer(inv -> ids(inv.getArgument(0)));
+
+        assertThat(inserter.createMatches(matches(30), 64).getPartitions()).hasSize(3);
+        assertThat(inserter.createMatches(matches(2), 3).getPartitions()).hasSize(2);
+        assertThat(inserter.createMatches(List.of(), 3).getPartitions()).isEmpty();
+        verify(matchService, times(5)).createBulk(any());
+    }
+
+    private static List<MatchRequest> matches(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    MatchRequest req = new MatchRequest();
+                    req.setDescription(String.valueOf(i));
+                    return req;
+                })
+                .toList();
+    }
+
+    /**
+     * Responds as if each match got its payload index as id.
+     */
+    private static List<MatchResponse> ids(List<MatchRequest> slice) {
+        return slice.stream()
+                .map(req -> MatchResponse.builder().id(Long.parseLong(req.getDescription())).build())
+                .toList();
+    }
+}
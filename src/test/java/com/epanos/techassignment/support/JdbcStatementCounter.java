@@ -0,0 +1,82 @@
+package com.epanos.techassignment.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts every statement executed through the application {@link DataSource}, whether it was issued by
+ * Hibernate or by plain JDBC. Hibernate statistics only see the former. A JDBC batch counts once, since
+ * it is sent as a single round trip. Enable it with {@code @Import(JdbcStatementCounter.class)}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class JdbcStatementCounter {
+
+    private static final AtomicInteger EXECUTIONS = new AtomicInteger();
+
+    public static void clear() {
+        EXECUTIONS.set(0);
+    }
+
+    public static int count() {
+        return EXECUTIONS.get();
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? new CountingDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return (Connection) proxy(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return (Connection) proxy(Connection.class, super.getConnection(username, password));
+        }
+    }
+
+    private static Object proxy(Class<?> type, Object target) {
+        return Proxy.newProxyInstance(JdbcStatementCounter.class.getClassLoader(), new Class<?>[]{type},
+                (p, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        EXECUTIONS.incrementAndGet();
+                    }
+                    Object result = invoke(target, method, args);
+                    return result instanceof Statement statement && type == Connection.class
+                            ? proxy(method.getReturnType(), statement)
+                            : result;
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
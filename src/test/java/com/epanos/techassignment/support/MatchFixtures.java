@@ -0,0 +1,55 @@
+package com.epanos.techassignment.support;
+
+import com.epanos.techassignment.models.dto.MatchOddsRequest;
+import com.epanos.techassignment.models.dto.MatchRequest;
+import com.epanos.techassignment.models.enums.Sport;
+import com.epanos.techassignment.models.odds.Thousandths;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Request payloads for integration tests that write to the shared database. Every match gets a fixture
+ * of its own, since fixtures are unique and tests do not start from an empty table.
+ */
+public final class MatchFixtures {
+
+    private MatchFixtures() {
+    }
+
+    /**
+     * @return a football match without odds, with a fixture not used before
+     */
+    public static MatchRequest matchRequest() {
+        return matchRequest(null);
+    }
+
+    /**
+     * @param odds the odds of the match, or {@code null} for none
+     * @return a football match with a fixture not used before
+     */
+    public static MatchRequest matchRequest(List<MatchOddsRequest> odds) {
+        MatchRequest req = new MatchRequest();
+        req.setDescription("IT-" + System.nanoTime());
+        req.setMatchDate(LocalDate.of(2024, 3, 31));
+        req.setMatchTime(LocalTime.of(18, 0));
+        // teams are part of the fixture key, which must be unique
+        req.setTeamA("OSFP-" + System.nanoTime());
+        req.setTeamB("PAO");
+        req.setSport(Sport.FOOTBALL);
+        req.setOdds(odds);
+        return req;
+    }
+
+    /**
+     * @param value the decimal odd, e.g. {@code "1.850"}
+     */
+    public static MatchOddsRequest odd(String specifier, String value) {
+        MatchOddsRequest o = new MatchOddsRequest();
+        o.setSpecifier(specifier);
+        o.setOdd(Thousandths.of(new BigDecimal(value)));
+        return o;
+    }
+}